@@ -240,6 +240,11 @@ public class BooleanColumn extends AbstractColumn implements BooleanMapUtils {
   }
 
   public void addCell(String object) {
+    // convert() can't return a missing value as a boolean
+    if (Strings.isNullOrEmpty(object) || TypeUtils.MISSING_INDICATORS.contains(object)) {
+      add(MISSING_VALUE);
+      return;
+    }
     try {
       add(convert(object));
     } catch (NullPointerException e) {
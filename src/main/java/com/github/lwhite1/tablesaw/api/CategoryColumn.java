@@ -11,6 +11,8 @@ import com.github.lwhite1.tablesaw.store.ColumnMetadata;
 import com.github.lwhite1.tablesaw.util.BitmapBackedSelection;
 import com.github.lwhite1.tablesaw.util.DictionaryMap;
 import com.github.lwhite1.tablesaw.util.Selection;
+import com.github.lwhite1.tablesaw.util.SelectionKernels;
+import com.github.lwhite1.tablesaw.util.SelectionKernels.Comparison;
 import com.google.common.base.CharMatcher;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Splitter;
@@ -26,12 +28,15 @@ import it.unimi.dsi.fastutil.ints.IntListIterator;
 
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.UnaryOperator;
 
 /**
  * A column in a base table that contains float values
@@ -269,6 +274,43 @@ public class CategoryColumn extends AbstractColumn
     }
   }
 
+  /**
+   * Returns a new column with the given name, holding the result of the given function applied to each value in this
+   * column. The function is applied once to each distinct value, the first time it's seen, and the new column's keys
+   * are then found by looking up the key of each row's value in an array
+   */
+  @Override
+  public CategoryColumn mapValues(String name, UnaryOperator<String> function) {
+    int keyCount = 0;
+    for (int key : lookupTable.keyToValueMap().keySet()) {
+      keyCount = Math.max(keyCount, key + 1);
+    }
+    // the key in the new column of each key in this one, or -1 if it hasn't been seen yet
+    int[] newKeys = new int[keyCount];
+    Arrays.fill(newKeys, -1);
+
+    int size = size();
+    CategoryColumn newColumn = CategoryColumn.create(name, size);
+    newColumn.values.size(size);
+    int[] keys = values.elements();
+    int[] mapped = newColumn.values.elements();
+    for (int row = 0; row < size; row++) {
+      int key = keys[row];
+      int newKey = newKeys[key];
+      if (newKey < 0) {
+        String value = function.apply(lookupTable.get(key));
+        newKey = newColumn.lookupTable.get(value);
+        if (newKey < 0) {
+          newKey = newColumn.id++;
+          newColumn.lookupTable.put(newKey, value);
+        }
+        newKeys[key] = newKey;
+      }
+      mapped[row] = newKey;
+    }
+    return newColumn;
+  }
+
   /**
    * Returns true if this column contains a cell with the given string, and false otherwise
    */
@@ -529,26 +571,36 @@ public class CategoryColumn extends AbstractColumn
   }
 
 
+  /**
+   * Returns the rows whose values pass the given test. The test is applied once to each distinct value in the
+   * dictionary, rather than once to each row, and the rows are then found by a scan of their int keys
+   */
+  @Override
   public Selection select(StringPredicate predicate) {
-    Selection selection = new BitmapBackedSelection();
-    for (int idx = 0; idx < data().size(); idx++) {
-      int next = data().getInt(idx);
-      if (predicate.test(get(next))) {
-        selection.add(idx);
+    BitSet keys = new BitSet();
+    for (Int2ObjectMap.Entry<String> entry : lookupTable.keyToValueMap().int2ObjectEntrySet()) {
+      if (predicate.test(entry.getValue())) {
+        keys.set(entry.getIntKey());
       }
     }
-    return selection;
+    int matches = keys.cardinality();
+    if (matches == 0) {
+      return new BitmapBackedSelection();
+    }
+    if (matches == lookupTable.size()) {
+      Selection selection = new BitmapBackedSelection();
+      selection.addRange(0, size());
+      return selection;
+    }
+    if (matches == 1) {
+      return SelectionKernels.select(values, Comparison.EQUAL_TO, keys.nextSetBit(0));
+    }
+    int[] keyArray = values.elements();
+    return SelectionKernels.select(size(), row -> keys.get(keyArray[row]));
   }
 
   public Selection select(StringBiPredicate predicate, String value) {
-    Selection selection = new BitmapBackedSelection();
-    for (int idx = 0; idx < data().size(); idx++) {
-      int next = data().getInt(idx);
-      if (predicate.test(get(next), value)) {
-        selection.add(idx);
-      }
-    }
-    return selection;
+    return select(next -> predicate.test(next, value));
   }
 
   public CategoryColumn copy() {
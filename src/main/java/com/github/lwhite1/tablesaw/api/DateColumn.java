@@ -11,10 +11,13 @@ import com.github.lwhite1.tablesaw.filtering.IntPredicate;
 import com.github.lwhite1.tablesaw.filtering.LocalDatePredicate;
 import com.github.lwhite1.tablesaw.io.TypeUtils;
 import com.github.lwhite1.tablesaw.mapping.DateMapUtils;
+import com.github.lwhite1.tablesaw.reducing.OrderStatistics;
 import com.github.lwhite1.tablesaw.store.ColumnMetadata;
 import com.github.lwhite1.tablesaw.util.BitmapBackedSelection;
-import com.github.lwhite1.tablesaw.util.ReverseIntComparator;
+import com.github.lwhite1.tablesaw.util.LongZoneMap;
 import com.github.lwhite1.tablesaw.util.Selection;
+import com.github.lwhite1.tablesaw.util.SelectionKernels;
+import com.github.lwhite1.tablesaw.util.SelectionKernels.Comparison;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import it.unimi.dsi.fastutil.ints.IntArrayList;
@@ -49,6 +52,12 @@ public class DateColumn extends AbstractColumn implements DateMapUtils {
 
   private IntArrayList data;
 
+  // the smallest and largest values in each block of rows, which lets selections skip blocks
+  private final LongZoneMap zones = new LongZoneMap(MISSING_VALUE);
+
+  // the number of times values have been changed in place rather than added, by which indexes tell they are stale
+  private int modCount;
+
   /**
    * The formatter chosen to parse dates for this particular column
    */
@@ -88,6 +97,8 @@ public class DateColumn extends AbstractColumn implements DateMapUtils {
 
   public void set(int index, int value) {
     data.set(index, value);
+    zones.invalidate(index);
+    modCount++;
   }
 
   public void add(LocalDate f) {
@@ -113,9 +124,18 @@ public class DateColumn extends AbstractColumn implements DateMapUtils {
     return column;
   }
 
+  /**
+   * Returns the number of times values in this column have been changed in place, by set, clear or a sort
+   */
+  public int modCount() {
+    return modCount;
+  }
+
   @Override
   public void clear() {
     data.clear();
+    zones.clear();
+    modCount++;
   }
 
   @Override
@@ -128,11 +148,15 @@ public class DateColumn extends AbstractColumn implements DateMapUtils {
   @Override
   public void sortAscending() {
     Arrays.parallelSort(data.elements());
+    zones.clear();
+    modCount++;
   }
 
   @Override
   public void sortDescending() {
     IntArrays.parallelQuickSort(data.elements(), reverseIntComparator);
+    zones.clear();
+    modCount++;
   }
 
   IntComparator reverseIntComparator = new IntComparator() {
@@ -385,7 +409,7 @@ public class DateColumn extends AbstractColumn implements DateMapUtils {
 
   public Selection isEqualTo(LocalDate value) {
     int packed = PackedLocalDate.pack(value);
-    return select(IntColumnUtils.isEqualTo, packed);
+    return SelectionKernels.select(data, zones, Comparison.EQUAL_TO, packed);
   }
 
   /**
@@ -454,39 +478,39 @@ public class DateColumn extends AbstractColumn implements DateMapUtils {
   }
 
   public Selection isAfter(int value) {
-    return select(PackedLocalDate::isAfter, value);
+    return SelectionKernels.select(data, zones, Comparison.GREATER_THAN, value);
   }
 
   public Selection isAfter(LocalDate value) {
     int packed = PackedLocalDate.pack(value);
-    return select(PackedLocalDate::isAfter, packed);
+    return SelectionKernels.select(data, zones, Comparison.GREATER_THAN, packed);
   }
 
   public Selection isBefore(int value) {
-    return select(PackedLocalDate::isBefore, value);
+    return SelectionKernels.select(data, zones, Comparison.LESS_THAN, value);
   }
 
   public Selection isBefore(LocalDate value) {
     int packed = PackedLocalDate.pack(value);
-    return select(PackedLocalDate::isBefore, packed);
+    return SelectionKernels.select(data, zones, Comparison.LESS_THAN, packed);
   }
 
   public Selection isOnOrBefore(LocalDate value) {
     int packed = PackedLocalDate.pack(value);
-    return select(PackedLocalDate::isOnOrBefore, packed);
+    return SelectionKernels.select(data, zones, Comparison.LESS_THAN_OR_EQUAL_TO, packed);
   }
 
   public Selection isOnOrBefore(int value) {
-    return select(PackedLocalDate::isOnOrBefore, value);
+    return SelectionKernels.select(data, zones, Comparison.LESS_THAN_OR_EQUAL_TO, value);
   }
 
   public Selection isOnOrAfter(LocalDate value) {
     int packed = PackedLocalDate.pack(value);
-    return select(PackedLocalDate::isOnOrAfter, packed);
+    return SelectionKernels.select(data, zones, Comparison.GREATER_THAN_OR_EQUAL_TO, packed);
   }
 
   public Selection isOnOrAfter(int value) {
-    return select(PackedLocalDate::isOnOrAfter, value);
+    return SelectionKernels.select(data, zones, Comparison.GREATER_THAN_OR_EQUAL_TO, value);
   }
 
   public Selection isMonday() {
@@ -605,7 +629,7 @@ public class DateColumn extends AbstractColumn implements DateMapUtils {
 
   @Override
   public Selection isMissing() {
-    return select(isMissing);
+    return SelectionKernels.select(data, zones, Comparison.EQUAL_TO, MISSING_VALUE);
   }
 
   /**
@@ -678,15 +702,24 @@ public class DateColumn extends AbstractColumn implements DateMapUtils {
    * @return A list, possibly empty, of the largest observations
    */
   public List<LocalDate> top(int n) {
-    List<LocalDate> top = new ArrayList<>();
-    int[] values = data.toIntArray();
-    IntArrays.parallelQuickSort(values, ReverseIntComparator.instance());
-    for (int i = 0; i < n && i < values.length; i++) {
-      top.add(PackedLocalDate.asLocalDate(values[i]));
+    int[] rows = topRows(n);
+    List<LocalDate> top = new ArrayList<>(rows.length);
+    for (int row : rows) {
+      top.add(PackedLocalDate.asLocalDate(data.getInt(row)));
     }
     return top;
   }
 
+  /**
+   * Returns the rows holding the largest n values in the column, in order from the largest, leaving out missing
+   * values. Rows with equal values are in the order they appear in the column
+   *
+   * @param n The maximum number of rows to return
+   */
+  public int[] topRows(int n) {
+    return OrderStatistics.largest(data.elements(), data.size(), n, MISSING_VALUE);
+  }
+
   /**
    * Returns the smallest ("bottom") n values in the column
    *
@@ -695,15 +728,24 @@ public class DateColumn extends AbstractColumn implements DateMapUtils {
    * @return A list, possibly empty, of the smallest n observations
    */
   public List<LocalDate> bottom(int n) {
-    List<LocalDate> bottom = new ArrayList<>();
-    int[] values = data.toIntArray();
-    IntArrays.parallelQuickSort(values);
-    for (int i = 0; i < n && i < values.length; i++) {
-      bottom.add(PackedLocalDate.asLocalDate(values[i]));
+    int[] rows = bottomRows(n);
+    List<LocalDate> bottom = new ArrayList<>(rows.length);
+    for (int row : rows) {
+      bottom.add(PackedLocalDate.asLocalDate(data.getInt(row)));
     }
     return bottom;
   }
 
+  /**
+   * Returns the rows holding the smallest n values in the column, in order from the smallest, leaving out missing
+   * values. Rows with equal values are in the order they appear in the column
+   *
+   * @param n The maximum number of rows to return
+   */
+  public int[] bottomRows(int n) {
+    return OrderStatistics.smallest(data.elements(), data.size(), n, MISSING_VALUE);
+  }
+
   public IntIterator intIterator() {
     return data.iterator();
   }
@@ -9,9 +9,9 @@ import com.github.lwhite1.tablesaw.filtering.LongBiPredicate;
 import com.github.lwhite1.tablesaw.filtering.LongPredicate;
 import com.github.lwhite1.tablesaw.io.TypeUtils;
 import com.github.lwhite1.tablesaw.mapping.DateTimeMapUtils;
+import com.github.lwhite1.tablesaw.reducing.OrderStatistics;
 import com.github.lwhite1.tablesaw.store.ColumnMetadata;
 import com.github.lwhite1.tablesaw.util.BitmapBackedSelection;
-import com.github.lwhite1.tablesaw.util.ReverseLongComparator;
 import com.github.lwhite1.tablesaw.util.Selection;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
@@ -48,6 +48,9 @@ public class DateTimeColumn extends AbstractColumn implements DateTimeMapUtils,
 
   private LongArrayList data;
 
+  // the number of times values have been changed in place rather than added, by which indexes tell they are stale
+  private int modCount;
+
   /**
    * The formatter chosen to parse date-time strings for this particular column
    */
@@ -153,9 +156,17 @@ public class DateTimeColumn extends AbstractColumn implements DateTimeMapUtils,
     return column;
   }
 
+  /**
+   * Returns the number of times values in this column have been changed in place, by clear or a sort
+   */
+  public int modCount() {
+    return modCount;
+  }
+
   @Override
   public void clear() {
     data.clear();
+    modCount++;
   }
 
   @Override
@@ -168,11 +179,13 @@ public class DateTimeColumn extends AbstractColumn implements DateTimeMapUtils,
   @Override
   public void sortAscending() {
     Arrays.parallelSort(data.elements());
+    modCount++;
   }
 
   @Override
   public void sortDescending() {
     LongArrays.parallelQuickSort(data.elements(), reverseLongComparator);
+    modCount++;
   }
 
   LongComparator reverseLongComparator = new LongComparator() {
@@ -722,15 +735,24 @@ public class DateTimeColumn extends AbstractColumn implements DateTimeMapUtils,
    * @return A list, possibly empty, of the largest observations
    */
   public List<LocalDateTime> top(int n) {
-    List<LocalDateTime> top = new ArrayList<>();
-    long[] values = data.toLongArray();
-    LongArrays.parallelQuickSort(values, ReverseLongComparator.instance());
-    for (int i = 0; i < n && i < values.length; i++) {
-      top.add(PackedLocalDateTime.asLocalDateTime(values[i]));
+    int[] rows = topRows(n);
+    List<LocalDateTime> top = new ArrayList<>(rows.length);
+    for (int row : rows) {
+      top.add(PackedLocalDateTime.asLocalDateTime(data.getLong(row)));
     }
     return top;
   }
 
+  /**
+   * Returns the rows holding the largest n values in the column, in order from the largest, leaving out missing
+   * values. Rows with equal values are in the order they appear in the column
+   *
+   * @param n The maximum number of rows to return
+   */
+  public int[] topRows(int n) {
+    return OrderStatistics.largest(data.elements(), data.size(), n, MISSING_VALUE);
+  }
+
   /**
    * Returns the smallest ("bottom") n values in the column
    *
@@ -739,15 +761,24 @@ public class DateTimeColumn extends AbstractColumn implements DateTimeMapUtils,
    * @return A list, possibly empty, of the smallest n observations
    */
   public List<LocalDateTime> bottom(int n) {
-    List<LocalDateTime> bottom = new ArrayList<>();
-    long[] values = data.toLongArray();
-    LongArrays.parallelQuickSort(values);
-    for (int i = 0; i < n && i < values.length; i++) {
-      bottom.add(PackedLocalDateTime.asLocalDateTime(values[i]));
+    int[] rows = bottomRows(n);
+    List<LocalDateTime> bottom = new ArrayList<>(rows.length);
+    for (int row : rows) {
+      bottom.add(PackedLocalDateTime.asLocalDateTime(data.getLong(row)));
     }
     return bottom;
   }
 
+  /**
+   * Returns the rows holding the smallest n values in the column, in order from the smallest, leaving out missing
+   * values. Rows with equal values are in the order they appear in the column
+   *
+   * @param n The maximum number of rows to return
+   */
+  public int[] bottomRows(int n) {
+    return OrderStatistics.smallest(data.elements(), data.size(), n, MISSING_VALUE);
+  }
+
   public LongIterator longIterator() {
     return data.iterator();
   }
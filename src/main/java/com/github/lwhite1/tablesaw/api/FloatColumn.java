@@ -5,10 +5,14 @@ import com.github.lwhite1.tablesaw.columns.Column;
 import com.github.lwhite1.tablesaw.filtering.FloatBiPredicate;
 import com.github.lwhite1.tablesaw.filtering.FloatPredicate;
 import com.github.lwhite1.tablesaw.io.TypeUtils;
-import com.github.lwhite1.tablesaw.reducing.NumericReduceUtils;
+import com.github.lwhite1.tablesaw.reducing.OrderStatistics;
+import com.github.lwhite1.tablesaw.reducing.ReduceKernels;
 import com.github.lwhite1.tablesaw.store.ColumnMetadata;
 import com.github.lwhite1.tablesaw.util.BitmapBackedSelection;
+import com.github.lwhite1.tablesaw.util.FloatZoneMap;
 import com.github.lwhite1.tablesaw.util.Selection;
+import com.github.lwhite1.tablesaw.util.SelectionKernels;
+import com.github.lwhite1.tablesaw.util.SelectionKernels.Comparison;
 import com.github.lwhite1.tablesaw.util.Stats;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
@@ -67,6 +71,12 @@ public class FloatColumn extends AbstractColumn implements FloatIterable, Numeri
 
   private FloatArrayList data;
 
+  // the smallest and largest values in each block of rows, which lets selections skip blocks
+  private final FloatZoneMap zones = new FloatZoneMap();
+
+  // the number of times values have been changed in place rather than added, by which indexes tell they are stale
+  private int modCount;
+
   public FloatColumn(String name) {
     super(name);
     data = new FloatArrayList(DEFAULT_ARRAY_SIZE);
@@ -112,15 +122,24 @@ public class FloatColumn extends AbstractColumn implements FloatIterable, Numeri
    * @return A list, possibly empty, of the largest observations
    */
   public FloatArrayList top(int n) {
-    FloatArrayList top = new FloatArrayList();
-    float[] values = data.toFloatArray();
-    FloatArrays.parallelQuickSort(values, reverseFloatComparator);
-    for (int i = 0; i < n && i < values.length; i++) {
-      top.add(values[i]);
+    int[] rows = topRows(n);
+    FloatArrayList top = new FloatArrayList(rows.length);
+    for (int row : rows) {
+      top.add(data.getFloat(row));
     }
     return top;
   }
 
+  /**
+   * Returns the rows holding the largest n values in the column, in order from the largest, leaving out missing
+   * values. Rows with equal values are in the order they appear in the column
+   *
+   * @param n The maximum number of rows to return
+   */
+  public int[] topRows(int n) {
+    return OrderStatistics.largest(data.elements(), data.size(), n);
+  }
+
   /**
    * Returns the smallest ("bottom") n values in the column
    *
@@ -129,15 +148,24 @@ public class FloatColumn extends AbstractColumn implements FloatIterable, Numeri
    * @return A list, possibly empty, of the smallest n observations
    */
   public FloatArrayList bottom(int n) {
-    FloatArrayList bottom = new FloatArrayList();
-    float[] values = data.toFloatArray();
-    FloatArrays.parallelQuickSort(values);
-    for (int i = 0; i < n && i < values.length; i++) {
-      bottom.add(values[i]);
+    int[] rows = bottomRows(n);
+    FloatArrayList bottom = new FloatArrayList(rows.length);
+    for (int row : rows) {
+      bottom.add(data.getFloat(row));
     }
     return bottom;
   }
 
+  /**
+   * Returns the rows holding the smallest n values in the column, in order from the smallest, leaving out missing
+   * values. Rows with equal values are in the order they appear in the column
+   *
+   * @param n The maximum number of rows to return
+   */
+  public int[] bottomRows(int n) {
+    return OrderStatistics.smallest(data.elements(), data.size(), n);
+  }
+
   @Override
   public FloatColumn unique() {
     FloatSet floats = new FloatOpenHashSet();
@@ -191,7 +219,7 @@ public class FloatColumn extends AbstractColumn implements FloatIterable, Numeri
   }
 
   public double percentile(double percentile) {
-    return NumericReduceUtils.percentile(this.toDoubleArray(), percentile);
+    return OrderStatistics.percentile(ReduceKernels.toDoubleArray(data), percentile);
   }
 
   public double range() {
@@ -262,7 +290,7 @@ public class FloatColumn extends AbstractColumn implements FloatIterable, Numeri
   // Predicate  functions
 
   public Selection isLessThan(float f) {
-    return select(isLessThan, f);
+    return SelectionKernels.select(data, zones, Comparison.LESS_THAN, f);
   }
 
   public Selection isMissing() {
@@ -274,19 +302,19 @@ public class FloatColumn extends AbstractColumn implements FloatIterable, Numeri
   }
 
   public Selection isGreaterThan(float f) {
-    return select(isGreaterThan, f);
+    return SelectionKernels.select(data, zones, Comparison.GREATER_THAN, f);
   }
 
   public Selection isGreaterThanOrEqualTo(float f) {
-    return select(isGreaterThanOrEqualTo, f);
+    return SelectionKernels.select(data, zones, Comparison.GREATER_THAN_OR_EQUAL_TO, f);
   }
 
   public Selection isLessThanOrEqualTo(float f) {
-    return select(isLessThanOrEqualTo, f);
+    return SelectionKernels.select(data, zones, Comparison.LESS_THAN_OR_EQUAL_TO, f);
   }
 
   public Selection isEqualTo(float f) {
-    return select(isEqualTo, f);
+    return SelectionKernels.select(data, zones, Comparison.EQUAL_TO, f);
   }
 
   public Selection isEqualTo(FloatColumn f) {
@@ -321,9 +349,18 @@ public class FloatColumn extends AbstractColumn implements FloatIterable, Numeri
     return column;
   }
 
+  /**
+   * Returns the number of times values in this column have been changed in place, by set, clear or a sort
+   */
+  public int modCount() {
+    return modCount;
+  }
+
   @Override
   public void clear() {
     data = new FloatArrayList(DEFAULT_ARRAY_SIZE);
+    zones.clear();
+    modCount++;
   }
 
   @Override
@@ -336,11 +373,15 @@ public class FloatColumn extends AbstractColumn implements FloatIterable, Numeri
   @Override
   public void sortAscending() {
     Arrays.parallelSort(data.elements());
+    zones.clear();
+    modCount++;
   }
 
   @Override
   public void sortDescending() {
     FloatArrays.parallelQuickSort(data.elements(), reverseFloatComparator);
+    zones.clear();
+    modCount++;
   }
 
   @Override
@@ -644,6 +685,8 @@ public class FloatColumn extends AbstractColumn implements FloatIterable, Numeri
 
   public void set(int r, float value) {
     data.set(r, value);
+    zones.invalidate(r);
+    modCount++;
   }
 
   // TODO(lwhite): Reconsider the implementation of this functionality to allow user to provide a specific max error.
@@ -6,12 +6,16 @@ import com.github.lwhite1.tablesaw.filtering.IntBiPredicate;
 import com.github.lwhite1.tablesaw.filtering.IntPredicate;
 import com.github.lwhite1.tablesaw.io.TypeUtils;
 import com.github.lwhite1.tablesaw.mapping.IntMapUtils;
-import com.github.lwhite1.tablesaw.reducing.NumericReduceUtils;
+import com.github.lwhite1.tablesaw.reducing.OrderStatistics;
+import com.github.lwhite1.tablesaw.reducing.ReduceKernels;
 import com.github.lwhite1.tablesaw.sorting.IntComparisonUtil;
 import com.github.lwhite1.tablesaw.store.ColumnMetadata;
 import com.github.lwhite1.tablesaw.util.BitmapBackedSelection;
+import com.github.lwhite1.tablesaw.util.LongZoneMap;
 import com.github.lwhite1.tablesaw.util.ReverseIntComparator;
 import com.github.lwhite1.tablesaw.util.Selection;
+import com.github.lwhite1.tablesaw.util.SelectionKernels;
+import com.github.lwhite1.tablesaw.util.SelectionKernels.Comparison;
 import com.github.lwhite1.tablesaw.util.Stats;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
@@ -40,6 +44,12 @@ public class IntColumn extends AbstractColumn implements IntMapUtils, NumericCol
 
   private IntArrayList data;
 
+  // the smallest and largest values in each block of rows, which lets selections skip blocks
+  private final LongZoneMap zones = new LongZoneMap(MISSING_VALUE);
+
+  // the number of times values have been changed in place rather than added, by which indexes tell they are stale
+  private int modCount;
+
   public static IntColumn create(String name) {
     return new IntColumn(name, DEFAULT_ARRAY_SIZE);
   }
@@ -92,30 +102,32 @@ public class IntColumn extends AbstractColumn implements IntMapUtils, NumericCol
 
   public void set(int index, int value) {
     data.set(index, value);
+    zones.invalidate(index);
+    modCount++;
   }
 
   public Selection isLessThan(int i) {
-    return select(isLessThan, i);
+    return SelectionKernels.select(data, zones, Comparison.LESS_THAN, i);
   }
 
   public Selection isGreaterThan(int i) {
-    return select(isGreaterThan, i);
+    return SelectionKernels.select(data, zones, Comparison.GREATER_THAN, i);
   }
 
   public Selection isGreaterThanOrEqualTo(int i) {
-    return select(isGreaterThanOrEqualTo, i);
+    return SelectionKernels.select(data, zones, Comparison.GREATER_THAN_OR_EQUAL_TO, i);
   }
 
   public Selection isLessThanOrEqualTo(int i) {
-    return select(isLessThanOrEqualTo, i);
+    return SelectionKernels.select(data, zones, Comparison.LESS_THAN_OR_EQUAL_TO, i);
   }
 
   public Selection isEqualTo(int i) {
-    return select(isEqualTo, i);
+    return SelectionKernels.select(data, zones, Comparison.EQUAL_TO, i);
   }
 
   public Selection isMissing() {
-    return select(isMissing);
+    return SelectionKernels.select(data, zones, Comparison.EQUAL_TO, MISSING_VALUE);
   }
 
   public Selection isNotMissing() {
@@ -192,19 +204,32 @@ public class IntColumn extends AbstractColumn implements IntMapUtils, NumericCol
     return column;
   }
 
+  /**
+   * Returns the number of times values in this column have been changed in place, by set, clear or a sort
+   */
+  public int modCount() {
+    return modCount;
+  }
+
   @Override
   public void clear() {
     data.clear();
+    zones.clear();
+    modCount++;
   }
 
   @Override
   public void sortAscending() {
     Arrays.parallelSort(data.elements());
+    zones.clear();
+    modCount++;
   }
 
   @Override
   public void sortDescending() {
     IntArrays.parallelQuickSort(data.elements(), ReverseIntComparator.instance());
+    zones.clear();
+    modCount++;
   }
 
   @Override
@@ -284,7 +309,7 @@ public class IntColumn extends AbstractColumn implements IntMapUtils, NumericCol
 
   // Reduce functions applied to the whole column
   public long sum() {
-    return Math.round(sum.reduce(toDoubleArray()));
+    return Math.round(sum.reduce(this));
   }
 
   public double product() {
@@ -308,7 +333,7 @@ public class IntColumn extends AbstractColumn implements IntMapUtils, NumericCol
   }
 
   public double percentile(double percentile) {
-    return NumericReduceUtils.percentile(this.toDoubleArray(), percentile);
+    return OrderStatistics.percentile(ReduceKernels.toDoubleArray(data), percentile);
   }
 
   public double range() {
@@ -365,19 +390,19 @@ public class IntColumn extends AbstractColumn implements IntMapUtils, NumericCol
   // boolean functions
 
   public Selection isPositive() {
-    return select(isPositive);
+    return SelectionKernels.select(data, zones, Comparison.GREATER_THAN, 0);
   }
 
   public Selection isNegative() {
-    return select(isNegative);
+    return SelectionKernels.select(data, zones, Comparison.LESS_THAN, 0);
   }
 
   public Selection isNonNegative() {
-    return select(isNonNegative);
+    return SelectionKernels.select(data, zones, Comparison.GREATER_THAN_OR_EQUAL_TO, 0);
   }
 
   public Selection isZero() {
-    return select(isZero);
+    return SelectionKernels.select(data, zones, Comparison.EQUAL_TO, 0);
   }
 
   public Selection isEven() {
@@ -558,15 +583,24 @@ public class IntColumn extends AbstractColumn implements IntMapUtils, NumericCol
    * @return A list, possibly empty, of the largest observations
    */
   public IntArrayList top(int n) {
-    IntArrayList top = new IntArrayList();
-    int[] values = data.toIntArray();
-    IntArrays.parallelQuickSort(values, ReverseIntComparator.instance());
-    for (int i = 0; i < n && i < values.length; i++) {
-      top.add(values[i]);
+    int[] rows = topRows(n);
+    IntArrayList top = new IntArrayList(rows.length);
+    for (int row : rows) {
+      top.add(data.getInt(row));
     }
     return top;
   }
 
+  /**
+   * Returns the rows holding the largest n values in the column, in order from the largest, leaving out missing
+   * values. Rows with equal values are in the order they appear in the column
+   *
+   * @param n The maximum number of rows to return
+   */
+  public int[] topRows(int n) {
+    return OrderStatistics.largest(data.elements(), data.size(), n, MISSING_VALUE);
+  }
+
   /**
    * Returns the smallest ("bottom") n values in the column
    *
@@ -575,23 +609,31 @@ public class IntColumn extends AbstractColumn implements IntMapUtils, NumericCol
    * @return A list, possibly empty, of the smallest n observations
    */
   public IntArrayList bottom(int n) {
-    IntArrayList bottom = new IntArrayList();
-    int[] values = data.toIntArray();
-    IntArrays.parallelQuickSort(values);
-    for (int i = 0; i < n && i < values.length; i++) {
-      bottom.add(values[i]);
+    int[] rows = bottomRows(n);
+    IntArrayList bottom = new IntArrayList(rows.length);
+    for (int row : rows) {
+      bottom.add(data.getInt(row));
     }
     return bottom;
   }
 
+  /**
+   * Returns the rows holding the smallest n values in the column, in order from the smallest, leaving out missing
+   * values. Rows with equal values are in the order they appear in the column
+   *
+   * @param n The maximum number of rows to return
+   */
+  public int[] bottomRows(int n) {
+    return OrderStatistics.smallest(data.elements(), data.size(), n, MISSING_VALUE);
+  }
+
   @Override
   public IntIterator iterator() {
     return data.iterator();
   }
 
   public Stats stats() {
-    FloatColumn values = FloatColumn.create(name(), toFloatArray());
-    return Stats.create(values);
+    return Stats.create(this);
   }
 
   public boolean contains(int i) {
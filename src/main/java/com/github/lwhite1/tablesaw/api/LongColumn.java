@@ -6,12 +6,16 @@ import com.github.lwhite1.tablesaw.filtering.LongBiPredicate;
 import com.github.lwhite1.tablesaw.filtering.LongPredicate;
 import com.github.lwhite1.tablesaw.io.TypeUtils;
 import com.github.lwhite1.tablesaw.mapping.LongMapUtils;
-import com.github.lwhite1.tablesaw.reducing.NumericReduceUtils;
+import com.github.lwhite1.tablesaw.reducing.OrderStatistics;
+import com.github.lwhite1.tablesaw.reducing.ReduceKernels;
 import com.github.lwhite1.tablesaw.sorting.LongComparisonUtil;
 import com.github.lwhite1.tablesaw.store.ColumnMetadata;
 import com.github.lwhite1.tablesaw.util.BitmapBackedSelection;
+import com.github.lwhite1.tablesaw.util.LongZoneMap;
 import com.github.lwhite1.tablesaw.util.ReverseLongComparator;
 import com.github.lwhite1.tablesaw.util.Selection;
+import com.github.lwhite1.tablesaw.util.SelectionKernels;
+import com.github.lwhite1.tablesaw.util.SelectionKernels.Comparison;
 import com.github.lwhite1.tablesaw.util.Stats;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
@@ -60,6 +64,12 @@ public class LongColumn extends AbstractColumn implements LongMapUtils, NumericC
 
   private LongArrayList data;
 
+  // the smallest and largest values in each block of rows, which lets selections skip blocks
+  private final LongZoneMap zones = new LongZoneMap(MISSING_VALUE);
+
+  // the number of times values have been changed in place rather than added, by which indexes tell they are stale
+  private int modCount;
+
   public static LongColumn create(String name) {
     return new LongColumn(name, DEFAULT_ARRAY_SIZE);
   }
@@ -112,26 +122,28 @@ public class LongColumn extends AbstractColumn implements LongMapUtils, NumericC
 
   public void set(int index, long value) {
     data.set(index, value);
+    zones.invalidate(index);
+    modCount++;
   }
 
   public Selection isLessThan(long i) {
-    return select(isLessThan, i);
+    return SelectionKernels.select(data, zones, Comparison.LESS_THAN, i);
   }
 
   public Selection isGreaterThan(int i) {
-    return select(isGreaterThan, i);
+    return SelectionKernels.select(data, zones, Comparison.GREATER_THAN, i);
   }
 
   public Selection isGreaterThanOrEqualTo(int i) {
-    return select(isGreaterThanOrEqualTo, i);
+    return SelectionKernels.select(data, zones, Comparison.GREATER_THAN_OR_EQUAL_TO, i);
   }
 
   public Selection isLessThanOrEqualTo(int f) {
-    return select(isLessThanOrEqualTo, f);
+    return SelectionKernels.select(data, zones, Comparison.LESS_THAN_OR_EQUAL_TO, f);
   }
 
   public Selection isEqualTo(long i) {
-    return select(isEqualTo, i);
+    return SelectionKernels.select(data, zones, Comparison.EQUAL_TO, i);
   }
 
   public Selection isEqualTo(LongColumn f) {
@@ -153,8 +165,7 @@ public class LongColumn extends AbstractColumn implements LongMapUtils, NumericC
   }
 
   public Stats stats() {
-    FloatColumn values = FloatColumn.create(name(), toFloatArray());
-    return Stats.create(values);
+    return Stats.create(this);
   }
 
   @Override
@@ -248,19 +259,32 @@ public class LongColumn extends AbstractColumn implements LongMapUtils, NumericC
     return column;
   }
 
+  /**
+   * Returns the number of times values in this column have been changed in place, by set, clear or a sort
+   */
+  public int modCount() {
+    return modCount;
+  }
+
   @Override
   public void clear() {
     data.clear();
+    zones.clear();
+    modCount++;
   }
 
   @Override
   public void sortAscending() {
     Arrays.parallelSort(data.elements());
+    zones.clear();
+    modCount++;
   }
 
   @Override
   public void sortDescending() {
     LongArrays.parallelQuickSort(data.elements(), ReverseLongComparator.instance());
+    zones.clear();
+    modCount++;
   }
 
   @Override
@@ -348,7 +372,7 @@ public class LongColumn extends AbstractColumn implements LongMapUtils, NumericC
 
   // Reduce functions applied to the whole column
   public long sum() {
-    return Math.round(sum.reduce(toDoubleArray()));
+    return Math.round(sum.reduce(this));
   }
 
   public double product() {
@@ -372,7 +396,7 @@ public class LongColumn extends AbstractColumn implements LongMapUtils, NumericC
   }
 
   public double percentile(double percentile) {
-    return NumericReduceUtils.percentile(this.toDoubleArray(), percentile);
+    return OrderStatistics.percentile(ReduceKernels.toDoubleArray(data), percentile);
   }
 
   public double range() {
@@ -434,19 +458,19 @@ public class LongColumn extends AbstractColumn implements LongMapUtils, NumericC
   }
 
   public Selection isPositive() {
-    return select(isPositive);
+    return SelectionKernels.select(data, zones, Comparison.GREATER_THAN, 0);
   }
 
   public Selection isNegative() {
-    return select(isNegative);
+    return SelectionKernels.select(data, zones, Comparison.LESS_THAN, 0);
   }
 
   public Selection isNonNegative() {
-    return select(isNonNegative);
+    return SelectionKernels.select(data, zones, Comparison.GREATER_THAN_OR_EQUAL_TO, 0);
   }
 
   public Selection isZero() {
-    return select(isZero);
+    return SelectionKernels.select(data, zones, Comparison.EQUAL_TO, 0);
   }
 
   public Selection isEven() {
@@ -509,15 +533,24 @@ public class LongColumn extends AbstractColumn implements LongMapUtils, NumericC
    * @return A list, possibly empty, of the largest observations
    */
   public LongArrayList top(int n) {
-    LongArrayList top = new LongArrayList();
-    long[] values = data.toLongArray();
-    LongArrays.parallelQuickSort(values, ReverseLongComparator.instance());
-    for (int i = 0; i < n && i < values.length; i++) {
-      top.add(values[i]);
+    int[] rows = topRows(n);
+    LongArrayList top = new LongArrayList(rows.length);
+    for (int row : rows) {
+      top.add(data.getLong(row));
     }
     return top;
   }
 
+  /**
+   * Returns the rows holding the largest n values in the column, in order from the largest, leaving out missing
+   * values. Rows with equal values are in the order they appear in the column
+   *
+   * @param n The maximum number of rows to return
+   */
+  public int[] topRows(int n) {
+    return OrderStatistics.largest(data.elements(), data.size(), n, MISSING_VALUE);
+  }
+
   /**
    * Returns the smallest ("bottom") n values in the column
    *
@@ -526,15 +559,24 @@ public class LongColumn extends AbstractColumn implements LongMapUtils, NumericC
    * @return A list, possibly empty, of the smallest n observations
    */
   public LongArrayList bottom(int n) {
-    LongArrayList bottom = new LongArrayList();
-    long[] values = data.toLongArray();
-    LongArrays.parallelQuickSort(values);
-    for (int i = 0; i < n && i < values.length; i++) {
-      bottom.add(values[i]);
+    int[] rows = bottomRows(n);
+    LongArrayList bottom = new LongArrayList(rows.length);
+    for (int row : rows) {
+      bottom.add(data.getLong(row));
     }
     return bottom;
   }
 
+  /**
+   * Returns the rows holding the smallest n values in the column, in order from the smallest, leaving out missing
+   * values. Rows with equal values are in the order they appear in the column
+   *
+   * @param n The maximum number of rows to return
+   */
+  public int[] bottomRows(int n) {
+    return OrderStatistics.smallest(data.elements(), data.size(), n, MISSING_VALUE);
+  }
+
   @Override
   public LongIterator iterator() {
     return data.iterator();
@@ -581,7 +623,7 @@ public class LongColumn extends AbstractColumn implements LongMapUtils, NumericC
 
   @Override
   public Selection isMissing() {
-    return select(isMissing);
+    return SelectionKernels.select(data, zones, Comparison.EQUAL_TO, MISSING_VALUE);
   }
 
   @Override
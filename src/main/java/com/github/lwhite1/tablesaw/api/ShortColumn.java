@@ -7,12 +7,16 @@ import com.github.lwhite1.tablesaw.filtering.ShortBiPredicate;
 import com.github.lwhite1.tablesaw.filtering.ShortPredicate;
 import com.github.lwhite1.tablesaw.io.TypeUtils;
 import com.github.lwhite1.tablesaw.mapping.ShortMapUtils;
-import com.github.lwhite1.tablesaw.reducing.NumericReduceUtils;
+import com.github.lwhite1.tablesaw.reducing.OrderStatistics;
+import com.github.lwhite1.tablesaw.reducing.ReduceKernels;
 import com.github.lwhite1.tablesaw.sorting.IntComparisonUtil;
 import com.github.lwhite1.tablesaw.store.ColumnMetadata;
 import com.github.lwhite1.tablesaw.util.BitmapBackedSelection;
+import com.github.lwhite1.tablesaw.util.LongZoneMap;
 import com.github.lwhite1.tablesaw.util.ReverseShortComparator;
 import com.github.lwhite1.tablesaw.util.Selection;
+import com.github.lwhite1.tablesaw.util.SelectionKernels;
+import com.github.lwhite1.tablesaw.util.SelectionKernels.Comparison;
 import com.github.lwhite1.tablesaw.util.Stats;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
@@ -43,6 +47,12 @@ public class ShortColumn extends AbstractColumn implements ShortMapUtils, Numeri
 
   private ShortArrayList data;
 
+  // the smallest and largest values in each block of rows, which lets selections skip blocks
+  private final LongZoneMap zones = new LongZoneMap(MISSING_VALUE);
+
+  // the number of times values have been changed in place rather than added, by which indexes tell they are stale
+  private int modCount;
+
   public static ShortColumn create(String name) {
     return new ShortColumn(name, DEFAULT_ARRAY_SIZE);
   }
@@ -91,26 +101,28 @@ public class ShortColumn extends AbstractColumn implements ShortMapUtils, Numeri
 
   public void set(int index, short value) {
     data.set(index, value);
+    zones.invalidate(index);
+    modCount++;
   }
 
   public Selection isLessThan(int i) {
-    return select(ShortColumnUtils.isLessThan, i);
+    return SelectionKernels.select(data, zones, Comparison.LESS_THAN, i);
   }
 
   public Selection isGreaterThan(int i) {
-    return select(ShortColumnUtils.isGreaterThan, i);
+    return SelectionKernels.select(data, zones, Comparison.GREATER_THAN, i);
   }
 
   public Selection isGreaterThanOrEqualTo(int i) {
-    return select(ShortColumnUtils.isGreaterThanOrEqualTo, i);
+    return SelectionKernels.select(data, zones, Comparison.GREATER_THAN_OR_EQUAL_TO, i);
   }
 
   public Selection isLessThanOrEqualTo(int i) {
-    return select(ShortColumnUtils.isLessThanOrEqualTo, i);
+    return SelectionKernels.select(data, zones, Comparison.LESS_THAN_OR_EQUAL_TO, i);
   }
 
   public Selection isEqualTo(int i) {
-    return select(ShortColumnUtils.isEqualTo, i);
+    return SelectionKernels.select(data, zones, Comparison.EQUAL_TO, i);
   }
 
   public Selection isEqualTo(ShortColumn f) {
@@ -187,19 +199,32 @@ public class ShortColumn extends AbstractColumn implements ShortMapUtils, Numeri
     return column;
   }
 
+  /**
+   * Returns the number of times values in this column have been changed in place, by set, clear or a sort
+   */
+  public int modCount() {
+    return modCount;
+  }
+
   @Override
   public void clear() {
     data.clear();
+    zones.clear();
+    modCount++;
   }
 
   @Override
   public void sortAscending() {
     Arrays.parallelSort(data.elements());
+    zones.clear();
+    modCount++;
   }
 
   @Override
   public void sortDescending() {
     ShortArrays.parallelQuickSort(data.elements(), ReverseShortComparator.instance());
+    zones.clear();
+    modCount++;
   }
 
   @Override
@@ -273,7 +298,7 @@ public class ShortColumn extends AbstractColumn implements ShortMapUtils, Numeri
 
   // Reduce functions applied to the whole column
   public long sum() {
-    return Math.round(sum.reduce(toDoubleArray()));
+    return Math.round(sum.reduce(this));
   }
 
   public double product() {
@@ -297,7 +322,7 @@ public class ShortColumn extends AbstractColumn implements ShortMapUtils, Numeri
   }
 
   public double percentile(double percentile) {
-    return NumericReduceUtils.percentile(this.toDoubleArray(), percentile);
+    return OrderStatistics.percentile(ReduceKernels.toDoubleArray(data), percentile);
   }
 
   public double range() {
@@ -359,19 +384,19 @@ public class ShortColumn extends AbstractColumn implements ShortMapUtils, Numeri
   }
 
   public Selection isPositive() {
-    return select(ShortColumnUtils.isPositive);
+    return SelectionKernels.select(data, zones, Comparison.GREATER_THAN, 0);
   }
 
   public Selection isNegative() {
-    return select(ShortColumnUtils.isNegative);
+    return SelectionKernels.select(data, zones, Comparison.LESS_THAN, 0);
   }
 
   public Selection isNonNegative() {
-    return select(ShortColumnUtils.isNonNegative);
+    return SelectionKernels.select(data, zones, Comparison.GREATER_THAN_OR_EQUAL_TO, 0);
   }
 
   public Selection isZero() {
-    return select(ShortColumnUtils.isZero);
+    return SelectionKernels.select(data, zones, Comparison.EQUAL_TO, 0);
   }
 
   public Selection isEven() {
@@ -490,15 +515,24 @@ public class ShortColumn extends AbstractColumn implements ShortMapUtils, Numeri
    * @return A list, possibly empty, of the largest observations
    */
   public ShortArrayList top(int n) {
-    ShortArrayList top = new ShortArrayList();
-    short[] values = data.toShortArray();
-    ShortArrays.parallelQuickSort(values, ReverseShortComparator.instance());
-    for (int i = 0; i < n && i < values.length; i++) {
-      top.add(values[i]);
+    int[] rows = topRows(n);
+    ShortArrayList top = new ShortArrayList(rows.length);
+    for (int row : rows) {
+      top.add(data.getShort(row));
     }
     return top;
   }
 
+  /**
+   * Returns the rows holding the largest n values in the column, in order from the largest, leaving out missing
+   * values. Rows with equal values are in the order they appear in the column
+   *
+   * @param n The maximum number of rows to return
+   */
+  public int[] topRows(int n) {
+    return OrderStatistics.largest(data.elements(), data.size(), n, MISSING_VALUE);
+  }
+
   /**
    * Returns the smallest ("bottom") n values in the column
    *
@@ -507,15 +541,24 @@ public class ShortColumn extends AbstractColumn implements ShortMapUtils, Numeri
    * @return A list, possibly empty, of the smallest n observations
    */
   public ShortArrayList bottom(int n) {
-    ShortArrayList bottom = new ShortArrayList();
-    short[] values = data.toShortArray();
-    ShortArrays.parallelQuickSort(values);
-    for (int i = 0; i < n && i < values.length; i++) {
-      bottom.add(values[i]);
+    int[] rows = bottomRows(n);
+    ShortArrayList bottom = new ShortArrayList(rows.length);
+    for (int row : rows) {
+      bottom.add(data.getShort(row));
     }
     return bottom;
   }
 
+  /**
+   * Returns the rows holding the smallest n values in the column, in order from the smallest, leaving out missing
+   * values. Rows with equal values are in the order they appear in the column
+   *
+   * @param n The maximum number of rows to return
+   */
+  public int[] bottomRows(int n) {
+    return OrderStatistics.smallest(data.elements(), data.size(), n, MISSING_VALUE);
+  }
+
   @Override
   public ShortIterator iterator() {
     return data.iterator();
@@ -560,8 +603,7 @@ public class ShortColumn extends AbstractColumn implements ShortMapUtils, Numeri
   }
 
   public Stats stats() {
-    FloatColumn values = FloatColumn.create(name(), toFloatArray());
-    return Stats.create(values);
+    return Stats.create(this);
   }
 
   public ShortArrayList data() {
@@ -570,7 +612,7 @@ public class ShortColumn extends AbstractColumn implements ShortMapUtils, Numeri
 
   @Override
   public Selection isMissing() {
-    return select(isMissing);
+    return SelectionKernels.select(data, zones, Comparison.EQUAL_TO, MISSING_VALUE);
   }
 
   @Override
@@ -2,11 +2,15 @@ package com.github.lwhite1.tablesaw.api;
 
 import com.github.lwhite1.tablesaw.columns.Column;
 import com.github.lwhite1.tablesaw.filtering.Filter;
+import com.github.lwhite1.tablesaw.index.ColumnIndex;
 import com.github.lwhite1.tablesaw.io.csv.CsvReader;
 import com.github.lwhite1.tablesaw.io.csv.CsvWriter;
 import com.github.lwhite1.tablesaw.io.html.HtmlTableWriter;
 import com.github.lwhite1.tablesaw.io.jdbc.SqlResultSetReader;
+import com.github.lwhite1.tablesaw.joining.HashJoin;
+import com.github.lwhite1.tablesaw.joining.JoinType;
 import com.github.lwhite1.tablesaw.reducing.NumericReduceFunction;
+import com.github.lwhite1.tablesaw.reducing.Summarizer;
 import com.github.lwhite1.tablesaw.reducing.functions.Count;
 import com.github.lwhite1.tablesaw.reducing.functions.Maximum;
 import com.github.lwhite1.tablesaw.reducing.functions.Mean;
@@ -16,6 +20,7 @@ import com.github.lwhite1.tablesaw.reducing.functions.StandardDeviation;
 import com.github.lwhite1.tablesaw.reducing.functions.Sum;
 import com.github.lwhite1.tablesaw.reducing.functions.SummaryFunction;
 import com.github.lwhite1.tablesaw.reducing.functions.Variance;
+import com.github.lwhite1.tablesaw.sorting.RadixSort;
 import com.github.lwhite1.tablesaw.sorting.Sort;
 import com.github.lwhite1.tablesaw.store.StorageManager;
 import com.github.lwhite1.tablesaw.store.TableMetadata;
@@ -43,9 +48,12 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.stream.Collectors;
 
 import static com.github.lwhite1.tablesaw.sorting.Sort.Order;
@@ -69,6 +77,16 @@ public class Table implements Relation, IntIterable {
    */
   private final List<Column> columnList = new ArrayList<>();
 
+  /**
+   * The indexes on columns of this table, by column
+   */
+  private final Map<Column, ColumnIndex> indexes = new IdentityHashMap<>();
+
+  /**
+   * The pool that filters on this table run on, or null to run them on the calling thread
+   */
+  private ForkJoinPool pool;
+
   /**
    * Returns a new table initialized with the given name
    */
@@ -159,6 +177,46 @@ public class Table implements Relation, IntIterable {
     columnList.add(index, column);
   }
 
+  /**
+   * Creates an index on the named column, or returns the one it already has.
+   * <p>
+   * Filters such as isEqualTo, isBetween and isIn on the column are answered from the index when it finds few enough
+   * rows that doing so is quicker than scanning the column. The index takes in the rows added to the table before it
+   * is next used, and is saved and read back with the table.
+   *
+   * @throws IllegalArgumentException if columns of that type can't be indexed
+   */
+  public ColumnIndex createIndex(String columnName) {
+    Column column = column(columnName);
+    ColumnIndex index = indexes.get(column);
+    if (index == null) {
+      index = ColumnIndex.create(column);
+      indexes.put(column, index);
+    }
+    return index;
+  }
+
+  /**
+   * Returns the index on the named column, or null if it doesn't have one
+   */
+  public ColumnIndex index(String columnName) {
+    return indexes.isEmpty() ? null : indexes.get(column(columnName));
+  }
+
+  /**
+   * Removes the index on the named column, if there is one
+   */
+  public void dropIndex(String columnName) {
+    indexes.remove(column(columnName));
+  }
+
+  /**
+   * Returns the indexes on the columns of this table
+   */
+  public List<ColumnIndex> indexes() {
+    return new ArrayList<>(indexes.values());
+  }
+
   /**
    * Sets the name of the table
    */
@@ -471,9 +529,17 @@ public class Table implements Relation, IntIterable {
   }
 
   /**
+   * Returns a copy of this table sorted on the columns of the given key. The rows are radix sorted on keys made from
+   * the columns' values (see {@link RadixSort}), unless a column is of a type that has no such key, in which case they
+   * are sorted by comparing them
    */
   public Table sortOn(Sort key) {
     Preconditions.checkArgument(!key.isEmpty());
+    if (RadixSort.canSort(this, key)) {
+      Table newTable = emptyCopy(rowCount());
+      Rows.copyRowsToTable(IntArrayList.wrap(RadixSort.sortedRows(this, key)), this, newTable);
+      return newTable;
+    }
     if (key.size() == 1) {
       IntComparator comparator = getComparator(key);
       return sortOn(comparator);
@@ -577,10 +643,40 @@ public class Table implements Relation, IntIterable {
   }
 
   public Table selectWhere(Filter filter) {
-    Selection map = filter.apply(this);
-    Table newTable = this.emptyCopy(map.size());
-    Rows.copyRowsToTable(map, this, newTable);
-    return newTable;
+    return selectWhere(filter, pool);
+  }
+
+  /**
+   * Returns a new table with the rows that pass the given filter, which is applied on the given pool. Large columns
+   * are then scanned in parallel, a range of rows at a time, and the rows selected are copied in parallel, a column at
+   * a time
+   *
+   * @param pool The pool to run on, or null to run on the calling thread
+   */
+  public Table selectWhere(Filter filter, ForkJoinPool pool) {
+    if (pool == null || ForkJoinTask.getPool() == pool) {
+      Selection map = filter.apply(this);
+      Table newTable = this.emptyCopy(map.size());
+      Rows.copyRowsToTable(map, this, newTable);
+      return newTable;
+    }
+    return pool.invoke(ForkJoinTask.adapt(() -> selectWhere(filter, pool)));
+  }
+
+  /**
+   * Sets the pool that filters on this table run on, so that large columns are scanned in parallel
+   *
+   * @param pool The pool to run on, or null to run on the calling thread, which is the default
+   */
+  public void setPool(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
+  /**
+   * Returns the pool that filters on this table run on, or null if they run on the calling thread
+   */
+  public ForkJoinPool pool() {
+    return pool;
   }
 
   public BooleanColumn selectIntoColumn(String newColumnName, Filter filter) {
@@ -642,6 +738,7 @@ public class Table implements Relation, IntIterable {
   public void removeColumns(Column... columns) {
     for (Column c : columns) {
       columnList.remove(c);
+      indexes.remove(c);
     }
   }
 
@@ -651,10 +748,12 @@ public class Table implements Relation, IntIterable {
   public void retainColumns(Column... columns) {
     List<Column> retained = Arrays.asList(columns);
     columnList.retainAll(retained);
+    indexes.keySet().retainAll(columnList);
   }
 
   public void retainColumns(String... columnNames) {
     columnList.retainAll(columns(columnNames));
+    indexes.keySet().retainAll(columnList);
   }
 
   public Sum sum(String numericColumnName) {
@@ -743,8 +842,7 @@ public class Table implements Relation, IntIterable {
    * @throws IllegalArgumentException if numericColumnName doesn't name a numeric column in this table
    */
   public double reduce(String numericColumnName, NumericReduceFunction function) {
-    Column column = column(numericColumnName);
-    return function.reduce(column.toDoubleArray());
+    return function.reduce(column(numericColumnName));
   }
 
   public SummaryFunction summarize(String numericColumnName, NumericReduceFunction function) {
@@ -756,6 +854,14 @@ public class Table implements Relation, IntIterable {
     };
   }
 
+  /**
+   * Returns a Summarizer that computes reductions of this table's numeric columns, grouped on the given columns.
+   * All the reductions added to it are returned together, in one table
+   */
+  public Summarizer summarize(String... groupColumnNames) {
+    return new Summarizer(this, groupColumnNames);
+  }
+
   public Table countBy(CategoryColumn column) {
     return column.countByCategory();
   }
@@ -872,61 +978,47 @@ public class Table implements Relation, IntIterable {
   }
 
 
-/**
-   * Joins together this table and another table on the given column names. All the records of this table are included
+  /**
+   * Joins together this table and another table on the given column names. Only rows with a matching value in both
+   * tables are included, and every match is returned
    * @return   A new table derived from combining this table with {@code other} table
    */
-
   public Table innerJoin(Table other, String columnName, String otherColumnName) {
-    // create a new table like this one
-    Table table = new Table(this.name());
-    // add the columns from this table
-    for (Column column : columns()) {
-      table.addColumn(column);
-    }
-    // add the columns from the other table, but leave the data out for now
-    for (Column column : other.columns()) {
-      if (!column.name().equals(otherColumnName)) {  // skip the join column so it's not duplicated
-        table.addColumn(column.emptyCopy());
-      }
-    }
+    return join(other, columnName, otherColumnName, JoinType.INNER);
+  }
 
-    // iterate over the rows in the new table, fetching rows from the other table that match on
-    Column joinColumn = column(columnName);
-    Column otherJoinColumn = other.column(otherColumnName);
-    int otherRowIndex = -1;
-    for (int row : table) {
-      String key = joinColumn.getString(row);
-      otherRowIndex = other.getFirst(otherJoinColumn, key);
-      if (otherRowIndex != -1) {
-        // fill in the values of other tables columns for that row.
-        for (Column c : other.columns()) {
-          if (!c.name().equals(otherColumnName)) {
-            column(c.name()).addCell(c.getString(otherRowIndex));
-          }
-        }
-      }
-    }
-    return table;
+  /**
+   * Returns a new table containing every row of this table, joined to the matching rows of {@code other} where the
+   * values in {@code columnName} equal those in {@code otherColumnName}. Rows without a match get missing values
+   * in the columns from {@code other}
+   */
+  public Table leftOuterJoin(Table other, String columnName, String otherColumnName) {
+    return join(other, columnName, otherColumnName, JoinType.LEFT_OUTER);
   }
 
+  /**
+   * Returns a new table containing every row of {@code other}, joined to the matching rows of this table where the
+   * values in {@code columnName} equal those in {@code otherColumnName}. Rows without a match get missing values
+   * in the columns from this table
+   */
+  public Table rightOuterJoin(Table other, String columnName, String otherColumnName) {
+    return join(other, columnName, otherColumnName, JoinType.RIGHT_OUTER);
+  }
 
   /**
-   * Returns the first row for which the column {@code columnName} contains {@code value}, or
-   * null if there are no matches
-   * TODO(lwhite) This is a toy implementation badly in need of rewrite for performance.
+   * Returns a new table containing every row of both this table and {@code other}, joined where the values in
+   * {@code columnName} equal those in {@code otherColumnName}
    */
-  private int getFirst(Column column, String value) {
-    int row = -1;
-    for (int r : this) {
-      if (column.getString(r).equals(value)) {
-        row = r;
-        break;
-      }
-    }
-    return row;
+  public Table fullOuterJoin(Table other, String columnName, String otherColumnName) {
+    return join(other, columnName, otherColumnName, JoinType.FULL_OUTER);
   }
 
+  /**
+   * Returns a new table joining this table to {@code other} on the given columns, using the given type of join
+   */
+  public Table join(Table other, String columnName, String otherColumnName, JoinType joinType) {
+    return HashJoin.join(this, columnName, other, otherColumnName, joinType);
+  }
 
   @Override
   public String toString() {
@@ -8,10 +8,13 @@ import com.github.lwhite1.tablesaw.filtering.IntPredicate;
 import com.github.lwhite1.tablesaw.filtering.LocalTimePredicate;
 import com.github.lwhite1.tablesaw.io.TypeUtils;
 import com.github.lwhite1.tablesaw.mapping.TimeMapUtils;
+import com.github.lwhite1.tablesaw.reducing.OrderStatistics;
 import com.github.lwhite1.tablesaw.store.ColumnMetadata;
 import com.github.lwhite1.tablesaw.util.BitmapBackedSelection;
-import com.github.lwhite1.tablesaw.util.ReverseIntComparator;
+import com.github.lwhite1.tablesaw.util.LongZoneMap;
 import com.github.lwhite1.tablesaw.util.Selection;
+import com.github.lwhite1.tablesaw.util.SelectionKernels;
+import com.github.lwhite1.tablesaw.util.SelectionKernels.Comparison;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import it.unimi.dsi.fastutil.ints.IntArrayList;
@@ -49,6 +52,12 @@ public class TimeColumn extends AbstractColumn implements Iterable<LocalTime>, T
 
   private IntArrayList data;
 
+  // the smallest and largest values in each block of rows, which lets selections skip blocks
+  private final LongZoneMap zones = new LongZoneMap(MISSING_VALUE);
+
+  // the number of times values have been changed in place rather than added, by which indexes tell they are stale
+  private int modCount;
+
   public static TimeColumn create(String name) {
     return new TimeColumn(name);
   }
@@ -106,9 +115,18 @@ public class TimeColumn extends AbstractColumn implements Iterable<LocalTime>, T
     return column;
   }
 
+  /**
+   * Returns the number of times values in this column have been changed in place, by clear or a sort
+   */
+  public int modCount() {
+    return modCount;
+  }
+
   @Override
   public void clear() {
     data.clear();
+    zones.clear();
+    modCount++;
   }
 
   @Override
@@ -121,11 +139,15 @@ public class TimeColumn extends AbstractColumn implements Iterable<LocalTime>, T
   @Override
   public void sortAscending() {
     Arrays.parallelSort(data.elements());
+    zones.clear();
+    modCount++;
   }
 
   @Override
   public void sortDescending() {
     IntArrays.parallelQuickSort(data.elements(), reverseIntComparator);
+    zones.clear();
+    modCount++;
   }
 
   IntComparator reverseIntComparator = new IntComparator() {
@@ -303,16 +325,7 @@ public class TimeColumn extends AbstractColumn implements Iterable<LocalTime>, T
   };
 
   public Selection isEqualTo(LocalTime value) {
-    Selection results = new BitmapBackedSelection();
-    int packedLocalTime = PackedLocalTime.pack(value);
-    int i = 0;
-    for (int next : data) {
-      if (packedLocalTime == next) {
-        results.add(i);
-      }
-      i++;
-    }
-    return results;
+    return SelectionKernels.select(data, zones, Comparison.EQUAL_TO, PackedLocalTime.pack(value));
   }
 
   public String print() {
@@ -381,11 +394,11 @@ public class TimeColumn extends AbstractColumn implements Iterable<LocalTime>, T
   }
 
   public Selection isBefore(LocalTime time) {
-    return select(PackedLocalTime::isBefore, PackedLocalTime.pack(time));
+    return SelectionKernels.select(data, zones, Comparison.LESS_THAN, PackedLocalTime.pack(time));
   }
 
   public Selection isAfter(LocalTime time) {
-    return select(PackedLocalTime::isAfter, PackedLocalTime.pack(time));
+    return SelectionKernels.select(data, zones, Comparison.GREATER_THAN, PackedLocalTime.pack(time));
   }
 
   /**
@@ -412,15 +425,24 @@ public class TimeColumn extends AbstractColumn implements Iterable<LocalTime>, T
    * @return A list, possibly empty, of the largest observations
    */
   public List<LocalTime> top(int n) {
-    List<LocalTime> top = new ArrayList<>();
-    int[] values = data.toIntArray();
-    IntArrays.parallelQuickSort(values, ReverseIntComparator.instance());
-    for (int i = 0; i < n && i < values.length; i++) {
-      top.add(PackedLocalTime.asLocalTime(values[i]));
+    int[] rows = topRows(n);
+    List<LocalTime> top = new ArrayList<>(rows.length);
+    for (int row : rows) {
+      top.add(PackedLocalTime.asLocalTime(data.getInt(row)));
     }
     return top;
   }
 
+  /**
+   * Returns the rows holding the largest n values in the column, in order from the largest, leaving out missing
+   * values. Rows with equal values are in the order they appear in the column
+   *
+   * @param n The maximum number of rows to return
+   */
+  public int[] topRows(int n) {
+    return OrderStatistics.largest(data.elements(), data.size(), n, MISSING_VALUE);
+  }
+
   /**
    * Returns the smallest ("bottom") n values in the column
    *
@@ -429,15 +451,24 @@ public class TimeColumn extends AbstractColumn implements Iterable<LocalTime>, T
    * @return A list, possibly empty, of the smallest n observations
    */
   public List<LocalTime> bottom(int n) {
-    List<LocalTime> bottom = new ArrayList<>();
-    int[] values = data.toIntArray();
-    IntArrays.parallelQuickSort(values);
-    for (int i = 0; i < n && i < values.length; i++) {
-      bottom.add(PackedLocalTime.asLocalTime(values[i]));
+    int[] rows = bottomRows(n);
+    List<LocalTime> bottom = new ArrayList<>(rows.length);
+    for (int row : rows) {
+      bottom.add(PackedLocalTime.asLocalTime(data.getInt(row)));
     }
     return bottom;
   }
 
+  /**
+   * Returns the rows holding the smallest n values in the column, in order from the smallest, leaving out missing
+   * values. Rows with equal values are in the order they appear in the column
+   *
+   * @param n The maximum number of rows to return
+   */
+  public int[] bottomRows(int n) {
+    return OrderStatistics.smallest(data.elements(), data.size(), n, MISSING_VALUE);
+  }
+
   public IntIterator intIterator() {
     return data.iterator();
   }
@@ -480,7 +511,7 @@ public class TimeColumn extends AbstractColumn implements Iterable<LocalTime>, T
 
   @Override
   public Selection isMissing() {
-    return select(isMissing);
+    return SelectionKernels.select(data, zones, Comparison.EQUAL_TO, MISSING_VALUE);
   }
 
   @Override
@@ -96,6 +96,15 @@ public class PackedLocalTime {
         m2);
   }
 
+  public static int pack(byte hr, byte min, byte s, short ms) {
+    char millis = (char) (s * 1000 + ms);
+    return Ints.fromBytes(
+        hr,
+        min,
+        (byte) (millis >> 8),
+        (byte) millis);
+  }
+
   public static byte getSecond(int packedLocalTime) {
     return (byte) (getMillisecondOfMinute(packedLocalTime) / 1000);
   }
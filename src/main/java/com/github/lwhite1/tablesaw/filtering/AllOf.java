@@ -1,7 +1,9 @@
 package com.github.lwhite1.tablesaw.filtering;
 
 import com.github.lwhite1.tablesaw.api.Table;
+import com.github.lwhite1.tablesaw.util.RowPredicate;
 import com.github.lwhite1.tablesaw.util.Selection;
+import com.github.lwhite1.tablesaw.util.SelectionKernels;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -10,6 +12,12 @@ import java.util.List;
 
 /**
  * A composite filtering that only returns {@code true} if all component filters return true
+ * <p>
+ * The filters are applied in order of their cost per row divided by the share of rows they reject, so cheap, selective
+ * filters go first, and each filter is applied only to the rows that passed the ones before it.
+ * <p>
+ * If every filter can be compiled, they are instead applied together, in one pass over the rows that tests each row
+ * against the filters in the same order, until one rejects it.
  */
 public class AllOf extends CompositeFilter {
 
@@ -29,15 +37,102 @@ public class AllOf extends CompositeFilter {
     return new AllOf(filters);
   }
 
+  public List<Filter> getFilters() {
+    return Collections.unmodifiableList(filterList);
+  }
+
   public Selection apply(Table relation) {
+    List<Filter> plan = plan(relation);
+    RowPredicate compiled = all(compile(plan, relation));
+    if (compiled != null) {
+      return SelectionKernels.select(relation.rowCount(), compiled);
+    }
     Selection selection = null;
-    for (Filter filter : filterList) {
+    for (Filter filter : plan) {
       if (selection == null) {
         selection = filter.apply(relation);
       } else {
-        selection.and(filter.apply(relation));
+        selection = filter.apply(relation, selection);
+      }
+      if (selection.isEmpty()) {
+        break;
+      }
+    }
+    return selection;
+  }
+
+  @Override
+  public Selection apply(Table relation, Selection rows) {
+    List<Filter> plan = plan(relation);
+    RowPredicate compiled = all(compile(plan, relation));
+    if (compiled != null) {
+      return SelectionKernels.select(rows, compiled);
+    }
+    Selection selection = rows;
+    for (Filter filter : plan) {
+      selection = filter.apply(relation, selection);
+      if (selection.isEmpty()) {
+        break;
       }
     }
     return selection;
   }
+
+  @Override
+  public double selectivity(Table relation) {
+    double selectivity = 1;
+    for (Filter filter : filterList) {
+      selectivity *= filter.selectivity(relation);
+    }
+    return selectivity;
+  }
+
+  @Override
+  double cost(Table relation) {
+    double cost = 0;
+    for (Filter filter : filterList) {
+      cost += filter.cost(relation);
+    }
+    return cost;
+  }
+
+  @Override
+  protected RowPredicate compile(Table relation) {
+    return all(compile(plan(relation), relation));
+  }
+
+  /**
+   * Returns a test that passes the rows that pass all the given tests, or null if the tests are null
+   */
+  private static RowPredicate all(RowPredicate[] tests) {
+    if (tests == null) {
+      return null;
+    }
+    switch (tests.length) {
+      case 1:
+        return tests[0];
+      case 2: {
+        RowPredicate first = tests[0];
+        RowPredicate second = tests[1];
+        return row -> first.test(row) && second.test(row);
+      }
+      default:
+        return row -> {
+          for (RowPredicate test : tests) {
+            if (!test.test(row)) {
+              return false;
+            }
+          }
+          return true;
+        };
+    }
+  }
+
+  /**
+   * Returns the filters in the order they should be applied to the given table
+   */
+  List<Filter> plan(Table relation) {
+    return order(filterList, relation,
+        filter -> filter.cost(relation) / Math.max(1 - filter.selectivity(relation), MIN_FRACTION));
+  }
 }
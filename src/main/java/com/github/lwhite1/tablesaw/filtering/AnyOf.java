@@ -1,7 +1,10 @@
 package com.github.lwhite1.tablesaw.filtering;
 
 import com.github.lwhite1.tablesaw.api.Table;
+import com.github.lwhite1.tablesaw.util.BitmapBackedSelection;
+import com.github.lwhite1.tablesaw.util.RowPredicate;
 import com.github.lwhite1.tablesaw.util.Selection;
+import com.github.lwhite1.tablesaw.util.SelectionKernels;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -9,7 +12,13 @@ import java.util.Collections;
 import java.util.List;
 
 /**
- * A composite filtering that only returns {@code true} if all component filters return true
+ * A composite filtering that returns {@code true} if any of the component filters return true
+ * <p>
+ * The filters are applied in order of their cost per row divided by the share of rows they accept, so cheap filters
+ * that accept many rows go first, and each filter is applied only to the rows that none of the ones before it accepted.
+ * <p>
+ * If every filter can be compiled, they are instead applied together, in one pass over the rows that tests each row
+ * against the filters in the same order, until one accepts it.
  */
 public class AnyOf extends CompositeFilter {
 
@@ -30,15 +39,107 @@ public class AnyOf extends CompositeFilter {
     return new AnyOf(filters);
   }
 
+  public List<Filter> getFilters() {
+    return Collections.unmodifiableList(filterList);
+  }
+
   public Selection apply(Table relation) {
-    Selection selection = null;
-    for (Filter filter : filterList) {
-      if (selection == null) {
-        selection = filter.apply(relation);
-      } else {
-        selection.or(filter.apply(relation));
+    if (filterList.isEmpty()) {
+      return null;
+    }
+    List<Filter> plan = plan(relation);
+    RowPredicate compiled = any(compile(plan, relation));
+    if (compiled != null) {
+      return SelectionKernels.select(relation.rowCount(), compiled);
+    }
+    Selection rows = new BitmapBackedSelection();
+    rows.addRange(0, relation.rowCount());
+    return apply(plan, relation, rows);
+  }
+
+  @Override
+  public Selection apply(Table relation, Selection rows) {
+    List<Filter> plan = plan(relation);
+    RowPredicate compiled = any(compile(plan, relation));
+    if (compiled != null) {
+      return SelectionKernels.select(rows, compiled);
+    }
+    return apply(plan, relation, rows);
+  }
+
+  /**
+   * Applies the filters, in the order given, to the given rows
+   */
+  private static Selection apply(List<Filter> plan, Table relation, Selection rows) {
+    Selection selection = new BitmapBackedSelection();
+    // the rows no filter has accepted yet
+    Selection remaining = new BitmapBackedSelection(rows.toBitmap());
+    for (Filter filter : plan) {
+      Selection accepted = filter.apply(relation, remaining);
+      selection.or(accepted);
+      remaining.andNot(accepted);
+      if (remaining.isEmpty()) {
+        break;
       }
     }
     return selection;
   }
+
+  @Override
+  public double selectivity(Table relation) {
+    double rejected = 1;
+    for (Filter filter : filterList) {
+      rejected *= 1 - filter.selectivity(relation);
+    }
+    return 1 - rejected;
+  }
+
+  @Override
+  double cost(Table relation) {
+    double cost = 0;
+    for (Filter filter : filterList) {
+      cost += filter.cost(relation);
+    }
+    return cost;
+  }
+
+  @Override
+  protected RowPredicate compile(Table relation) {
+    return any(compile(plan(relation), relation));
+  }
+
+  /**
+   * Returns a test that passes the rows that pass any of the given tests, or null if the tests are null
+   */
+  private static RowPredicate any(RowPredicate[] tests) {
+    if (tests == null) {
+      return null;
+    }
+    switch (tests.length) {
+      case 1:
+        return tests[0];
+      case 2: {
+        RowPredicate first = tests[0];
+        RowPredicate second = tests[1];
+        return row -> first.test(row) || second.test(row);
+      }
+      default:
+        return row -> {
+          for (RowPredicate test : tests) {
+            if (test.test(row)) {
+              return true;
+            }
+          }
+          return false;
+        };
+    }
+  }
+
+  /**
+   * Returns the filters in the order they should be applied to the given table
+   */
+  List<Filter> plan(Table relation) {
+    return order(filterList, relation,
+        filter -> filter.cost(relation) / Math.max(filter.selectivity(relation), MIN_FRACTION));
+  }
 }
@@ -1,11 +1,49 @@
 package com.github.lwhite1.tablesaw.filtering;
 
+import com.github.lwhite1.tablesaw.api.ColumnType;
+import com.github.lwhite1.tablesaw.api.FloatColumn;
+import com.github.lwhite1.tablesaw.api.IntColumn;
+import com.github.lwhite1.tablesaw.api.LongColumn;
+import com.github.lwhite1.tablesaw.api.ShortColumn;
+import com.github.lwhite1.tablesaw.api.Table;
+import com.github.lwhite1.tablesaw.columns.Column;
 import com.github.lwhite1.tablesaw.columns.ColumnReference;
+import com.github.lwhite1.tablesaw.index.ColumnIndex;
+import com.github.lwhite1.tablesaw.index.FloatIndex;
+import com.github.lwhite1.tablesaw.index.IntIndex;
+import com.github.lwhite1.tablesaw.index.LongIndex;
+import com.github.lwhite1.tablesaw.table.Rows;
+import com.github.lwhite1.tablesaw.util.BitmapBackedSelection;
+import com.github.lwhite1.tablesaw.util.RowPredicate;
+import com.github.lwhite1.tablesaw.util.Selection;
+import com.github.lwhite1.tablesaw.util.SelectionKernels.Comparison;
+import it.unimi.dsi.fastutil.ints.IntCollection;
+
+import java.util.Collections;
+import java.util.List;
 
 /**
+ * A filter on the values in one column, or a few.
+ * <p>
+ * When it only needs to be applied to a small share of a table's rows, the values in those rows are copied into a
+ * table of their own and the filter applied to that. Its selectivity is estimated the same way, from an evenly spaced
+ * sample of the rows.
  */
 public abstract class ColumnFilter extends Filter {
 
+  // the number of rows sampled to estimate the selectivity
+  static final int SAMPLE_ROWS = 1024;
+
+  // the filter is applied to the whole table if at least one row in this many is to be tested
+  private static final int NARROWING_RATIO = 8;
+
+  // the relative cost of filtering a row of a category column
+  private static final double CATEGORY_COST = 4;
+
+  // an index is used if it finds no more than one row in this many, as adding its rows to a selection one at a time
+  // costs more per row than scanning the column
+  private static final int INDEX_RATIO = 8;
+
   ColumnReference columnReference;
 
   public ColumnFilter(ColumnReference columnReference) {
@@ -20,4 +58,240 @@ public abstract class ColumnFilter extends Filter {
     return columnReference;
   }
 
+  /**
+   * Returns the names of the columns this filter reads
+   */
+  protected List<String> columnNames() {
+    return Collections.singletonList(columnReference.getColumnName());
+  }
+
+  @Override
+  public Selection apply(Table relation, Selection rows) {
+    if ((long) rows.size() * NARROWING_RATIO >= relation.rowCount()) {
+      return super.apply(relation, rows);
+    }
+    return applyToRows(relation, rows);
+  }
+
+  @Override
+  public double selectivity(Table relation) {
+    int rowCount = relation.rowCount();
+    if (rowCount == 0) {
+      return 0;
+    }
+    Selection sample = new BitmapBackedSelection();
+    int step = Math.max(1, rowCount / SAMPLE_ROWS);
+    for (int row = 0; row < rowCount; row += step) {
+      sample.add(row);
+    }
+    return (double) applyToRows(relation, sample).size() / sample.size();
+  }
+
+  @Override
+  double cost(Table relation) {
+    double cost = 0;
+    for (String name : columnNames()) {
+      cost += relation.column(name).type() == ColumnType.CATEGORY ? CATEGORY_COST : 1;
+    }
+    return cost;
+  }
+
+  /**
+   * Returns the rows whose values in this filter's column are between {@code low} and {@code high}, inclusive, from
+   * the table's index on the column. Returns null if the column isn't indexed by an int or long index, or if the index
+   * would find too many rows for it to be quicker than a scan
+   */
+  protected Selection indexLookup(Table relation, long low, long high) {
+    ColumnIndex index = relation.index(columnReference.getColumnName());
+    int limit = relation.rowCount() / INDEX_RATIO;
+    if (index instanceof IntIndex) {
+      if (low > high || low > Integer.MAX_VALUE || high < Integer.MIN_VALUE) {
+        return new BitmapBackedSelection();
+      }
+      int from = (int) Math.max(low, Integer.MIN_VALUE);
+      int to = (int) Math.min(high, Integer.MAX_VALUE);
+      IntIndex ints = (IntIndex) index;
+      return ints.count(from, to, limit) <= limit ? ints.between(from, to) : null;
+    }
+    if (index instanceof LongIndex) {
+      LongIndex longs = (LongIndex) index;
+      return longs.count(low, high, limit) <= limit ? longs.between(low, high) : null;
+    }
+    return null;
+  }
+
+  /**
+   * Returns the rows whose values in this filter's column are between {@code low} and {@code high}, inclusive, from
+   * the table's index on the column, or null if the column has no float index or a scan would be quicker
+   */
+  protected Selection floatIndexLookup(Table relation, float low, float high) {
+    ColumnIndex index = relation.index(columnReference.getColumnName());
+    if (index instanceof FloatIndex) {
+      FloatIndex floats = (FloatIndex) index;
+      int limit = relation.rowCount() / INDEX_RATIO;
+      return floats.count(low, high, limit) <= limit ? floats.between(low, high) : null;
+    }
+    return null;
+  }
+
+  /**
+   * Returns the rows whose values in this filter's column are any of the given ones, from the table's index on the
+   * column, or null if the column has no int index or a scan would be quicker
+   */
+  protected Selection indexLookupIn(Table relation, IntCollection values) {
+    ColumnIndex index = relation.index(columnReference.getColumnName());
+    if (!(index instanceof IntIndex)) {
+      return null;
+    }
+    IntIndex ints = (IntIndex) index;
+    int limit = relation.rowCount() / INDEX_RATIO;
+    int count = 0;
+    for (int value : values) {
+      count += ints.count(value, value, limit);
+      if (count > limit) {
+        return null;
+      }
+    }
+    Selection selection = new BitmapBackedSelection();
+    for (int value : values) {
+      selection.or(ints.get(value));
+    }
+    return selection;
+  }
+
+  /**
+   * Returns a test of whether the value in a row of this filter's int, short or long column compares with the given
+   * value as given. Returns null if the column is of another type, or is indexed, as an index may find the rows
+   * without a scan
+   */
+  protected RowPredicate compileComparison(Table relation, Comparison comparison, long value) {
+    long low = Long.MIN_VALUE;
+    long high = Long.MAX_VALUE;
+    switch (comparison) {
+      case LESS_THAN:
+        if (value == Long.MIN_VALUE) {
+          // an empty range
+          return compileBetween(relation, 1, 0);
+        }
+        high = value - 1;
+        break;
+      case LESS_THAN_OR_EQUAL_TO:
+        high = value;
+        break;
+      case EQUAL_TO:
+        low = value;
+        high = value;
+        break;
+      case GREATER_THAN_OR_EQUAL_TO:
+        low = value;
+        break;
+      case GREATER_THAN:
+        if (value == Long.MAX_VALUE) {
+          // an empty range
+          return compileBetween(relation, 1, 0);
+        }
+        low = value + 1;
+        break;
+    }
+    return compileBetween(relation, low, high);
+  }
+
+  /**
+   * Returns a test of whether the value in a row of this filter's int, short or long column is between {@code low}
+   * and {@code high}, inclusive, or null if the column is of another type or is indexed
+   */
+  protected RowPredicate compileBetween(Table relation, long low, long high) {
+    String name = columnReference.getColumnName();
+    Column column = relation.column(name);
+    if (relation.index(name) != null) {
+      return null;
+    }
+    switch (column.type()) {
+      case INTEGER: {
+        if (low > high || low > Integer.MAX_VALUE || high < Integer.MIN_VALUE) {
+          return row -> false;
+        }
+        int[] values = ((IntColumn) column).data().elements();
+        int from = (int) Math.max(low, Integer.MIN_VALUE);
+        int to = (int) Math.min(high, Integer.MAX_VALUE);
+        return row -> {
+          int v = values[row];
+          return v >= from & v <= to;
+        };
+      }
+      case SHORT_INT: {
+        if (low > high || low > Short.MAX_VALUE || high < Short.MIN_VALUE) {
+          return row -> false;
+        }
+        short[] values = ((ShortColumn) column).data().elements();
+        short from = (short) Math.max(low, Short.MIN_VALUE);
+        short to = (short) Math.min(high, Short.MAX_VALUE);
+        return row -> {
+          short v = values[row];
+          return v >= from & v <= to;
+        };
+      }
+      case LONG_INT: {
+        if (low > high) {
+          return row -> false;
+        }
+        long[] values = ((LongColumn) column).data().elements();
+        return row -> {
+          long v = values[row];
+          return v >= low & v <= high;
+        };
+      }
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * Returns a test of whether the value in a row of this filter's float column compares with the given value as the
+   * Java operator for the comparison would, or null if the column is of another type or is indexed
+   */
+  protected RowPredicate compileFloatComparison(Table relation, Comparison comparison, float value) {
+    String name = columnReference.getColumnName();
+    Column column = relation.column(name);
+    if (column.type() != ColumnType.FLOAT || relation.index(name) != null) {
+      return null;
+    }
+    float[] values = ((FloatColumn) column).data().elements();
+    switch (comparison) {
+      case LESS_THAN:
+        return row -> values[row] < value;
+      case LESS_THAN_OR_EQUAL_TO:
+        return row -> values[row] <= value;
+      case EQUAL_TO:
+        return row -> values[row] == value;
+      case GREATER_THAN_OR_EQUAL_TO:
+        return row -> values[row] >= value;
+      default:
+        return row -> values[row] > value;
+    }
+  }
+
+  /**
+   * Applies this filter to a copy of the given rows of the columns it reads, and returns the rows that pass
+   */
+  private Selection applyToRows(Table relation, Selection rows) {
+    Table source = Table.create(relation.name());
+    Table copy = Table.create(relation.name());
+    for (String name : columnNames()) {
+      Column column = relation.column(name);
+      if (source.columnNames().contains(column.name())) {
+        continue;
+      }
+      source.addColumn(column);
+      copy.addColumn(column.emptyCopy());
+    }
+    Rows.copyRowsToTable(rows, source, copy);
+
+    int[] rowNumbers = rows.toArray();
+    Selection selection = new BitmapBackedSelection();
+    for (int row : apply(copy)) {
+      selection.add(rowNumbers[row]);
+    }
+    return selection;
+  }
 }
@@ -1,9 +1,58 @@
 package com.github.lwhite1.tablesaw.filtering;
 
+import com.github.lwhite1.tablesaw.api.Table;
+import com.github.lwhite1.tablesaw.util.RowPredicate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
 /**
  * A superclass for filters that operate on other filters, rather than directly on columns
  */
 
 abstract class CompositeFilter extends Filter {
 
+  // smaller tables are filtered in the order given, as estimating the filters would cost more than it could save
+  static final int MIN_ROWS_TO_ORDER = 16 * ColumnFilter.SAMPLE_ROWS;
+
+  // keeps a filter that is estimated to select all or none of the rows from having an infinite rank
+  static final double MIN_FRACTION = 1e-6;
+
+  /**
+   * Returns the given filters in increasing order of the given rank
+   */
+  static List<Filter> order(List<Filter> filters, Table relation, ToDoubleFunction<Filter> rank) {
+    if (filters.size() < 2 || relation.rowCount() < MIN_ROWS_TO_ORDER) {
+      return filters;
+    }
+    Map<Filter, Double> ranks = new IdentityHashMap<>();
+    for (Filter filter : filters) {
+      ranks.put(filter, rank.applyAsDouble(filter));
+    }
+    List<Filter> ordered = new ArrayList<>(filters);
+    ordered.sort(Comparator.comparingDouble(ranks::get));
+    return ordered;
+  }
+
+  /**
+   * Returns the compiled tests of the given filters, in the same order, or null if there are none, or if any of the
+   * filters can't be compiled
+   */
+  static RowPredicate[] compile(List<Filter> filters, Table relation) {
+    if (filters.isEmpty()) {
+      return null;
+    }
+    RowPredicate[] tests = new RowPredicate[filters.size()];
+    for (int i = 0; i < tests.length; i++) {
+      tests[i] = filters.get(i).compile(relation);
+      if (tests[i] == null) {
+        return null;
+      }
+    }
+    return tests;
+  }
 }
@@ -3,6 +3,7 @@ package com.github.lwhite1.tablesaw.filtering;
 import com.github.lwhite1.tablesaw.api.DateColumn;
 import com.github.lwhite1.tablesaw.api.Table;
 import com.github.lwhite1.tablesaw.columns.ColumnReference;
+import com.github.lwhite1.tablesaw.columns.packeddata.PackedLocalDate;
 import com.github.lwhite1.tablesaw.util.Selection;
 
 import java.time.LocalDate;
@@ -18,7 +19,16 @@ public class DateEqualTo extends ColumnFilter {
     this.value = value;
   }
 
+  public LocalDate getValue() {
+    return value;
+  }
+
   public Selection apply(Table relation) {
+    int packed = PackedLocalDate.pack(value);
+    Selection indexed = indexLookup(relation, packed, packed);
+    if (indexed != null) {
+      return indexed;
+    }
     DateColumn dateColumn = (DateColumn) relation.column(columnReference.getColumnName());
     return dateColumn.isEqualTo(value);
   }
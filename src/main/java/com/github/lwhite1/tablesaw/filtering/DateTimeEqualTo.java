@@ -3,6 +3,7 @@ package com.github.lwhite1.tablesaw.filtering;
 import com.github.lwhite1.tablesaw.api.DateTimeColumn;
 import com.github.lwhite1.tablesaw.api.Table;
 import com.github.lwhite1.tablesaw.columns.ColumnReference;
+import com.github.lwhite1.tablesaw.columns.packeddata.PackedLocalDateTime;
 import com.github.lwhite1.tablesaw.util.Selection;
 
 import java.time.LocalDateTime;
@@ -19,6 +20,11 @@ public class DateTimeEqualTo extends ColumnFilter {
   }
 
   public Selection apply(Table relation) {
+    long packed = PackedLocalDateTime.pack(value);
+    Selection indexed = indexLookup(relation, packed, packed);
+    if (indexed != null) {
+      return indexed;
+    }
     DateTimeColumn dateColumn = (DateTimeColumn) relation.column(columnReference.getColumnName());
     return dateColumn.isEqualTo(value);
   }
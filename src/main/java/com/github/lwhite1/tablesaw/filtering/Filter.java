@@ -1,6 +1,7 @@
 package com.github.lwhite1.tablesaw.filtering;
 
 import com.github.lwhite1.tablesaw.api.Table;
+import com.github.lwhite1.tablesaw.util.RowPredicate;
 import com.github.lwhite1.tablesaw.util.Selection;
 
 /**
@@ -9,4 +10,43 @@ import com.github.lwhite1.tablesaw.util.Selection;
 public abstract class Filter {
 
   public abstract Selection apply(Table relation);
+
+  /**
+   * Returns the rows among the given ones that pass this filter. The given selection is not changed.
+   * <p>
+   * This lets a composite filter apply each of its filters only to the rows that could still change its result.
+   * By default the filter is applied to the whole table and the result intersected with the given rows
+   */
+  public Selection apply(Table relation, Selection rows) {
+    Selection selection = apply(relation);
+    selection.and(rows);
+    return selection;
+  }
+
+  /**
+   * Returns an estimate of the fraction of the rows in the given table that pass this filter
+   */
+  public double selectivity(Table relation) {
+    return 0.5;
+  }
+
+  /**
+   * Returns an estimate of the relative cost of applying this filter to a row, where a comparison on a numeric
+   * column costs 1
+   */
+  double cost(Table relation) {
+    return 1;
+  }
+
+  /**
+   * Returns a test of whether a row of the given table passes this filter, which reads the values from the columns'
+   * backing arrays, or null if the filter can't be tested a row at a time, or is better applied to the whole table.
+   * The test is good until the table is changed.
+   * <p>
+   * A composite filter whose filters can all be tested this way is applied in one pass over the rows, which tests
+   * each row against them all, rather than by combining a selection from each filter
+   */
+  protected RowPredicate compile(Table relation) {
+    return null;
+  }
 }
@@ -3,7 +3,9 @@ package com.github.lwhite1.tablesaw.filtering;
 import com.github.lwhite1.tablesaw.api.FloatColumn;
 import com.github.lwhite1.tablesaw.api.Table;
 import com.github.lwhite1.tablesaw.columns.ColumnReference;
+import com.github.lwhite1.tablesaw.util.RowPredicate;
 import com.github.lwhite1.tablesaw.util.Selection;
+import com.github.lwhite1.tablesaw.util.SelectionKernels.Comparison;
 
 /**
  *
@@ -17,8 +19,21 @@ public class FloatEqualTo extends ColumnFilter {
     this.value = value;
   }
 
+  public float getValue() {
+    return value;
+  }
+
   public Selection apply(Table relation) {
+    Selection indexed = floatIndexLookup(relation, value, value);
+    if (indexed != null) {
+      return indexed;
+    }
     FloatColumn floatColumn = (FloatColumn) relation.column(columnReference.getColumnName());
     return floatColumn.isEqualTo(value);
   }
+
+  @Override
+  protected RowPredicate compile(Table relation) {
+    return compileFloatComparison(relation, Comparison.EQUAL_TO, value);
+  }
 }
@@ -3,7 +3,9 @@ package com.github.lwhite1.tablesaw.filtering;
 import com.github.lwhite1.tablesaw.api.FloatColumn;
 import com.github.lwhite1.tablesaw.api.Table;
 import com.github.lwhite1.tablesaw.columns.ColumnReference;
+import com.github.lwhite1.tablesaw.util.RowPredicate;
 import com.github.lwhite1.tablesaw.util.Selection;
+import com.github.lwhite1.tablesaw.util.SelectionKernels.Comparison;
 
 /**
  */
@@ -16,8 +18,17 @@ public class FloatLessThanOrEqualTo extends ColumnFilter {
     this.value = value;
   }
 
+  public float getValue() {
+    return value;
+  }
+
   public Selection apply(Table relation) {
     FloatColumn floatColumn = (FloatColumn) relation.column(columnReference.getColumnName());
     return floatColumn.isLessThanOrEqualTo(value);
   }
+
+  @Override
+  protected RowPredicate compile(Table relation) {
+    return compileFloatComparison(relation, Comparison.LESS_THAN_OR_EQUAL_TO, value);
+  }
 }
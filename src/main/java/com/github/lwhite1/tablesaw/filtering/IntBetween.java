@@ -1,8 +1,10 @@
 package com.github.lwhite1.tablesaw.filtering;
 
+import com.github.lwhite1.tablesaw.api.ColumnType;
 import com.github.lwhite1.tablesaw.api.IntColumn;
 import com.github.lwhite1.tablesaw.api.Table;
 import com.github.lwhite1.tablesaw.columns.ColumnReference;
+import com.github.lwhite1.tablesaw.util.RowPredicate;
 import com.github.lwhite1.tablesaw.util.Selection;
 
 /**
@@ -17,10 +19,30 @@ public class IntBetween extends ColumnFilter {
     this.high = highValue;
   }
 
+  public int getLow() {
+    return low;
+  }
+
+  public int getHigh() {
+    return high;
+  }
+
   public Selection apply(Table relation) {
+    Selection indexed = indexLookup(relation, (long) low + 1, (long) high - 1);
+    if (indexed != null) {
+      return indexed;
+    }
     IntColumn intColumn = (IntColumn) relation.column(columnReference.getColumnName());
     Selection matches = intColumn.isGreaterThan(low);
-    matches.toBitmap().and(intColumn.isLessThan(high).toBitmap());
+    matches.and(intColumn.isLessThan(high));
     return matches;
   }
+
+  @Override
+  protected RowPredicate compile(Table relation) {
+    if (relation.column(columnReference.getColumnName()).type() != ColumnType.INTEGER) {
+      return null;
+    }
+    return compileBetween(relation, (long) low + 1, (long) high - 1);
+  }
 }
@@ -8,7 +8,9 @@ import com.github.lwhite1.tablesaw.api.ShortColumn;
 import com.github.lwhite1.tablesaw.api.Table;
 import com.github.lwhite1.tablesaw.columns.Column;
 import com.github.lwhite1.tablesaw.columns.ColumnReference;
+import com.github.lwhite1.tablesaw.util.RowPredicate;
 import com.github.lwhite1.tablesaw.util.Selection;
+import com.github.lwhite1.tablesaw.util.SelectionKernels.Comparison;
 
 /**
  */
@@ -21,9 +23,18 @@ public class IntEqualTo extends ColumnFilter {
     this.value = value;
   }
 
+  public int getValue() {
+    return value;
+  }
+
   public Selection apply(Table table) {
     Column column = table.column(columnReference.getColumnName());
     ColumnType type = column.type();
+    int key = type == ColumnType.SHORT_INT ? (short) value : value;
+    Selection indexed = type == ColumnType.FLOAT ? floatIndexLookup(table, value, value) : indexLookup(table, key, key);
+    if (indexed != null) {
+      return indexed;
+    }
     switch(type) {
       case INTEGER:
         IntColumn intColumn = (IntColumn) column;
@@ -41,4 +52,17 @@ public class IntEqualTo extends ColumnFilter {
         throw new UnsupportedOperationException("IsEqualTo(anInt) is not supported for column type " + type);
     }
   }
+
+  @Override
+  protected RowPredicate compile(Table relation) {
+    ColumnType type = relation.column(columnReference.getColumnName()).type();
+    switch (type) {
+      case SHORT_INT:
+        return compileComparison(relation, Comparison.EQUAL_TO, (short) value);
+      case FLOAT:
+        return compileFloatComparison(relation, Comparison.EQUAL_TO, (float) value);
+      default:
+        return compileComparison(relation, Comparison.EQUAL_TO, value);
+    }
+  }
 }
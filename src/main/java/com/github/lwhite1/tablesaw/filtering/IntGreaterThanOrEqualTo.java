@@ -7,7 +7,9 @@ import com.github.lwhite1.tablesaw.api.ShortColumn;
 import com.github.lwhite1.tablesaw.api.Table;
 import com.github.lwhite1.tablesaw.columns.Column;
 import com.github.lwhite1.tablesaw.columns.ColumnReference;
+import com.github.lwhite1.tablesaw.util.RowPredicate;
 import com.github.lwhite1.tablesaw.util.Selection;
+import com.github.lwhite1.tablesaw.util.SelectionKernels.Comparison;
 
 /**
  */
@@ -20,6 +22,10 @@ public class IntGreaterThanOrEqualTo extends ColumnFilter {
     this.value = value;
   }
 
+  public int getValue() {
+    return value;
+  }
+
   public Selection apply(Table relation) {
 
     String name = columnReference.getColumnName();
@@ -40,4 +46,9 @@ public class IntGreaterThanOrEqualTo extends ColumnFilter {
             + "greaterThanOrEqualTo(anInt) ");
     }
   }
+
+  @Override
+  protected RowPredicate compile(Table relation) {
+    return compileComparison(relation, Comparison.GREATER_THAN_OR_EQUAL_TO, value);
+  }
 }
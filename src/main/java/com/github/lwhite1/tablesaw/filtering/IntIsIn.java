@@ -24,6 +24,10 @@ public class IntIsIn extends ColumnFilter {
   }
 
   public Selection apply(Table relation) {
+    Selection indexed = indexLookupIn(relation, filterColumn.data());
+    if (indexed != null) {
+      return indexed;
+    }
     IntColumn intColumn = (IntColumn) relation.column(columnReference.getColumnName());
     IntSet firstSet = intColumn.asSet();
     firstSet.retainAll(filterColumn.data());
@@ -7,7 +7,9 @@ import com.github.lwhite1.tablesaw.api.ShortColumn;
 import com.github.lwhite1.tablesaw.api.Table;
 import com.github.lwhite1.tablesaw.columns.Column;
 import com.github.lwhite1.tablesaw.columns.ColumnReference;
+import com.github.lwhite1.tablesaw.util.RowPredicate;
 import com.github.lwhite1.tablesaw.util.Selection;
+import com.github.lwhite1.tablesaw.util.SelectionKernels.Comparison;
 
 /**
  */
@@ -20,6 +22,10 @@ public class IntLessThan extends ColumnFilter {
     this.value = value;
   }
 
+  public int getValue() {
+    return value;
+  }
+
   public Selection apply(Table relation) {
     String name = columnReference.getColumnName();
     Column column = relation.column(name);
@@ -39,4 +45,9 @@ public class IntLessThan extends ColumnFilter {
             + "lessThan(anInt) ");
     }
   }
+
+  @Override
+  protected RowPredicate compile(Table relation) {
+    return compileComparison(relation, Comparison.LESS_THAN, value);
+  }
 }
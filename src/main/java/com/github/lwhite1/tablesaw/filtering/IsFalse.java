@@ -2,6 +2,7 @@ package com.github.lwhite1.tablesaw.filtering;
 
 import com.github.lwhite1.tablesaw.api.Table;
 import com.github.lwhite1.tablesaw.util.BitmapBackedSelection;
+import com.github.lwhite1.tablesaw.util.RowPredicate;
 import com.github.lwhite1.tablesaw.util.Selection;
 
 import javax.annotation.concurrent.Immutable;
@@ -32,4 +33,27 @@ public class IsFalse extends CompositeFilter {
     selection.andNot(filter.apply(relation));
     return selection;
   }
+
+  @Override
+  public Selection apply(Table relation, Selection rows) {
+    Selection selection = new BitmapBackedSelection(rows.toBitmap());
+    selection.andNot(filter.apply(relation, rows));
+    return selection;
+  }
+
+  @Override
+  public double selectivity(Table relation) {
+    return 1 - filter.selectivity(relation);
+  }
+
+  @Override
+  double cost(Table relation) {
+    return filter.cost(relation);
+  }
+
+  @Override
+  protected RowPredicate compile(Table relation) {
+    RowPredicate test = filter.compile(relation);
+    return test == null ? null : row -> !test.test(row);
+  }
 }
@@ -1,6 +1,7 @@
 package com.github.lwhite1.tablesaw.filtering;
 
 import com.github.lwhite1.tablesaw.api.Table;
+import com.github.lwhite1.tablesaw.util.RowPredicate;
 import com.github.lwhite1.tablesaw.util.Selection;
 
 import javax.annotation.concurrent.Immutable;
@@ -30,4 +31,24 @@ public class IsTrue extends CompositeFilter {
   public Selection apply(Table relation) {
     return filter.apply(relation);
   }
+
+  @Override
+  public Selection apply(Table relation, Selection rows) {
+    return filter.apply(relation, rows);
+  }
+
+  @Override
+  public double selectivity(Table relation) {
+    return filter.selectivity(relation);
+  }
+
+  @Override
+  double cost(Table relation) {
+    return filter.cost(relation);
+  }
+
+  @Override
+  protected RowPredicate compile(Table relation) {
+    return filter.compile(relation);
+  }
 }
@@ -3,6 +3,7 @@ package com.github.lwhite1.tablesaw.filtering;
 import com.github.lwhite1.tablesaw.api.DateColumn;
 import com.github.lwhite1.tablesaw.api.Table;
 import com.github.lwhite1.tablesaw.columns.ColumnReference;
+import com.github.lwhite1.tablesaw.columns.packeddata.PackedLocalDate;
 import com.github.lwhite1.tablesaw.util.Selection;
 
 import java.time.LocalDate;
@@ -19,7 +20,21 @@ public class LocalDateBetween extends ColumnFilter {
     this.high = highValue;
   }
 
+  public LocalDate getLow() {
+    return low;
+  }
+
+  public LocalDate getHigh() {
+    return high;
+  }
+
   public Selection apply(Table relation) {
+    long packedLow = PackedLocalDate.pack(low);
+    long packedHigh = PackedLocalDate.pack(high);
+    Selection indexed = indexLookup(relation, packedLow + 1, packedHigh - 1);
+    if (indexed != null) {
+      return indexed;
+    }
     DateColumn column = (DateColumn) relation.column(columnReference.getColumnName());
     Selection matches = column.isAfter(low);
     matches.and(column.isBefore(high));
@@ -5,6 +5,7 @@ import com.github.lwhite1.tablesaw.api.ColumnType;
 import com.github.lwhite1.tablesaw.api.Table;
 import com.github.lwhite1.tablesaw.columns.Column;
 import com.github.lwhite1.tablesaw.columns.ColumnReference;
+import com.github.lwhite1.tablesaw.util.RowPredicate;
 import com.github.lwhite1.tablesaw.util.Selection;
 
 /**
@@ -19,6 +20,10 @@ public class StringEqualTo extends ColumnFilter {
     this.value = value;
   }
 
+  public String getValue() {
+    return value;
+  }
+
   public Selection apply(Table relation) {
     Column column = relation.column(columnReference.getColumnName());
     ColumnType type = column.type();
@@ -32,4 +37,19 @@ public class StringEqualTo extends ColumnFilter {
             String.format("ColumnType %s does not support equalTo on a String value", type));
     }
   }
+
+  @Override
+  protected RowPredicate compile(Table relation) {
+    Column column = relation.column(columnReference.getColumnName());
+    if (column.type() != ColumnType.CATEGORY) {
+      return null;
+    }
+    CategoryColumn categoryColumn = (CategoryColumn) column;
+    int key = categoryColumn.dictionaryMap().get(value);
+    if (key < 0) {
+      return row -> false;
+    }
+    int[] values = categoryColumn.values().elements();
+    return row -> values[row] == key;
+  }
 }
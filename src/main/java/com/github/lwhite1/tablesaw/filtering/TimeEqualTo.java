@@ -3,6 +3,7 @@ package com.github.lwhite1.tablesaw.filtering;
 import com.github.lwhite1.tablesaw.api.Table;
 import com.github.lwhite1.tablesaw.api.TimeColumn;
 import com.github.lwhite1.tablesaw.columns.ColumnReference;
+import com.github.lwhite1.tablesaw.columns.packeddata.PackedLocalTime;
 import com.github.lwhite1.tablesaw.util.Selection;
 
 import java.time.LocalTime;
@@ -19,6 +20,11 @@ public class TimeEqualTo extends ColumnFilter {
   }
 
   public Selection apply(Table relation) {
+    int packed = PackedLocalTime.pack(value);
+    Selection indexed = indexLookup(relation, packed, packed);
+    if (indexed != null) {
+      return indexed;
+    }
     TimeColumn dateColumn = (TimeColumn) relation.column(columnReference.getColumnName());
     return dateColumn.isEqualTo(value);
   }
@@ -11,6 +11,9 @@ import com.github.lwhite1.tablesaw.filtering.ColumnFilter;
 import com.github.lwhite1.tablesaw.util.Selection;
 import com.google.common.base.Preconditions;
 
+import java.util.Arrays;
+import java.util.List;
+
 /**
  *
  */
@@ -23,6 +26,11 @@ public class ColumnEqualTo extends ColumnFilter {
     otherColumn = b;
   }
 
+  @Override
+  protected List<String> columnNames() {
+    return Arrays.asList(columnReference().getColumnName(), otherColumn.getColumnName());
+  }
+
   public Selection apply(Table relation) {
 
     Column column = relation.column(columnReference().getColumnName());
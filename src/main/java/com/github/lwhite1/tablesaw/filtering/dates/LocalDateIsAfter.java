@@ -22,6 +22,10 @@ public class LocalDateIsAfter extends ColumnFilter {
     this.value = value;
   }
 
+  public int getValue() {
+    return value;
+  }
+
   @Override
   public Selection apply(Table relation) {
 
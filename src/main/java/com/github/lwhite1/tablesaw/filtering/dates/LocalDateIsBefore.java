@@ -18,6 +18,10 @@ public class LocalDateIsBefore extends ColumnFilter {
     this.value = value;
   }
 
+  public int getValue() {
+    return value;
+  }
+
   @Override
   public Selection apply(Table relation) {
 
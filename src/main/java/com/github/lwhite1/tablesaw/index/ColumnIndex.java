@@ -0,0 +1,62 @@
+package com.github.lwhite1.tablesaw.index;
+
+import com.github.lwhite1.tablesaw.api.DateColumn;
+import com.github.lwhite1.tablesaw.api.DateTimeColumn;
+import com.github.lwhite1.tablesaw.api.FloatColumn;
+import com.github.lwhite1.tablesaw.api.IntColumn;
+import com.github.lwhite1.tablesaw.api.LongColumn;
+import com.github.lwhite1.tablesaw.api.ShortColumn;
+import com.github.lwhite1.tablesaw.api.TimeColumn;
+import com.github.lwhite1.tablesaw.columns.Column;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * An index on the values in a column, which is kept up to date as rows are added to the column
+ */
+public interface ColumnIndex {
+
+  /**
+   * Returns the column this index is on
+   */
+  Column column();
+
+  /**
+   * Writes the contents of the index, so they can be read back by {@link #readFrom(DataInput)} instead of being
+   * rebuilt from the column
+   */
+  void writeTo(DataOutput out) throws IOException;
+
+  /**
+   * Replaces the contents of the index with ones written by {@link #writeTo(DataOutput)}
+   */
+  void readFrom(DataInput in) throws IOException;
+
+  /**
+   * Returns a new index on the given column
+   *
+   * @throws IllegalArgumentException if columns of that type can't be indexed
+   */
+  static ColumnIndex create(Column column) {
+    switch (column.type()) {
+      case INTEGER:
+        return new IntIndex((IntColumn) column);
+      case SHORT_INT:
+        return new IntIndex((ShortColumn) column);
+      case LOCAL_DATE:
+        return new IntIndex((DateColumn) column);
+      case LOCAL_TIME:
+        return new IntIndex((TimeColumn) column);
+      case LONG_INT:
+        return new LongIndex((LongColumn) column);
+      case LOCAL_DATE_TIME:
+        return new LongIndex((DateTimeColumn) column);
+      case FLOAT:
+        return new FloatIndex((FloatColumn) column);
+      default:
+        throw new IllegalArgumentException("Columns of type " + column.type() + " can't be indexed");
+    }
+  }
+}
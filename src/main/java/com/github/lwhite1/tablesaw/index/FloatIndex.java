@@ -1,36 +1,35 @@
 package com.github.lwhite1.tablesaw.index;
 
 import com.github.lwhite1.tablesaw.api.FloatColumn;
+import com.github.lwhite1.tablesaw.columns.Column;
 import com.github.lwhite1.tablesaw.util.BitmapBackedSelection;
 import com.github.lwhite1.tablesaw.util.Selection;
-import it.unimi.dsi.fastutil.floats.Float2ObjectAVLTreeMap;
-import it.unimi.dsi.fastutil.floats.Float2ObjectOpenHashMap;
-import it.unimi.dsi.fastutil.floats.Float2ObjectSortedMap;
-import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 
 /**
  * An index for four-byte floating point columns
+ * <p>
+ * Each value is indexed by an int that sorts as {@link Float#compare(float, float)} sorts the floats, which puts -0.0
+ * just before 0.0, and NaN after everything else
  */
-public class FloatIndex {
+public class FloatIndex implements ColumnIndex {
+
+  private final FloatColumn column;
 
-  private final Float2ObjectAVLTreeMap<IntArrayList> index;
+  // the index of the int keys of the values
+  private final IntIndex keys;
 
   public FloatIndex(FloatColumn column) {
-    int sizeEstimate = Integer.min(1_000_000, column.size() / 100);
-    Float2ObjectOpenHashMap<IntArrayList> tempMap = new Float2ObjectOpenHashMap<>(sizeEstimate);
-    for (int i = 0; i < column.size(); i++) {
-      float value = column.get(i);
-      IntArrayList recordIds = tempMap.get(value);
-      if (recordIds == null) {
-        recordIds = new IntArrayList();
-        recordIds.add(i);
-        tempMap.trim();
-        tempMap.put(value, recordIds);
-      } else {
-        recordIds.add(i);
-      }
-    }
-    index = new Float2ObjectAVLTreeMap<>(tempMap);
+    this.column = column;
+    this.keys = new IntIndex(column, row -> key(column.get(row)), column::modCount);
+  }
+
+  @Override
+  public Column column() {
+    return column;
   }
 
   /**
@@ -39,51 +38,77 @@ public class FloatIndex {
    * @param value This is a 'key' from the index perspective, meaning it is a value from the standpoint of the column
    */
   public Selection get(float value) {
-    Selection selection = new BitmapBackedSelection();
-    IntArrayList list = index.get(value);
-    addAllToSelection(list, selection);
-    return selection;
+    return keys.get(key(value));
   }
 
   public Selection atLeast(float value) {
-    Selection selection = new BitmapBackedSelection();
-    Float2ObjectSortedMap<IntArrayList> tail = index.tailMap(value);
-    for (IntArrayList keys : tail.values()) {
-      addAllToSelection(keys, selection);
-    }
-    return selection;
+    return between(value, Float.POSITIVE_INFINITY);
   }
 
   public Selection greaterThan(float value) {
-    Selection selection = new BitmapBackedSelection();
-    Float2ObjectSortedMap<IntArrayList> tail = index.tailMap(value + 0.000001f);
-    for (IntArrayList keys : tail.values()) {
-      addAllToSelection(keys, selection);
+    if (value == Float.POSITIVE_INFINITY) {
+      return new BitmapBackedSelection();
     }
-    return selection;
+    return between(Math.nextUp(value), Float.POSITIVE_INFINITY);
   }
 
   public Selection atMost(float value) {
-    Selection selection = new BitmapBackedSelection();
-    Float2ObjectSortedMap<IntArrayList> head = index.headMap(value + 0.000001f);  // we add 1 to get values equal to the arg
-    for (IntArrayList keys : head.values()) {
-      addAllToSelection(keys, selection);
-    }
-    return selection;
+    return between(Float.NEGATIVE_INFINITY, value);
   }
 
   public Selection lessThan(float value) {
-    Selection selection = new BitmapBackedSelection();
-    Float2ObjectSortedMap<IntArrayList> head = index.headMap(value);  // we add 1 to get values equal to the arg
-    for (IntArrayList keys : head.values()) {
-      addAllToSelection(keys, selection);
+    if (value == Float.NEGATIVE_INFINITY) {
+      return new BitmapBackedSelection();
     }
-    return selection;
+    return between(Float.NEGATIVE_INFINITY, Math.nextDown(value));
   }
 
-  private static void addAllToSelection(IntArrayList tableKeys, Selection selection) {
-    for (int i : tableKeys) {
-      selection.add(i);
+  /**
+   * Returns the rows whose values are between {@code low} and {@code high}, inclusive, as compared by the Java
+   * operators: missing (NaN) values are never included, and 0.0 and -0.0 are equal
+   */
+  public Selection between(float low, float high) {
+    if (!(low <= high)) {
+      return new BitmapBackedSelection();
+    }
+    return keys.between(lowKey(low), highKey(high));
+  }
+
+  /**
+   * Returns the number of rows whose values are between {@code low} and {@code high}, inclusive, or stops counting
+   * and returns a number greater than {@code limit} once there are more than that
+   */
+  public int count(float low, float high, int limit) {
+    if (!(low <= high)) {
+      return 0;
     }
+    return keys.count(lowKey(low), highKey(high), limit);
+  }
+
+  @Override
+  public void writeTo(DataOutput out) throws IOException {
+    keys.writeTo(out);
+  }
+
+  @Override
+  public void readFrom(DataInput in) throws IOException {
+    keys.readFrom(in);
+  }
+
+  private static int lowKey(float low) {
+    return key(low == 0 ? -0.0f : low);
+  }
+
+  private static int highKey(float high) {
+    return key(high == 0 ? 0.0f : high);
+  }
+
+  /**
+   * Returns an int that orders among the others as the given float does by {@link Float#compare(float, float)}
+   */
+  private static int key(float value) {
+    int bits = Float.floatToIntBits(value);
+    // negative floats order in reverse of their bits, so all but the sign bit are flipped
+    return bits ^ ((bits >> 31) & Integer.MAX_VALUE);
   }
-}
\ No newline at end of file
+}
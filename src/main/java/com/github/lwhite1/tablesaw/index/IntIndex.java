@@ -2,82 +2,73 @@ package com.github.lwhite1.tablesaw.index;
 
 import com.github.lwhite1.tablesaw.api.DateColumn;
 import com.github.lwhite1.tablesaw.api.IntColumn;
+import com.github.lwhite1.tablesaw.api.ShortColumn;
 import com.github.lwhite1.tablesaw.api.TimeColumn;
+import com.github.lwhite1.tablesaw.columns.Column;
 import com.github.lwhite1.tablesaw.util.BitmapBackedSelection;
 import com.github.lwhite1.tablesaw.util.Selection;
-import it.unimi.dsi.fastutil.ints.Int2ObjectAVLTreeMap;
-import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
-import it.unimi.dsi.fastutil.ints.Int2ObjectSortedMap;
-import it.unimi.dsi.fastutil.ints.IntArrayList;
+import org.roaringbitmap.RoaringBitmap;
 
-import java.util.Comparator;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.function.IntSupplier;
+import java.util.function.IntUnaryOperator;
 
 /**
- * An index for four-byte integer and integer backed columns (date, category, time)
+ * An index for four-byte integer and integer backed columns (date, time), and for short columns
+ * <p>
+ * The rows are held sorted by value, in compressed sparse row form. Rows added to the column since they were sorted
+ * are checked one by one at each lookup, until there are enough of them to be worth sorting and merging in. The
+ * postings are rebuilt if the column's values have been changed in place, by set, clear or a sort, since they were
+ * built.
  */
-public class IntIndex {
+public class IntIndex implements ColumnIndex {
 
-  private final Int2ObjectAVLTreeMap<IntArrayList> index;
+  // the postings are brought up to date once more than this many rows, and more than one in this many of all the rows,
+  // have been added since they were built
+  private static final int MAX_UNSORTED_ROWS = 4096;
+  private static final int MAX_UNSORTED_RATIO = 16;
+
+  private final Column column;
+
+  // the value in each row, as an int
+  private final IntUnaryOperator values;
+
+  // the number of times the column's values have been changed in place
+  private final IntSupplier modCount;
+
+  // the postings for the first rows of the column, and the column's modification count when they were built
+  private volatile IntPostings postings = IntPostings.EMPTY;
+  private volatile int postingsModCount;
 
   public IntIndex(IntColumn column) {
-    int sizeEstimate = Integer.min(1_000_000, column.size() / 100);
-    Int2ObjectOpenHashMap<IntArrayList> tempMap = new Int2ObjectOpenHashMap<>(sizeEstimate);
-    for (int i = 0; i < column.size(); i++) {
-      int value = column.get(i);
-      IntArrayList recordIds = tempMap.get(value);
-      if (recordIds == null) {
-        recordIds = new IntArrayList();
-        recordIds.add(i);
-        tempMap.trim();
-        tempMap.put(value, recordIds);
-      } else {
-        recordIds.add(i);
-      }
-    }
-    index = new Int2ObjectAVLTreeMap<>(tempMap);
+    this(column, column::get, column::modCount);
+  }
+
+  public IntIndex(ShortColumn column) {
+    this(column, column::get, column::modCount);
   }
 
   public IntIndex(DateColumn column) {
-    int sizeEstimate = Integer.min(1_000_000, column.size() / 100);
-    Int2ObjectOpenHashMap<IntArrayList> tempMap = new Int2ObjectOpenHashMap<>(sizeEstimate);
-    for (int i = 0; i < column.size(); i++) {
-      int value = column.getInt(i);
-      IntArrayList recordIds = tempMap.get(value);
-      if (recordIds == null) {
-        recordIds = new IntArrayList();
-        recordIds.add(i);
-        tempMap.trim();
-        tempMap.put(value, recordIds);
-      } else {
-        recordIds.add(i);
-      }
-    }
-    index = new Int2ObjectAVLTreeMap<>(tempMap);
+    this(column, column::getInt, column::modCount);
   }
 
   public IntIndex(TimeColumn column) {
-    int sizeEstimate = Integer.min(1_000_000, column.size() / 100);
-    Int2ObjectOpenHashMap<IntArrayList> tempMap = new Int2ObjectOpenHashMap<>(sizeEstimate);
-    for (int i = 0; i < column.size(); i++) {
-      int value = column.getInt(i);
-      IntArrayList recordIds = tempMap.get(value);
-      if (recordIds == null) {
-        recordIds = new IntArrayList();
-        recordIds.add(i);
-        tempMap.trim();
-        tempMap.put(value, recordIds);
-      } else {
-        recordIds.add(i);
-      }
-    }
-    index = new Int2ObjectAVLTreeMap<>(tempMap);
+    this(column, column::getInt, column::modCount);
   }
 
-  private final static Comparator<int[]> intArrayComparator = new Comparator<int[]>() {
-    public int compare(int[] a, int[] b) {
-      return Integer.compare(a[1], b[1]);
-    }
-  };
+  IntIndex(Column column, IntUnaryOperator values, IntSupplier modCount) {
+    this.column = column;
+    this.values = values;
+    this.modCount = modCount;
+    this.postingsModCount = modCount.getAsInt();
+  }
+
+  @Override
+  public Column column() {
+    return column;
+  }
 
   /**
    * Returns a bitmap containing row numbers of all cells matching the given int
@@ -85,51 +76,113 @@ public class IntIndex {
    * @param value This is a 'key' from the index perspective, meaning it is a value from the standpoint of the column
    */
   public Selection get(int value) {
-    Selection selection = new BitmapBackedSelection();
-    IntArrayList list = index.get(value);
-    addAllToSelection(list, selection);
-    return selection;
+    return between(value, value);
   }
 
   public Selection atLeast(int value) {
-    Selection selection = new BitmapBackedSelection();
-    Int2ObjectSortedMap<IntArrayList> tail = index.tailMap(value);
-    for (IntArrayList keys : tail.values()) {
-      addAllToSelection(keys, selection);
-    }
-    return selection;
+    return between(value, Integer.MAX_VALUE);
   }
 
   public Selection greaterThan(int value) {
-    Selection selection = new BitmapBackedSelection();
-    Int2ObjectSortedMap<IntArrayList> tail = index.tailMap(value + 1);
-    for (IntArrayList keys : tail.values()) {
-      addAllToSelection(keys, selection);
+    if (value == Integer.MAX_VALUE) {
+      return new BitmapBackedSelection();
     }
-    return selection;
+    return between(value + 1, Integer.MAX_VALUE);
   }
 
   public Selection atMost(int value) {
-    Selection selection = new BitmapBackedSelection();
-    Int2ObjectSortedMap<IntArrayList> head = index.headMap(value + 1);  // we add 1 to get values equal to the arg
-    for (IntArrayList keys : head.values()) {
-      addAllToSelection(keys, selection);
-    }
-    return selection;
+    return between(Integer.MIN_VALUE, value);
   }
 
   public Selection lessThan(int value) {
-    Selection selection = new BitmapBackedSelection();
-    Int2ObjectSortedMap<IntArrayList> head = index.headMap(value);  // we add 1 to get values equal to the arg
-    for (IntArrayList keys : head.values()) {
-      addAllToSelection(keys, selection);
+    if (value == Integer.MIN_VALUE) {
+      return new BitmapBackedSelection();
+    }
+    return between(Integer.MIN_VALUE, value - 1);
+  }
+
+  /**
+   * Returns the rows whose values are between {@code low} and {@code high}, inclusive
+   */
+  public Selection between(int low, int high) {
+    RoaringBitmap bitmap = new RoaringBitmap();
+    if (low <= high) {
+      IntPostings sorted = postings();
+      sorted.addRows(sorted.ceiling(low), sorted.higher(high), bitmap);
+      int size = column.size();
+      for (int row = sorted.size(); row < size; row++) {
+        int value = values.applyAsInt(row);
+        if (value >= low && value <= high) {
+          bitmap.add(row);
+        }
+      }
     }
-    return selection;
+    return new BitmapBackedSelection(bitmap);
+  }
+
+  /**
+   * Returns the number of rows whose values are between {@code low} and {@code high}, inclusive, or stops counting
+   * and returns a number greater than {@code limit} once there are more than that
+   */
+  public int count(int low, int high, int limit) {
+    int count = 0;
+    if (low <= high) {
+      IntPostings sorted = postings();
+      count = sorted.rowCount(sorted.ceiling(low), sorted.higher(high));
+      int size = column.size();
+      for (int row = sorted.size(); row < size && count <= limit; row++) {
+        int value = values.applyAsInt(row);
+        if (value >= low && value <= high) {
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public void writeTo(DataOutput out) throws IOException {
+    update().writeTo(out);
   }
 
-  private static void addAllToSelection(IntArrayList tableKeys, Selection selection) {
-    for (int i : tableKeys) {
-      selection.add(i);
+  @Override
+  public void readFrom(DataInput in) throws IOException {
+    IntPostings read = IntPostings.readFrom(in);
+    synchronized (this) {
+      postingsModCount = modCount.getAsInt();
+      postings = read;
+    }
+  }
+
+  /**
+   * Returns the postings, first bringing them up to date if too many rows have been added to the column since they
+   * were built, or if its values have been changed in place
+   */
+  private IntPostings postings() {
+    IntPostings current = postings;
+    int unsorted = column.size() - current.size();
+    if (postingsModCount == modCount.getAsInt()
+        && unsorted >= 0 && unsorted <= Math.max(MAX_UNSORTED_ROWS, current.size() / MAX_UNSORTED_RATIO)) {
+      return current;
+    }
+    return update();
+  }
+
+  /**
+   * Sorts the rows added to the column since the postings were built and merges them in, or rebuilds the postings if
+   * the column's values have been changed in place or it has shrunk
+   */
+  private synchronized IntPostings update() {
+    IntPostings current = postings;
+    int size = column.size();
+    int columnModCount = modCount.getAsInt();
+    if (columnModCount != postingsModCount || size < current.size()) {
+      current = IntPostings.build(values, 0, size);
+      postingsModCount = columnModCount;
+    } else if (size > current.size()) {
+      current = current.merge(IntPostings.build(values, current.size(), size));
     }
+    postings = current;
+    return current;
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,240 @@
+package com.github.lwhite1.tablesaw.index;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * The rows of a column grouped by value, in compressed sparse row form: the distinct values in ascending order, one
+ * array that holds the rows of each value in turn, and the offset in that array at which each value's rows start.
+ * <p>
+ * Every row costs one int and every distinct value two, with no object per value. The arrays are written out
+ * one after another as they are, so an index is read back without being rebuilt. Instances are immutable; rows are
+ * added by merging.
+ */
+final class IntPostings {
+
+  static final IntPostings EMPTY = new IntPostings(new int[0], new int[1], new int[0]);
+
+  // larger ranges of rows are sorted in chunks of this many on separate threads, and the chunks merged
+  private static final int CHUNK_ROWS = 1 << 20;
+
+  private static final int RADIX_BITS = 8;
+  private static final int RADIX = 1 << RADIX_BITS;
+
+  // the distinct values, in ascending order
+  private final int[] keys;
+
+  // the rows of keys[k] are rows[offsets[k]] up to rows[offsets[k + 1]]
+  private final int[] offsets;
+
+  // the rows, grouped by value, in ascending order within each group
+  private final int[] rows;
+
+  private IntPostings(int[] keys, int[] offsets, int[] rows) {
+    this.keys = keys;
+    this.offsets = offsets;
+    this.rows = rows;
+  }
+
+  /**
+   * Returns the postings for the rows from {@code from} up to {@code to}, whose values are given by the function
+   */
+  static IntPostings build(IntUnaryOperator values, int from, int to) {
+    if (to - from <= CHUNK_ROWS) {
+      return sort(values, from, to);
+    }
+    int chunks = (to - from + CHUNK_ROWS - 1) / CHUNK_ROWS;
+    return IntStream.range(0, chunks)
+        .parallel()
+        .mapToObj(c -> sort(values, from + c * CHUNK_ROWS, Math.min(to, from + (c + 1) * CHUNK_ROWS)))
+        .reduce(IntPostings::merge)
+        .orElse(EMPTY);
+  }
+
+  /**
+   * Returns the number of rows
+   */
+  int size() {
+    return rows.length;
+  }
+
+  /**
+   * Returns the position of the first value that is at least {@code value}, or the number of values if there is none
+   */
+  int ceiling(int value) {
+    int low = 0;
+    int high = keys.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (keys[mid] < value) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Returns the position of the first value that is greater than {@code value}, or the number of values if there is
+   * none
+   */
+  int higher(int value) {
+    return value == Integer.MAX_VALUE ? keys.length : ceiling(value + 1);
+  }
+
+  /**
+   * Returns the number of rows holding the values from position {@code from} up to position {@code to}
+   */
+  int rowCount(int from, int to) {
+    return from < to ? offsets[to] - offsets[from] : 0;
+  }
+
+  /**
+   * Adds the rows holding the values from position {@code from} up to position {@code to} to the bitmap
+   */
+  void addRows(int from, int to, RoaringBitmap bitmap) {
+    if (from < to) {
+      for (int i = offsets[from]; i < offsets[to]; i++) {
+        bitmap.add(rows[i]);
+      }
+    }
+  }
+
+  /**
+   * Returns postings holding the rows of both these and the given postings, whose rows must all come after these
+   */
+  IntPostings merge(IntPostings later) {
+    if (keys.length == 0) {
+      return later;
+    }
+    if (later.keys.length == 0) {
+      return this;
+    }
+    int[] mergedKeys = new int[keys.length + later.keys.length];
+    int[] mergedOffsets = new int[mergedKeys.length + 1];
+    int[] mergedRows = new int[rows.length + later.rows.length];
+    int i = 0;
+    int j = 0;
+    int k = 0;
+    int r = 0;
+    while (i < keys.length || j < later.keys.length) {
+      if (j == later.keys.length || (i < keys.length && keys[i] < later.keys[j])) {
+        mergedKeys[k] = keys[i];
+        r = copyRows(i++, mergedRows, r);
+      } else if (i == keys.length || later.keys[j] < keys[i]) {
+        mergedKeys[k] = later.keys[j];
+        r = later.copyRows(j++, mergedRows, r);
+      } else {
+        mergedKeys[k] = keys[i];
+        r = copyRows(i++, mergedRows, r);
+        r = later.copyRows(j++, mergedRows, r);
+      }
+      mergedOffsets[++k] = r;
+    }
+    return new IntPostings(Arrays.copyOf(mergedKeys, k), Arrays.copyOf(mergedOffsets, k + 1), mergedRows);
+  }
+
+  void writeTo(DataOutput out) throws IOException {
+    out.writeInt(keys.length);
+    out.writeInt(rows.length);
+    for (int key : keys) {
+      out.writeInt(key);
+    }
+    for (int k = 1; k <= keys.length; k++) {
+      out.writeInt(offsets[k]);
+    }
+    for (int row : rows) {
+      out.writeInt(row);
+    }
+  }
+
+  static IntPostings readFrom(DataInput in) throws IOException {
+    int[] keys = new int[in.readInt()];
+    int[] offsets = new int[keys.length + 1];
+    int[] rows = new int[in.readInt()];
+    for (int k = 0; k < keys.length; k++) {
+      keys[k] = in.readInt();
+    }
+    for (int k = 1; k <= keys.length; k++) {
+      offsets[k] = in.readInt();
+    }
+    for (int i = 0; i < rows.length; i++) {
+      rows[i] = in.readInt();
+    }
+    return new IntPostings(keys, offsets, rows);
+  }
+
+  /**
+   * Copies the rows of the value at the given position into {@code dest}, starting at {@code at}, and returns the
+   * position after the last one copied
+   */
+  private int copyRows(int position, int[] dest, int at) {
+    int length = offsets[position + 1] - offsets[position];
+    System.arraycopy(rows, offsets[position], dest, at, length);
+    return at + length;
+  }
+
+  /**
+   * Sorts the rows by value with a least significant digit radix sort, which is stable, so the rows of each value
+   * stay in ascending order
+   */
+  private static IntPostings sort(IntUnaryOperator values, int from, int to) {
+    int n = to - from;
+    if (n == 0) {
+      return EMPTY;
+    }
+    int[] keys = new int[n];
+    int[] rows = new int[n];
+    for (int i = 0; i < n; i++) {
+      // flipping the sign bit makes the unsigned order of the digits the signed order of the values
+      keys[i] = values.applyAsInt(from + i) ^ Integer.MIN_VALUE;
+      rows[i] = from + i;
+    }
+    int[] keyBuffer = new int[n];
+    int[] rowBuffer = new int[n];
+    int[] counts = new int[RADIX + 1];
+    for (int shift = 0; shift < Integer.SIZE; shift += RADIX_BITS) {
+      Arrays.fill(counts, 0);
+      for (int i = 0; i < n; i++) {
+        counts[((keys[i] >>> shift) & (RADIX - 1)) + 1]++;
+      }
+      if (counts[((keys[0] >>> shift) & (RADIX - 1)) + 1] == n) {
+        // every value has the same digit, so this pass wouldn't move anything
+        continue;
+      }
+      for (int d = 0; d < RADIX; d++) {
+        counts[d + 1] += counts[d];
+      }
+      for (int i = 0; i < n; i++) {
+        int position = counts[(keys[i] >>> shift) & (RADIX - 1)]++;
+        keyBuffer[position] = keys[i];
+        rowBuffer[position] = rows[i];
+      }
+      int[] swap = keys;
+      keys = keyBuffer;
+      keyBuffer = swap;
+      swap = rows;
+      rows = rowBuffer;
+      rowBuffer = swap;
+    }
+
+    // group the sorted values, reusing the buffer for the distinct ones
+    int[] offsets = new int[n + 1];
+    int distinct = 0;
+    for (int i = 0; i < n; i++) {
+      if (i == 0 || keys[i] != keys[i - 1]) {
+        keyBuffer[distinct] = keys[i] ^ Integer.MIN_VALUE;
+        offsets[distinct++] = i;
+      }
+    }
+    offsets[distinct] = n;
+    return new IntPostings(Arrays.copyOf(keyBuffer, distinct), Arrays.copyOf(offsets, distinct + 1), rows);
+  }
+}
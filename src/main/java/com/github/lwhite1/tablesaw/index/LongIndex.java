@@ -2,55 +2,62 @@ package com.github.lwhite1.tablesaw.index;
 
 import com.github.lwhite1.tablesaw.api.DateTimeColumn;
 import com.github.lwhite1.tablesaw.api.LongColumn;
+import com.github.lwhite1.tablesaw.columns.Column;
 import com.github.lwhite1.tablesaw.util.BitmapBackedSelection;
 import com.github.lwhite1.tablesaw.util.Selection;
+import org.roaringbitmap.RoaringBitmap;
 
-import it.unimi.dsi.fastutil.ints.IntArrayList;
-import it.unimi.dsi.fastutil.longs.Long2ObjectAVLTreeMap;
-import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
-import it.unimi.dsi.fastutil.longs.Long2ObjectSortedMap;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.function.IntSupplier;
+import java.util.function.IntToLongFunction;
 
 /**
  * An index for eight-byte long and long backed columns (datetime)
+ * <p>
+ * The rows are held sorted by value, in compressed sparse row form. Rows added to the column since they were sorted
+ * are checked one by one at each lookup, until there are enough of them to be worth sorting and merging in. The
+ * postings are rebuilt if the column's values have been changed in place, by set, clear or a sort, since they were
+ * built.
  */
-public class LongIndex {
+public class LongIndex implements ColumnIndex {
 
-  private final Long2ObjectAVLTreeMap<IntArrayList> index;
+  // the postings are brought up to date once more than this many rows, and more than one in this many of all the rows,
+  // have been added since they were built
+  private static final int MAX_UNSORTED_ROWS = 4096;
+  private static final int MAX_UNSORTED_RATIO = 16;
+
+  private final Column column;
+
+  // the value in each row, as a long
+  private final IntToLongFunction values;
+
+  // the number of times the column's values have been changed in place
+  private final IntSupplier modCount;
+
+  // the postings for the first rows of the column, and the column's modification count when they were built
+  private volatile LongPostings postings = LongPostings.EMPTY;
+  private volatile int postingsModCount;
 
   public LongIndex(LongColumn column) {
-    int sizeEstimate = Integer.min(1_000_000, column.size() / 100);
-    Long2ObjectOpenHashMap<IntArrayList> tempMap = new Long2ObjectOpenHashMap<>(sizeEstimate);
-    for (int i = 0; i < column.size(); i++) {
-      long value = column.get(i);
-      IntArrayList recordIds = tempMap.get(value);
-      if (recordIds == null) {
-        recordIds = new IntArrayList();
-        recordIds.add(i);
-        tempMap.trim();
-        tempMap.put(value, recordIds);
-      } else {
-        recordIds.add(i);
-      }
-    }
-    index = new Long2ObjectAVLTreeMap<>(tempMap);
+    this(column, column::get, column::modCount);
   }
 
   public LongIndex(DateTimeColumn column) {
-    int sizeEstimate = Integer.min(1_000_000, column.size() / 100);
-    Long2ObjectOpenHashMap<IntArrayList> tempMap = new Long2ObjectOpenHashMap<>(sizeEstimate);
-    for (int i = 0; i < column.size(); i++) {
-      long value = column.getLong(i);
-      IntArrayList recordIds = tempMap.get(value);
-      if (recordIds == null) {
-        recordIds = new IntArrayList();
-        recordIds.add(i);
-        tempMap.trim();
-        tempMap.put(value, recordIds);
-      } else {
-        recordIds.add(i);
-      }
-    }
-    index = new Long2ObjectAVLTreeMap<>(tempMap);
+    this(column, column::getLong, column::modCount);
+  }
+
+  private LongIndex(Column column, IntToLongFunction values, IntSupplier modCount) {
+    this.column = column;
+    this.values = values;
+    this.modCount = modCount;
+    this.postingsModCount = modCount.getAsInt();
+  }
+
+  @Override
+  public Column column() {
+    return column;
   }
 
   /**
@@ -59,51 +66,113 @@ public class LongIndex {
    * @param value This is a 'key' from the index perspective, meaning it is a value from the standpoint of the column
    */
   public Selection get(long value) {
-    Selection selection = new BitmapBackedSelection();
-    IntArrayList list = index.get(value);
-    addAllToSelection(list, selection);
-    return selection;
+    return between(value, value);
   }
 
   public Selection atLeast(long value) {
-    Selection selection = new BitmapBackedSelection();
-    Long2ObjectSortedMap<IntArrayList> tail = index.tailMap(value);
-    for (IntArrayList keys : tail.values()) {
-      addAllToSelection(keys, selection);
-    }
-    return selection;
+    return between(value, Long.MAX_VALUE);
   }
 
   public Selection greaterThan(long value) {
-    Selection selection = new BitmapBackedSelection();
-    Long2ObjectSortedMap<IntArrayList> tail = index.tailMap(value + 1);
-    for (IntArrayList keys : tail.values()) {
-      addAllToSelection(keys, selection);
+    if (value == Long.MAX_VALUE) {
+      return new BitmapBackedSelection();
     }
-    return selection;
+    return between(value + 1, Long.MAX_VALUE);
   }
 
   public Selection atMost(long value) {
-    Selection selection = new BitmapBackedSelection();
-    Long2ObjectSortedMap<IntArrayList> head = index.headMap(value + 1);  // we add 1 to get values equal to the arg
-    for (IntArrayList keys : head.values()) {
-      addAllToSelection(keys, selection);
-    }
-    return selection;
+    return between(Long.MIN_VALUE, value);
   }
 
   public Selection lessThan(long value) {
-    Selection selection = new BitmapBackedSelection();
-    Long2ObjectSortedMap<IntArrayList> head = index.headMap(value);  // we add 1 to get values equal to the arg
-    for (IntArrayList keys : head.values()) {
-      addAllToSelection(keys, selection);
+    if (value == Long.MIN_VALUE) {
+      return new BitmapBackedSelection();
+    }
+    return between(Long.MIN_VALUE, value - 1);
+  }
+
+  /**
+   * Returns the rows whose values are between {@code low} and {@code high}, inclusive
+   */
+  public Selection between(long low, long high) {
+    RoaringBitmap bitmap = new RoaringBitmap();
+    if (low <= high) {
+      LongPostings sorted = postings();
+      sorted.addRows(sorted.ceiling(low), sorted.higher(high), bitmap);
+      int size = column.size();
+      for (int row = sorted.size(); row < size; row++) {
+        long value = values.applyAsLong(row);
+        if (value >= low && value <= high) {
+          bitmap.add(row);
+        }
+      }
+    }
+    return new BitmapBackedSelection(bitmap);
+  }
+
+  /**
+   * Returns the number of rows whose values are between {@code low} and {@code high}, inclusive, or stops counting
+   * and returns a number greater than {@code limit} once there are more than that
+   */
+  public int count(long low, long high, int limit) {
+    int count = 0;
+    if (low <= high) {
+      LongPostings sorted = postings();
+      count = sorted.rowCount(sorted.ceiling(low), sorted.higher(high));
+      int size = column.size();
+      for (int row = sorted.size(); row < size && count <= limit; row++) {
+        long value = values.applyAsLong(row);
+        if (value >= low && value <= high) {
+          count++;
+        }
+      }
     }
-    return selection;
+    return count;
   }
 
-  private static void addAllToSelection(IntArrayList tableKeys, Selection selection) {
-    for (int i : tableKeys) {
-      selection.add(i);
+  @Override
+  public void writeTo(DataOutput out) throws IOException {
+    update().writeTo(out);
+  }
+
+  @Override
+  public void readFrom(DataInput in) throws IOException {
+    LongPostings read = LongPostings.readFrom(in);
+    synchronized (this) {
+      postingsModCount = modCount.getAsInt();
+      postings = read;
+    }
+  }
+
+  /**
+   * Returns the postings, first bringing them up to date if too many rows have been added to the column since they
+   * were built, or if its values have been changed in place
+   */
+  private LongPostings postings() {
+    LongPostings current = postings;
+    int unsorted = column.size() - current.size();
+    if (postingsModCount == modCount.getAsInt()
+        && unsorted >= 0 && unsorted <= Math.max(MAX_UNSORTED_ROWS, current.size() / MAX_UNSORTED_RATIO)) {
+      return current;
+    }
+    return update();
+  }
+
+  /**
+   * Sorts the rows added to the column since the postings were built and merges them in, or rebuilds the postings if
+   * the column's values have been changed in place or it has shrunk
+   */
+  private synchronized LongPostings update() {
+    LongPostings current = postings;
+    int size = column.size();
+    int columnModCount = modCount.getAsInt();
+    if (columnModCount != postingsModCount || size < current.size()) {
+      current = LongPostings.build(values, 0, size);
+      postingsModCount = columnModCount;
+    } else if (size > current.size()) {
+      current = current.merge(LongPostings.build(values, current.size(), size));
     }
+    postings = current;
+    return current;
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,598 @@
+package com.github.lwhite1.tablesaw.io.csv;
+
+import com.github.lwhite1.tablesaw.api.BooleanColumn;
+import com.github.lwhite1.tablesaw.api.CategoryColumn;
+import com.github.lwhite1.tablesaw.api.DateColumn;
+import com.github.lwhite1.tablesaw.api.DateTimeColumn;
+import com.github.lwhite1.tablesaw.api.FloatColumn;
+import com.github.lwhite1.tablesaw.api.IntColumn;
+import com.github.lwhite1.tablesaw.api.LongColumn;
+import com.github.lwhite1.tablesaw.api.ShortColumn;
+import com.github.lwhite1.tablesaw.api.TimeColumn;
+import com.github.lwhite1.tablesaw.columns.Column;
+import com.github.lwhite1.tablesaw.columns.packeddata.PackedLocalDate;
+import com.github.lwhite1.tablesaw.columns.packeddata.PackedLocalTime;
+import com.github.lwhite1.tablesaw.io.TypeUtils;
+
+import java.time.Year;
+import java.util.Arrays;
+
+/**
+ * Adds CSV fields to a column straight from the tokenizer's char array, without making a String of each one.
+ * <p>
+ * Plain integers and decimals (with or without thousands separators), booleans, ISO dates, month-first dates with
+ * slashes, ISO times, and date-times made of those are converted directly. A category field is looked up in a
+ * table keyed by its characters, so a String is only made for a value the column hasn't seen. Anything else,
+ * including any value that can't be converted, is handed to the column's {@code addCell(String)}, so the results,
+ * and the errors, are the same as when every field is read as a String.
+ */
+abstract class CellParser {
+
+  private static final String[] MISSING_INDICATORS =
+      TypeUtils.MISSING_INDICATORS.toArray(new String[TypeUtils.MISSING_INDICATORS.size()]);
+  private static final String[] TRUE_STRINGS = TypeUtils.TRUE_STRINGS.toArray(new String[0]);
+  private static final String[] FALSE_STRINGS = TypeUtils.FALSE_STRINGS.toArray(new String[0]);
+
+  // the powers of ten that a double holds exactly
+  private static final double[] POWERS_OF_TEN = new double[23];
+
+  static {
+    POWERS_OF_TEN[0] = 1;
+    for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+      POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+    }
+  }
+
+  private final Column column;
+
+  // the result of the last successful call to parseLong or parseFloat
+  long parsedLong;
+  float parsedFloat;
+
+  CellParser(Column column) {
+    this.column = column;
+  }
+
+  /**
+   * Returns a parser that adds fields to the given column
+   */
+  static CellParser create(Column column) {
+    switch (column.type()) {
+      case INTEGER:
+        return new IntParser((IntColumn) column);
+      case SHORT_INT:
+        return new ShortParser((ShortColumn) column);
+      case LONG_INT:
+        return new LongParser((LongColumn) column);
+      case FLOAT:
+        return new FloatParser((FloatColumn) column);
+      case BOOLEAN:
+        return new BooleanParser((BooleanColumn) column);
+      case LOCAL_DATE:
+        return new DateParser((DateColumn) column);
+      case LOCAL_TIME:
+        return new TimeParser((TimeColumn) column);
+      case LOCAL_DATE_TIME:
+        return new DateTimeParser((DateTimeColumn) column);
+      case CATEGORY:
+        return new CategoryParser((CategoryColumn) column);
+      default:
+        return new StringParser(column);
+    }
+  }
+
+  /**
+   * Adds the field held in {@code chars} from {@code from} up to {@code to} to the column
+   */
+  abstract void add(char[] chars, int from, int to);
+
+  /**
+   * Forgets anything remembered about the column's values, for when the column has been cleared
+   */
+  void clear() {
+  }
+
+  /**
+   * Adds the field the slow way, as a String
+   */
+  void addString(char[] chars, int from, int to) {
+    column.addCell(new String(chars, from, to - from));
+  }
+
+  /**
+   * Adds a missing value
+   */
+  void addMissing() {
+    column.addCell("");
+  }
+
+  static boolean isMissing(char[] chars, int from, int to) {
+    return from == to || equalsAny(MISSING_INDICATORS, chars, from, to);
+  }
+
+  /**
+   * Reads a whole number, ignoring any commas, into {@code parsedLong}, returning false if the field isn't one or it
+   * doesn't fit in a long
+   */
+  boolean parseLong(char[] chars, int from, int to) {
+    int i = from;
+    boolean negative = false;
+    if (i < to && (chars[i] == '-' || chars[i] == '+')) {
+      negative = chars[i] == '-';
+      i++;
+    }
+    // accumulated as a negative number, so Long.MIN_VALUE can be read
+    long value = 0;
+    boolean anyDigits = false;
+    for (; i < to; i++) {
+      char c = chars[i];
+      if (c >= '0' && c <= '9') {
+        if (value < Long.MIN_VALUE / 10) {
+          return false;
+        }
+        value *= 10;
+        int digit = c - '0';
+        if (value < Long.MIN_VALUE + digit) {
+          return false;
+        }
+        value -= digit;
+        anyDigits = true;
+      } else if (c != ',') {
+        return false;
+      }
+    }
+    if (!anyDigits || (!negative && value == Long.MIN_VALUE)) {
+      return false;
+    }
+    parsedLong = negative ? value : -value;
+    return true;
+  }
+
+  /**
+   * Reads a decimal number without an exponent, ignoring any commas, into {@code parsedFloat}, returning false if
+   * the field isn't one, or it has too many digits to be converted exactly this way
+   */
+  boolean parseFloat(char[] chars, int from, int to) {
+    int i = from;
+    boolean negative = false;
+    if (i < to && (chars[i] == '-' || chars[i] == '+')) {
+      negative = chars[i] == '-';
+      i++;
+    }
+    long mantissa = 0;
+    int scale = 0;
+    boolean anyDigits = false;
+    boolean point = false;
+    for (; i < to; i++) {
+      char c = chars[i];
+      if (c >= '0' && c <= '9') {
+        mantissa = mantissa * 10 + (c - '0');
+        if (mantissa > (1L << 53)) {
+          return false;
+        }
+        if (point) {
+          scale++;
+        }
+        anyDigits = true;
+      } else if (c == '.' && !point) {
+        point = true;
+      } else if (c != ',') {
+        return false;
+      }
+    }
+    if (!anyDigits || scale >= POWERS_OF_TEN.length) {
+      return false;
+    }
+    // both operands are exact and the double quotient is correctly rounded, so rounding it again to a float gives
+    // the same result as Float.parseFloat
+    float value = (float) (mantissa / POWERS_OF_TEN[scale]);
+    parsedFloat = negative ? -value : value;
+    return true;
+  }
+
+  private static boolean equalsAny(String[] strings, char[] chars, int from, int to) {
+    for (String string : strings) {
+      if (contentEquals(string, chars, from, to)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  static boolean contentEquals(String string, char[] chars, int from, int to) {
+    if (string.length() != to - from) {
+      return false;
+    }
+    for (int i = from; i < to; i++) {
+      if (string.charAt(i - from) != chars[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the number written in the given run of ASCII digits, or -1 if any of them is not a digit
+   */
+  static int digits(char[] chars, int from, int to) {
+    int value = 0;
+    for (int i = from; i < to; i++) {
+      char c = chars[i];
+      if (c < '0' || c > '9') {
+        return -1;
+      }
+      value = value * 10 + (c - '0');
+    }
+    return value;
+  }
+
+  /**
+   * Returns the packed form of a date written as yyyy-MM-dd, M/d/yyyy or MM/dd/yyyy, or -1 if it isn't one of those
+   * or isn't a valid date
+   */
+  static int parseDate(char[] chars, int from, int to) {
+    int year;
+    int month;
+    int day;
+    if (to - from == 10 && chars[from + 4] == '-' && chars[from + 7] == '-') {
+      year = digits(chars, from, from + 4);
+      month = digits(chars, from + 5, from + 7);
+      day = digits(chars, from + 8, from + 10);
+    } else {
+      int slash1 = indexOf('/', chars, from, to);
+      int slash2 = indexOf('/', chars, slash1 + 1, to);
+      if (slash1 < 0 || slash2 < 0 || slash1 - from > 2 || slash2 - slash1 > 3 || to - slash2 != 5) {
+        return -1;
+      }
+      month = slash1 > from ? digits(chars, from, slash1) : -1;
+      day = slash2 > slash1 + 1 ? digits(chars, slash1 + 1, slash2) : -1;
+      year = digits(chars, slash2 + 1, to);
+    }
+    if (year < 1 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+      return -1;
+    }
+    return PackedLocalDate.pack((short) year, (byte) month, (byte) day);
+  }
+
+  /**
+   * Returns the packed form of a time written as HH:mm, HH:mm:ss, or HH:mm:ss followed by a fraction of a second, or
+   * -1 if it isn't one of those. If {@code millisDigits} is not -1, a fraction must have exactly that many digits
+   */
+  static int parseTime(char[] chars, int from, int to, boolean secondsRequired, int millisDigits) {
+    int length = to - from;
+    if (length < 5 || chars[from + 2] != ':') {
+      return -1;
+    }
+    int hour = digits(chars, from, from + 2);
+    int minute = digits(chars, from + 3, from + 5);
+    int second = 0;
+    int millis = 0;
+    if (length > 5) {
+      if (length < 8 || chars[from + 5] != ':') {
+        return -1;
+      }
+      second = digits(chars, from + 6, from + 8);
+      if (length > 8) {
+        int fractionDigits = length - 9;
+        if (chars[from + 8] != '.' || fractionDigits < 1 || fractionDigits > 9
+            || (millisDigits != -1 && fractionDigits != millisDigits)) {
+          return -1;
+        }
+        int fraction = digits(chars, from + 9, to);
+        if (fraction < 0) {
+          return -1;
+        }
+        // only milliseconds are kept
+        millis = digits(chars, from + 9, from + 9 + Math.min(3, fractionDigits));
+        for (int i = fractionDigits; i < 3; i++) {
+          millis *= 10;
+        }
+      }
+    } else if (secondsRequired) {
+      return -1;
+    }
+    if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+      return -1;
+    }
+    return PackedLocalTime.pack((byte) hour, (byte) minute, (byte) second, (short) millis);
+  }
+
+  private static int indexOf(char c, char[] chars, int from, int to) {
+    for (int i = from; i < to; i++) {
+      if (chars[i] == c) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static int lengthOfMonth(int year, int month) {
+    switch (month) {
+      case 2:
+        return Year.isLeap(year) ? 29 : 28;
+      case 4:
+      case 6:
+      case 9:
+      case 11:
+        return 30;
+      default:
+        return 31;
+    }
+  }
+
+  private static final class IntParser extends CellParser {
+
+    private final IntColumn column;
+
+    IntParser(IntColumn column) {
+      super(column);
+      this.column = column;
+    }
+
+    @Override
+    void add(char[] chars, int from, int to) {
+      if (isMissing(chars, from, to)) {
+        addMissing();
+      } else if (parseLong(chars, from, to) && parsedLong == (int) parsedLong) {
+        column.add((int) parsedLong);
+      } else {
+        addString(chars, from, to);
+      }
+    }
+  }
+
+  private static final class ShortParser extends CellParser {
+
+    private final ShortColumn column;
+
+    ShortParser(ShortColumn column) {
+      super(column);
+      this.column = column;
+    }
+
+    @Override
+    void add(char[] chars, int from, int to) {
+      if (isMissing(chars, from, to)) {
+        addMissing();
+      } else if (parseLong(chars, from, to) && parsedLong == (short) parsedLong) {
+        column.add((short) parsedLong);
+      } else {
+        addString(chars, from, to);
+      }
+    }
+  }
+
+  private static final class LongParser extends CellParser {
+
+    private final LongColumn column;
+
+    LongParser(LongColumn column) {
+      super(column);
+      this.column = column;
+    }
+
+    @Override
+    void add(char[] chars, int from, int to) {
+      if (isMissing(chars, from, to)) {
+        addMissing();
+      } else if (parseLong(chars, from, to)) {
+        column.add(parsedLong);
+      } else {
+        addString(chars, from, to);
+      }
+    }
+  }
+
+  private static final class FloatParser extends CellParser {
+
+    private final FloatColumn column;
+
+    FloatParser(FloatColumn column) {
+      super(column);
+      this.column = column;
+    }
+
+    @Override
+    void add(char[] chars, int from, int to) {
+      if (isMissing(chars, from, to)) {
+        addMissing();
+      } else if (parseFloat(chars, from, to)) {
+        column.add(parsedFloat);
+      } else {
+        addString(chars, from, to);
+      }
+    }
+  }
+
+  private static final class BooleanParser extends CellParser {
+
+    private final BooleanColumn column;
+
+    BooleanParser(BooleanColumn column) {
+      super(column);
+      this.column = column;
+    }
+
+    @Override
+    void add(char[] chars, int from, int to) {
+      if (isMissing(chars, from, to)) {
+        addMissing();
+      } else if (equalsAny(TRUE_STRINGS, chars, from, to)) {
+        column.add(true);
+      } else if (equalsAny(FALSE_STRINGS, chars, from, to)) {
+        column.add(false);
+      } else {
+        addString(chars, from, to);
+      }
+    }
+  }
+
+  private static final class DateParser extends CellParser {
+
+    private final DateColumn column;
+
+    DateParser(DateColumn column) {
+      super(column);
+      this.column = column;
+    }
+
+    @Override
+    void add(char[] chars, int from, int to) {
+      int date = parseDate(chars, from, to);
+      if (date != -1) {
+        column.add(date);
+      } else if (isMissing(chars, from, to)) {
+        addMissing();
+      } else {
+        addString(chars, from, to);
+      }
+    }
+  }
+
+  private static final class TimeParser extends CellParser {
+
+    private final TimeColumn column;
+
+    TimeParser(TimeColumn column) {
+      super(column);
+      this.column = column;
+    }
+
+    @Override
+    void add(char[] chars, int from, int to) {
+      int time = parseTime(chars, from, to, false, -1);
+      if (time != -1) {
+        column.add(time);
+      } else if (isMissing(chars, from, to)) {
+        addMissing();
+      } else {
+        addString(chars, from, to);
+      }
+    }
+  }
+
+  private static final class DateTimeParser extends CellParser {
+
+    private final DateTimeColumn column;
+
+    DateTimeParser(DateTimeColumn column) {
+      super(column);
+      this.column = column;
+    }
+
+    @Override
+    void add(char[] chars, int from, int to) {
+      int date = to - from > 11 && chars[from + 4] == '-' ? parseDate(chars, from, from + 10) : -1;
+      int time = -1;
+      if (date != -1) {
+        char separator = chars[from + 10];
+        if (separator == 'T') {
+          time = parseTime(chars, from + 11, to, false, -1);
+        } else if (separator == ' ') {
+          // with a space, the seconds are required, and a fraction must be milliseconds
+          time = parseTime(chars, from + 11, to, true, 3);
+        }
+      }
+      if (time != -1) {
+        column.add((((long) date) << 32) | (time & 0xffffffffL));
+      } else if (isMissing(chars, from, to)) {
+        addMissing();
+      } else {
+        addString(chars, from, to);
+      }
+    }
+  }
+
+  /**
+   * Adds category values, remembering the dictionary key of each distinct value by its characters
+   */
+  private static final class CategoryParser extends CellParser {
+
+    private final CategoryColumn column;
+
+    // an open-addressing table from each value added to its key, sized to a power of two
+    private String[] values = new String[64];
+    private int[] keys = new int[64];
+    private int size;
+
+    CategoryParser(CategoryColumn column) {
+      super(column);
+      this.column = column;
+    }
+
+    @Override
+    void add(char[] chars, int from, int to) {
+      if (isMissing(chars, from, to)) {
+        addMissing();
+        return;
+      }
+      int mask = values.length - 1;
+      int slot = spread(hash(chars, from, to)) & mask;
+      while (values[slot] != null) {
+        if (contentEquals(values[slot], chars, from, to)) {
+          column.data().add(keys[slot]);
+          return;
+        }
+        slot = (slot + 1) & mask;
+      }
+      String value = new String(chars, from, to - from);
+      column.add(value);
+      values[slot] = value;
+      keys[slot] = column.data().getInt(column.size() - 1);
+      if (++size * 2 > values.length) {
+        grow();
+      }
+    }
+
+    @Override
+    void clear() {
+      Arrays.fill(values, null);
+      size = 0;
+    }
+
+    private void grow() {
+      String[] oldValues = values;
+      int[] oldKeys = keys;
+      values = new String[2 * oldValues.length];
+      keys = new int[2 * oldKeys.length];
+      int mask = values.length - 1;
+      for (int i = 0; i < oldValues.length; i++) {
+        if (oldValues[i] != null) {
+          int slot = spread(oldValues[i].hashCode()) & mask;
+          while (values[slot] != null) {
+            slot = (slot + 1) & mask;
+          }
+          values[slot] = oldValues[i];
+          keys[slot] = oldKeys[i];
+        }
+      }
+    }
+
+    /**
+     * Returns the same hash as String.hashCode() would for the same characters
+     */
+    private static int hash(char[] chars, int from, int to) {
+      int hash = 0;
+      for (int i = from; i < to; i++) {
+        hash = 31 * hash + chars[i];
+      }
+      return hash;
+    }
+
+    private static int spread(int hash) {
+      return hash ^ (hash >>> 16);
+    }
+  }
+
+  private static final class StringParser extends CellParser {
+
+    StringParser(Column column) {
+      super(column);
+    }
+
+    @Override
+    void add(char[] chars, int from, int to) {
+      addString(chars, from, to);
+    }
+  }
+}
@@ -0,0 +1,205 @@
+package com.github.lwhite1.tablesaw.io.csv;
+
+import com.github.lwhite1.tablesaw.api.ColumnType;
+import com.github.lwhite1.tablesaw.api.Table;
+import com.github.lwhite1.tablesaw.columns.Column;
+import com.github.lwhite1.tablesaw.io.TypeUtils;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
+
+import java.io.Closeable;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads a CSV file as a sequence of tables of at most {@code batchSize} rows each, so a file of any size can be
+ * processed, or converted to the tablesaw format with {@code StorageManager.saveTable(folder, batches)}, while only
+ * one batch is held in memory.
+ * <p>
+ * To avoid reallocating the column buffers for every batch, the same table is returned each time, cleared and
+ * refilled with the next rows. A batch is only valid until the next call to {@link #next()}; copy any rows that need
+ * to be kept longer.
+ * <p>
+ * The first call to {@code next()} always returns a batch, which is empty if the file has no rows, so the columns
+ * can be seen even then.
+ * <p>
+ * Fields are converted straight from the tokenizer's buffer into the columns (see {@link CellParser}), so most
+ * cells are read without creating a String for them.
+ */
+public class CsvBatchReader implements Iterator<Table>, Closeable {
+
+  private final CsvTokenizer tokenizer;
+  private final int batchSize;
+  private final Table batch;
+  private final CellParser[] parsers;
+  private final String[] columnNames;
+  private final int[] columnIndexes;
+
+  // if true, a column is widened when a value doesn't fit its type (see TypePromotion), instead of failing
+  private final boolean promoteTypes;
+
+  // true if the tokenizer holds the next row to be added, which is read ahead so hasNext() can tell when the file
+  // is done
+  private boolean hasNextLine;
+  private long rowNumber;
+  private boolean returnedFirstBatch;
+
+  /**
+   * Opens the CSV file with the given name for reading in batches
+   *
+   * @param types           An array of the types of columns in the file, in the order they appear
+   * @param header          Is the first row in the file a header?
+   * @param columnSeparator the delimiter
+   * @param fileName        The fully specified file name. It is used to provide a default name for the table
+   * @param batchSize       The largest number of rows in each batch
+   */
+  public CsvBatchReader(ColumnType[] types, boolean header, char columnSeparator, String fileName, int batchSize)
+      throws IOException {
+    this(fileName, types, header, columnSeparator, new FileInputStream(fileName), batchSize);
+  }
+
+  /**
+   * Reads CSV data from the given stream in batches. The stream is closed when this reader is
+   */
+  public CsvBatchReader(String tableName, ColumnType[] types, boolean header, char columnSeparator,
+                        InputStream stream, int batchSize) throws IOException {
+    this(tableName, types, header, columnSeparator, stream, batchSize, false);
+  }
+
+  /**
+   * Reads CSV data from the given stream in batches, widening the type of any column that turns out not to fit a
+   * value if {@code promoteTypes} is true. As that can give a column a different type in one batch than in the
+   * last, it is only suited to reading the whole file as one batch
+   */
+  CsvBatchReader(String tableName, ColumnType[] types, boolean header, char columnSeparator,
+                 InputStream stream, int batchSize, boolean promoteTypes) throws IOException {
+    Preconditions.checkArgument(batchSize > 0, "The batch size must be positive");
+    this.batchSize = batchSize;
+    this.promoteTypes = promoteTypes;
+    this.tokenizer = new CsvTokenizer(new InputStreamReader(stream), columnSeparator);
+
+    List<String> headerRow;
+    if (header) {
+      tokenizer.next();
+      headerRow = Lists.newArrayList(tokenizer.fields());
+    } else {
+      headerRow = Lists.newArrayList(CsvReader.makeColumnNames(types));
+    }
+    columnNames = CsvReader.selectColumnNames(headerRow, types);
+
+    batch = Table.create(CsvReader.nameMaker(tableName));
+    for (int x = 0; x < types.length; x++) {
+      if (types[x] != ColumnType.SKIP) {
+        String columnName = headerRow.get(x);
+        if (Strings.isNullOrEmpty(columnName)) {
+          columnName = "Column " + batch.columnCount();
+        }
+        Column newColumn = TypeUtils.newColumn(columnName.trim(), types[x]);
+        batch.addColumn(newColumn);
+      }
+    }
+    columnIndexes = new int[columnNames.length];
+    parsers = new CellParser[columnNames.length];
+    for (int i = 0; i < columnIndexes.length; i++) {
+      // get the index in the original table, which includes skipped fields
+      columnIndexes[i] = headerRow.indexOf(columnNames[i]);
+      parsers[i] = CellParser.create(batch.column(i));
+    }
+    rowNumber = header ? 1L : 0L;
+    hasNextLine = tokenizer.next();
+  }
+
+  @Override
+  public boolean hasNext() {
+    return hasNextLine || !returnedFirstBatch;
+  }
+
+  /**
+   * Returns a table holding the next batch of rows
+   *
+   * @throws UncheckedIOException if the file cannot be read
+   */
+  @Override
+  public Table next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    try {
+      return fill(batchSize);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Returns a table holding all the rows that haven't been read yet
+   */
+  Table readRemaining() throws IOException {
+    return fill(Integer.MAX_VALUE);
+  }
+
+  private Table fill(int maxRows) throws IOException {
+    batch.clear();
+    for (CellParser parser : parsers) {
+      parser.clear();
+    }
+    returnedFirstBatch = true;
+    char[] chars = tokenizer.chars();
+    for (int row = 0; row < maxRows && hasNextLine; row++) {
+      // for each column that we're including (not skipping)
+      for (int cellIndex = 0; cellIndex < columnIndexes.length; cellIndex++) {
+        int columnIndex = columnIndexes[cellIndex];
+        try {
+          if (columnIndex >= tokenizer.fieldCount()) {
+            throw new ArrayIndexOutOfBoundsException(columnIndex);
+          }
+          parsers[cellIndex].add(chars, tokenizer.start(columnIndex), tokenizer.end(columnIndex));
+        } catch (Exception e) {
+          if (!promoteTypes || columnIndex >= tokenizer.fieldCount()
+              || !promote(cellIndex, chars, tokenizer.start(columnIndex), tokenizer.end(columnIndex))) {
+            throw new AddCellToColumnException(e, columnIndex, rowNumber, columnNames, tokenizer.fields());
+          }
+        }
+      }
+      rowNumber++;
+      hasNextLine = tokenizer.next();
+      // the tokenizer replaces its array when a record doesn't fit
+      chars = tokenizer.chars();
+    }
+    return batch;
+  }
+
+  /**
+   * Replaces the column at the given index with the narrowest wider one that accepts the given field, and adds the
+   * field to it. Returns false if no wider type accepts it
+   */
+  private boolean promote(int cellIndex, char[] chars, int from, int to) {
+    Column column = batch.column(cellIndex);
+    for (ColumnType type = TypePromotion.wider(column.type()); type != null; type = TypePromotion.wider(type)) {
+      Column promoted = TypePromotion.promote(column, type);
+      CellParser parser = CellParser.create(promoted);
+      try {
+        parser.add(chars, from, to);
+      } catch (Exception e) {
+        continue;
+      }
+      batch.removeColumn(cellIndex);
+      batch.addColumn(cellIndex, promoted);
+      parsers[cellIndex] = parser;
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public void close() throws IOException {
+    tokenizer.close();
+  }
+}
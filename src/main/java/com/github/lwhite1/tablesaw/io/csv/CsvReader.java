@@ -7,17 +7,20 @@ import com.github.lwhite1.tablesaw.io.TypeUtils;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
+import com.google.common.io.ByteStreams;
 import com.opencsv.CSVReader;
 import org.apache.commons.lang3.StringUtils;
 
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDate;
@@ -26,7 +29,11 @@ import java.time.LocalTime;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Predicate;
 
 import static com.github.lwhite1.tablesaw.api.ColumnType.*;
@@ -37,11 +44,15 @@ import static com.github.lwhite1.tablesaw.api.ColumnType.*;
 @Immutable
 public class CsvReader {
 
+  // the most of a file read to detect its column types
+  static final int DETECTION_SAMPLE_BYTES = 1 << 20;
+
   /**
    * Constructs and returns a table from one or more CSV files, all containing the same column types
    * <p>
    * This constructor assumes the files have a one-line header, which is used to populate the column names,
-   * and that they use a comma to separate between columns.
+   * and that they use a comma to separate between columns. When there are several files, they are read
+   * concurrently, and their rows appended in the order the files are given.
    *
    * @throws IOException If there is an issue reading any of the files
    */
@@ -49,16 +60,65 @@ public class CsvReader {
     if (fileNames.length == 1) {
       return read(types, true, ',', fileNames[0]);
     } else {
-
-      Table table = read(types, true, ',', fileNames[0]);
-      for (int i = 1; i < fileNames.length; i++) {
-        String fileName = fileNames[i];
-        table.append(read(types, true, ',', fileName));
+      int threads = Math.min(fileNames.length, Runtime.getRuntime().availableProcessors());
+      ExecutorService executor = Executors.newFixedThreadPool(threads);
+      try {
+        List<CompletableFuture<Table>> tables = new ArrayList<>(fileNames.length);
+        for (String fileName : fileNames) {
+          tables.add(CompletableFuture.supplyAsync(() -> {
+            try {
+              return read(types, true, ',', fileName);
+            } catch (IOException e) {
+              throw new UncheckedIOException(e);
+            }
+          }, executor));
+        }
+        Table table = tables.get(0).join();
+        for (int i = 1; i < tables.size(); i++) {
+          table.append(tables.get(i).join());
+        }
+        return table;
+      } catch (CompletionException e) {
+        if (e.getCause() instanceof UncheckedIOException) {
+          throw ((UncheckedIOException) e.getCause()).getCause();
+        }
+        throw e;
+      } finally {
+        executor.shutdown();
       }
-      return table;
     }
   }
 
+  /**
+   * Returns a Table constructed from a CSV File with the given file name, parsed on as many threads as there are
+   * processors
+   * <p>
+   * The file is split into chunks of whole records, each of which is parsed and converted on its own thread, so this
+   * is much faster than {@link #read(ColumnType[], boolean, char, String)} for large files. Files of a few megabytes
+   * or less are read on a single thread.
+   *
+   * @param types           An array of the types of columns in the file, in the order they appear
+   * @param header          Is the first row in the file a header?
+   * @param columnSeparator the delimiter
+   * @param fileName        The fully specified file name. It is used to provide a default name for the table
+   * @return A Table containing the data in the csv file.
+   * @throws IOException
+   */
+  public static Table readParallel(ColumnType types[], boolean header, char columnSeparator, String fileName)
+      throws IOException {
+    return readParallel(types, header, columnSeparator, fileName, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Returns a Table constructed from a CSV File with the given file name, parsed on the given number of threads
+   *
+   * @see #readParallel(ColumnType[], boolean, char, String)
+   */
+  public static Table readParallel(ColumnType types[], boolean header, char columnSeparator, String fileName,
+                                   int threads) throws IOException {
+    return ParallelCsvReader.read(types, header, columnSeparator, fileName, threads);
+  }
+
   /**
    * Returns a Table constructed from a CSV File with the given file name
    * <p>
@@ -78,6 +138,10 @@ public class CsvReader {
 
   /**
    * Retuns the given file after autodetecting the column types, or trying to
+   * <p>
+   * The types are detected from a sample of the start of the file, and the file is then read once. If a value later
+   * in the file doesn't fit the type detected for its column, the column is widened to a type that does fit: whole
+   * numbers from short to int to long to float, and anything else to a category.
    *
    * @param fileName The name of the file to load
    * @param header      True if the file has a single header row. False if it has no header row.
@@ -88,64 +152,35 @@ public class CsvReader {
    */
   public static Table read(String fileName, boolean header, char delimiter) throws IOException {
     ColumnType[] columnTypes = detectColumnTypes(fileName, header, delimiter);
-    return read(columnTypes, true, delimiter, fileName);
+    try (CsvBatchReader reader = new CsvBatchReader(fileName, columnTypes, header, delimiter,
+        new FileInputStream(fileName), 1, true)) {
+      return reader.readRemaining();
+    }
   }
 
 
   public static Table read(String tableName, ColumnType types[], boolean header, char columnSeparator, InputStream stream)
       throws IOException {
 
-    BufferedReader streamReader = new BufferedReader(new InputStreamReader(stream));
-
-    Table table;
-    try (CSVReader reader = new CSVReader(streamReader, columnSeparator, '"')) {
-
-      String[] nextLine;
-      String[] columnNames;
-      List<String> headerRow;
-      if (header) {
-        nextLine = reader.readNext();
-        headerRow = Lists.newArrayList(nextLine);
-        columnNames = selectColumnNames(headerRow, types);
-      } else {
-        columnNames = makeColumnNames(types);
-        headerRow = Lists.newArrayList(columnNames);
-      }
-
-      table = Table.create(nameMaker(tableName));
-      for (int x = 0; x < types.length; x++) {
-        if (types[x] != ColumnType.SKIP) {
-          String columnName = headerRow.get(x);
-          if (Strings.isNullOrEmpty(columnName)) {
-            columnName = "Column " + table.columnCount();
-          }
-          Column newColumn = TypeUtils.newColumn(columnName.trim(), types[x]);
-          table.addColumn(newColumn);
-        }
-      }
-      int[] columnIndexes = new int[columnNames.length];
-      for (int i = 0; i < columnIndexes.length; i++) {
-        // get the index in the original table, which includes skipped fields
-        columnIndexes[i] = headerRow.indexOf(columnNames[i]);
-      }
-      // Add the rows
-      long rowNumber = header ? 1L : 0L;
-      while ((nextLine = reader.readNext()) != null) {
-        // for each column that we're including (not skipping)
-        int cellIndex = 0;
-        for (int columnIndex : columnIndexes) {
-          Column column = table.column(cellIndex);
-          try {
-            column.addCell(nextLine[columnIndex]);
-          } catch (Exception e) {
-            throw new AddCellToColumnException(e, columnIndex, rowNumber, columnNames, nextLine);
-          }
-          cellIndex++;
-        }
-        rowNumber++;
-      }
+    try (CsvBatchReader reader = new CsvBatchReader(tableName, types, header, columnSeparator, stream, 1)) {
+      return reader.readRemaining();
     }
-    return table;
+  }
+
+  /**
+   * Returns a reader that reads the CSV file with the given name as a sequence of tables of at most
+   * {@code batchSize} rows, holding only one batch in memory at a time
+   *
+   * @param types           An array of the types of columns in the file, in the order they appear
+   * @param header          Is the first row in the file a header?
+   * @param columnSeparator the delimiter
+   * @param fileName        The fully specified file name. It is used to provide a default name for the table
+   * @param batchSize       The largest number of rows in each batch
+   * @throws IOException if the file cannot be opened
+   */
+  public static CsvBatchReader readInBatches(ColumnType types[], boolean header, char columnSeparator,
+                                             String fileName, int batchSize) throws IOException {
+    return new CsvBatchReader(types, header, columnSeparator, fileName, batchSize);
   }
 
   /**
@@ -305,7 +340,7 @@ public class CsvReader {
   /**
      * Reads column names from header, skipping any for which the type == SKIP
      */
-  private static String[] selectColumnNames(List<String> names, ColumnType types[]) {
+  static String[] selectColumnNames(List<String> names, ColumnType types[]) {
     List<String> header = new ArrayList<>();
     for (int i = 0; i < types.length; i++) {
       if (types[i] != ColumnType.SKIP) {
@@ -316,7 +351,7 @@ public class CsvReader {
     return header.toArray(result);
   }
 
-  private static String nameMaker(String path) {
+  static String nameMaker(String path) {
     Path p = Paths.get(path);
     return p.getFileName().toString();
   }
@@ -324,7 +359,7 @@ public class CsvReader {
   /**
    * Provides placeholder column names for when the file read has no header
    */
-  private static String[] makeColumnNames(ColumnType types[]) {
+  static String[] makeColumnNames(ColumnType types[]) {
     String[] header = new String[types.length];
     for (int i = 0; i < types.length; i++) {
       header[i] = "C" + i;
@@ -336,8 +371,9 @@ public class CsvReader {
   /**
    * Estimates and returns the type for each column in the delimited text file {@code file}
    *
-   * The type is determined by checking a sample of the data in the file. Because only a sample of the data is checked,
-   * the types may be incorrect. If that is the case a Parse Exception will be thrown.
+   * The type is determined by checking a sample of the rows in the first {@code DETECTION_SAMPLE_BYTES} of the file.
+   * Because only a sample of the data is checked, the types may be incorrect. If that is the case a Parse Exception
+   * will be thrown.
    *
    * The method {@code printColumnTypes()} can be used to print a list of the detected columns that can be corrected and
    * used to explicitely specify the correct column types.
@@ -345,7 +381,8 @@ public class CsvReader {
   static ColumnType[] detectColumnTypes(String file, boolean header, char delimiter)
       throws IOException {
 
-    int linesToSkip = header ? 1 : 0;
+    // the last row read may have been cut off by the limit, unless the whole file was read
+    boolean truncated = new File(file).length() > DETECTION_SAMPLE_BYTES;
 
     // to hold the results
     List<ColumnType> columnTypes = new ArrayList<>();
@@ -354,10 +391,15 @@ public class CsvReader {
     List<List<String>> columnData = new ArrayList<>();
 
     int rowCount = 0; // make sure we don't go over maxRows
-    try (CSVReader reader = new CSVReader(new FileReader(file), delimiter, '"', linesToSkip)) {
-      String[] nextLine;
+    InputStream prefix = ByteStreams.limit(new FileInputStream(file), DETECTION_SAMPLE_BYTES);
+    try (CsvTokenizer tokenizer = new CsvTokenizer(new InputStreamReader(prefix), delimiter)) {
+      if (header) {
+        tokenizer.next();
+      }
       int nextRow = 0;
-      while ((nextLine = reader.readNext()) != null) {
+      boolean lastRowSampled = false;
+      while (nextRecord(tokenizer, truncated)) {
+        String[] nextLine = tokenizer.fields();
 
         // initialize the arrays to hold the strings. we don't know how many we need until we read the first row
         if (rowCount == 0) {
@@ -366,9 +408,12 @@ public class CsvReader {
           }
         }
         int columnNumber = 0;
+        lastRowSampled = rowCount == nextRow;
         if (rowCount == nextRow) {
           for (String field : nextLine) {
-            columnData.get(columnNumber).add(field);
+            if (columnNumber < columnData.size()) {
+              columnData.get(columnNumber).add(field);
+            }
             columnNumber++;
           }
         }
@@ -377,6 +422,13 @@ public class CsvReader {
         }
         rowCount++;
       }
+      if (truncated && lastRowSampled && rowCount > 1) {
+        for (List<String> values : columnData) {
+          if (!values.isEmpty()) {
+            values.remove(values.size() - 1);
+          }
+        }
+      }
     }
 
     // now detect
@@ -388,6 +440,21 @@ public class CsvReader {
     return columnTypes.toArray(new ColumnType[columnTypes.size()]);
   }
 
+  /**
+   * Reads the next record from the sample, returning false at the end of it. A sample that was cut short may end
+   * inside a quoted field, which is treated as the end of the sample too
+   */
+  private static boolean nextRecord(CsvTokenizer tokenizer, boolean truncated) throws IOException {
+    try {
+      return tokenizer.next();
+    } catch (IOException e) {
+      if (truncated) {
+        return false;
+      }
+      throw e;
+    }
+  }
+
   private static int nextRow(int nextRow) {
     if (nextRow < 100) {
       return nextRow + 1;
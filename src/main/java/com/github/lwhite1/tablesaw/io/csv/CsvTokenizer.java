@@ -0,0 +1,207 @@
+package com.github.lwhite1.tablesaw.io.csv;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Splits CSV text into records and fields without creating a String for each field.
+ * <p>
+ * Each call to {@link #next()} reads one record, and leaves the text of its fields, with any quoting removed, one
+ * after another in a shared char array. A field is then read as the slice of that array between {@link #start(int)}
+ * and {@link #end(int)}, which is only valid until the next record is read.
+ * <p>
+ * Fields are parsed the way opencsv parses them, with a double quote as the quote character and a backslash as the
+ * escape character: a quoted field may span lines and contain separators, a doubled quote or an escaped quote
+ * within it stands for a single quote, and whitespace before an opening quote is dropped. A line break inside a
+ * quoted field is always read as a single '\n'.
+ */
+final class CsvTokenizer implements Closeable {
+
+  private static final char QUOTE = '"';
+  private static final char ESCAPE = '\\';
+
+  private final Reader reader;
+  private final char separator;
+
+  private final char[] buffer = new char[1 << 16];
+  private int position;
+  private int limit;
+
+  // the text of the current record's fields, and the end of each field within it
+  private char[] chars = new char[256];
+  private int length;
+  private int[] ends = new int[16];
+  private int fieldCount;
+
+  CsvTokenizer(Reader reader, char separator) {
+    this.reader = reader;
+    this.separator = separator;
+  }
+
+  /**
+   * Reads the next record, returning false if there are no more
+   *
+   * @throws IOException if the text cannot be read, or ends inside a quoted field
+   */
+  boolean next() throws IOException {
+    length = 0;
+    fieldCount = 0;
+    int c = read();
+    if (c < 0) {
+      return false;
+    }
+    int fieldStart = 0;
+    boolean quoted = false;
+    // a quote that opens in the middle of a field is kept as part of it, as is the quote that closes it
+    boolean keepQuotes = false;
+    while (true) {
+      if (quoted) {
+        if (c < 0) {
+          throw new IOException("Un-terminated quoted field at end of CSV file");
+        } else if (c == QUOTE) {
+          if (peek() == QUOTE) {
+            append(QUOTE);
+            position++;
+          } else {
+            quoted = false;
+            if (keepQuotes) {
+              append(QUOTE);
+            }
+          }
+        } else if (c == ESCAPE && isEscapable(peek())) {
+          append((char) read());
+        } else if (c == '\r') {
+          if (peek() == '\n') {
+            position++;
+          }
+          append('\n');
+        } else {
+          append((char) c);
+        }
+      } else if (c < 0 || c == '\n') {
+        endField();
+        return true;
+      } else if (c == '\r') {
+        if (peek() == '\n') {
+          position++;
+        }
+        endField();
+        return true;
+      } else if (c == separator) {
+        endField();
+        fieldStart = length;
+      } else if (c == QUOTE) {
+        quoted = true;
+        keepQuotes = !isBlank(fieldStart, length);
+        if (keepQuotes) {
+          append(QUOTE);
+        } else {
+          length = fieldStart;
+        }
+      } else if (c == ESCAPE && isEscapable(peek())) {
+        append((char) read());
+      } else {
+        append((char) c);
+      }
+      c = read();
+    }
+  }
+
+  int fieldCount() {
+    return fieldCount;
+  }
+
+  /**
+   * Returns the array holding the text of the current record's fields
+   */
+  char[] chars() {
+    return chars;
+  }
+
+  /**
+   * Returns the offset in {@link #chars()} at which the given field starts
+   */
+  int start(int field) {
+    return field == 0 ? 0 : ends[field - 1];
+  }
+
+  /**
+   * Returns the offset in {@link #chars()} just past the end of the given field
+   */
+  int end(int field) {
+    return ends[field];
+  }
+
+  String field(int field) {
+    return new String(chars, start(field), end(field) - start(field));
+  }
+
+  /**
+   * Returns the fields of the current record as Strings
+   */
+  String[] fields() {
+    String[] fields = new String[fieldCount];
+    for (int i = 0; i < fieldCount; i++) {
+      fields[i] = field(i);
+    }
+    return fields;
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+
+  private void append(char c) {
+    if (length == chars.length) {
+      chars = Arrays.copyOf(chars, 2 * length);
+    }
+    chars[length++] = c;
+  }
+
+  private void endField() {
+    if (fieldCount == ends.length) {
+      ends = Arrays.copyOf(ends, 2 * fieldCount);
+    }
+    ends[fieldCount++] = length;
+  }
+
+  private boolean isBlank(int from, int to) {
+    for (int i = from; i < to; i++) {
+      if (!Character.isWhitespace(chars[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isEscapable(int c) {
+    return c == QUOTE || c == ESCAPE;
+  }
+
+  private int read() throws IOException {
+    if (position == limit && !fill()) {
+      return -1;
+    }
+    return buffer[position++];
+  }
+
+  private int peek() throws IOException {
+    if (position == limit && !fill()) {
+      return -1;
+    }
+    return buffer[position];
+  }
+
+  private boolean fill() throws IOException {
+    int n = reader.read(buffer, 0, buffer.length);
+    if (n <= 0) {
+      return false;
+    }
+    position = 0;
+    limit = n;
+    return true;
+  }
+}
@@ -0,0 +1,155 @@
+package com.github.lwhite1.tablesaw.io.csv;
+
+import com.github.lwhite1.tablesaw.api.ColumnType;
+import com.github.lwhite1.tablesaw.api.Table;
+import com.google.common.base.Preconditions;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Reads a CSV file on several threads by splitting it into chunks of whole records.
+ * <p>
+ * A quick pass over the raw bytes finds the chunk boundaries: the first line break after each multiple of the chunk
+ * size that isn't inside a quoted field. Each chunk is then read from the file, tokenized and converted into columns
+ * of its own by a separate task, and the chunks are appended to the first in file order. Row numbers reported in
+ * errors are counted from the start of the chunk.
+ */
+final class ParallelCsvReader {
+
+  // chunks are no smaller than this, so small files are read on one thread
+  static final int MIN_CHUNK_BYTES = 1 << 20;
+
+  // and no larger than this, so each fits in an array and the work spreads evenly
+  private static final int MAX_CHUNK_BYTES = 64 << 20;
+
+  private static final byte QUOTE = '"';
+  private static final byte ESCAPE = '\\';
+
+  // Don't instantiate
+  private ParallelCsvReader() {
+  }
+
+  /**
+   * Reads the named file with the given number of threads, in chunks sized to give each thread several of them
+   */
+  static Table read(ColumnType[] types, boolean header, char columnSeparator, String fileName, int threads)
+      throws IOException {
+    Preconditions.checkArgument(threads > 0, "At least one thread is required");
+    long size = new File(fileName).length();
+    long chunkBytes = Math.max(MIN_CHUNK_BYTES, Math.min(MAX_CHUNK_BYTES, size / (4L * threads)));
+    return read(types, header, columnSeparator, fileName, threads, (int) chunkBytes);
+  }
+
+  static Table read(ColumnType[] types, boolean header, char columnSeparator, String fileName, int threads,
+                    int chunkBytes) throws IOException {
+    long[] bounds = split(fileName, chunkBytes);
+    if (threads == 1 || bounds.length <= 2) {
+      return CsvReader.read(types, header, columnSeparator, fileName);
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try (FileChannel channel = FileChannel.open(Paths.get(fileName), READ)) {
+      List<CompletableFuture<Table>> chunks = new ArrayList<>(bounds.length - 1);
+      for (int i = 0; i < bounds.length - 1; i++) {
+        long from = bounds[i];
+        long to = bounds[i + 1];
+        // only the first chunk holds the header
+        boolean chunkHeader = header && i == 0;
+        chunks.add(CompletableFuture.supplyAsync(
+            () -> readChunk(channel, from, to, types, chunkHeader, columnSeparator, fileName), executor));
+      }
+      Table table = chunks.get(0).join();
+      for (int i = 1; i < chunks.size(); i++) {
+        Table chunk = chunks.get(i).join();
+        // the columns of later chunks have placeholder names, so are matched by position
+        for (int c = 0; c < table.columnCount(); c++) {
+          table.column(c).append(chunk.column(c));
+        }
+      }
+      return table;
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof UncheckedIOException) {
+        throw ((UncheckedIOException) e.getCause()).getCause();
+      }
+      throw e;
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Returns the offsets at which the file's chunks start, followed by the length of the file. Each chunk after the
+   * first starts at the beginning of a record, at least {@code chunkBytes} after the start of the one before
+   */
+  static long[] split(String fileName, int chunkBytes) throws IOException {
+    LongArrayList bounds = new LongArrayList();
+    bounds.add(0L);
+    long position = 0;
+    long nextBound = chunkBytes;
+    boolean quoted = false;
+    boolean escaped = false;
+    byte[] buffer = new byte[1 << 16];
+    try (InputStream in = new FileInputStream(fileName)) {
+      int n;
+      while ((n = in.read(buffer)) > 0) {
+        for (int i = 0; i < n; i++) {
+          byte b = buffer[i];
+          if (escaped) {
+            escaped = false;
+          } else if (b == ESCAPE) {
+            // the CSV parser treats a backslash as escaping a following quote or backslash
+            escaped = true;
+          } else if (b == QUOTE) {
+            quoted = !quoted;
+          } else if (b == '\n' && !quoted && position + i >= nextBound) {
+            long bound = position + i + 1;
+            bounds.add(bound);
+            nextBound = bound + chunkBytes;
+          }
+        }
+        position += n;
+      }
+    }
+    if (bounds.getLong(bounds.size() - 1) != position) {
+      bounds.add(position);
+    }
+    return bounds.toLongArray();
+  }
+
+  private static Table readChunk(FileChannel channel, long from, long to, ColumnType[] types, boolean header,
+                                 char columnSeparator, String fileName) {
+    try {
+      Preconditions.checkState(to - from <= Integer.MAX_VALUE, "A record in %s is too large to read", fileName);
+      ByteBuffer bytes = ByteBuffer.allocate((int) (to - from));
+      while (bytes.hasRemaining()) {
+        if (channel.read(bytes, from + bytes.position()) < 0) {
+          throw new EOFException(fileName + " ended while it was being read");
+        }
+      }
+      try (CsvBatchReader reader = new CsvBatchReader(fileName, types, header, columnSeparator,
+          new ByteArrayInputStream(bytes.array()), 1)) {
+        return reader.readRemaining();
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
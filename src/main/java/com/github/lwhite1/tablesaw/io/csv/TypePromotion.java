@@ -0,0 +1,112 @@
+package com.github.lwhite1.tablesaw.io.csv;
+
+import com.github.lwhite1.tablesaw.api.BooleanColumn;
+import com.github.lwhite1.tablesaw.api.CategoryColumn;
+import com.github.lwhite1.tablesaw.api.ColumnType;
+import com.github.lwhite1.tablesaw.api.DateColumn;
+import com.github.lwhite1.tablesaw.api.DateTimeColumn;
+import com.github.lwhite1.tablesaw.api.FloatColumn;
+import com.github.lwhite1.tablesaw.api.IntColumn;
+import com.github.lwhite1.tablesaw.api.LongColumn;
+import com.github.lwhite1.tablesaw.api.ShortColumn;
+import com.github.lwhite1.tablesaw.api.TimeColumn;
+import com.github.lwhite1.tablesaw.columns.Column;
+import com.github.lwhite1.tablesaw.io.TypeUtils;
+
+/**
+ * Widens a column whose type was guessed from a sample of a file, when a later value in the file doesn't fit it.
+ * <p>
+ * Whole numbers are widened one step at a time, from short to int to long to float, and any other type, or a float,
+ * becomes a category. The values already in the column are copied into the wider one; when the new column is a
+ * category, they are kept as the old column prints them.
+ */
+final class TypePromotion {
+
+  // Don't instantiate
+  private TypePromotion() {
+  }
+
+  /**
+   * Returns the next wider type after the given one, or null if there isn't one
+   */
+  static ColumnType wider(ColumnType type) {
+    switch (type) {
+      case SHORT_INT:
+        return ColumnType.INTEGER;
+      case INTEGER:
+        return ColumnType.LONG_INT;
+      case LONG_INT:
+        return ColumnType.FLOAT;
+      case CATEGORY:
+        return null;
+      default:
+        return ColumnType.CATEGORY;
+    }
+  }
+
+  /**
+   * Returns a new column of the given wider type, with the same name and values as the given column
+   */
+  static Column promote(Column column, ColumnType type) {
+    Column promoted = TypeUtils.newColumn(column.name(), type);
+    for (int r = 0; r < column.size(); r++) {
+      if (isMissing(column, r)) {
+        promoted.addCell("");
+        continue;
+      }
+      switch (type) {
+        case INTEGER:
+          ((IntColumn) promoted).add((int) longValue(column, r));
+          break;
+        case LONG_INT:
+          ((LongColumn) promoted).add(longValue(column, r));
+          break;
+        case FLOAT:
+          ((FloatColumn) promoted).add((float) longValue(column, r));
+          break;
+        case CATEGORY:
+          ((CategoryColumn) promoted).add(column.getString(r));
+          break;
+        default:
+          throw new IllegalArgumentException("Cannot promote a column of type " + column.type() + " to " + type);
+      }
+    }
+    return promoted;
+  }
+
+  private static long longValue(Column column, int row) {
+    switch (column.type()) {
+      case SHORT_INT:
+        return ((ShortColumn) column).get(row);
+      case INTEGER:
+        return ((IntColumn) column).get(row);
+      case LONG_INT:
+        return ((LongColumn) column).get(row);
+      default:
+        throw new IllegalArgumentException("Column " + column.name() + " does not hold whole numbers");
+    }
+  }
+
+  private static boolean isMissing(Column column, int row) {
+    switch (column.type()) {
+      case SHORT_INT:
+        return ((ShortColumn) column).get(row) == ShortColumn.MISSING_VALUE;
+      case INTEGER:
+        return ((IntColumn) column).get(row) == IntColumn.MISSING_VALUE;
+      case LONG_INT:
+        return ((LongColumn) column).get(row) == LongColumn.MISSING_VALUE;
+      case FLOAT:
+        return Float.isNaN(((FloatColumn) column).get(row));
+      case BOOLEAN:
+        return ((BooleanColumn) column).getByte(row) == BooleanColumn.MISSING_VALUE;
+      case LOCAL_DATE:
+        return ((DateColumn) column).getInt(row) == DateColumn.MISSING_VALUE;
+      case LOCAL_TIME:
+        return ((TimeColumn) column).getInt(row) == TimeColumn.MISSING_VALUE;
+      case LOCAL_DATE_TIME:
+        return ((DateTimeColumn) column).getLong(row) == DateTimeColumn.MISSING_VALUE;
+      default:
+        return false;
+    }
+  }
+}
@@ -0,0 +1,474 @@
+package com.github.lwhite1.tablesaw.joining;
+
+import com.github.lwhite1.tablesaw.api.BooleanColumn;
+import com.github.lwhite1.tablesaw.api.CategoryColumn;
+import com.github.lwhite1.tablesaw.api.ColumnType;
+import com.github.lwhite1.tablesaw.api.DateColumn;
+import com.github.lwhite1.tablesaw.api.DateTimeColumn;
+import com.github.lwhite1.tablesaw.api.FloatColumn;
+import com.github.lwhite1.tablesaw.api.IntColumn;
+import com.github.lwhite1.tablesaw.api.LongColumn;
+import com.github.lwhite1.tablesaw.api.ShortColumn;
+import com.github.lwhite1.tablesaw.api.Table;
+import com.github.lwhite1.tablesaw.api.TimeColumn;
+import com.github.lwhite1.tablesaw.columns.Column;
+import com.google.common.base.Preconditions;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * A hash-based equi-join of two tables on a single key column.
+ * <p>
+ * The smaller table is loaded into a hash table keyed on the primitive representation of its join column
+ * (dictionary codes for categories, packed ints and longs for dates and times), and the larger table is scanned
+ * once against it. Every matching pair of rows is emitted, so keys that repeat on both sides produce their cross
+ * product. Missing values never match anything.
+ * <p>
+ * The result contains every column of the left table, followed by every column of the right table except its join
+ * column. Right columns whose names clash with a left column are prefixed with the name of the right table. For
+ * right and full outer joins, the key of an unmatched right row is written to the left join column.
+ */
+@Immutable
+public class HashJoin {
+
+  // Marks a side of a row pair that has no match
+  private static final int NO_ROW = -1;
+
+  // Don't instantiate
+  private HashJoin() {
+  }
+
+  /**
+   * Returns a new table that joins {@code left} and {@code right} where the values in {@code leftColumnName} equal
+   * those in {@code rightColumnName}
+   */
+  public static Table join(Table left, String leftColumnName,
+                           Table right, String rightColumnName,
+                           JoinType joinType) {
+
+    Column leftKey = left.column(leftColumnName);
+    Column rightKey = right.column(rightColumnName);
+    Preconditions.checkArgument(leftKey.type() == rightKey.type(),
+        "Cannot join column %s of type %s to column %s of type %s",
+        leftKey.name(), leftKey.type(), rightKey.name(), rightKey.type());
+
+    boolean buildLeft = left.rowCount() < right.rowCount();
+    Column build = buildLeft ? leftKey : rightKey;
+    Column probe = buildLeft ? rightKey : leftKey;
+    boolean keepBuild = buildLeft ? joinType.keepsLeft() : joinType.keepsRight();
+    boolean keepProbe = buildLeft ? joinType.keepsRight() : joinType.keepsLeft();
+
+    IntArrayList buildRows = new IntArrayList(probe.size());
+    IntArrayList probeRows = new IntArrayList(probe.size());
+
+    switch (build.type()) {
+      case LONG_INT:
+      case LOCAL_DATE_TIME:
+        matchLongs(longKeys(build), longKeys(probe), missingLongKey(build.type()),
+            keepBuild, keepProbe, buildRows, probeRows);
+        break;
+      case CATEGORY:
+        CategoryColumn buildCategories = (CategoryColumn) build;
+        matchInts(buildCategories.data().toIntArray(), buildCategories.dictionaryMap().get(CategoryColumn.MISSING_VALUE),
+            translatedCodes((CategoryColumn) probe, buildCategories), NO_ROW,
+            keepBuild, keepProbe, buildRows, probeRows);
+        break;
+      default:
+        int missing = missingIntKey(build.type());
+        matchInts(intKeys(build), missing, intKeys(probe), missing, keepBuild, keepProbe, buildRows, probeRows);
+    }
+
+    IntArrayList leftRows = buildLeft ? buildRows : probeRows;
+    IntArrayList rightRows = buildLeft ? probeRows : buildRows;
+    return materialize(left, leftKey, right, rightKey, leftRows, rightRows, joinType.keepsRight());
+  }
+
+  /**
+   * Fills the row lists with each pair of matching rows, plus any unmatched rows that are to be kept
+   */
+  private static void matchInts(int[] buildKeys, int buildMissing,
+                                int[] probeKeys, int probeMissing,
+                                boolean keepBuild, boolean keepProbe,
+                                IntArrayList buildRows, IntArrayList probeRows) {
+
+    // maps each key to the first build row holding it; the rest of its rows are chained through next
+    Int2IntOpenHashMap heads = new Int2IntOpenHashMap(buildKeys.length);
+    heads.defaultReturnValue(NO_ROW);
+    int[] next = new int[buildKeys.length];
+    for (int r = buildKeys.length - 1; r >= 0; r--) {
+      int key = buildKeys[r];
+      if (key != buildMissing) {
+        next[r] = heads.put(key, r);
+      }
+    }
+
+    boolean[] matched = keepBuild ? new boolean[buildKeys.length] : null;
+    for (int p = 0; p < probeKeys.length; p++) {
+      int key = probeKeys[p];
+      int r = key == probeMissing ? NO_ROW : heads.get(key);
+      if (r == NO_ROW) {
+        if (keepProbe) {
+          buildRows.add(NO_ROW);
+          probeRows.add(p);
+        }
+        continue;
+      }
+      do {
+        buildRows.add(r);
+        probeRows.add(p);
+        if (matched != null) {
+          matched[r] = true;
+        }
+        r = next[r];
+      } while (r != NO_ROW);
+    }
+    addUnmatched(matched, buildRows, probeRows);
+  }
+
+  /**
+   * Fills the row lists with each pair of matching rows, plus any unmatched rows that are to be kept
+   */
+  private static void matchLongs(long[] buildKeys, long[] probeKeys, long missing,
+                                 boolean keepBuild, boolean keepProbe,
+                                 IntArrayList buildRows, IntArrayList probeRows) {
+
+    Long2IntOpenHashMap heads = new Long2IntOpenHashMap(buildKeys.length);
+    heads.defaultReturnValue(NO_ROW);
+    int[] next = new int[buildKeys.length];
+    for (int r = buildKeys.length - 1; r >= 0; r--) {
+      long key = buildKeys[r];
+      if (key != missing) {
+        next[r] = heads.put(key, r);
+      }
+    }
+
+    boolean[] matched = keepBuild ? new boolean[buildKeys.length] : null;
+    for (int p = 0; p < probeKeys.length; p++) {
+      long key = probeKeys[p];
+      int r = key == missing ? NO_ROW : heads.get(key);
+      if (r == NO_ROW) {
+        if (keepProbe) {
+          buildRows.add(NO_ROW);
+          probeRows.add(p);
+        }
+        continue;
+      }
+      do {
+        buildRows.add(r);
+        probeRows.add(p);
+        if (matched != null) {
+          matched[r] = true;
+        }
+        r = next[r];
+      } while (r != NO_ROW);
+    }
+    addUnmatched(matched, buildRows, probeRows);
+  }
+
+  private static void addUnmatched(boolean[] matched, IntArrayList buildRows, IntArrayList probeRows) {
+    if (matched == null) {
+      return;
+    }
+    for (int r = 0; r < matched.length; r++) {
+      if (!matched[r]) {
+        buildRows.add(r);
+        probeRows.add(NO_ROW);
+      }
+    }
+  }
+
+  /**
+   * Returns the codes of the given column expressed in the dictionary of {@code target}, with {@link #NO_ROW} for
+   * values that don't appear in the target. Each distinct value is looked up once.
+   */
+  private static int[] translatedCodes(CategoryColumn column, CategoryColumn target) {
+    int maxCode = -1;
+    for (int r = 0; r < column.size(); r++) {
+      maxCode = Math.max(maxCode, column.getInt(r));
+    }
+    int[] codeMap = new int[maxCode + 1];
+    for (int code = 0; code < codeMap.length; code++) {
+      String value = column.dictionaryMap().get(code);
+      codeMap[code] = (value == null || value.equals(CategoryColumn.MISSING_VALUE))
+          ? NO_ROW
+          : target.dictionaryMap().get(value);
+    }
+    int[] keys = new int[column.size()];
+    for (int r = 0; r < keys.length; r++) {
+      keys[r] = codeMap[column.getInt(r)];
+    }
+    return keys;
+  }
+
+  private static int[] intKeys(Column column) {
+    int[] keys = new int[column.size()];
+    switch (column.type()) {
+      case INTEGER:
+        IntColumn ints = (IntColumn) column;
+        for (int r = 0; r < keys.length; r++) {
+          keys[r] = ints.get(r);
+        }
+        break;
+      case SHORT_INT:
+        ShortColumn shorts = (ShortColumn) column;
+        for (int r = 0; r < keys.length; r++) {
+          keys[r] = shorts.get(r);
+        }
+        break;
+      case LOCAL_DATE:
+        DateColumn dates = (DateColumn) column;
+        for (int r = 0; r < keys.length; r++) {
+          keys[r] = dates.getInt(r);
+        }
+        break;
+      case LOCAL_TIME:
+        TimeColumn times = (TimeColumn) column;
+        for (int r = 0; r < keys.length; r++) {
+          keys[r] = times.getInt(r);
+        }
+        break;
+      case BOOLEAN:
+        BooleanColumn booleans = (BooleanColumn) column;
+        for (int r = 0; r < keys.length; r++) {
+          keys[r] = booleans.getByte(r);
+        }
+        break;
+      case FLOAT:
+        FloatColumn floats = (FloatColumn) column;
+        for (int r = 0; r < keys.length; r++) {
+          float value = floats.get(r);
+          // +0.0 and -0.0 are equal, but their bits are not
+          keys[r] = value == 0.0f ? 0 : Float.floatToIntBits(value);
+        }
+        break;
+      default:
+        throw new RuntimeException("Unhandled column type in join: " + column.type());
+    }
+    return keys;
+  }
+
+  private static int missingIntKey(ColumnType type) {
+    switch (type) {
+      case INTEGER:
+        return IntColumn.MISSING_VALUE;
+      case SHORT_INT:
+        return ShortColumn.MISSING_VALUE;
+      case LOCAL_DATE:
+        return DateColumn.MISSING_VALUE;
+      case LOCAL_TIME:
+        return TimeColumn.MISSING_VALUE;
+      case BOOLEAN:
+        return BooleanColumn.MISSING_VALUE;
+      case FLOAT:
+        return Float.floatToIntBits(FloatColumn.MISSING_VALUE);
+      default:
+        throw new RuntimeException("Unhandled column type in join: " + type);
+    }
+  }
+
+  private static long[] longKeys(Column column) {
+    long[] keys = new long[column.size()];
+    switch (column.type()) {
+      case LONG_INT:
+        LongColumn longs = (LongColumn) column;
+        for (int r = 0; r < keys.length; r++) {
+          keys[r] = longs.get(r);
+        }
+        break;
+      case LOCAL_DATE_TIME:
+        DateTimeColumn dateTimes = (DateTimeColumn) column;
+        for (int r = 0; r < keys.length; r++) {
+          keys[r] = dateTimes.getLong(r);
+        }
+        break;
+      default:
+        throw new RuntimeException("Unhandled column type in join: " + column.type());
+    }
+    return keys;
+  }
+
+  private static long missingLongKey(ColumnType type) {
+    return type == ColumnType.LONG_INT ? LongColumn.MISSING_VALUE : DateTimeColumn.MISSING_VALUE;
+  }
+
+  /**
+   * Builds the result table from the matched row pairs
+   */
+  private static Table materialize(Table left, Column leftKey, Table right, Column rightKey,
+                                   IntArrayList leftRows, IntArrayList rightRows, boolean keepsRight) {
+    Table result = Table.create(left.name());
+    for (Column column : left.columns()) {
+      if (column == leftKey && keepsRight) {
+        result.addColumn(copyRows(column, leftRows, rightKey, rightRows));
+      } else {
+        result.addColumn(copyRows(column, leftRows, null, null));
+      }
+    }
+    for (Column column : right.columns()) {
+      if (column == rightKey) {
+        continue;
+      }
+      Column copy = copyRows(column, rightRows, null, null);
+      if (hasColumn(result, copy.name())) {
+        copy.setName(right.name() + "." + copy.name());
+      }
+      result.addColumn(copy);
+    }
+    return result;
+  }
+
+  private static boolean hasColumn(Table table, String columnName) {
+    for (String name : table.columnNames()) {
+      if (name.equalsIgnoreCase(columnName)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns a new column holding the values of {@code source} at the given rows. Where a row is {@link #NO_ROW}, the
+   * value comes from {@code fallback} at the matching fallback row if there is one, and is missing otherwise.
+   */
+  private static Column copyRows(Column source, IntArrayList rows, Column fallback, IntArrayList fallbackRows) {
+    Column result = source.emptyCopy(rows.size());
+    switch (source.type()) {
+      case FLOAT: {
+        FloatColumn from = (FloatColumn) source;
+        FloatColumn to = (FloatColumn) result;
+        for (int i = 0; i < rows.size(); i++) {
+          int row = rows.getInt(i);
+          if (row != NO_ROW) {
+            to.add(from.get(row));
+          } else {
+            int other = otherRow(fallbackRows, i);
+            to.add(other == NO_ROW ? FloatColumn.MISSING_VALUE : ((FloatColumn) fallback).get(other));
+          }
+        }
+        break;
+      }
+      case INTEGER: {
+        IntColumn from = (IntColumn) source;
+        IntColumn to = (IntColumn) result;
+        for (int i = 0; i < rows.size(); i++) {
+          int row = rows.getInt(i);
+          if (row != NO_ROW) {
+            to.add(from.get(row));
+          } else {
+            int other = otherRow(fallbackRows, i);
+            to.add(other == NO_ROW ? IntColumn.MISSING_VALUE : ((IntColumn) fallback).get(other));
+          }
+        }
+        break;
+      }
+      case SHORT_INT: {
+        ShortColumn from = (ShortColumn) source;
+        ShortColumn to = (ShortColumn) result;
+        for (int i = 0; i < rows.size(); i++) {
+          int row = rows.getInt(i);
+          if (row != NO_ROW) {
+            to.add(from.get(row));
+          } else {
+            int other = otherRow(fallbackRows, i);
+            to.add(other == NO_ROW ? ShortColumn.MISSING_VALUE : ((ShortColumn) fallback).get(other));
+          }
+        }
+        break;
+      }
+      case LONG_INT: {
+        LongColumn from = (LongColumn) source;
+        LongColumn to = (LongColumn) result;
+        for (int i = 0; i < rows.size(); i++) {
+          int row = rows.getInt(i);
+          if (row != NO_ROW) {
+            to.add(from.get(row));
+          } else {
+            int other = otherRow(fallbackRows, i);
+            to.add(other == NO_ROW ? LongColumn.MISSING_VALUE : ((LongColumn) fallback).get(other));
+          }
+        }
+        break;
+      }
+      case BOOLEAN: {
+        BooleanColumn from = (BooleanColumn) source;
+        BooleanColumn to = (BooleanColumn) result;
+        for (int i = 0; i < rows.size(); i++) {
+          int row = rows.getInt(i);
+          if (row != NO_ROW) {
+            to.add(from.getByte(row));
+          } else {
+            int other = otherRow(fallbackRows, i);
+            to.add(other == NO_ROW ? BooleanColumn.MISSING_VALUE : ((BooleanColumn) fallback).getByte(other));
+          }
+        }
+        break;
+      }
+      case LOCAL_DATE: {
+        DateColumn from = (DateColumn) source;
+        DateColumn to = (DateColumn) result;
+        for (int i = 0; i < rows.size(); i++) {
+          int row = rows.getInt(i);
+          if (row != NO_ROW) {
+            to.add(from.getInt(row));
+          } else {
+            int other = otherRow(fallbackRows, i);
+            to.add(other == NO_ROW ? DateColumn.MISSING_VALUE : ((DateColumn) fallback).getInt(other));
+          }
+        }
+        break;
+      }
+      case LOCAL_TIME: {
+        TimeColumn from = (TimeColumn) source;
+        TimeColumn to = (TimeColumn) result;
+        for (int i = 0; i < rows.size(); i++) {
+          int row = rows.getInt(i);
+          if (row != NO_ROW) {
+            to.add(from.getInt(row));
+          } else {
+            int other = otherRow(fallbackRows, i);
+            to.add(other == NO_ROW ? TimeColumn.MISSING_VALUE : ((TimeColumn) fallback).getInt(other));
+          }
+        }
+        break;
+      }
+      case LOCAL_DATE_TIME: {
+        DateTimeColumn from = (DateTimeColumn) source;
+        DateTimeColumn to = (DateTimeColumn) result;
+        for (int i = 0; i < rows.size(); i++) {
+          int row = rows.getInt(i);
+          if (row != NO_ROW) {
+            to.add(from.getLong(row));
+          } else {
+            int other = otherRow(fallbackRows, i);
+            to.add(other == NO_ROW ? DateTimeColumn.MISSING_VALUE : ((DateTimeColumn) fallback).getLong(other));
+          }
+        }
+        break;
+      }
+      case CATEGORY: {
+        CategoryColumn from = (CategoryColumn) source;
+        CategoryColumn to = (CategoryColumn) result;
+        for (int i = 0; i < rows.size(); i++) {
+          int row = rows.getInt(i);
+          if (row != NO_ROW) {
+            to.add(from.get(row));
+          } else {
+            int other = otherRow(fallbackRows, i);
+            to.add(other == NO_ROW ? CategoryColumn.MISSING_VALUE : ((CategoryColumn) fallback).get(other));
+          }
+        }
+        break;
+      }
+      default:
+        throw new RuntimeException("Unhandled column type in join: " + source.type());
+    }
+    return result;
+  }
+
+  private static int otherRow(IntArrayList fallbackRows, int i) {
+    return fallbackRows == null ? NO_ROW : fallbackRows.getInt(i);
+  }
+}
@@ -0,0 +1,41 @@
+package com.github.lwhite1.tablesaw.joining;
+
+/**
+ * The kinds of equi-join supported by {@link HashJoin}
+ */
+public enum JoinType {
+
+  /** Only rows with a matching key in both tables */
+  INNER(false, false),
+
+  /** Every row of the left table, with missing values where there is no match on the right */
+  LEFT_OUTER(true, false),
+
+  /** Every row of the right table, with missing values where there is no match on the left */
+  RIGHT_OUTER(false, true),
+
+  /** Every row of both tables, matched where possible */
+  FULL_OUTER(true, true);
+
+  private final boolean keepsLeft;
+  private final boolean keepsRight;
+
+  JoinType(boolean keepsLeft, boolean keepsRight) {
+    this.keepsLeft = keepsLeft;
+    this.keepsRight = keepsRight;
+  }
+
+  /**
+   * Returns true if left rows without a match are included in the result
+   */
+  public boolean keepsLeft() {
+    return keepsLeft;
+  }
+
+  /**
+   * Returns true if right rows without a match are included in the result
+   */
+  public boolean keepsRight() {
+    return keepsRight;
+  }
+}
@@ -6,6 +6,8 @@ import com.github.lwhite1.tablesaw.columns.Column;
 import com.google.common.base.Strings;
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.function.UnaryOperator;
+
 /**
  *
  */
@@ -15,118 +17,50 @@ public interface StringMapUtils extends Column {
    * another Column as output. The resulting column need not be a string column.
    */
 
-  default CategoryColumn upperCase() {
-    CategoryColumn newColumn = CategoryColumn.create(this.name() + "[ucase]");
+  /**
+   * Returns a new column with the given name, holding the result of the given function applied to each value in this
+   * column. The function is applied once to each distinct value, rather than once to each row
+   */
+  CategoryColumn mapValues(String name, UnaryOperator<String> function);
 
-    for (int r = 0; r < size(); r++) {
-      String value = getString(r);
-      if (value == null) {
-        newColumn.set(r, null);
-      } else {
-        newColumn.set(r, value.toUpperCase());
-      }
-    }
-    return newColumn;
+  default CategoryColumn upperCase() {
+    return mapValues(name() + "[ucase]", String::toUpperCase);
   }
 
   default CategoryColumn lowerCase() {
-
-    CategoryColumn newColumn = CategoryColumn.create(name() + "[lcase]");
-
-    for (int r = 0; r < size(); r++) {
-      String value = getString(r);
-      newColumn.set(r, value.toLowerCase());
-    }
-    return newColumn;
+    return mapValues(name() + "[lcase]", String::toLowerCase);
   }
 
   default CategoryColumn trim() {
-
-    CategoryColumn newColumn = CategoryColumn.create(name() + "[trim]");
-
-    for (int r = 0; r < size(); r++) {
-      String value = getString(r);
-      newColumn.set(r, value.trim());
-    }
-    return newColumn;
+    return mapValues(name() + "[trim]", String::trim);
   }
 
   default CategoryColumn replaceAll(String regex, String replacement) {
-
-    CategoryColumn newColumn = CategoryColumn.create(name() + "[repl]");
-
-    for (int r = 0; r < size(); r++) {
-      String value = getString(r);
-      newColumn.set(r, value.replaceAll(regex, replacement));
-    }
-    return newColumn;
+    return mapValues(name() + "[repl]", value -> value.replaceAll(regex, replacement));
   }
 
   default CategoryColumn replaceFirst(String regex, String replacement) {
-
-    CategoryColumn newColumn = CategoryColumn.create(name() + "[repl]");
-
-    for (int r = 0; r < size(); r++) {
-      String value = getString(r);
-      newColumn.set(r, value.replaceFirst(regex, replacement));
-    }
-    return newColumn;
+    return mapValues(name() + "[repl]", value -> value.replaceFirst(regex, replacement));
   }
 
   default CategoryColumn substring(int start, int end) {
-
-    CategoryColumn newColumn = CategoryColumn.create(name() + "[sub]");
-
-    for (int r = 0; r < size(); r++) {
-      String value = getString(r);
-      newColumn.set(r, value.substring(start, end));
-    }
-    return newColumn;
+    return mapValues(name() + "[sub]", value -> value.substring(start, end));
   }
 
-
   default CategoryColumn substring(int start) {
-
-    CategoryColumn newColumn = CategoryColumn.create(name() + "[sub]");
-
-    for (int r = 0; r < size(); r++) {
-      String value = getString(r);
-      newColumn.set(r, value.substring(start));
-    }
-    return newColumn;
+    return mapValues(name() + "[sub]", value -> value.substring(start));
   }
 
   default CategoryColumn abbreviate(int maxWidth) {
-
-    CategoryColumn newColumn = CategoryColumn.create(name() + "[abbr]");
-
-    for (int r = 0; r < size(); r++) {
-      String value = getString(r);
-      newColumn.set(r, StringUtils.abbreviate(value, maxWidth));
-    }
-    return newColumn;
+    return mapValues(name() + "[abbr]", value -> StringUtils.abbreviate(value, maxWidth));
   }
 
   default CategoryColumn padEnd(int minLength, char padChar) {
-
-    CategoryColumn newColumn = CategoryColumn.create(name() + "[pad]");
-
-    for (int r = 0; r < size(); r++) {
-      String value = getString(r);
-      newColumn.set(r, Strings.padEnd(value, minLength, padChar));
-    }
-    return newColumn;
+    return mapValues(name() + "[pad]", value -> Strings.padEnd(value, minLength, padChar));
   }
 
   default CategoryColumn padStart(int minLength, char padChar) {
-
-    CategoryColumn newColumn = CategoryColumn.create(name() + "[pad]");
-
-    for (int r = 0; r < size(); r++) {
-      String value = getString(r);
-      newColumn.set(r, Strings.padStart(value, minLength, padChar));
-    }
-    return newColumn;
+    return mapValues(name() + "[pad]", value -> Strings.padStart(value, minLength, padChar));
   }
 
   default CategoryColumn commonPrefix(Column column2) {
@@ -136,7 +70,7 @@ public interface StringMapUtils extends Column {
     for (int r = 0; r < size(); r++) {
       String value1 = getString(r);
       String value2 = column2.getString(r);
-      newColumn.set(r, Strings.commonPrefix(value1, value2));
+      newColumn.add(Strings.commonPrefix(value1, value2));
     }
     return newColumn;
   }
@@ -148,7 +82,7 @@ public interface StringMapUtils extends Column {
     for (int r = 0; r < size(); r++) {
       String value1 = getString(r);
       String value2 = column2.getString(r);
-      newColumn.set(r, Strings.commonSuffix(value1, value2));
+      newColumn.add(Strings.commonSuffix(value1, value2));
     }
     return newColumn;
   }
@@ -163,7 +97,7 @@ public interface StringMapUtils extends Column {
     for (int r = 0; r < size(); r++) {
       String value1 = getString(r);
       String value2 = column2.getString(r);
-      newColumn.set(r, StringUtils.getLevenshteinDistance(value1, value2));
+      newColumn.add(StringUtils.getLevenshteinDistance(value1, value2));
     }
     return newColumn;
   }
@@ -176,7 +110,7 @@ public interface StringMapUtils extends Column {
       String[] values = new String[2];
       values[0] = getString(r);
       values[1] = column2.getString(r);
-      newColumn.set(r, StringUtils.join(values, delimiter));
+      newColumn.add(StringUtils.join(values, delimiter));
     }
     return newColumn;
   }
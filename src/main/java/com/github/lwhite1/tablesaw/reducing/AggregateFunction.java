@@ -0,0 +1,48 @@
+package com.github.lwhite1.tablesaw.reducing;
+
+/**
+ * The reductions that can be computed in a single pass from a mergeable per-group state, and so can be evaluated by
+ * {@link HashAggregator} without materializing the groups
+ */
+public enum AggregateFunction {
+
+  COUNT(NumericReduceUtils.n),
+  SUM(NumericReduceUtils.sum),
+  MEAN(NumericReduceUtils.mean),
+  MIN(NumericReduceUtils.min),
+  MAX(NumericReduceUtils.max),
+  RANGE(NumericReduceUtils.range),
+  VARIANCE(NumericReduceUtils.variance),
+  POPULATION_VARIANCE(NumericReduceUtils.populationVariance),
+  STANDARD_DEVIATION(NumericReduceUtils.stdDev);
+
+  private final NumericReduceFunction function;
+
+  AggregateFunction(NumericReduceFunction function) {
+    this.function = function;
+  }
+
+  public String functionName() {
+    return function.functionName();
+  }
+
+  /**
+   * Returns the equivalent function that reduces a whole array of values
+   */
+  public NumericReduceFunction reduceFunction() {
+    return function;
+  }
+
+  /**
+   * Returns the AggregateFunction that computes the same result as the given reduce function, or null if there
+   * isn't one
+   */
+  public static AggregateFunction forFunction(NumericReduceFunction function) {
+    for (AggregateFunction aggregateFunction : values()) {
+      if (aggregateFunction.function == function) {
+        return aggregateFunction;
+      }
+    }
+    return null;
+  }
+}
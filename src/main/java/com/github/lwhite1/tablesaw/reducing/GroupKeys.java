@@ -0,0 +1,203 @@
+package com.github.lwhite1.tablesaw.reducing;
+
+import com.github.lwhite1.tablesaw.api.BooleanColumn;
+import com.github.lwhite1.tablesaw.api.CategoryColumn;
+import com.github.lwhite1.tablesaw.api.DateColumn;
+import com.github.lwhite1.tablesaw.api.DateTimeColumn;
+import com.github.lwhite1.tablesaw.api.FloatColumn;
+import com.github.lwhite1.tablesaw.api.IntColumn;
+import com.github.lwhite1.tablesaw.api.LongColumn;
+import com.github.lwhite1.tablesaw.api.ShortColumn;
+import com.github.lwhite1.tablesaw.api.TimeColumn;
+import com.github.lwhite1.tablesaw.columns.Column;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+
+/**
+ * Encodes the values of one or more grouping columns in a row as a single long, so that rows can be grouped by
+ * hashing primitives rather than by building strings.
+ * <p>
+ * Each column contributes its primitive representation (dictionary code, packed date, int or short value), offset by
+ * the column minimum and packed into as many bits as the column's range requires. If the columns together need
+ * more than 64 bits, every row is instead given a dense group id up front.
+ */
+final class GroupKeys {
+
+  private static final int CHUNK_SIZE = 4096;
+
+  private final Column[] columns;
+  private final long[] mins;
+  private final int[] shifts;
+
+  // dense group ids, used only when the packed key doesn't fit in a long
+  private final int[] denseIds;
+
+  private GroupKeys(Column[] columns, long[] mins, int[] shifts, int[] denseIds) {
+    this.columns = columns;
+    this.mins = mins;
+    this.shifts = shifts;
+    this.denseIds = denseIds;
+  }
+
+  static GroupKeys create(Column... columns) {
+    long[] mins = new long[columns.length];
+    int[] shifts = new int[columns.length];
+    int totalBits = 0;
+    long[] buffer = new long[CHUNK_SIZE];
+    for (int c = 0; c < columns.length; c++) {
+      Column column = columns[c];
+      long min = Long.MAX_VALUE;
+      long max = Long.MIN_VALUE;
+      for (int from = 0; from < column.size(); from += CHUNK_SIZE) {
+        int to = Math.min(column.size(), from + CHUNK_SIZE);
+        readValues(column, from, to, buffer);
+        for (int i = 0; i < to - from; i++) {
+          min = Math.min(min, buffer[i]);
+          max = Math.max(max, buffer[i]);
+        }
+      }
+      long range = max - min;
+      int bits = range < 0 ? 64 : 64 - Long.numberOfLeadingZeros(range);
+      mins[c] = min;
+      shifts[c] = totalBits;
+      totalBits += bits;
+    }
+    if (totalBits > 64) {
+      return new GroupKeys(columns, mins, shifts, denseIds(columns));
+    }
+    return new GroupKeys(columns, mins, shifts, null);
+  }
+
+  /**
+   * Writes the keys of rows {@code from} (inclusive) to {@code to} (exclusive) into the start of {@code keys}
+   */
+  void fill(int from, int to, long[] keys) {
+    int length = to - from;
+    if (denseIds != null) {
+      for (int i = 0; i < length; i++) {
+        keys[i] = denseIds[from + i];
+      }
+      return;
+    }
+    for (int i = 0; i < length; i++) {
+      keys[i] = 0;
+    }
+    long[] buffer = new long[Math.min(length, CHUNK_SIZE)];
+    for (int c = 0; c < columns.length; c++) {
+      long min = mins[c];
+      int shift = shifts[c];
+      for (int start = from; start < to; start += CHUNK_SIZE) {
+        int end = Math.min(to, start + CHUNK_SIZE);
+        readValues(columns[c], start, end, buffer);
+        int offset = start - from;
+        for (int i = 0; i < end - start; i++) {
+          keys[offset + i] |= (buffer[i] - min) << shift;
+        }
+      }
+    }
+  }
+
+  /**
+   * Assigns each row a dense id for its combination of values, folding in one column at a time
+   */
+  private static int[] denseIds(Column[] columns) {
+    int rowCount = columns[0].size();
+    int[] ids = new int[rowCount];
+    int[] codes = new int[rowCount];
+    long[] buffer = new long[CHUNK_SIZE];
+    for (int c = 0; c < columns.length; c++) {
+      Long2IntOpenHashMap valueCodes = new Long2IntOpenHashMap();
+      valueCodes.defaultReturnValue(-1);
+      for (int from = 0; from < rowCount; from += CHUNK_SIZE) {
+        int to = Math.min(rowCount, from + CHUNK_SIZE);
+        readValues(columns[c], from, to, buffer);
+        for (int i = 0; i < to - from; i++) {
+          codes[from + i] = denseCode(valueCodes, buffer[i]);
+        }
+      }
+      if (c == 0) {
+        System.arraycopy(codes, 0, ids, 0, rowCount);
+        continue;
+      }
+      Long2IntOpenHashMap pairCodes = new Long2IntOpenHashMap();
+      pairCodes.defaultReturnValue(-1);
+      for (int r = 0; r < rowCount; r++) {
+        ids[r] = denseCode(pairCodes, ((long) ids[r] << 32) | codes[r]);
+      }
+    }
+    return ids;
+  }
+
+  private static int denseCode(Long2IntOpenHashMap codes, long value) {
+    int code = codes.get(value);
+    if (code == -1) {
+      code = codes.size();
+      codes.put(value, code);
+    }
+    return code;
+  }
+
+  /**
+   * Copies the primitive representation of the values in rows {@code from} to {@code to} into {@code values}
+   */
+  static void readValues(Column column, int from, int to, long[] values) {
+    switch (column.type()) {
+      case CATEGORY:
+        CategoryColumn categories = (CategoryColumn) column;
+        for (int r = from; r < to; r++) {
+          values[r - from] = categories.getInt(r);
+        }
+        break;
+      case INTEGER:
+        IntColumn ints = (IntColumn) column;
+        for (int r = from; r < to; r++) {
+          values[r - from] = ints.get(r);
+        }
+        break;
+      case SHORT_INT:
+        ShortColumn shorts = (ShortColumn) column;
+        for (int r = from; r < to; r++) {
+          values[r - from] = shorts.get(r);
+        }
+        break;
+      case LONG_INT:
+        LongColumn longs = (LongColumn) column;
+        for (int r = from; r < to; r++) {
+          values[r - from] = longs.get(r);
+        }
+        break;
+      case LOCAL_DATE:
+        DateColumn dates = (DateColumn) column;
+        for (int r = from; r < to; r++) {
+          values[r - from] = dates.getInt(r);
+        }
+        break;
+      case LOCAL_TIME:
+        TimeColumn times = (TimeColumn) column;
+        for (int r = from; r < to; r++) {
+          values[r - from] = times.getInt(r);
+        }
+        break;
+      case LOCAL_DATE_TIME:
+        DateTimeColumn dateTimes = (DateTimeColumn) column;
+        for (int r = from; r < to; r++) {
+          values[r - from] = dateTimes.getLong(r);
+        }
+        break;
+      case BOOLEAN:
+        BooleanColumn booleans = (BooleanColumn) column;
+        for (int r = from; r < to; r++) {
+          values[r - from] = booleans.getByte(r);
+        }
+        break;
+      case FLOAT:
+        FloatColumn floats = (FloatColumn) column;
+        for (int r = from; r < to; r++) {
+          float value = floats.get(r);
+          values[r - from] = value == 0.0f ? 0 : Float.floatToIntBits(value);
+        }
+        break;
+      default:
+        throw new RuntimeException("Unhandled column type in group key: " + column.type());
+    }
+  }
+}
@@ -0,0 +1,359 @@
+package com.github.lwhite1.tablesaw.reducing;
+
+import com.github.lwhite1.tablesaw.api.FloatColumn;
+import com.github.lwhite1.tablesaw.api.IntColumn;
+import com.github.lwhite1.tablesaw.api.LongColumn;
+import com.github.lwhite1.tablesaw.api.NumericColumn;
+import com.github.lwhite1.tablesaw.api.ShortColumn;
+import com.github.lwhite1.tablesaw.api.Table;
+import com.github.lwhite1.tablesaw.columns.Column;
+import com.github.lwhite1.tablesaw.util.IntComparatorChain;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.ints.IntComparator;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Groups the rows of a table on one or more columns and reduces numeric columns within each group, using a hash
+ * table keyed on the primitive values of the grouping columns instead of sorting the table and splitting it into
+ * sub-tables.
+ * <p>
+ * The rows are divided into contiguous ranges, each aggregated into its own partial state by a separate worker. The
+ * partial states are then merged, so every supported function is computed in a single pass over the data. The
+ * supported functions are those of {@link AggregateFunction}, and any {@link SketchFunction}, which keeps a sketch for
+ * each group. Missing values are left out.
+ * <p>
+ * Groups appear in the result in the order given by sorting on the grouping columns.
+ */
+public class HashAggregator {
+
+  // rows read from the columns at a time
+  private static final int CHUNK_SIZE = 4096;
+
+  // the smallest range of rows worth handing to a worker of its own
+  @VisibleForTesting
+  static int minRowsPerWorker = 100_000;
+
+  private final Table table;
+  private final Column[] groupColumns;
+
+  public HashAggregator(Table table, String... groupColumnNames) {
+    Preconditions.checkArgument(groupColumnNames.length > 0, "At least one grouping column is required");
+    this.table = table;
+    List<Column> columns = table.columns(groupColumnNames);
+    this.groupColumns = columns.toArray(new Column[columns.size()]);
+  }
+
+  /**
+   * Returns a table with a row for each group, holding the values of the grouping columns followed by the result
+   * of applying {@code function} to the values of {@code numericColumnName} in that group
+   */
+  public NumericSummaryTable aggregate(String numericColumnName, AggregateFunction function) {
+    return aggregate(new String[] {numericColumnName}, new AggregateFunction[] {function});
+  }
+
+  /**
+   * Returns a table with a row for each group, holding the values of the grouping columns followed by the estimate of
+   * {@code function} from a sketch of the values of {@code numericColumnName} in that group
+   */
+  public NumericSummaryTable aggregate(String numericColumnName, SketchFunction function) {
+    return aggregate(new String[] {numericColumnName}, new NumericReduceFunction[] {function});
+  }
+
+  /**
+   * Returns true if the given function can be computed by a HashAggregator
+   */
+  public static boolean canAggregate(NumericReduceFunction function) {
+    return function instanceof SketchFunction || AggregateFunction.forFunction(function) != null;
+  }
+
+  /**
+   * Returns a table with a row for each group, holding the values of the grouping columns followed by a column for
+   * each reduction, where the i-th reduction applies {@code functions[i]} to the values of
+   * {@code numericColumnNames[i]}. All the reductions are computed in the same pass over the table, and a column
+   * named more than once is only read once
+   */
+  public NumericSummaryTable aggregate(String[] numericColumnNames, AggregateFunction[] functions) {
+    NumericReduceFunction[] reduceFunctions = new NumericReduceFunction[functions.length];
+    for (int i = 0; i < functions.length; i++) {
+      reduceFunctions[i] = functions[i].reduceFunction();
+    }
+    return aggregate(numericColumnNames, reduceFunctions);
+  }
+
+  /**
+   * As {@link #aggregate(String[], AggregateFunction[])}, but each function may be any for which
+   * {@link #canAggregate(NumericReduceFunction)} is true
+   */
+  public NumericSummaryTable aggregate(String[] numericColumnNames, NumericReduceFunction[] functions) {
+    Preconditions.checkArgument(numericColumnNames.length == functions.length,
+        "Each column name must be paired with one function");
+
+    List<String> measureNames = new ArrayList<>();
+    int[] measureIndexes = new int[numericColumnNames.length];
+    for (int i = 0; i < numericColumnNames.length; i++) {
+      int index = measureNames.indexOf(numericColumnNames[i]);
+      if (index == -1) {
+        index = measureNames.size();
+        measureNames.add(numericColumnNames[i]);
+      }
+      measureIndexes[i] = index;
+    }
+    NumericColumn[] measures = new NumericColumn[measureNames.size()];
+    for (int m = 0; m < measures.length; m++) {
+      measures[m] = (NumericColumn) table.column(measureNames.get(m));
+    }
+
+    // each sketch function has sketches of its own, even if another sketches the same column
+    AggregateFunction[] aggregates = new AggregateFunction[functions.length];
+    int[] sketchIndexes = new int[functions.length];
+    List<SketchFunction> sketchFunctions = new ArrayList<>();
+    IntArrayList sketchMeasures = new IntArrayList();
+    for (int i = 0; i < functions.length; i++) {
+      if (functions[i] instanceof SketchFunction) {
+        sketchIndexes[i] = sketchFunctions.size();
+        sketchFunctions.add((SketchFunction) functions[i]);
+        sketchMeasures.add(measureIndexes[i]);
+      } else {
+        aggregates[i] = AggregateFunction.forFunction(functions[i]);
+        Preconditions.checkArgument(aggregates[i] != null,
+            "%s can't be computed by hash aggregation", functions[i].functionName());
+      }
+    }
+    Groups groups = groups(measures,
+        sketchFunctions.toArray(new SketchFunction[sketchFunctions.size()]), sketchMeasures.toIntArray());
+
+    NumericSummaryTable result = NumericSummaryTable.create(table.name() + " summary");
+    int groupCount = groups.size();
+    int[] order = groups.sortedSlots();
+    for (Column groupColumn : groupColumns) {
+      Column column = groupColumn.emptyCopy(groupCount);
+      for (int slot : order) {
+        column.addCell(groupColumn.getString(groups.firstRows.getInt(slot)));
+      }
+      result.addColumn(column);
+    }
+    for (int i = 0; i < functions.length; i++) {
+      FloatColumn resultColumn = new FloatColumn(reduceColumnName(numericColumnNames[i], functions[i].functionName()),
+          groupCount);
+      if (aggregates[i] == null) {
+        SketchStates sketches = groups.sketches[sketchIndexes[i]];
+        for (int slot : order) {
+          resultColumn.add((float) sketches.result(slot));
+        }
+      } else {
+        MeasureStates states = groups.states[measureIndexes[i]];
+        for (int slot : order) {
+          resultColumn.add((float) states.get(aggregates[i], slot));
+        }
+      }
+      result.addColumn(resultColumn);
+    }
+    return result;
+  }
+
+  /**
+   * Aggregates the given measures over the whole table, splitting the rows among as many workers as there are
+   * processors, but giving each at least {@code minRowsPerWorker} rows
+   */
+  private Groups groups(NumericColumn[] measures, SketchFunction[] sketchFunctions, int[] sketchMeasures) {
+    GroupKeys keys = GroupKeys.create(groupColumns);
+    int rowCount = table.rowCount();
+    int workers = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), rowCount / minRowsPerWorker));
+    if (workers == 1) {
+      return aggregateRange(keys, measures, sketchFunctions, sketchMeasures, 0, rowCount);
+    }
+    int rowsPerWorker = (rowCount + workers - 1) / workers;
+    List<Groups> partials = IntStream.range(0, workers)
+        .parallel()
+        .mapToObj(w -> aggregateRange(keys, measures, sketchFunctions, sketchMeasures,
+            w * rowsPerWorker,
+            Math.min(rowCount, (w + 1) * rowsPerWorker)))
+        .collect(Collectors.toList());
+
+    // partials are in row order, so the merged groups keep the first row at which each was seen
+    Groups merged = partials.get(0);
+    for (int i = 1; i < partials.size(); i++) {
+      merged.merge(partials.get(i));
+    }
+    return merged;
+  }
+
+  private Groups aggregateRange(GroupKeys keys, NumericColumn[] measures, SketchFunction[] sketchFunctions,
+                                int[] sketchMeasures, int from, int to) {
+    Groups groups = new Groups(measures.length, sketchFunctions);
+    long[] keyBuffer = new long[CHUNK_SIZE];
+    int[] slotBuffer = new int[CHUNK_SIZE];
+    double[] valueBuffer = new double[CHUNK_SIZE];
+    for (int start = from; start < to; start += CHUNK_SIZE) {
+      int end = Math.min(to, start + CHUNK_SIZE);
+      int length = end - start;
+      keys.fill(start, end, keyBuffer);
+      for (int i = 0; i < length; i++) {
+        slotBuffer[i] = groups.slot(keyBuffer[i], start + i);
+      }
+      for (int m = 0; m < measures.length; m++) {
+        readValues(measures[m], start, end, valueBuffer);
+        MeasureStates states = groups.states[m];
+        for (int i = 0; i < length; i++) {
+          double value = valueBuffer[i];
+          if (value == value) {
+            states.add(slotBuffer[i], value);
+          }
+        }
+        for (int s = 0; s < sketchMeasures.length; s++) {
+          if (sketchMeasures[s] == m) {
+            // the sketches leave out missing values themselves
+            SketchStates sketches = groups.sketches[s];
+            for (int i = 0; i < length; i++) {
+              sketches.add(slotBuffer[i], valueBuffer[i]);
+            }
+          }
+        }
+      }
+    }
+    return groups;
+  }
+
+  /**
+   * Copies the values in rows {@code from} to {@code to} of the given column into {@code values}, with NaN for
+   * missing values
+   */
+  private static void readValues(NumericColumn column, int from, int to, double[] values) {
+    switch (column.type()) {
+      case FLOAT:
+        FloatColumn floats = (FloatColumn) column;
+        for (int r = from; r < to; r++) {
+          values[r - from] = floats.get(r);
+        }
+        break;
+      case INTEGER:
+        IntColumn ints = (IntColumn) column;
+        for (int r = from; r < to; r++) {
+          int value = ints.get(r);
+          values[r - from] = value == IntColumn.MISSING_VALUE ? Double.NaN : value;
+        }
+        break;
+      case SHORT_INT:
+        ShortColumn shorts = (ShortColumn) column;
+        for (int r = from; r < to; r++) {
+          short value = shorts.get(r);
+          values[r - from] = value == ShortColumn.MISSING_VALUE ? Double.NaN : value;
+        }
+        break;
+      case LONG_INT:
+        LongColumn longs = (LongColumn) column;
+        for (int r = from; r < to; r++) {
+          long value = longs.get(r);
+          values[r - from] = value == LongColumn.MISSING_VALUE ? Double.NaN : value;
+        }
+        break;
+      default:
+        for (int r = from; r < to; r++) {
+          values[r - from] = column.getFloat(r);
+        }
+    }
+  }
+
+  static String reduceColumnName(String columnName, String functionName) {
+    return String.format("%s [%s]", functionName, columnName);
+  }
+
+  /**
+   * The groups found in some range of rows, each assigned a dense slot, with the running state of every measure
+   */
+  private final class Groups {
+
+    private final Long2IntOpenHashMap slots = new Long2IntOpenHashMap();
+    private final LongArrayList keys = new LongArrayList();
+    private final IntArrayList firstRows = new IntArrayList();
+    private final MeasureStates[] states;
+    private final SketchStates[] sketches;
+
+    Groups(int measureCount, SketchFunction[] sketchFunctions) {
+      slots.defaultReturnValue(-1);
+      states = new MeasureStates[measureCount];
+      for (int m = 0; m < measureCount; m++) {
+        states[m] = new MeasureStates(16);
+      }
+      sketches = new SketchStates[sketchFunctions.length];
+      for (int s = 0; s < sketches.length; s++) {
+        sketches[s] = new SketchStates(sketchFunctions[s], 16);
+      }
+    }
+
+    int size() {
+      return keys.size();
+    }
+
+    /**
+     * Returns the slot of the group with the given key, adding the group if this is the first of its rows
+     */
+    int slot(long key, int row) {
+      int slot = slots.get(key);
+      if (slot == -1) {
+        slot = keys.size();
+        slots.put(key, slot);
+        keys.add(key);
+        firstRows.add(row);
+        for (MeasureStates measureStates : states) {
+          measureStates.ensureCapacity(slot + 1);
+        }
+        for (SketchStates sketchStates : sketches) {
+          sketchStates.ensureCapacity(slot + 1);
+        }
+      }
+      return slot;
+    }
+
+    /**
+     * Folds the groups of {@code other}, which must cover later rows than this, into this
+     */
+    void merge(Groups other) {
+      for (int otherSlot = 0; otherSlot < other.size(); otherSlot++) {
+        int slot = slot(other.keys.getLong(otherSlot), other.firstRows.getInt(otherSlot));
+        for (int m = 0; m < states.length; m++) {
+          states[m].merge(slot, other.states[m], otherSlot);
+        }
+        for (int s = 0; s < sketches.length; s++) {
+          sketches[s].merge(slot, other.sketches[s], otherSlot);
+        }
+      }
+    }
+
+    /**
+     * Returns the slots ordered by the values of the grouping columns in each group's first row
+     */
+    int[] sortedSlots() {
+      IntComparatorChain chain = new IntComparatorChain(groupColumns[0].rowComparator());
+      for (int c = 1; c < groupColumns.length; c++) {
+        chain.addComparator(groupColumns[c].rowComparator());
+      }
+      int[] order = new int[size()];
+      for (int slot = 0; slot < order.length; slot++) {
+        order[slot] = slot;
+      }
+      IntArrays.quickSort(order, new IntComparator() {
+
+        @Override
+        public int compare(int a, int b) {
+          return chain.compare(firstRows.getInt(a), firstRows.getInt(b));
+        }
+
+        @Override
+        public int compare(Integer a, Integer b) {
+          return compare(a.intValue(), b.intValue());
+        }
+      });
+      return order;
+    }
+  }
+}
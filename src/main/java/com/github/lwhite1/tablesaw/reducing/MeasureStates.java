@@ -0,0 +1,118 @@
+package com.github.lwhite1.tablesaw.reducing;
+
+import java.util.Arrays;
+
+/**
+ * Running statistics for one numeric column, held for many groups at once in parallel arrays indexed by group slot.
+ * <p>
+ * Variance is tracked with Welford's online algorithm, and two states are combined with the pairwise update of
+ * Chan et al, so partial states computed over different row ranges can be merged without loss of precision.
+ */
+final class MeasureStates {
+
+  private long[] count;
+  private double[] sum;
+  private double[] mean;
+  private double[] m2;
+  private double[] min;
+  private double[] max;
+
+  MeasureStates(int capacity) {
+    count = new long[capacity];
+    sum = new double[capacity];
+    mean = new double[capacity];
+    m2 = new double[capacity];
+    min = new double[capacity];
+    max = new double[capacity];
+    Arrays.fill(min, Double.POSITIVE_INFINITY);
+    Arrays.fill(max, Double.NEGATIVE_INFINITY);
+  }
+
+  /**
+   * Makes room for at least {@code slots} groups
+   */
+  void ensureCapacity(int slots) {
+    int capacity = count.length;
+    if (slots <= capacity) {
+      return;
+    }
+    int newCapacity = Math.max(slots, capacity * 2);
+    count = Arrays.copyOf(count, newCapacity);
+    sum = Arrays.copyOf(sum, newCapacity);
+    mean = Arrays.copyOf(mean, newCapacity);
+    m2 = Arrays.copyOf(m2, newCapacity);
+    min = Arrays.copyOf(min, newCapacity);
+    max = Arrays.copyOf(max, newCapacity);
+    Arrays.fill(min, capacity, newCapacity, Double.POSITIVE_INFINITY);
+    Arrays.fill(max, capacity, newCapacity, Double.NEGATIVE_INFINITY);
+  }
+
+  void add(int slot, double value) {
+    long n = ++count[slot];
+    sum[slot] += value;
+    double delta = value - mean[slot];
+    mean[slot] += delta / n;
+    m2[slot] += delta * (value - mean[slot]);
+    if (value < min[slot]) {
+      min[slot] = value;
+    }
+    if (value > max[slot]) {
+      max[slot] = value;
+    }
+  }
+
+  /**
+   * Folds the state of {@code otherSlot} in {@code other} into {@code slot} of this
+   */
+  void merge(int slot, MeasureStates other, int otherSlot) {
+    long n2 = other.count[otherSlot];
+    if (n2 == 0) {
+      return;
+    }
+    long n1 = count[slot];
+    long n = n1 + n2;
+    double delta = other.mean[otherSlot] - mean[slot];
+    mean[slot] += delta * n2 / n;
+    m2[slot] += other.m2[otherSlot] + delta * delta * ((double) n1 * n2 / n);
+    count[slot] = n;
+    sum[slot] += other.sum[otherSlot];
+    min[slot] = Math.min(min[slot], other.min[otherSlot]);
+    max[slot] = Math.max(max[slot], other.max[otherSlot]);
+  }
+
+  /**
+   * Returns the value of the given function for the group in {@code slot}. Functions other than count and sum are
+   * NaN for a group with no values
+   */
+  double get(AggregateFunction function, int slot) {
+    long n = count[slot];
+    switch (function) {
+      case COUNT:
+        return n;
+      case SUM:
+        return sum[slot];
+      default:
+        if (n == 0) {
+          return Double.NaN;
+        }
+    }
+    switch (function) {
+      case MEAN:
+        return mean[slot];
+      case MIN:
+        return min[slot];
+      case MAX:
+        return max[slot];
+      case RANGE:
+        return max[slot] - min[slot];
+      case VARIANCE:
+        return n == 1 ? 0.0 : m2[slot] / (n - 1);
+      case POPULATION_VARIANCE:
+        return m2[slot] / n;
+      case STANDARD_DEVIATION:
+        return n == 1 ? 0.0 : Math.sqrt(m2[slot] / (n - 1));
+      default:
+        throw new RuntimeException("Unhandled aggregate function " + function);
+    }
+  }
+}
@@ -0,0 +1,188 @@
+package com.github.lwhite1.tablesaw.reducing;
+
+/**
+ * The count, sum, smallest and largest of a set of values, and optionally the second to fourth moments about their
+ * mean, from which the usual summary statistics are computed.
+ * <p>
+ * The values are added in batches, each summarized by its own count, sum and moments, and the batches are combined
+ * with the pairwise update formulas of Chan et al. and Pebay, so no value is visited twice. The sum is compensated
+ * (Neumaier's variant of Kahan summation), so its error doesn't grow with the number of values.
+ */
+public final class Moments {
+
+  private long n;
+
+  // the compensated sum is sum + compensation
+  private double sum;
+  private double compensation;
+
+  private double min = Double.NaN;
+  private double max = Double.NaN;
+
+  // the running mean, used only to combine the moments
+  private double mean;
+
+  // the sums of the second, third and fourth powers of the differences from the mean
+  private double m2;
+  private double m3;
+  private double m4;
+
+  /**
+   * Adds a batch of {@code count} values, which must be more than 0, with the given sum, extremes and sums of powers
+   * of the differences from their own mean
+   */
+  void add(long count, double batchSum, double batchMin, double batchMax, double batchM2, double batchM3,
+           double batchM4) {
+    addToSum(batchSum);
+    if (n == 0) {
+      n = count;
+      min = batchMin;
+      max = batchMax;
+      mean = batchSum / count;
+      m2 = batchM2;
+      m3 = batchM3;
+      m4 = batchM4;
+      return;
+    }
+    min = Math.min(min, batchMin);
+    max = Math.max(max, batchMax);
+
+    double na = n;
+    double nb = count;
+    double total = na + nb;
+    double delta = batchSum / count - mean;
+    double delta2 = delta * delta;
+    // each moment is updated from the lower moments before they are updated themselves
+    m4 += batchM4
+        + delta2 * delta2 * na * nb * (na * na - na * nb + nb * nb) / (total * total * total)
+        + 6 * delta2 * (na * na * batchM2 + nb * nb * m2) / (total * total)
+        + 4 * delta * (na * batchM3 - nb * m3) / total;
+    m3 += batchM3
+        + delta2 * delta * na * nb * (na - nb) / (total * total)
+        + 3 * delta * (na * batchM2 - nb * m2) / total;
+    m2 += batchM2 + delta2 * na * nb / total;
+    mean += delta * nb / total;
+    n += count;
+  }
+
+  /**
+   * Adds the values summarized by the given moments to these
+   */
+  void add(Moments other) {
+    if (other.n > 0) {
+      add(other.n, other.sum, other.min, other.max, other.m2, other.m3, other.m4);
+      addToSum(other.compensation);
+    }
+  }
+
+  private void addToSum(double value) {
+    double total = sum + value;
+    if (Math.abs(sum) >= Math.abs(value)) {
+      compensation += (sum - total) + value;
+    } else {
+      compensation += (value - total) + sum;
+    }
+    sum = total;
+  }
+
+  /**
+   * Returns the number of values
+   */
+  public long count() {
+    return n;
+  }
+
+  /**
+   * Returns the sum of the values, or 0 if there are none
+   */
+  public double sum() {
+    return sum + compensation;
+  }
+
+  public double mean() {
+    return n == 0 ? Double.NaN : sum() / n;
+  }
+
+  /**
+   * Returns the smallest value, or NaN if there are none
+   */
+  public double min() {
+    return min;
+  }
+
+  /**
+   * Returns the largest value, or NaN if there are none
+   */
+  public double max() {
+    return max;
+  }
+
+  public double range() {
+    return max - min;
+  }
+
+  /**
+   * Returns the sum of the squares of the differences between the values and their mean
+   */
+  public double secondMoment() {
+    return m2;
+  }
+
+  /**
+   * Returns the sum of the squares of the values, or 0 if there are none
+   */
+  public double sumOfSquares() {
+    return n == 0 ? 0 : m2 + sum() * sum() / n;
+  }
+
+  /**
+   * Returns the root of the mean of the squares of the values
+   */
+  public double quadraticMean() {
+    return n == 0 ? Double.NaN : Math.sqrt(sumOfSquares() / n);
+  }
+
+  /**
+   * Returns the bias-corrected sample variance, which uses {@code n - 1} in the denominator, or 0 for a single value
+   */
+  public double variance() {
+    if (n == 0) {
+      return Double.NaN;
+    }
+    return n == 1 ? 0 : m2 / (n - 1);
+  }
+
+  public double populationVariance() {
+    return n == 0 ? Double.NaN : m2 / n;
+  }
+
+  public double standardDeviation() {
+    return Math.sqrt(variance());
+  }
+
+  /**
+   * Returns the bias-corrected skewness, as commons-math computes it, or NaN if there are fewer than three values
+   */
+  public double skewness() {
+    if (n < 3) {
+      return Double.NaN;
+    }
+    double variance = variance();
+    double count = n;
+    return count / ((count - 1) * (count - 2)) * m3 / (variance * Math.sqrt(variance));
+  }
+
+  /**
+   * Returns the bias-corrected excess kurtosis, as commons-math computes it, or NaN if there are fewer than four values
+   */
+  public double kurtosis() {
+    if (n < 4) {
+      return Double.NaN;
+    }
+    double variance = variance();
+    double count = n;
+    double coefficientOne = count * (count + 1) / ((count - 1) * (count - 2) * (count - 3));
+    double termTwo = 3 * (count - 1) * (count - 1) / ((count - 2) * (count - 3));
+    return coefficientOne * m4 / (variance * variance) - termTwo;
+  }
+}
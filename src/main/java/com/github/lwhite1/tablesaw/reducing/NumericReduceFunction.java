@@ -4,9 +4,15 @@ import com.github.lwhite1.tablesaw.api.FloatColumn;
 import com.github.lwhite1.tablesaw.api.IntColumn;
 import com.github.lwhite1.tablesaw.api.LongColumn;
 import com.github.lwhite1.tablesaw.api.ShortColumn;
+import com.github.lwhite1.tablesaw.columns.Column;
+import com.github.lwhite1.tablesaw.util.Selection;
 
 /**
- * Functions that calculate values over the data of an entire column, such as sum, mean, std. dev, etc.
+ * Functions that calculate values over the data of an entire column, such as sum, mean, std. dev, etc. Missing values
+ * in a column are left out.
+ * <p>
+ * A function can also be applied to only some rows of a column, given as a {@link Selection}, without copying them
+ * into a new column first.
  */
 public interface NumericReduceFunction {
 
@@ -15,18 +21,70 @@ public interface NumericReduceFunction {
   double reduce(double[] data);
 
   default double reduce(FloatColumn data) {
-    return this.reduce(data.toDoubleArray());
+    return this.reduce(ReduceKernels.toDoubleArray(data.data()));
   }
 
   default double reduce(IntColumn data) {
-    return this.reduce(data.toDoubleArray());
+    return this.reduce(ReduceKernels.toDoubleArray(data.data()));
   }
 
   default double reduce(ShortColumn data) {
-    return this.reduce(data.toDoubleArray());
+    return this.reduce(ReduceKernels.toDoubleArray(data.data()));
   }
 
   default double reduce(LongColumn data) {
-    return this.reduce(data.toDoubleArray());
+    return this.reduce(ReduceKernels.toDoubleArray(data.data()));
+  }
+
+  default double reduce(FloatColumn data, Selection rows) {
+    return this.reduce(ReduceKernels.toDoubleArray(data.data(), rows));
+  }
+
+  default double reduce(IntColumn data, Selection rows) {
+    return this.reduce(ReduceKernels.toDoubleArray(data.data(), rows));
+  }
+
+  default double reduce(ShortColumn data, Selection rows) {
+    return this.reduce(ReduceKernels.toDoubleArray(data.data(), rows));
+  }
+
+  default double reduce(LongColumn data, Selection rows) {
+    return this.reduce(ReduceKernels.toDoubleArray(data.data(), rows));
+  }
+
+  /**
+   * Applies this function to the given column, using the reduction for its type if it has one
+   */
+  default double reduce(Column column) {
+    switch (column.type()) {
+      case FLOAT:
+        return reduce((FloatColumn) column);
+      case INTEGER:
+        return reduce((IntColumn) column);
+      case SHORT_INT:
+        return reduce((ShortColumn) column);
+      case LONG_INT:
+        return reduce((LongColumn) column);
+      default:
+        return reduce(column.toDoubleArray());
+    }
+  }
+
+  /**
+   * Applies this function to the given rows of the column, using the reduction for its type if it has one
+   */
+  default double reduce(Column column, Selection rows) {
+    switch (column.type()) {
+      case FLOAT:
+        return reduce((FloatColumn) column, rows);
+      case INTEGER:
+        return reduce((IntColumn) column, rows);
+      case SHORT_INT:
+        return reduce((ShortColumn) column, rows);
+      case LONG_INT:
+        return reduce((LongColumn) column, rows);
+      default:
+        return reduce(column.subset(rows).toDoubleArray());
+    }
   }
 }
@@ -1,28 +1,43 @@
 package com.github.lwhite1.tablesaw.reducing;
 
 import com.github.lwhite1.tablesaw.api.FloatColumn;
+import com.github.lwhite1.tablesaw.api.IntColumn;
+import com.github.lwhite1.tablesaw.api.LongColumn;
+import com.github.lwhite1.tablesaw.api.ShortColumn;
+import com.github.lwhite1.tablesaw.reducing.sketch.DistinctCountSketch;
+import com.github.lwhite1.tablesaw.reducing.sketch.QuantileSketch;
+import com.github.lwhite1.tablesaw.reducing.sketch.Sketch;
+import com.github.lwhite1.tablesaw.util.Selection;
+import com.google.common.base.Preconditions;
 import org.apache.commons.math3.stat.StatUtils;
 import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
 import org.apache.commons.math3.stat.descriptive.moment.Kurtosis;
 import org.apache.commons.math3.stat.descriptive.moment.Skewness;
-import org.apache.commons.math3.util.FastMath;
 
 /**
- * Contains common utilities for double and long types
+ * Contains common utilities for double and long types.
+ * <p>
+ * The functions that only need the count, sum, extremes or moments of a column read its values directly, with
+ * {@link ReduceKernels}, skipping missing values. The others are applied to a copy of the column's values without the
+ * missing ones.
  */
 public class NumericReduceUtils {
 
-  // TODO(lwhite): Re-implement these methods to work natively with float[], instead of converting to double[]
   /**
    * A function that calculates the mean of the values in the column param
    */
-  public static NumericReduceFunction mean = new NumericReduceFunction() {
+  public static NumericReduceFunction mean = new MomentFunction(false) {
 
     @Override
     public String functionName() {
       return "Mean";
     }
 
+    @Override
+    double reduce(Moments moments) {
+      return moments.mean();
+    }
+
     @Override
     public double reduce(double[] data) {
       return StatUtils.mean(data);
@@ -32,7 +47,7 @@ public class NumericReduceUtils {
   /**
    * A function that calculates the sum of the values in the column param
    */
-  public static NumericReduceFunction sum = new NumericReduceFunction() {
+  public static NumericReduceFunction sum = new MomentFunction(false) {
 
     @Override
     public String functionName() {
@@ -40,129 +55,104 @@ public class NumericReduceUtils {
     }
 
     @Override
-    public double reduce(double[] data) {
-      return StatUtils.sum(data);
+    double reduce(Moments moments) {
+      return moments.sum();
     }
 
     @Override
-    public double reduce(FloatColumn floatColumn) {
-      float sum;
-      sum = 0.0f;
-      for (float value : floatColumn) {
-        if (value != Float.NaN) {
-          sum += value;
-        }
-      }
-      return sum;
+    public double reduce(double[] data) {
+      return StatUtils.sum(data);
     }
   };
 
-  public static NumericReduceFunction median = new NumericReduceFunction() {
+  public static NumericReduceFunction median = new PercentileFunction(50.0) {
 
     @Override
     public String functionName() {
       return "Median";
     }
-
-    @Override
-    public double reduce(double[] data) {
-      return percentile(data, 50.0);
-    }
   };
 
-  public static NumericReduceFunction n = new NumericReduceFunction() {
+  /**
+   * A function that counts the values in the column param that aren't missing
+   */
+  public static NumericReduceFunction n = new MomentFunction(false) {
 
     @Override
     public String functionName() {
       return "N";
     }
 
-    //TODO: Consider whether we should provide a count without missing values
+    @Override
+    double reduce(Moments moments) {
+      return moments.count();
+    }
+
     @Override
     public double reduce(double[] data) {
       return data.length;
     }
   };
 
-  public static NumericReduceFunction quartile1 = new NumericReduceFunction() {
+  public static NumericReduceFunction quartile1 = new PercentileFunction(25.0) {
 
     @Override
     public String functionName() {
       return "First Quartile";
     }
-
-    @Override
-    public double reduce(double[] data) {
-      return percentile(data, 25.0);
-    }
   };
 
-  public static NumericReduceFunction quartile3 = new NumericReduceFunction() {
+  public static NumericReduceFunction quartile3 = new PercentileFunction(75.0) {
 
     @Override
     public String functionName() {
       return "Third Quartile";
     }
-
-    @Override
-    public double reduce(double[] data) {
-      return percentile(data, 75.0);
-    }
   };
 
-  public static NumericReduceFunction percentile90 = new NumericReduceFunction() {
+  public static NumericReduceFunction percentile90 = new PercentileFunction(90.0) {
 
     @Override
     public String functionName() {
       return "90th Percentile";
     }
-
-    @Override
-    public double reduce(double[] data) {
-      return percentile(data, 90.0);
-    }
   };
 
-  public static NumericReduceFunction percentile95 = new NumericReduceFunction() {
+  public static NumericReduceFunction percentile95 = new PercentileFunction(95.0) {
 
     @Override
     public String functionName() {
       return "95th Percentile";
     }
-
-    @Override
-    public double reduce(double[] data) {
-      return percentile(data, 95.0);
-    }
   };
 
-  public static NumericReduceFunction percentile99 = new NumericReduceFunction() {
+  public static NumericReduceFunction percentile99 = new PercentileFunction(99.0) {
 
     @Override
     public String functionName() {
       return "99th Percentile";
     }
-
-    @Override
-    public double reduce(double[] data) {
-      return percentile(data, 99.0);
-    }
   };
 
-  public static NumericReduceFunction range = new NumericReduceFunction() {
+  public static NumericReduceFunction range = new MomentFunction(false) {
 
     @Override
     public String functionName() {
       return "Range";
     }
 
+    @Override
+    double reduce(Moments moments) {
+      return moments.range();
+    }
+
     @Override
     public double reduce(double[] data) {
       return StatUtils.max(data) - StatUtils.min(data);
     }
   };
 
-  public static NumericReduceFunction min = new NumericReduceFunction() {
+  public static NumericReduceFunction min = new MomentFunction(false) {
 
     @Override
     public String functionName() {
@@ -170,32 +160,28 @@ public class NumericReduceUtils {
     }
 
     @Override
-    public double reduce(double[] data) {
-      return StatUtils.min(data);
+    double reduce(Moments moments) {
+      return moments.min();
     }
 
     @Override
-    public double reduce(FloatColumn data) {
-      if (data.size() == 0) {
-        return Float.NaN;
-      }
-      float min = data.firstElement();
-      for (float value : data) {
-        if (!Float.isNaN(value)) {
-          min = (min < value) ? min : value;
-        }
-      }
-      return min;
+    public double reduce(double[] data) {
+      return StatUtils.min(data);
     }
   };
 
-  public static NumericReduceFunction max = new NumericReduceFunction() {
+  public static NumericReduceFunction max = new MomentFunction(false) {
 
     @Override
     public String functionName() {
       return "Max";
     }
 
+    @Override
+    double reduce(Moments moments) {
+      return moments.max();
+    }
+
     @Override
     public double reduce(double[] data) {
       return StatUtils.max(data);
@@ -213,22 +199,6 @@ public class NumericReduceUtils {
     public double reduce(double[] data) {
       return StatUtils.product(data);
     }
-
-    @Override
-    public double reduce(FloatColumn data) {
-      float product = 1.0f;
-      boolean empty = true;
-      for (float value : data) {
-        if (value != Float.NaN) {
-          empty = false;
-          product *= value;
-        }
-      }
-      if (empty) {
-        return Float.NaN;
-      }
-      return product;
-    }
   };
 
   public static NumericReduceFunction geometricMean = new NumericReduceFunction() {
@@ -244,13 +214,18 @@ public class NumericReduceUtils {
     }
   };
 
-  public static NumericReduceFunction populationVariance = new NumericReduceFunction() {
+  public static NumericReduceFunction populationVariance = new MomentFunction(true) {
 
     @Override
     public String functionName() {
       return "Population Variance";
     }
 
+    @Override
+    double reduce(Moments moments) {
+      return moments.populationVariance();
+    }
+
     @Override
     public double reduce(double[] data) {
       return StatUtils.populationVariance(data);
@@ -260,52 +235,72 @@ public class NumericReduceUtils {
   /**
    * Returns the quadratic mean, aka, the root-mean-square
    */
-  public static NumericReduceFunction quadraticMean = new NumericReduceFunction() {
+  public static NumericReduceFunction quadraticMean = new MomentFunction(true) {
 
     @Override
     public String functionName() {
       return "Quadratic Mean";
     }
 
+    @Override
+    double reduce(Moments moments) {
+      return moments.quadraticMean();
+    }
+
     @Override
     public double reduce(double[] data) {
       return new DescriptiveStatistics(data).getQuadraticMean();
     }
   };
 
-  public static NumericReduceFunction kurtosis = new NumericReduceFunction() {
+  public static NumericReduceFunction kurtosis = new MomentFunction(true) {
 
     @Override
     public String functionName() {
       return "Kurtosis";
     }
 
+    @Override
+    double reduce(Moments moments) {
+      return moments.kurtosis();
+    }
+
     @Override
     public double reduce(double[] data) {
       return new Kurtosis().evaluate(data, 0, data.length);
     }
   };
 
-  public static NumericReduceFunction skewness = new NumericReduceFunction() {
+  public static NumericReduceFunction skewness = new MomentFunction(true) {
 
     @Override
     public String functionName() {
       return "Skewness";
     }
 
+    @Override
+    double reduce(Moments moments) {
+      return moments.skewness();
+    }
+
     @Override
     public double reduce(double[] data) {
       return new Skewness().evaluate(data, 0, data.length);
     }
   };
 
-  public static NumericReduceFunction sumOfSquares = new NumericReduceFunction() {
+  public static NumericReduceFunction sumOfSquares = new MomentFunction(true) {
 
     @Override
     public String functionName() {
       return "Sum of Squares";
     }
 
+    @Override
+    double reduce(Moments moments) {
+      return moments.sumOfSquares();
+    }
+
     @Override
     public double reduce(double[] data) {
       return StatUtils.sumSq(data);
@@ -325,7 +320,7 @@ public class NumericReduceUtils {
     }
   };
 
-  public static NumericReduceFunction variance = new NumericReduceFunction() {
+  public static NumericReduceFunction variance = new MomentFunction(true) {
 
     @Override
     public String functionName() {
@@ -333,67 +328,218 @@ public class NumericReduceUtils {
     }
 
     @Override
-    public double reduce(double[] data) {
-      return StatUtils.variance(data);
+    double reduce(Moments moments) {
+      return moments.variance();
     }
 
-    /**
-     * Returns the (sample) variance of the available values.
-     * <p>
-     * <p>This method returns the bias-corrected sample variance (using {@code n - 1} in
-     * the denominator).
-     *
-     * @return The variance, Double.NaN if no values have been added
-     * or 0.0 for a single value set.
-     */
-    @Override
-    public double reduce(FloatColumn column) {
-      double avg = mean.reduce(column);
-      double sumSquaredDiffs = 0.0f;
-      for (float value : column) {
-        double diff = value - avg;
-        double sqrdDiff = diff * diff;
-        sumSquaredDiffs += sqrdDiff;
-      }
-      return sumSquaredDiffs / (column.size() - 1);
+    @Override
+    public double reduce(double[] data) {
+      return StatUtils.variance(data);
     }
   };
 
-  public static NumericReduceFunction stdDev = new NumericReduceFunction() {
+  public static NumericReduceFunction stdDev = new MomentFunction(true) {
 
     @Override
     public String functionName() {
       return "Std. Deviation";
     }
 
+    @Override
+    double reduce(Moments moments) {
+      return moments.standardDeviation();
+    }
+
     @Override
     public double reduce(double[] data) {
       return Math.sqrt(StatUtils.variance(data));
     }
+  };
+
+  /**
+   * Estimates the median from a {@link QuantileSketch}, without copying or sorting the values
+   */
+  public static SketchFunction approximateMedian =
+      quantileFunction("Approx. Median", 50.0, QuantileSketch.DEFAULT_ACCURACY);
+
+  public static SketchFunction approximateQuartile1 =
+      quantileFunction("Approx. First Quartile", 25.0, QuantileSketch.DEFAULT_ACCURACY);
+
+  public static SketchFunction approximateQuartile3 =
+      quantileFunction("Approx. Third Quartile", 75.0, QuantileSketch.DEFAULT_ACCURACY);
+
+  /**
+   * Estimates the number of distinct values from a {@link DistinctCountSketch}, without collecting them in a set
+   */
+  public static SketchFunction approximateCountDistinct =
+      approximateCountDistinct(DistinctCountSketch.DEFAULT_PRECISION);
+
+  /**
+   * Returns a function that estimates the given percentile, from 0 to 100, from a {@link QuantileSketch} with the
+   * given accuracy
+   */
+  public static SketchFunction approximatePercentile(double percentile, int accuracy) {
+    return quantileFunction("Approx. " + percentile + " Percentile", percentile, accuracy);
+  }
+
+  /**
+   * Returns a function that estimates the number of distinct values from a {@link DistinctCountSketch} with the
+   * given precision
+   */
+  public static SketchFunction approximateCountDistinct(int precision) {
+    // fail now rather than when the first sketch is made
+    DistinctCountSketch.create(precision);
+    return new SketchFunction("Approx. Count Distinct") {
+
+      @Override
+      public Sketch newSketch() {
+        return DistinctCountSketch.create(precision);
+      }
+
+      @Override
+      public double result(Sketch sketch) {
+        return ((DistinctCountSketch) sketch).estimate();
+      }
+    };
+  }
+
+  private static SketchFunction quantileFunction(String name, double percentile, int accuracy) {
+    Preconditions.checkArgument(percentile >= 0 && percentile <= 100, "The percentile must be from 0 to 100");
+    // fail now rather than when the first sketch is made
+    QuantileSketch.create(accuracy);
+    return new SketchFunction(name) {
 
-    /**
-     * Returns the standard deviation of the available values.
-     *
-     * @return The standard deviation, Double.NaN if no values have been added
-     * or 0.0 for a single value set.
-     */
-    public double stdDev(FloatColumn values) {
-      float stdDev = Float.NaN;
-      int N = values.size();
-      if (N > 0) {
-        if (N > 1) {
-          stdDev = (float) FastMath.sqrt(variance.reduce(values));
-        } else {
-          stdDev = 0.0f;
-        }
+      @Override
+      public Sketch newSketch() {
+        return QuantileSketch.create(accuracy);
       }
-      return stdDev;
+
+      @Override
+      public double result(Sketch sketch) {
+        return ((QuantileSketch) sketch).quantile(percentile / 100);
+      }
+    };
+  }
+
+  /**
+   * A function that finds a percentile of a column's values by selection from a scratch copy of them, which it can
+   * reorder without copying them again
+   */
+  private abstract static class PercentileFunction implements NumericReduceFunction {
+
+    private final double percentile;
+
+    PercentileFunction(double percentile) {
+      this.percentile = percentile;
     }
 
-  };
+    @Override
+    public double reduce(double[] data) {
+      return percentile(data, percentile);
+    }
+
+    @Override
+    public double reduce(FloatColumn data) {
+      return OrderStatistics.percentile(ReduceKernels.toDoubleArray(data.data()), percentile);
+    }
+
+    @Override
+    public double reduce(IntColumn data) {
+      return OrderStatistics.percentile(ReduceKernels.toDoubleArray(data.data()), percentile);
+    }
 
+    @Override
+    public double reduce(ShortColumn data) {
+      return OrderStatistics.percentile(ReduceKernels.toDoubleArray(data.data()), percentile);
+    }
+
+    @Override
+    public double reduce(LongColumn data) {
+      return OrderStatistics.percentile(ReduceKernels.toDoubleArray(data.data()), percentile);
+    }
+
+    @Override
+    public double reduce(FloatColumn data, Selection rows) {
+      return OrderStatistics.percentile(ReduceKernels.toDoubleArray(data.data(), rows), percentile);
+    }
+
+    @Override
+    public double reduce(IntColumn data, Selection rows) {
+      return OrderStatistics.percentile(ReduceKernels.toDoubleArray(data.data(), rows), percentile);
+    }
+
+    @Override
+    public double reduce(ShortColumn data, Selection rows) {
+      return OrderStatistics.percentile(ReduceKernels.toDoubleArray(data.data(), rows), percentile);
+    }
+
+    @Override
+    public double reduce(LongColumn data, Selection rows) {
+      return OrderStatistics.percentile(ReduceKernels.toDoubleArray(data.data(), rows), percentile);
+    }
+  }
+
+  /**
+   * A function computed from the count, sum, extremes or moments of a column's values, or of the values in some of its
+   * rows, which it reads directly
+   */
+  private abstract static class MomentFunction implements NumericReduceFunction {
+
+    // whether the function needs the moments about the mean, which take a second loop over the values
+    private final boolean central;
+
+    MomentFunction(boolean central) {
+      this.central = central;
+    }
+
+    abstract double reduce(Moments moments);
+
+    @Override
+    public double reduce(FloatColumn data) {
+      return reduce(ReduceKernels.moments(data.data(), central));
+    }
+
+    @Override
+    public double reduce(IntColumn data) {
+      return reduce(ReduceKernels.moments(data.data(), central));
+    }
+
+    @Override
+    public double reduce(ShortColumn data) {
+      return reduce(ReduceKernels.moments(data.data(), central));
+    }
+
+    @Override
+    public double reduce(LongColumn data) {
+      return reduce(ReduceKernels.moments(data.data(), central));
+    }
+
+    @Override
+    public double reduce(FloatColumn data, Selection rows) {
+      return reduce(ReduceKernels.moments(data.data(), rows, central));
+    }
+
+    @Override
+    public double reduce(IntColumn data, Selection rows) {
+      return reduce(ReduceKernels.moments(data.data(), rows, central));
+    }
+
+    @Override
+    public double reduce(ShortColumn data, Selection rows) {
+      return reduce(ReduceKernels.moments(data.data(), rows, central));
+    }
+
+    @Override
+    public double reduce(LongColumn data, Selection rows) {
+      return reduce(ReduceKernels.moments(data.data(), rows, central));
+    }
+  }
+
+  /**
+   * Returns the given percentile of the values, as estimated by commons-math, leaving the values as they are
+   */
   public static double percentile(double[] data, double percentile) {
-    return StatUtils.percentile(data, percentile);
+    return OrderStatistics.percentile(data.clone(), percentile);
   }
 
   // TODO(lwhite): These are two column reductions. We need a class for that
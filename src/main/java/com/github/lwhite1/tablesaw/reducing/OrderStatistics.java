@@ -0,0 +1,426 @@
+package com.github.lwhite1.tablesaw.reducing;
+
+import com.google.common.base.Preconditions;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.ints.IntComparator;
+
+import java.util.Arrays;
+
+/**
+ * Finds values by their rank in a column without sorting it: the percentiles of a column's values, and the rows that
+ * hold its largest or smallest values.
+ * <p>
+ * A percentile is found by selecting the values of the ranks on either side of it with introselect: a quickselect
+ * that partitions around the median of three values, three ways so that runs of equal values are set aside at once,
+ * and that sorts what is left if partitioning goes on too long, so it takes linear time on average and n log n time
+ * at worst. The values are reordered in place, so they should be a scratch copy, such as the one made by
+ * {@link ReduceKernels#toDoubleArray(it.unimi.dsi.fastutil.floats.FloatArrayList)}.
+ * <p>
+ * The largest or smallest n values are found in one pass over the column's backing array with a heap of n rows,
+ * whose weakest value is the threshold a row must beat to get in. Most rows of a large column are only compared with
+ * the threshold, so finding the top few values takes little more time than reading them once.
+ */
+public final class OrderStatistics {
+
+  // ranges no longer than this are finished with an insertion sort
+  private static final int INSERTION_SORT_SIZE = 16;
+
+  private OrderStatistics() {
+  }
+
+  /**
+   * Returns the given percentile of the values, which must be greater than 0 and no more than 100, or NaN if there
+   * are no values. NaN values are left out.
+   * <p>
+   * The percentile is estimated as by commons-math: for n values and percentile p, the position is
+   * {@code p / 100 * (n + 1)}, computed in that order so that it rounds the same way, and the result is
+   * interpolated between the values whose ranks are on either side of it. The values are reordered.
+   */
+  public static double percentile(double[] values, double percentile) {
+    Preconditions.checkArgument(percentile > 0 && percentile <= 100, "The percentile must be greater than 0 and "
+        + "no more than 100, but was %s", percentile);
+    int n = removeNaN(values);
+    if (n == 0) {
+      return Double.NaN;
+    }
+    if (n == 1) {
+      return values[0];
+    }
+    double position = percentile / 100 * (n + 1);
+    if (position < 1) {
+      return min(values, 0, n);
+    }
+    if (position >= n) {
+      return max(values, 0, n);
+    }
+    int rank = (int) position;
+    double lower = select(values, n, rank - 1);
+    // the selection leaves only greater or equal values after the selected one
+    double upper = min(values, rank, n);
+    return lower + (position - rank) * (upper - lower);
+  }
+
+  /**
+   * Returns the value that would be at index {@code k} if the first {@code n} values were sorted, reordering them so
+   * that it is at index {@code k}, with no greater value before it and no smaller value after it
+   */
+  static double select(double[] values, int n, int k) {
+    int from = 0;
+    int to = n;
+    int depthLimit = 2 * (Integer.SIZE - Integer.numberOfLeadingZeros(n));
+    while (to - from > INSERTION_SORT_SIZE) {
+      if (depthLimit-- == 0) {
+        Arrays.sort(values, from, to);
+        return values[k];
+      }
+      double pivot = medianOfThree(values[from], values[(from + to) >>> 1], values[to - 1]);
+      // partition into values less than the pivot, equal to it, and greater than it
+      int less = from;
+      int greater = to;
+      int i = from;
+      while (i < greater) {
+        double value = values[i];
+        if (value < pivot) {
+          values[i++] = values[less];
+          values[less++] = value;
+        } else if (value > pivot) {
+          values[i] = values[--greater];
+          values[greater] = value;
+        } else {
+          i++;
+        }
+      }
+      if (k < less) {
+        to = less;
+      } else if (k >= greater) {
+        from = greater;
+      } else {
+        return pivot;
+      }
+    }
+    insertionSort(values, from, to);
+    return values[k];
+  }
+
+  /**
+   * Returns the rows of the largest {@code n} of the first {@code size} values, in order from the largest, leaving
+   * out NaN. Rows with equal values are in the order they appear
+   */
+  public static int[] largest(float[] values, int size, int n) {
+    return select(values, size, n, true);
+  }
+
+  /**
+   * Returns the rows of the smallest {@code n} of the first {@code size} values, in order from the smallest, leaving
+   * out NaN. Rows with equal values are in the order they appear
+   */
+  public static int[] smallest(float[] values, int size, int n) {
+    return select(values, size, n, false);
+  }
+
+  /**
+   * Returns the rows of the largest {@code n} of the first {@code size} values, in order from the largest, leaving
+   * out those equal to {@code missing}. Rows with equal values are in the order they appear
+   */
+  public static int[] largest(int[] values, int size, int n, int missing) {
+    return select(values, size, n, missing, true);
+  }
+
+  /**
+   * Returns the rows of the smallest {@code n} of the first {@code size} values, in order from the smallest, leaving
+   * out those equal to {@code missing}. Rows with equal values are in the order they appear
+   */
+  public static int[] smallest(int[] values, int size, int n, int missing) {
+    return select(values, size, n, missing, false);
+  }
+
+  /**
+   * Returns the rows of the largest {@code n} of the first {@code size} values, in order from the largest, leaving
+   * out those equal to {@code missing}. Rows with equal values are in the order they appear
+   */
+  public static int[] largest(short[] values, int size, int n, short missing) {
+    return select(values, size, n, missing, true);
+  }
+
+  /**
+   * Returns the rows of the smallest {@code n} of the first {@code size} values, in order from the smallest, leaving
+   * out those equal to {@code missing}. Rows with equal values are in the order they appear
+   */
+  public static int[] smallest(short[] values, int size, int n, short missing) {
+    return select(values, size, n, missing, false);
+  }
+
+  /**
+   * Returns the rows of the largest {@code n} of the first {@code size} values, in order from the largest, leaving
+   * out those equal to {@code missing}. Rows with equal values are in the order they appear
+   */
+  public static int[] largest(long[] values, int size, int n, long missing) {
+    return select(values, size, n, missing, true);
+  }
+
+  /**
+   * Returns the rows of the smallest {@code n} of the first {@code size} values, in order from the smallest, leaving
+   * out those equal to {@code missing}. Rows with equal values are in the order they appear
+   */
+  public static int[] smallest(long[] values, int size, int n, long missing) {
+    return select(values, size, n, missing, false);
+  }
+
+  private static int[] select(float[] values, int size, int n, boolean largest) {
+    if (n <= 0) {
+      return new int[0];
+    }
+    RowHeap heap = new RowHeap(Math.min(n, size), new IntComparator() {
+
+      @Override
+      public int compare(int a, int b) {
+        int order = largest ? Float.compare(values[b], values[a]) : Float.compare(values[a], values[b]);
+        return order != 0 ? order : Integer.compare(a, b);
+      }
+
+      @Override
+      public int compare(Integer a, Integer b) {
+        return compare(a.intValue(), b.intValue());
+      }
+    });
+    float threshold = 0;
+    for (int row = 0; row < size; row++) {
+      float value = values[row];
+      if (value != value) {
+        continue;
+      }
+      if (!heap.isFull()) {
+        heap.add(row);
+        if (heap.isFull()) {
+          threshold = values[heap.weakest()];
+        }
+      } else if (largest ? value > threshold : value < threshold) {
+        heap.replaceWeakest(row);
+        threshold = values[heap.weakest()];
+      }
+    }
+    return heap.sortedRows();
+  }
+
+  private static int[] select(int[] values, int size, int n, int missing, boolean largest) {
+    if (n <= 0) {
+      return new int[0];
+    }
+    RowHeap heap = new RowHeap(Math.min(n, size), new IntComparator() {
+
+      @Override
+      public int compare(int a, int b) {
+        int order = largest ? Integer.compare(values[b], values[a]) : Integer.compare(values[a], values[b]);
+        return order != 0 ? order : Integer.compare(a, b);
+      }
+
+      @Override
+      public int compare(Integer a, Integer b) {
+        return compare(a.intValue(), b.intValue());
+      }
+    });
+    int threshold = 0;
+    for (int row = 0; row < size; row++) {
+      int value = values[row];
+      if (value == missing) {
+        continue;
+      }
+      if (!heap.isFull()) {
+        heap.add(row);
+        if (heap.isFull()) {
+          threshold = values[heap.weakest()];
+        }
+      } else if (largest ? value > threshold : value < threshold) {
+        heap.replaceWeakest(row);
+        threshold = values[heap.weakest()];
+      }
+    }
+    return heap.sortedRows();
+  }
+
+  private static int[] select(short[] values, int size, int n, short missing, boolean largest) {
+    if (n <= 0) {
+      return new int[0];
+    }
+    RowHeap heap = new RowHeap(Math.min(n, size), new IntComparator() {
+
+      @Override
+      public int compare(int a, int b) {
+        int order = largest ? Short.compare(values[b], values[a]) : Short.compare(values[a], values[b]);
+        return order != 0 ? order : Integer.compare(a, b);
+      }
+
+      @Override
+      public int compare(Integer a, Integer b) {
+        return compare(a.intValue(), b.intValue());
+      }
+    });
+    short threshold = 0;
+    for (int row = 0; row < size; row++) {
+      short value = values[row];
+      if (value == missing) {
+        continue;
+      }
+      if (!heap.isFull()) {
+        heap.add(row);
+        if (heap.isFull()) {
+          threshold = values[heap.weakest()];
+        }
+      } else if (largest ? value > threshold : value < threshold) {
+        heap.replaceWeakest(row);
+        threshold = values[heap.weakest()];
+      }
+    }
+    return heap.sortedRows();
+  }
+
+  private static int[] select(long[] values, int size, int n, long missing, boolean largest) {
+    if (n <= 0) {
+      return new int[0];
+    }
+    RowHeap heap = new RowHeap(Math.min(n, size), new IntComparator() {
+
+      @Override
+      public int compare(int a, int b) {
+        int order = largest ? Long.compare(values[b], values[a]) : Long.compare(values[a], values[b]);
+        return order != 0 ? order : Integer.compare(a, b);
+      }
+
+      @Override
+      public int compare(Integer a, Integer b) {
+        return compare(a.intValue(), b.intValue());
+      }
+    });
+    long threshold = 0;
+    for (int row = 0; row < size; row++) {
+      long value = values[row];
+      if (value == missing) {
+        continue;
+      }
+      if (!heap.isFull()) {
+        heap.add(row);
+        if (heap.isFull()) {
+          threshold = values[heap.weakest()];
+        }
+      } else if (largest ? value > threshold : value < threshold) {
+        heap.replaceWeakest(row);
+        threshold = values[heap.weakest()];
+      }
+    }
+    return heap.sortedRows();
+  }
+
+  /**
+   * Moves the values that aren't NaN to the front of the array, keeping their order, and returns how many there are
+   */
+  private static int removeNaN(double[] values) {
+    int n = 0;
+    for (double value : values) {
+      if (value == value) {
+        values[n++] = value;
+      }
+    }
+    return n;
+  }
+
+  private static double min(double[] values, int from, int to) {
+    double min = values[from];
+    for (int i = from + 1; i < to; i++) {
+      if (values[i] < min) {
+        min = values[i];
+      }
+    }
+    return min;
+  }
+
+  private static double max(double[] values, int from, int to) {
+    double max = values[from];
+    for (int i = from + 1; i < to; i++) {
+      if (values[i] > max) {
+        max = values[i];
+      }
+    }
+    return max;
+  }
+
+  private static double medianOfThree(double a, double b, double c) {
+    if (a < b) {
+      return b < c ? b : (a < c ? c : a);
+    }
+    return a < c ? a : (b < c ? c : b);
+  }
+
+  private static void insertionSort(double[] values, int from, int to) {
+    for (int i = from + 1; i < to; i++) {
+      double value = values[i];
+      int j = i - 1;
+      while (j >= from && values[j] > value) {
+        values[j + 1] = values[j];
+        j--;
+      }
+      values[j + 1] = value;
+    }
+  }
+
+  /**
+   * A binary heap of rows, with the row that comes last in the given order at the top, so that it can be replaced
+   * when a row that comes before it is found
+   */
+  private static final class RowHeap {
+
+    private final int[] rows;
+    private final IntComparator order;
+    private int size;
+
+    RowHeap(int capacity, IntComparator order) {
+      this.rows = new int[capacity];
+      this.order = order;
+    }
+
+    boolean isFull() {
+      return size == rows.length;
+    }
+
+    int weakest() {
+      return rows[0];
+    }
+
+    void add(int row) {
+      int i = size++;
+      while (i > 0) {
+        int parent = (i - 1) >>> 1;
+        if (order.compare(row, rows[parent]) <= 0) {
+          break;
+        }
+        rows[i] = rows[parent];
+        i = parent;
+      }
+      rows[i] = row;
+    }
+
+    void replaceWeakest(int row) {
+      int i = 0;
+      while (true) {
+        int child = 2 * i + 1;
+        if (child >= size) {
+          break;
+        }
+        if (child + 1 < size && order.compare(rows[child + 1], rows[child]) > 0) {
+          child++;
+        }
+        if (order.compare(rows[child], row) <= 0) {
+          break;
+        }
+        rows[i] = rows[child];
+        i = child;
+      }
+      rows[i] = row;
+    }
+
+    int[] sortedRows() {
+      int[] sorted = Arrays.copyOf(rows, size);
+      IntArrays.quickSort(sorted, order);
+      return sorted;
+    }
+  }
+}
@@ -0,0 +1,466 @@
+package com.github.lwhite1.tablesaw.reducing;
+
+import com.github.lwhite1.tablesaw.api.IntColumn;
+import com.github.lwhite1.tablesaw.api.LongColumn;
+import com.github.lwhite1.tablesaw.api.ShortColumn;
+import com.github.lwhite1.tablesaw.util.Selection;
+import it.unimi.dsi.fastutil.floats.FloatArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.shorts.ShortArrayList;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Finds the {@link Moments} of a numeric column's values by reading its backing array directly, without copying it
+ * into a double array. Missing values are skipped.
+ * <p>
+ * The values are read in batches small enough to stay in the processor's cache. The first loop over a batch counts
+ * and sums its values and finds the extremes; the second, if the central moments are wanted, sums the powers of the
+ * differences from the batch's mean. Neither loop divides, and the batches are combined into the result as they go.
+ * <p>
+ * Like the selection kernels, a reduction runs on the calling thread, unless it belongs to a {@link ForkJoinPool}.
+ * Then a large column is split into chunks that are reduced in parallel, and their moments combined.
+ * <p>
+ * The values in a {@link Selection} of rows are reduced without copying them into a new column: the selected rows
+ * are read from the selection in order, a batch at a time, and each batch of their values is gathered into a small
+ * buffer that is reduced as above.
+ */
+public final class ReduceKernels {
+
+  // the values in each batch, which fit in the first level cache as floats or ints
+  private static final int BATCH_SIZE = 4096;
+
+  // the values in each task of a reduction split across threads
+  private static final int CHUNK_SIZE = 1 << 20;
+
+  // Don't instantiate
+  private ReduceKernels() {
+  }
+
+  /**
+   * Returns the moments of the values that aren't NaN, including the central moments if {@code central} is true
+   */
+  public static Moments moments(FloatArrayList data, boolean central) {
+    float[] values = data.elements();
+    return reduce(data.size(), (from, to, moments) -> reduce(values, from, to, central, moments));
+  }
+
+  public static Moments moments(IntArrayList data, boolean central) {
+    int[] values = data.elements();
+    return reduce(data.size(), (from, to, moments) -> reduce(values, from, to, central, moments));
+  }
+
+  public static Moments moments(ShortArrayList data, boolean central) {
+    short[] values = data.elements();
+    return reduce(data.size(), (from, to, moments) -> reduce(values, from, to, central, moments));
+  }
+
+  public static Moments moments(LongArrayList data, boolean central) {
+    long[] values = data.elements();
+    return reduce(data.size(), (from, to, moments) -> reduce(values, from, to, central, moments));
+  }
+
+  /**
+   * Returns the moments of the values in the given rows that aren't NaN, including the central moments if
+   * {@code central} is true
+   */
+  public static Moments moments(FloatArrayList data, Selection rows, boolean central) {
+    float[] values = data.elements();
+    float[] batch = new float[BATCH_SIZE];
+    Moments moments = new Moments();
+    IntIterator iterator = rows.iterator();
+    while (iterator.hasNext()) {
+      int n = 0;
+      while (n < BATCH_SIZE && iterator.hasNext()) {
+        batch[n++] = values[iterator.nextInt()];
+      }
+      reduce(batch, 0, n, central, moments);
+    }
+    return moments;
+  }
+
+  public static Moments moments(IntArrayList data, Selection rows, boolean central) {
+    int[] values = data.elements();
+    int[] batch = new int[BATCH_SIZE];
+    Moments moments = new Moments();
+    IntIterator iterator = rows.iterator();
+    while (iterator.hasNext()) {
+      int n = 0;
+      while (n < BATCH_SIZE && iterator.hasNext()) {
+        batch[n++] = values[iterator.nextInt()];
+      }
+      reduce(batch, 0, n, central, moments);
+    }
+    return moments;
+  }
+
+  public static Moments moments(ShortArrayList data, Selection rows, boolean central) {
+    short[] values = data.elements();
+    short[] batch = new short[BATCH_SIZE];
+    Moments moments = new Moments();
+    IntIterator iterator = rows.iterator();
+    while (iterator.hasNext()) {
+      int n = 0;
+      while (n < BATCH_SIZE && iterator.hasNext()) {
+        batch[n++] = values[iterator.nextInt()];
+      }
+      reduce(batch, 0, n, central, moments);
+    }
+    return moments;
+  }
+
+  public static Moments moments(LongArrayList data, Selection rows, boolean central) {
+    long[] values = data.elements();
+    long[] batch = new long[BATCH_SIZE];
+    Moments moments = new Moments();
+    IntIterator iterator = rows.iterator();
+    while (iterator.hasNext()) {
+      int n = 0;
+      while (n < BATCH_SIZE && iterator.hasNext()) {
+        batch[n++] = values[iterator.nextInt()];
+      }
+      reduce(batch, 0, n, central, moments);
+    }
+    return moments;
+  }
+
+  /**
+   * Returns the values that aren't NaN, as doubles, for the reductions that need them all at once
+   */
+  public static double[] toDoubleArray(FloatArrayList data) {
+    float[] values = data.elements();
+    double[] output = new double[data.size()];
+    int n = 0;
+    for (int i = 0; i < data.size(); i++) {
+      float v = values[i];
+      if (v == v) {
+        output[n++] = v;
+      }
+    }
+    return n == output.length ? output : Arrays.copyOf(output, n);
+  }
+
+  public static double[] toDoubleArray(IntArrayList data) {
+    int[] values = data.elements();
+    double[] output = new double[data.size()];
+    int n = 0;
+    for (int i = 0; i < data.size(); i++) {
+      int v = values[i];
+      if (v != IntColumn.MISSING_VALUE) {
+        output[n++] = v;
+      }
+    }
+    return n == output.length ? output : Arrays.copyOf(output, n);
+  }
+
+  public static double[] toDoubleArray(ShortArrayList data) {
+    short[] values = data.elements();
+    double[] output = new double[data.size()];
+    int n = 0;
+    for (int i = 0; i < data.size(); i++) {
+      short v = values[i];
+      if (v != ShortColumn.MISSING_VALUE) {
+        output[n++] = v;
+      }
+    }
+    return n == output.length ? output : Arrays.copyOf(output, n);
+  }
+
+  public static double[] toDoubleArray(LongArrayList data) {
+    long[] values = data.elements();
+    double[] output = new double[data.size()];
+    int n = 0;
+    for (int i = 0; i < data.size(); i++) {
+      long v = values[i];
+      if (v != LongColumn.MISSING_VALUE) {
+        output[n++] = v;
+      }
+    }
+    return n == output.length ? output : Arrays.copyOf(output, n);
+  }
+
+  /**
+   * Returns the values in the given rows that aren't NaN, as doubles
+   */
+  public static double[] toDoubleArray(FloatArrayList data, Selection rows) {
+    float[] values = data.elements();
+    double[] output = new double[rows.size()];
+    int n = 0;
+    IntIterator iterator = rows.iterator();
+    while (iterator.hasNext()) {
+      float v = values[iterator.nextInt()];
+      if (v == v) {
+        output[n++] = v;
+      }
+    }
+    return n == output.length ? output : Arrays.copyOf(output, n);
+  }
+
+  public static double[] toDoubleArray(IntArrayList data, Selection rows) {
+    int[] values = data.elements();
+    double[] output = new double[rows.size()];
+    int n = 0;
+    IntIterator iterator = rows.iterator();
+    while (iterator.hasNext()) {
+      int v = values[iterator.nextInt()];
+      if (v != IntColumn.MISSING_VALUE) {
+        output[n++] = v;
+      }
+    }
+    return n == output.length ? output : Arrays.copyOf(output, n);
+  }
+
+  public static double[] toDoubleArray(ShortArrayList data, Selection rows) {
+    short[] values = data.elements();
+    double[] output = new double[rows.size()];
+    int n = 0;
+    IntIterator iterator = rows.iterator();
+    while (iterator.hasNext()) {
+      short v = values[iterator.nextInt()];
+      if (v != ShortColumn.MISSING_VALUE) {
+        output[n++] = v;
+      }
+    }
+    return n == output.length ? output : Arrays.copyOf(output, n);
+  }
+
+  public static double[] toDoubleArray(LongArrayList data, Selection rows) {
+    long[] values = data.elements();
+    double[] output = new double[rows.size()];
+    int n = 0;
+    IntIterator iterator = rows.iterator();
+    while (iterator.hasNext()) {
+      long v = values[iterator.nextInt()];
+      if (v != LongColumn.MISSING_VALUE) {
+        output[n++] = v;
+      }
+    }
+    return n == output.length ? output : Arrays.copyOf(output, n);
+  }
+
+  private static void reduce(float[] values, int from, int to, boolean central, Moments moments) {
+    for (int start = from; start < to; start += BATCH_SIZE) {
+      int end = Math.min(to, start + BATCH_SIZE);
+      int n = 0;
+      double sum = 0;
+      double compensation = 0;
+      double min = Double.POSITIVE_INFINITY;
+      double max = Double.NEGATIVE_INFINITY;
+      for (int i = start; i < end; i++) {
+        float v = values[i];
+        if (v == v) {
+          n++;
+          double total = sum + v;
+          compensation += Math.abs(sum) >= Math.abs(v) ? (sum - total) + v : (v - total) + sum;
+          sum = total;
+          min = v < min ? v : min;
+          max = v > max ? v : max;
+        }
+      }
+      if (n == 0) {
+        continue;
+      }
+      sum += compensation;
+      double m2 = 0;
+      double m3 = 0;
+      double m4 = 0;
+      if (central) {
+        double mean = sum / n;
+        for (int i = start; i < end; i++) {
+          float v = values[i];
+          if (v == v) {
+            double d = v - mean;
+            double d2 = d * d;
+            m2 += d2;
+            m3 += d2 * d;
+            m4 += d2 * d2;
+          }
+        }
+      }
+      moments.add(n, sum, min, max, m2, m3, m4);
+    }
+  }
+
+  private static void reduce(int[] values, int from, int to, boolean central, Moments moments) {
+    for (int start = from; start < to; start += BATCH_SIZE) {
+      int end = Math.min(to, start + BATCH_SIZE);
+      int n = 0;
+      // the sum of a batch of ints is exact in a long
+      long sum = 0;
+      int min = Integer.MAX_VALUE;
+      int max = Integer.MIN_VALUE;
+      for (int i = start; i < end; i++) {
+        int v = values[i];
+        if (v != IntColumn.MISSING_VALUE) {
+          n++;
+          sum += v;
+          min = Math.min(min, v);
+          max = Math.max(max, v);
+        }
+      }
+      if (n == 0) {
+        continue;
+      }
+      double m2 = 0;
+      double m3 = 0;
+      double m4 = 0;
+      if (central) {
+        double mean = (double) sum / n;
+        for (int i = start; i < end; i++) {
+          int v = values[i];
+          if (v != IntColumn.MISSING_VALUE) {
+            double d = v - mean;
+            double d2 = d * d;
+            m2 += d2;
+            m3 += d2 * d;
+            m4 += d2 * d2;
+          }
+        }
+      }
+      moments.add(n, sum, min, max, m2, m3, m4);
+    }
+  }
+
+  private static void reduce(short[] values, int from, int to, boolean central, Moments moments) {
+    for (int start = from; start < to; start += BATCH_SIZE) {
+      int end = Math.min(to, start + BATCH_SIZE);
+      int n = 0;
+      long sum = 0;
+      int min = Short.MAX_VALUE;
+      int max = Short.MIN_VALUE;
+      for (int i = start; i < end; i++) {
+        short v = values[i];
+        if (v != ShortColumn.MISSING_VALUE) {
+          n++;
+          sum += v;
+          min = Math.min(min, v);
+          max = Math.max(max, v);
+        }
+      }
+      if (n == 0) {
+        continue;
+      }
+      double m2 = 0;
+      double m3 = 0;
+      double m4 = 0;
+      if (central) {
+        double mean = (double) sum / n;
+        for (int i = start; i < end; i++) {
+          short v = values[i];
+          if (v != ShortColumn.MISSING_VALUE) {
+            double d = v - mean;
+            double d2 = d * d;
+            m2 += d2;
+            m3 += d2 * d;
+            m4 += d2 * d2;
+          }
+        }
+      }
+      moments.add(n, sum, min, max, m2, m3, m4);
+    }
+  }
+
+  private static void reduce(long[] values, int from, int to, boolean central, Moments moments) {
+    for (int start = from; start < to; start += BATCH_SIZE) {
+      int end = Math.min(to, start + BATCH_SIZE);
+      int n = 0;
+      // a batch of longs may overflow a long sum, so it's summed as compensated doubles
+      double sum = 0;
+      double compensation = 0;
+      long min = Long.MAX_VALUE;
+      long max = Long.MIN_VALUE;
+      for (int i = start; i < end; i++) {
+        long v = values[i];
+        if (v != LongColumn.MISSING_VALUE) {
+          n++;
+          double total = sum + v;
+          compensation += Math.abs(sum) >= Math.abs((double) v) ? (sum - total) + v : (v - total) + sum;
+          sum = total;
+          min = Math.min(min, v);
+          max = Math.max(max, v);
+        }
+      }
+      if (n == 0) {
+        continue;
+      }
+      sum += compensation;
+      double m2 = 0;
+      double m3 = 0;
+      double m4 = 0;
+      if (central) {
+        double mean = sum / n;
+        for (int i = start; i < end; i++) {
+          long v = values[i];
+          if (v != LongColumn.MISSING_VALUE) {
+            double d = v - mean;
+            double d2 = d * d;
+            m2 += d2;
+            m3 += d2 * d;
+            m4 += d2 * d2;
+          }
+        }
+      }
+      moments.add(n, sum, min, max, m2, m3, m4);
+    }
+  }
+
+  /**
+   * Runs a reduction over the given number of values, split into chunks reduced in parallel if called from a thread
+   * of a {@link ForkJoinPool}
+   */
+  private static Moments reduce(int size, RangeReduction reduction) {
+    if (size > CHUNK_SIZE && ForkJoinTask.inForkJoinPool()) {
+      return new ChunkTask(reduction, 0, (size + CHUNK_SIZE - 1) / CHUNK_SIZE, size).invoke();
+    }
+    Moments moments = new Moments();
+    reduction.reduce(0, size, moments);
+    return moments;
+  }
+
+  /**
+   * A reduction of the values from {@code from} up to {@code to}, which adds them to the moments
+   */
+  private interface RangeReduction {
+    void reduce(int from, int to, Moments moments);
+  }
+
+  /**
+   * Reduces a run of chunks by splitting it in half until one chunk is left, and combines the moments of the halves
+   */
+  private static final class ChunkTask extends RecursiveTask<Moments> {
+
+    private final RangeReduction reduction;
+    private final int firstChunk;
+    private final int lastChunk;
+    private final int size;
+
+    ChunkTask(RangeReduction reduction, int firstChunk, int lastChunk, int size) {
+      this.reduction = reduction;
+      this.firstChunk = firstChunk;
+      this.lastChunk = lastChunk;
+      this.size = size;
+    }
+
+    @Override
+    protected Moments compute() {
+      if (lastChunk - firstChunk == 1) {
+        Moments moments = new Moments();
+        int from = firstChunk * CHUNK_SIZE;
+        reduction.reduce(from, Math.min(size, from + CHUNK_SIZE), moments);
+        return moments;
+      }
+      int middle = (firstChunk + lastChunk) >>> 1;
+      ChunkTask left = new ChunkTask(reduction, firstChunk, middle, size);
+      left.fork();
+      Moments right = new ChunkTask(reduction, middle, lastChunk, size).compute();
+      Moments moments = left.join();
+      moments.add(right);
+      return moments;
+    }
+  }
+}
@@ -0,0 +1,150 @@
+package com.github.lwhite1.tablesaw.reducing;
+
+import com.github.lwhite1.tablesaw.api.FloatColumn;
+import com.github.lwhite1.tablesaw.api.IntColumn;
+import com.github.lwhite1.tablesaw.api.LongColumn;
+import com.github.lwhite1.tablesaw.api.ShortColumn;
+import com.github.lwhite1.tablesaw.columns.Column;
+import com.github.lwhite1.tablesaw.reducing.sketch.Sketch;
+import com.github.lwhite1.tablesaw.util.Selection;
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import it.unimi.dsi.fastutil.ints.IntIterators;
+
+/**
+ * A function whose result is estimated from a {@link Sketch} of a column's values, rather than computed exactly from
+ * all of them. The values are read in place, and the sketch stays the same size however many there are.
+ * <p>
+ * Because sketches can be merged, these functions are computed for groups by {@link HashAggregator} in the same pass
+ * as the exact aggregates. A sketch of a column can also be taken with {@link #sketch(Column)}, saved with the
+ * table, and merged later with the sketches of other partitions of the data before its result is read.
+ */
+public abstract class SketchFunction implements NumericReduceFunction {
+
+  private final String functionName;
+
+  protected SketchFunction(String functionName) {
+    this.functionName = functionName;
+  }
+
+  @Override
+  public String functionName() {
+    return functionName;
+  }
+
+  /**
+   * Returns a new, empty sketch of the kind and accuracy that this function's result is estimated from
+   */
+  public abstract Sketch newSketch();
+
+  /**
+   * Returns this function's estimate from the given sketch, which must have been made by {@link #newSketch()}, but
+   * may since have been merged with others, or saved and read back
+   */
+  public abstract double result(Sketch sketch);
+
+  @Override
+  public double reduce(double[] data) {
+    Sketch sketch = newSketch();
+    for (double value : data) {
+      sketch.update(value);
+    }
+    return result(sketch);
+  }
+
+  @Override
+  public double reduce(FloatColumn data) {
+    return result(sketch(data));
+  }
+
+  @Override
+  public double reduce(IntColumn data) {
+    return result(sketch(data));
+  }
+
+  @Override
+  public double reduce(ShortColumn data) {
+    return result(sketch(data));
+  }
+
+  @Override
+  public double reduce(LongColumn data) {
+    return result(sketch(data));
+  }
+
+  @Override
+  public double reduce(FloatColumn data, Selection rows) {
+    return result(sketch(data, rows));
+  }
+
+  @Override
+  public double reduce(IntColumn data, Selection rows) {
+    return result(sketch(data, rows));
+  }
+
+  @Override
+  public double reduce(ShortColumn data, Selection rows) {
+    return result(sketch(data, rows));
+  }
+
+  @Override
+  public double reduce(LongColumn data, Selection rows) {
+    return result(sketch(data, rows));
+  }
+
+  /**
+   * Returns a sketch of the values in the given float, int, short or long column, leaving out missing values
+   */
+  public Sketch sketch(Column column) {
+    return sketch(column, IntIterators.fromTo(0, column.size()));
+  }
+
+  /**
+   * Returns a sketch of the values in the given rows of a float, int, short or long column, leaving out missing values
+   */
+  public Sketch sketch(Column column, Selection rows) {
+    return sketch(column, rows.iterator());
+  }
+
+  private Sketch sketch(Column column, IntIterator rows) {
+    Sketch sketch = newSketch();
+    switch (column.type()) {
+      case FLOAT:
+        // the sketches leave out NaN themselves
+        float[] floats = ((FloatColumn) column).data().elements();
+        while (rows.hasNext()) {
+          sketch.update(floats[rows.nextInt()]);
+        }
+        break;
+      case INTEGER:
+        int[] ints = ((IntColumn) column).data().elements();
+        while (rows.hasNext()) {
+          int value = ints[rows.nextInt()];
+          if (value != IntColumn.MISSING_VALUE) {
+            sketch.update(value);
+          }
+        }
+        break;
+      case SHORT_INT:
+        short[] shorts = ((ShortColumn) column).data().elements();
+        while (rows.hasNext()) {
+          short value = shorts[rows.nextInt()];
+          if (value != ShortColumn.MISSING_VALUE) {
+            sketch.update(value);
+          }
+        }
+        break;
+      case LONG_INT:
+        long[] longs = ((LongColumn) column).data().elements();
+        while (rows.hasNext()) {
+          long value = longs[rows.nextInt()];
+          if (value != LongColumn.MISSING_VALUE) {
+            sketch.update(value);
+          }
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("Can't sketch the values of " + column.type() + " column " + column.name());
+    }
+    return sketch;
+  }
+}
@@ -0,0 +1,66 @@
+package com.github.lwhite1.tablesaw.reducing;
+
+import com.github.lwhite1.tablesaw.reducing.sketch.Sketch;
+
+import java.util.Arrays;
+
+/**
+ * The sketches of one numeric column for one {@link SketchFunction}, held for many groups at once in an array indexed
+ * by group slot. A group's sketch is made when its first value arrives
+ */
+final class SketchStates {
+
+  private final SketchFunction function;
+  private Sketch[] sketches;
+
+  SketchStates(SketchFunction function, int capacity) {
+    this.function = function;
+    this.sketches = new Sketch[capacity];
+  }
+
+  /**
+   * Makes room for at least {@code slots} groups
+   */
+  void ensureCapacity(int slots) {
+    int capacity = sketches.length;
+    if (slots > capacity) {
+      sketches = Arrays.copyOf(sketches, Math.max(slots, capacity * 2));
+    }
+  }
+
+  void add(int slot, double value) {
+    Sketch sketch = sketches[slot];
+    if (sketch == null) {
+      sketch = function.newSketch();
+      sketches[slot] = sketch;
+    }
+    sketch.update(value);
+  }
+
+  /**
+   * Folds the sketch of {@code otherSlot} in {@code other} into {@code slot} of this. The other states are discarded
+   * after merging, so their sketches may be taken over rather than copied
+   */
+  void merge(int slot, SketchStates other, int otherSlot) {
+    Sketch sketch = other.sketches[otherSlot];
+    if (sketch == null) {
+      return;
+    }
+    if (sketches[slot] == null) {
+      sketches[slot] = sketch;
+    } else {
+      sketches[slot].merge(sketch);
+    }
+  }
+
+  /**
+   * Returns the sketch of the group in {@code slot}, which is empty if the group has no values
+   */
+  Sketch get(int slot) {
+    return sketches[slot] == null ? function.newSketch() : sketches[slot];
+  }
+
+  double result(int slot) {
+    return function.result(get(slot));
+  }
+}
@@ -0,0 +1,90 @@
+package com.github.lwhite1.tablesaw.reducing;
+
+import com.github.lwhite1.tablesaw.api.FloatColumn;
+import com.github.lwhite1.tablesaw.api.Table;
+import com.github.lwhite1.tablesaw.table.TemporaryView;
+import com.github.lwhite1.tablesaw.table.ViewGroup;
+import com.google.common.base.Preconditions;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Computes any number of reductions over any number of numeric columns, grouped on one or more columns, and returns
+ * them together in one NumericSummaryTable. For example:
+ * <pre>
+ *   table.summarize("who", "month")
+ *       .agg("approval", mean, max, n)
+ *       .agg("sample", sum)
+ *       .apply();
+ * </pre>
+ * Reductions that can be computed from a mergeable running state (see {@link AggregateFunction}), and the estimates
+ * of {@link SketchFunction}s, are all done in a single hash-aggregation pass over the table. Any others are computed
+ * group by group from a {@link ViewGroup}.
+ */
+public class Summarizer {
+
+  private final Table original;
+  private final String[] groupColumnNames;
+
+  // the requested reductions, as parallel lists, in the order their result columns appear
+  private final List<String> columnNames = new ArrayList<>();
+  private final List<NumericReduceFunction> functions = new ArrayList<>();
+
+  public Summarizer(Table original, String... groupColumnNames) {
+    Preconditions.checkArgument(groupColumnNames.length > 0, "At least one grouping column is required");
+    this.original = original;
+    this.groupColumnNames = groupColumnNames;
+  }
+
+  /**
+   * Adds a reduction of the named column by each of the given functions
+   */
+  public Summarizer agg(String numericColumnName, NumericReduceFunction... functions) {
+    for (NumericReduceFunction function : functions) {
+      this.columnNames.add(numericColumnName);
+      this.functions.add(function);
+    }
+    return this;
+  }
+
+  /**
+   * Returns a table with a row for each group, holding the values of the grouping columns followed by a column for
+   * each reduction, in the order they were added
+   */
+  public NumericSummaryTable apply() {
+    List<String> fusedColumns = new ArrayList<>();
+    List<NumericReduceFunction> fusedFunctions = new ArrayList<>();
+    for (int i = 0; i < functions.size(); i++) {
+      if (HashAggregator.canAggregate(functions.get(i))) {
+        fusedColumns.add(columnNames.get(i));
+        fusedFunctions.add(functions.get(i));
+      }
+    }
+    NumericSummaryTable result = new HashAggregator(original, groupColumnNames).aggregate(
+        fusedColumns.toArray(new String[fusedColumns.size()]),
+        fusedFunctions.toArray(new NumericReduceFunction[fusedFunctions.size()]));
+
+    if (fusedFunctions.size() == functions.size()) {
+      return result;
+    }
+
+    // the views are sorted on the grouping columns, so they are in the same order as the rows of the result
+    List<TemporaryView> views = ViewGroup.create(original, groupColumnNames).getSubTables();
+    Preconditions.checkState(views.size() == result.rowCount());
+    for (int i = 0; i < functions.size(); i++) {
+      NumericReduceFunction function = functions.get(i);
+      if (HashAggregator.canAggregate(function)) {
+        continue;
+      }
+      String columnName = columnNames.get(i);
+      FloatColumn resultColumn = new FloatColumn(
+          HashAggregator.reduceColumnName(columnName, function.functionName()), views.size());
+      for (TemporaryView view : views) {
+        resultColumn.add((float) view.reduce(columnName, function));
+      }
+      result.addColumn(groupColumnNames.length + i, resultColumn);
+    }
+    return result;
+  }
+}
@@ -0,0 +1,159 @@
+package com.github.lwhite1.tablesaw.reducing.sketch;
+
+import com.google.common.base.Preconditions;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A sketch for estimating the number of distinct values in a stream, using the HyperLogLog algorithm of Flajolet et
+ * al.
+ * <p>
+ * Each value is hashed to 64 bits. The first {@code precision} bits pick one of {@code 2^precision} registers, which
+ * keeps the greatest number of leading zeros seen in the rest of the bits of the values that picked it. The relative
+ * error of the estimate is about {@code 1.04 / sqrt(2^precision)}, and the sketch takes {@code 2^precision} bytes.
+ * Small counts are estimated from the number of registers still empty, which is more accurate for them.
+ * <p>
+ * Values are compared as doubles, so an int and a float of the same value are the same; 0 and -0 are also the same.
+ * Missing (NaN) values are ignored.
+ */
+public final class DistinctCountSketch implements Sketch {
+
+  static final byte KIND = 2;
+
+  /**
+   * The precision used when none is given, which estimates counts to within about one percent
+   */
+  public static final int DEFAULT_PRECISION = 14;
+
+  private static final int MIN_PRECISION = 4;
+  private static final int MAX_PRECISION = 18;
+
+  private final int precision;
+  private final byte[] registers;
+
+  private long n;
+
+  private DistinctCountSketch(int precision) {
+    this.precision = precision;
+    this.registers = new byte[1 << precision];
+  }
+
+  public static DistinctCountSketch create() {
+    return create(DEFAULT_PRECISION);
+  }
+
+  /**
+   * Returns an empty sketch with {@code 2^precision} registers, where the precision is from 4 to 18
+   */
+  public static DistinctCountSketch create(int precision) {
+    Preconditions.checkArgument(precision >= MIN_PRECISION && precision <= MAX_PRECISION,
+        "The precision must be from %s to %s", MIN_PRECISION, MAX_PRECISION);
+    return new DistinctCountSketch(precision);
+  }
+
+  public int precision() {
+    return precision;
+  }
+
+  @Override
+  public long count() {
+    return n;
+  }
+
+  @Override
+  public void update(double value) {
+    if (value != value) {
+      return;
+    }
+    n++;
+    long hash = hash(Double.doubleToLongBits(value == 0 ? 0.0 : value));
+    int register = (int) (hash >>> (Long.SIZE - precision));
+    // the marker bit bounds the count of leading zeros when the rest of the hash is all zeros
+    long rest = (hash << precision) | (1L << (precision - 1));
+    byte rank = (byte) (Long.numberOfLeadingZeros(rest) + 1);
+    if (rank > registers[register]) {
+      registers[register] = rank;
+    }
+  }
+
+  @Override
+  public void merge(Sketch other) {
+    Preconditions.checkArgument(other instanceof DistinctCountSketch
+            && ((DistinctCountSketch) other).precision == precision,
+        "Only a distinct count sketch with a precision of %s can be merged into this one", precision);
+    DistinctCountSketch sketch = (DistinctCountSketch) other;
+    for (int i = 0; i < registers.length; i++) {
+      if (sketch.registers[i] > registers[i]) {
+        registers[i] = sketch.registers[i];
+      }
+    }
+    n += sketch.n;
+  }
+
+  /**
+   * Returns an estimate of the number of distinct values added to the sketch
+   */
+  public double estimate() {
+    double m = registers.length;
+    double sum = 0;
+    int empty = 0;
+    for (byte rank : registers) {
+      sum += Math.scalb(1.0, -rank);
+      if (rank == 0) {
+        empty++;
+      }
+    }
+    double estimate = alpha(registers.length) * m * m / sum;
+    if (estimate <= 2.5 * m && empty > 0) {
+      return m * Math.log(m / empty);
+    }
+    return estimate;
+  }
+
+  @Override
+  public void writeTo(DataOutput out) throws IOException {
+    out.writeByte(KIND);
+    out.writeInt(precision);
+    out.writeLong(n);
+    out.write(registers);
+  }
+
+  /**
+   * Reads the rest of a sketch written by {@link #writeTo(DataOutput)}, after its kind
+   */
+  static DistinctCountSketch read(DataInput in) throws IOException {
+    DistinctCountSketch sketch = new DistinctCountSketch(in.readInt());
+    sketch.n = in.readLong();
+    in.readFully(sketch.registers);
+    return sketch;
+  }
+
+  /**
+   * Returns the bias correction for the given number of registers
+   */
+  private static double alpha(int registers) {
+    switch (registers) {
+      case 16:
+        return 0.673;
+      case 32:
+        return 0.697;
+      case 64:
+        return 0.709;
+      default:
+        return 0.7213 / (1 + 1.079 / registers);
+    }
+  }
+
+  /**
+   * Scrambles the bits of the given value with the finalizer of the SplitMix64 generator, so that every bit of the
+   * result depends on every bit of the value
+   */
+  private static long hash(long value) {
+    long z = value + 0x9E3779B97F4A7C15L;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+}
@@ -0,0 +1,258 @@
+package com.github.lwhite1.tablesaw.reducing.sketch;
+
+import com.google.common.base.Preconditions;
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A sketch for estimating quantiles (median, quartiles, percentiles) of a stream of values, using the KLL algorithm
+ * of Karnin, Lang and Liberty.
+ * <p>
+ * The values are kept in levels. A value at level {@code h} stands for {@code 2^h} of the original values. When the
+ * sketch is full, the lowest level over its capacity is sorted and every other value in it is promoted to the level
+ * above, halving its size. The capacities shrink geometrically from the top level down, so the sketch holds about
+ * {@code 3 * accuracy} values however many it has seen, and the rank of an estimated quantile is typically within
+ * about {@code 1.7 / accuracy} of the requested fraction of the count.
+ * <p>
+ * Missing (NaN) values are ignored.
+ */
+public final class QuantileSketch implements Sketch {
+
+  static final byte KIND = 1;
+
+  /**
+   * The accuracy used when none is given, which estimates quantiles to within about one percent of the count
+   */
+  public static final int DEFAULT_ACCURACY = 200;
+
+  // the capacity of the smallest levels
+  private static final int MIN_CAPACITY = 8;
+
+  // the ratio between the capacities of adjacent levels
+  private static final double CAPACITY_RATIO = 2.0 / 3.0;
+
+  private final int accuracy;
+
+  private long n;
+  private double min = Double.NaN;
+  private double max = Double.NaN;
+
+  private final List<DoubleArrayList> levels = new ArrayList<>();
+
+  // the number of values held in all the levels
+  private int retained;
+
+  // alternates between keeping the even and the odd positions of a compacted level, so their errors tend to cancel
+  private boolean keepOdd;
+
+  private QuantileSketch(int accuracy) {
+    this.accuracy = accuracy;
+    levels.add(new DoubleArrayList());
+  }
+
+  public static QuantileSketch create() {
+    return create(DEFAULT_ACCURACY);
+  }
+
+  /**
+   * Returns an empty sketch whose top level holds {@code accuracy} values. The error of its estimates falls in
+   * proportion to the accuracy, while its size grows in proportion to it
+   */
+  public static QuantileSketch create(int accuracy) {
+    Preconditions.checkArgument(accuracy >= MIN_CAPACITY, "The accuracy must be at least %s", MIN_CAPACITY);
+    return new QuantileSketch(accuracy);
+  }
+
+  public int accuracy() {
+    return accuracy;
+  }
+
+  @Override
+  public long count() {
+    return n;
+  }
+
+  @Override
+  public void update(double value) {
+    if (value != value) {
+      return;
+    }
+    if (n == 0) {
+      min = value;
+      max = value;
+    } else {
+      min = Math.min(min, value);
+      max = Math.max(max, value);
+    }
+    n++;
+    levels.get(0).add(value);
+    retained++;
+    if (retained > capacity()) {
+      compress();
+    }
+  }
+
+  @Override
+  public void merge(Sketch other) {
+    Preconditions.checkArgument(other instanceof QuantileSketch && ((QuantileSketch) other).accuracy == accuracy,
+        "Only a quantile sketch with an accuracy of %s can be merged into this one", accuracy);
+    QuantileSketch sketch = (QuantileSketch) other;
+    if (sketch.n == 0) {
+      return;
+    }
+    while (levels.size() < sketch.levels.size()) {
+      levels.add(new DoubleArrayList());
+    }
+    for (int h = 0; h < sketch.levels.size(); h++) {
+      levels.get(h).addAll(sketch.levels.get(h));
+    }
+    retained += sketch.retained;
+    min = n == 0 ? sketch.min : Math.min(min, sketch.min);
+    max = n == 0 ? sketch.max : Math.max(max, sketch.max);
+    n += sketch.n;
+    compress();
+  }
+
+  /**
+   * Returns an estimate of the value below which the given fraction of the values fall, or NaN if the sketch is
+   * empty. The fractions 0 and 1 give the exact smallest and largest values
+   */
+  public double quantile(double fraction) {
+    Preconditions.checkArgument(fraction >= 0 && fraction <= 1, "The fraction must be between 0 and 1");
+    if (n == 0) {
+      return Double.NaN;
+    }
+    if (fraction == 0) {
+      return min;
+    }
+    if (fraction == 1) {
+      return max;
+    }
+    // walk the levels in order of value, as in a merge, adding up the weight of the values passed
+    int depth = levels.size();
+    double[][] sorted = new double[depth][];
+    int[] positions = new int[depth];
+    for (int h = 0; h < depth; h++) {
+      DoubleArrayList level = levels.get(h);
+      sorted[h] = Arrays.copyOf(level.elements(), level.size());
+      Arrays.sort(sorted[h]);
+    }
+    double rank = fraction * n;
+    long weight = 0;
+    while (true) {
+      int next = -1;
+      for (int h = 0; h < depth; h++) {
+        if (positions[h] < sorted[h].length
+            && (next == -1 || sorted[h][positions[h]] < sorted[next][positions[next]])) {
+          next = h;
+        }
+      }
+      if (next == -1) {
+        return max;
+      }
+      double value = sorted[next][positions[next]++];
+      weight += 1L << next;
+      if (weight >= rank) {
+        return value;
+      }
+    }
+  }
+
+  @Override
+  public void writeTo(DataOutput out) throws IOException {
+    out.writeByte(KIND);
+    out.writeInt(accuracy);
+    out.writeLong(n);
+    out.writeDouble(min);
+    out.writeDouble(max);
+    out.writeInt(levels.size());
+    for (DoubleArrayList level : levels) {
+      out.writeInt(level.size());
+      for (int i = 0; i < level.size(); i++) {
+        out.writeDouble(level.getDouble(i));
+      }
+    }
+  }
+
+  /**
+   * Reads the rest of a sketch written by {@link #writeTo(DataOutput)}, after its kind
+   */
+  static QuantileSketch read(DataInput in) throws IOException {
+    QuantileSketch sketch = new QuantileSketch(in.readInt());
+    sketch.n = in.readLong();
+    sketch.min = in.readDouble();
+    sketch.max = in.readDouble();
+    int depth = in.readInt();
+    sketch.levels.clear();
+    for (int h = 0; h < depth; h++) {
+      int size = in.readInt();
+      DoubleArrayList level = new DoubleArrayList(size);
+      for (int i = 0; i < size; i++) {
+        level.add(in.readDouble());
+      }
+      sketch.levels.add(level);
+      sketch.retained += size;
+    }
+    return sketch;
+  }
+
+  private int capacity(int level) {
+    int depth = levels.size();
+    return Math.max(MIN_CAPACITY, (int) Math.ceil(accuracy * Math.pow(CAPACITY_RATIO, depth - level - 1)));
+  }
+
+  private int capacity() {
+    int capacity = 0;
+    for (int h = 0; h < levels.size(); h++) {
+      capacity += capacity(h);
+    }
+    return capacity;
+  }
+
+  /**
+   * Compacts levels until the sketch holds no more values than its capacity. While it holds more, at least one
+   * level must be over its own capacity
+   */
+  private void compress() {
+    while (retained > capacity()) {
+      for (int h = 0; h < levels.size(); h++) {
+        if (levels.get(h).size() >= capacity(h)) {
+          compact(h);
+          break;
+        }
+      }
+    }
+  }
+
+  /**
+   * Sorts the given level and promotes every other value in it to the level above, leaving behind only the last value
+   * if there are an odd number
+   */
+  private void compact(int h) {
+    if (h + 1 == levels.size()) {
+      levels.add(new DoubleArrayList());
+    }
+    DoubleArrayList level = levels.get(h);
+    DoubleArrayList above = levels.get(h + 1);
+    double[] values = level.elements();
+    int size = level.size();
+    Arrays.sort(values, 0, size);
+    int paired = size & ~1;
+    for (int i = keepOdd ? 1 : 0; i < paired; i += 2) {
+      above.add(values[i]);
+    }
+    keepOdd = !keepOdd;
+    double leftOver = values[size - 1];
+    level.clear();
+    if (paired < size) {
+      level.add(leftOver);
+    }
+    retained -= paired / 2;
+  }
+}
@@ -0,0 +1,50 @@
+package com.github.lwhite1.tablesaw.reducing.sketch;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A small, fixed-size summary of a stream of values, from which some statistic of the values can be estimated.
+ * Sketches of different parts of the data can be merged, giving the sketch of all of it, so a sketch can be built
+ * in parallel, kept for each partition of a table, or saved and merged with others later
+ */
+public interface Sketch {
+
+  /**
+   * Adds a value to the summarized stream
+   */
+  void update(double value);
+
+  /**
+   * Adds the values summarized by {@code other} to this sketch
+   *
+   * @throws IllegalArgumentException if the other sketch is not of the same kind and accuracy as this one
+   */
+  void merge(Sketch other);
+
+  /**
+   * Returns the number of values that have been added
+   */
+  long count();
+
+  /**
+   * Writes this sketch in a form that can be read back with {@link #readFrom(DataInput)}
+   */
+  void writeTo(DataOutput out) throws IOException;
+
+  /**
+   * Reads a sketch of any kind written by {@link #writeTo(DataOutput)}
+   */
+  static Sketch readFrom(DataInput in) throws IOException {
+    byte kind = in.readByte();
+    switch (kind) {
+      case QuantileSketch.KIND:
+        return QuantileSketch.read(in);
+      case DistinctCountSketch.KIND:
+        return DistinctCountSketch.read(in);
+      default:
+        throw new IOException("Unknown sketch kind " + kind);
+    }
+  }
+}
@@ -0,0 +1,347 @@
+package com.github.lwhite1.tablesaw.sorting;
+
+import com.github.lwhite1.tablesaw.api.BooleanColumn;
+import com.github.lwhite1.tablesaw.api.CategoryColumn;
+import com.github.lwhite1.tablesaw.api.DateColumn;
+import com.github.lwhite1.tablesaw.api.DateTimeColumn;
+import com.github.lwhite1.tablesaw.api.FloatColumn;
+import com.github.lwhite1.tablesaw.api.IntColumn;
+import com.github.lwhite1.tablesaw.api.LongColumn;
+import com.github.lwhite1.tablesaw.api.ShortColumn;
+import com.github.lwhite1.tablesaw.api.Table;
+import com.github.lwhite1.tablesaw.api.TimeColumn;
+import com.github.lwhite1.tablesaw.columns.Column;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Sorts the rows of a table on one or more columns with a least-significant-digit radix sort, rather than by
+ * comparing rows.
+ * <p>
+ * Each sort column is first turned into an unsigned key whose order is the order of the column's values. Ints,
+ * shorts, longs, and the packed values of dates, times and date-times are offset so that the smallest possible value
+ * is zero. A float's bits are flipped as they are by {@link Float#compare(float, float)}. A category's key is the
+ * rank of its value in the sorted dictionary, which is sorted once. The smallest key in the column is then taken from
+ * each key, or, for a descending column, each key is taken from the largest, so that it needs only as many bits as
+ * the range of the column's keys. The keys of successive columns are packed into as few 64-bit words as they fit, the
+ * first column in the highest bits.
+ * <p>
+ * The words are sorted from the last to the first with a stable counting sort on each byte, from the lowest, so the
+ * rows end up ordered on the first word, then on the second, and so on. A byte that is the same in every row is
+ * skipped. The counting and scattering of each byte are divided among workers, each taking a contiguous range of
+ * rows, and the workers' counts are added up in row order so the sort stays stable. Rows that are equal on every
+ * sort column are left in their original order.
+ */
+public final class RadixSort {
+
+  // the rows given to each worker, below which a sort is done on the calling thread
+  static int minRowsPerWorker = 1 << 16;
+
+  private static final int RADIX = 256;
+
+  private RadixSort() {
+  }
+
+  /**
+   * Returns true if every column of the given sort key has a type that can be sorted by its keys
+   */
+  public static boolean canSort(Table table, Sort key) {
+    for (Map.Entry<String, Sort.Order> entry : key) {
+      switch (table.column(entry.getKey()).type()) {
+        case BOOLEAN:
+        case CATEGORY:
+        case FLOAT:
+        case SHORT_INT:
+        case INTEGER:
+        case LONG_INT:
+        case LOCAL_DATE:
+        case LOCAL_DATE_TIME:
+        case LOCAL_TIME:
+          break;
+        default:
+          return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the row numbers of the table in the order given by the sort key
+   */
+  public static int[] sortedRows(Table table, Sort key) {
+    int rowCount = table.rowCount();
+    List<List<SortKey>> words = words(table, key);
+
+    int[] rows = new int[rowCount];
+    Arrays.setAll(rows, row -> row);
+    if (words.isEmpty()) {
+      return rows;
+    }
+    int[] rowBuffer = new int[rowCount];
+    long[] keys = new long[rowCount];
+    long[] keyBuffer = new long[rowCount];
+    int workers = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), rowCount / minRowsPerWorker));
+    int rowsPerWorker = (rowCount + workers - 1) / workers;
+
+    for (int w = words.size() - 1; w >= 0; w--) {
+      List<SortKey> word = words.get(w);
+      int bits = 0;
+      for (SortKey sortKey : word) {
+        bits += sortKey.bits;
+      }
+      // the word of each row, in the order the rows are in so far
+      int[] order = rows;
+      long[] wordKeys = keys;
+      forEachWorker(workers, rowsPerWorker, rowCount, (from, to) -> {
+        for (int i = from; i < to; i++) {
+          wordKeys[i] = word(word, order[i]);
+        }
+      });
+      for (int shift = 0; shift < bits; shift += 8) {
+        if (pass(keys, rows, keyBuffer, rowBuffer, shift, workers, rowsPerWorker)) {
+          long[] sortedKeys = keyBuffer;
+          keyBuffer = keys;
+          keys = sortedKeys;
+          int[] sortedRows = rowBuffer;
+          rowBuffer = rows;
+          rows = sortedRows;
+        }
+      }
+    }
+    return rows;
+  }
+
+  /**
+   * Moves the keys and rows into the buffers, ordered on the byte of the keys at the given shift. Returns false, and
+   * leaves the buffers as they were, if that byte is the same for every row
+   */
+  private static boolean pass(long[] keys, int[] rows, long[] keyBuffer, int[] rowBuffer, int shift,
+                              int workers, int rowsPerWorker) {
+    int rowCount = keys.length;
+    int[][] counts = new int[workers][RADIX];
+    forEachWorker(workers, rowsPerWorker, rowCount, (from, to) -> {
+      int[] count = counts[from / rowsPerWorker];
+      for (int i = from; i < to; i++) {
+        count[(int) (keys[i] >>> shift) & 0xFF]++;
+      }
+    });
+
+    // turn the counts into the position at which each worker puts its first row with each byte
+    int position = 0;
+    for (int digit = 0; digit < RADIX; digit++) {
+      int start = position;
+      for (int[] count : counts) {
+        int c = count[digit];
+        count[digit] = position;
+        position += c;
+      }
+      if (position - start == rowCount) {
+        return false;
+      }
+    }
+
+    forEachWorker(workers, rowsPerWorker, rowCount, (from, to) -> {
+      int[] next = counts[from / rowsPerWorker];
+      for (int i = from; i < to; i++) {
+        long k = keys[i];
+        int p = next[(int) (k >>> shift) & 0xFF]++;
+        keyBuffer[p] = k;
+        rowBuffer[p] = rows[i];
+      }
+    });
+    return true;
+  }
+
+  private interface RangeTask {
+    void run(int from, int to);
+  }
+
+  private static void forEachWorker(int workers, int rowsPerWorker, int rowCount, RangeTask task) {
+    if (workers == 1) {
+      task.run(0, rowCount);
+      return;
+    }
+    IntStream.range(0, workers)
+        .parallel()
+        .forEach(w -> task.run(w * rowsPerWorker, Math.min(rowCount, (w + 1) * rowsPerWorker)));
+  }
+
+  private static long word(List<SortKey> word, int row) {
+    long key = 0;
+    for (SortKey sortKey : word) {
+      key = (key << sortKey.bits) | sortKey.normalized(row);
+    }
+    return key;
+  }
+
+  /**
+   * Returns the keys of the sort columns, grouped into the words they are packed into. Columns with only one value
+   * are left out, as they don't affect the order
+   */
+  private static List<List<SortKey>> words(Table table, Sort key) {
+    List<List<SortKey>> words = new ArrayList<>();
+    List<SortKey> word = new ArrayList<>();
+    int bits = 0;
+    for (Map.Entry<String, Sort.Order> entry : key) {
+      SortKey sortKey = sortKey(table.column(entry.getKey()), entry.getValue() == Sort.Order.DESCEND);
+      sortKey.findRange(table.rowCount());
+      if (sortKey.bits == 0) {
+        continue;
+      }
+      if (bits + sortKey.bits > Long.SIZE) {
+        words.add(word);
+        word = new ArrayList<>();
+        bits = 0;
+      }
+      word.add(sortKey);
+      bits += sortKey.bits;
+    }
+    if (!word.isEmpty()) {
+      words.add(word);
+    }
+    return words;
+  }
+
+  private static SortKey sortKey(Column column, boolean descending) {
+    switch (column.type()) {
+      case BOOLEAN:
+        BooleanColumn booleans = (BooleanColumn) column;
+        // missing values first, then false, then true
+        return new SortKey(descending) {
+          @Override
+          long key(int row) {
+            byte value = booleans.getByte(row);
+            return value == BooleanColumn.MISSING_VALUE ? 0 : value + 1;
+          }
+        };
+      case CATEGORY:
+        CategoryColumn categories = (CategoryColumn) column;
+        int[] ranks = ranks(categories);
+        int[] values = categories.data().elements();
+        return new SortKey(descending) {
+          @Override
+          long key(int row) {
+            return ranks[values[row]];
+          }
+        };
+      case FLOAT:
+        float[] floats = ((FloatColumn) column).data().elements();
+        return new SortKey(descending) {
+          @Override
+          long key(int row) {
+            int bits = Float.floatToIntBits(floats[row]);
+            return (bits ^ ((bits >> 31) | Integer.MIN_VALUE)) & 0xFFFFFFFFL;
+          }
+        };
+      case SHORT_INT:
+        short[] shorts = ((ShortColumn) column).data().elements();
+        return new SortKey(descending) {
+          @Override
+          long key(int row) {
+            return (long) shorts[row] - Short.MIN_VALUE;
+          }
+        };
+      case INTEGER:
+        return intKey(((IntColumn) column).data().elements(), descending);
+      case LOCAL_DATE:
+        return intKey(((DateColumn) column).data().elements(), descending);
+      case LOCAL_TIME:
+        return intKey(((TimeColumn) column).data().elements(), descending);
+      case LONG_INT:
+        return longKey(((LongColumn) column).data().elements(), descending);
+      case LOCAL_DATE_TIME:
+        return longKey(((DateTimeColumn) column).data().elements(), descending);
+      default:
+        throw new IllegalArgumentException("Can't radix sort " + column.type() + " column " + column.name());
+    }
+  }
+
+  private static SortKey intKey(int[] ints, boolean descending) {
+    return new SortKey(descending) {
+      @Override
+      long key(int row) {
+        return (long) ints[row] - Integer.MIN_VALUE;
+      }
+    };
+  }
+
+  private static SortKey longKey(long[] longs, boolean descending) {
+    return new SortKey(descending) {
+      @Override
+      long key(int row) {
+        return longs[row] ^ Long.MIN_VALUE;
+      }
+    };
+  }
+
+  /**
+   * Returns the rank of each dictionary value, indexed by its key, in the order that {@link String#compareTo} puts
+   * them
+   */
+  private static int[] ranks(CategoryColumn column) {
+    Int2ObjectMap<String> keyToValue = column.dictionaryMap().keyToValueMap();
+    int[] keys = keyToValue.keySet().toIntArray();
+    Integer[] byValue = new Integer[keys.length];
+    int maxKey = -1;
+    for (int i = 0; i < keys.length; i++) {
+      byValue[i] = keys[i];
+      maxKey = Math.max(maxKey, keys[i]);
+    }
+    Arrays.sort(byValue, (a, b) -> keyToValue.get((int) a).compareTo(keyToValue.get((int) b)));
+    int[] ranks = new int[maxKey + 1];
+    for (int rank = 0; rank < byValue.length; rank++) {
+      ranks[byValue[rank]] = rank;
+    }
+    return ranks;
+  }
+
+  /**
+   * The key of one sort column, from which the smallest key in the column is taken, or, if the column is sorted in
+   * descending order, which is taken from the largest
+   */
+  private abstract static class SortKey {
+
+    private final boolean descending;
+
+    // the smallest and largest keys in the column, compared unsigned
+    private long min = -1;
+    private long max = 0;
+
+    // the bits needed for the range of the keys
+    int bits;
+
+    SortKey(boolean descending) {
+      this.descending = descending;
+    }
+
+    /**
+     * Finds the smallest and largest keys in the first {@code size} rows, and the bits needed for their range
+     */
+    void findRange(int size) {
+      for (int row = 0; row < size; row++) {
+        long key = key(row);
+        if (Long.compareUnsigned(key, min) < 0) {
+          min = key;
+        }
+        if (Long.compareUnsigned(key, max) > 0) {
+          max = key;
+        }
+      }
+      bits = size == 0 ? 0 : Long.SIZE - Long.numberOfLeadingZeros(max - min);
+    }
+
+    /**
+     * Returns a key for the value in the given row, which compares, unsigned, in the same order as the values
+     */
+    abstract long key(int row);
+
+    long normalized(int row) {
+      return descending ? max - key(row) : key(row) - min;
+    }
+  }
+}
@@ -0,0 +1,105 @@
+package com.github.lwhite1.tablesaw.store;
+
+import com.google.common.base.Preconditions;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The footer at the end of a version 2 column file, which locates each page in the file and records its statistics.
+ * <p>
+ * A version 2 column file is laid out as:
+ * <pre>
+ *   magic number (int)
+ *   dictionary (category columns only)
+ *   page 0 ... page n
+ *   footer
+ *   footer length in bytes (int)
+ *   magic number (int)
+ * </pre>
+ * Everything is little-endian.
+ */
+public class ColumnFooter {
+
+  // "SAW2" when read as little-endian bytes
+  static final int MAGIC = 0x32574153;
+
+  // the length and magic number that follow the footer
+  private static final int TRAILER_BYTES = 8;
+
+  private static final long NO_DICTIONARY = -1;
+
+  private final int rowCount;
+  private final long dictionaryOffset;
+  private final List<PageMetadata> pages;
+
+  ColumnFooter(int rowCount, long dictionaryOffset, List<PageMetadata> pages) {
+    this.rowCount = rowCount;
+    this.dictionaryOffset = dictionaryOffset;
+    this.pages = pages;
+  }
+
+  ColumnFooter(int rowCount, List<PageMetadata> pages) {
+    this(rowCount, NO_DICTIONARY, pages);
+  }
+
+  /**
+   * Returns the footer, followed by the trailer, ready to be appended to a column file
+   */
+  ByteBuffer toBytes() {
+    int footerLength = 4 + 8 + 4 + pages.size() * PageMetadata.BYTES;
+    ByteBuffer buffer = ByteBuffer.allocate(footerLength + TRAILER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    buffer.putInt(rowCount);
+    buffer.putLong(dictionaryOffset);
+    buffer.putInt(pages.size());
+    for (PageMetadata page : pages) {
+      page.write(buffer);
+    }
+    buffer.putInt(footerLength);
+    buffer.putInt(MAGIC);
+    buffer.flip();
+    return buffer;
+  }
+
+  /**
+   * Reads the footer from the end of the given column file
+   *
+   * @throws IllegalStateException if the file isn't a version 2 column file
+   */
+  static ColumnFooter read(MappedColumnFile file) {
+    long end = file.size();
+    Preconditions.checkState(end >= 4 + TRAILER_BYTES
+            && file.getInt(0) == MAGIC
+            && file.getInt(end - 4) == MAGIC,
+        "Not a version 2 column file");
+    int footerLength = file.getInt(end - TRAILER_BYTES);
+    ByteBuffer buffer = file.slice(end - TRAILER_BYTES - footerLength, footerLength);
+    int rowCount = buffer.getInt();
+    long dictionaryOffset = buffer.getLong();
+    int pageCount = buffer.getInt();
+    List<PageMetadata> pages = new ArrayList<>(pageCount);
+    for (int i = 0; i < pageCount; i++) {
+      pages.add(PageMetadata.read(buffer));
+    }
+    return new ColumnFooter(rowCount, dictionaryOffset, pages);
+  }
+
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  public boolean hasDictionary() {
+    return dictionaryOffset != NO_DICTIONARY;
+  }
+
+  long getDictionaryOffset() {
+    return dictionaryOffset;
+  }
+
+  public List<PageMetadata> getPages() {
+    return Collections.unmodifiableList(pages);
+  }
+}
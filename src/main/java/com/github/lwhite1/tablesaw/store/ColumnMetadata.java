@@ -26,6 +26,16 @@ public class ColumnMetadata {
     this.size = column.size();
   }
 
+  /**
+   * Creates a copy of the given metadata, describing a column of {@code size} rows instead
+   */
+  ColumnMetadata(ColumnMetadata original, int size) {
+    this.id = original.id;
+    this.name = original.name;
+    this.type = original.type;
+    this.size = size;
+  }
+
   public String toJson() {
     return GSON.toJson(this);
   }
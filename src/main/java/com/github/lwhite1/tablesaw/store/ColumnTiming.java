@@ -0,0 +1,56 @@
+package com.github.lwhite1.tablesaw.store;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How long one column took to load when reading a table with a {@link TableReader}
+ */
+public class ColumnTiming {
+
+  private final String columnName;
+  private final int chunkCount;
+  private final long elapsedNanos;
+  private final long decodeNanos;
+
+  ColumnTiming(String columnName, int chunkCount, long elapsedNanos, long decodeNanos) {
+    this.columnName = columnName;
+    this.chunkCount = chunkCount;
+    this.elapsedNanos = elapsedNanos;
+    this.decodeNanos = decodeNanos;
+  }
+
+  public String getColumnName() {
+    return columnName;
+  }
+
+  /**
+   * Returns the number of pieces the column was decoded in. Each piece may have been decoded on a different thread
+   */
+  public int getChunkCount() {
+    return chunkCount;
+  }
+
+  /**
+   * Returns the wall-clock time from when the column's file was first opened until its last chunk was decoded
+   */
+  public long getElapsedNanos() {
+    return elapsedNanos;
+  }
+
+  /**
+   * Returns the time spent opening, decompressing and decoding the column, summed over all of its chunks. When this
+   * is much larger than the elapsed time, the column's chunks were decoded in parallel
+   */
+  public long getDecodeNanos() {
+    return decodeNanos;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s: %d ms elapsed, %d ms decoding in %d chunks",
+        columnName,
+        TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+        TimeUnit.NANOSECONDS.toMillis(decodeNanos),
+        chunkCount);
+  }
+}
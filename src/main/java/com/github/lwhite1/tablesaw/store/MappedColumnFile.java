@@ -0,0 +1,107 @@
+package com.github.lwhite1.tablesaw.store;
+
+import com.google.common.base.Preconditions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A column file mapped into memory, read-only. A single mapping holds at most 2 GB, so the file is mapped in
+ * segments and read at long offsets. The mappings stay valid after the file is closed.
+ * <p>
+ * Instances are safe to use from several threads, since every read is made at an absolute offset.
+ */
+final class MappedColumnFile {
+
+  // the size of every segment but the last; changed only by tests, to read across segments without a 2 GB file
+  static int segmentBytes = 1 << 30;
+
+  private final String fileName;
+  private final long size;
+  private final int segmentSize;
+  private final ByteBuffer[] segments;
+
+  private MappedColumnFile(String fileName, long size, int segmentSize, ByteBuffer[] segments) {
+    this.fileName = fileName;
+    this.size = size;
+    this.segmentSize = segmentSize;
+    this.segments = segments;
+  }
+
+  /**
+   * Maps the whole of the given column file into memory, read-only
+   */
+  static MappedColumnFile map(String fileName) throws IOException {
+    try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+      long size = channel.size();
+      int segmentSize = segmentBytes;
+      ByteBuffer[] segments = new ByteBuffer[(int) ((size + segmentSize - 1) / segmentSize)];
+      for (int i = 0; i < segments.length; i++) {
+        long offset = (long) i * segmentSize;
+        segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(segmentSize, size - offset))
+            .order(ByteOrder.LITTLE_ENDIAN);
+      }
+      return new MappedColumnFile(fileName, size, segmentSize, segments);
+    }
+  }
+
+  long size() {
+    return size;
+  }
+
+  /**
+   * Returns the little-endian int at the given offset
+   */
+  int getInt(long offset) {
+    checkRange(offset, 4);
+    int segment = (int) (offset / segmentSize);
+    int position = (int) (offset % segmentSize);
+    if (position + 4 <= segments[segment].limit()) {
+      return segments[segment].getInt(position);
+    }
+    return slice(offset, 4).getInt(0);
+  }
+
+  /**
+   * Copies the bytes starting at the given offset into {@code bytes}
+   */
+  void get(long offset, byte[] bytes) {
+    slice(offset, bytes.length).get(bytes);
+  }
+
+  /**
+   * Returns a little-endian buffer holding the {@code length} bytes starting at {@code offset}. It is a view of the
+   * mapping, unless the bytes run from one segment into the next, when they are copied
+   */
+  ByteBuffer slice(long offset, int length) {
+    checkRange(offset, length);
+    int segment = (int) (offset / segmentSize);
+    int position = (int) (offset % segmentSize);
+    if (position + length <= segments[segment].limit()) {
+      ByteBuffer buffer = segments[segment].duplicate();
+      buffer.position(position);
+      buffer.limit(position + length);
+      return buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+    ByteBuffer copy = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+    while (copy.hasRemaining()) {
+      ByteBuffer source = segments[segment].duplicate();
+      source.position(position);
+      source.limit(Math.min(source.limit(), position + copy.remaining()));
+      copy.put(source);
+      segment++;
+      position = 0;
+    }
+    copy.flip();
+    return copy;
+  }
+
+  private void checkRange(long offset, int length) {
+    Preconditions.checkState(offset >= 0 && length >= 0 && offset + length <= size,
+        "Bytes %s to %s are outside %s, which holds %s bytes", offset, offset + length, fileName, size);
+  }
+}
@@ -0,0 +1,235 @@
+package com.github.lwhite1.tablesaw.store;
+
+import com.github.lwhite1.tablesaw.api.Table;
+import com.github.lwhite1.tablesaw.columns.Column;
+import com.github.lwhite1.tablesaw.filtering.Filter;
+import com.github.lwhite1.tablesaw.util.Selection;
+import com.google.common.primitives.Booleans;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A table on disk that is opened from its metadata alone, with each column loaded only when it is first asked for.
+ * <p>
+ * In version 2 tables, a column's file is memory-mapped the first time the column (or its footer) is needed, and
+ * its pages are decoded straight from the mapping into the column, so opening a table costs almost nothing and only
+ * the columns a query touches ever reach the heap. Version 1 columns are read from their Snappy streams on first
+ * access instead.
+ * <p>
+ * Instances are safe to use from several threads. Each column is loaded at most once.
+ */
+public class MappedTable {
+
+  private final String path;
+  private final TableMetadata metadata;
+  private final List<ColumnMetadata> columnMetadata;
+
+  // both indexed like columnMetadata, and filled in on first use
+  private final MappedColumnFile[] files;
+  private final Column[] columns;
+
+  private MappedTable(String path, TableMetadata metadata) {
+    this.path = path;
+    this.metadata = metadata;
+    this.columnMetadata = metadata.getColumnMetadataList();
+    this.files = new MappedColumnFile[columnMetadata.size()];
+    this.columns = new Column[columnMetadata.size()];
+  }
+
+  /**
+   * Opens the tablesaw table at the given location, reading only its metadata
+   *
+   * @param path The location of the table, typically ending in ".saw", as in "mytables/nasdaq-2015.saw"
+   * @throws IOException if the metadata cannot be read
+   */
+  public static MappedTable open(String path) throws IOException {
+    TableMetadata metadata = StorageManager.readTableMetadata(path + StorageManager.separator() + "Metadata.json");
+    return new MappedTable(path, metadata);
+  }
+
+  public String name() {
+    return metadata.getName();
+  }
+
+  public int rowCount() {
+    return metadata.getRowCount();
+  }
+
+  public int columnCount() {
+    return columnMetadata.size();
+  }
+
+  public List<String> columnNames() {
+    List<String> names = new ArrayList<>(columnMetadata.size());
+    for (ColumnMetadata column : columnMetadata) {
+      names.add(column.getName());
+    }
+    return names;
+  }
+
+  public TableMetadata metadata() {
+    return metadata;
+  }
+
+  /**
+   * Returns true if the named column has already been loaded into memory
+   */
+  public synchronized boolean isLoaded(String columnName) {
+    return columns[columnIndex(columnName)] != null;
+  }
+
+  /**
+   * Returns the named column, loading it if this is the first time it has been asked for
+   *
+   * @throws UncheckedIOException if the column's file cannot be read
+   */
+  public Column column(String columnName) {
+    return column(columnIndex(columnName));
+  }
+
+  /**
+   * Returns a new table holding the named columns, loading any that haven't been loaded yet
+   */
+  public Table table(String... columnNames) {
+    Table table = Table.create(metadata.getName());
+    for (String columnName : columnNames) {
+      table.addColumn(column(columnName));
+    }
+    return table;
+  }
+
+  /**
+   * Returns a new table holding every column, loading any that haven't been loaded yet
+   */
+  public Table table() {
+    Table table = Table.create(metadata.getName());
+    for (int i = 0; i < columnMetadata.size(); i++) {
+      table.addColumn(column(i));
+    }
+    return table;
+  }
+
+  /**
+   * Returns a new table holding the named columns, or every column if none are named, of just the rows that match
+   * {@code filter}, reading as little of the table as possible.
+   * <p>
+   * Only the named columns and the columns the filter uses are read. In version 2 tables, pages whose minimum and
+   * maximum show that none of their rows can match are skipped in every column, and the remaining pages are decoded
+   * without loading the whole column. See {@link PagePruner} for the filters that can skip pages; any other filter
+   * still works, but is evaluated against every row.
+   */
+  public Table selectWhere(Filter filter, String... columnNames) {
+    List<String> projected = columnNames.length == 0 ? columnNames() : Arrays.asList(columnNames);
+    Set<String> filterColumns = PagePruner.columnNames(filter);
+
+    Set<Integer> needed = new LinkedHashSet<>();
+    for (String columnName : projected) {
+      needed.add(columnIndex(columnName));
+    }
+    if (filterColumns == null) {
+      for (int i = 0; i < columnMetadata.size(); i++) {
+        needed.add(i);
+      }
+    } else {
+      for (String columnName : filterColumns) {
+        needed.add(columnIndex(columnName));
+      }
+    }
+
+    boolean[] pages = null;
+    if (metadata.getVersion() >= 2) {
+      pages = new PagePruner(this).pagesToRead(filter);
+      if (Booleans.indexOf(pages, false) == -1) {
+        pages = null;
+      }
+    }
+    Table scanned = Table.create(name());
+    for (int index : needed) {
+      scanned.addColumn(pages == null
+          ? column(index)
+          : PagedColumnReader.read(file(index), columnMetadata.get(index), pages));
+    }
+
+    Selection matches = filter.apply(scanned);
+    Table projection = Table.create(name());
+    for (String columnName : projected) {
+      projection.addColumn(scanned.column(columnName));
+    }
+    return projection.selectWhere(matches);
+  }
+
+  /**
+   * Returns the footer of the named column, which holds the location and statistics of each of its pages, mapping
+   * the column's file if needed but decoding none of it
+   *
+   * @throws IllegalStateException if the table was saved in version 1 of the format, which has no footers
+   */
+  public ColumnFooter footer(String columnName) {
+    if (metadata.getVersion() < 2) {
+      throw new IllegalStateException(
+          String.format("Table %s was saved in version 1 of the format, which has no footers", name()));
+    }
+    return ColumnFooter.read(file(columnIndex(columnName)));
+  }
+
+  private Column column(int index) {
+    synchronized (this) {
+      if (columns[index] != null) {
+        return columns[index];
+      }
+    }
+    // load outside the lock, so several columns can load at once
+    Column column = load(index);
+    synchronized (this) {
+      if (columns[index] == null) {
+        columns[index] = column;
+      }
+      return columns[index];
+    }
+  }
+
+  private Column load(int index) {
+    ColumnMetadata column = columnMetadata.get(index);
+    if (metadata.getVersion() >= 2) {
+      return PagedColumnReader.read(file(index), column);
+    }
+    try {
+      return StorageManager.readColumn(fileName(column), column);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Returns the mapped file of the given column, mapping it if this is the first time it has been needed
+   */
+  synchronized MappedColumnFile file(int index) {
+    if (files[index] == null) {
+      try {
+        files[index] = MappedColumnFile.map(fileName(columnMetadata.get(index)));
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+    return files[index];
+  }
+
+  private String fileName(ColumnMetadata column) {
+    return path + StorageManager.separator() + column.getId();
+  }
+
+  int columnIndex(String columnName) {
+    for (int i = 0; i < columnMetadata.size(); i++) {
+      if (columnMetadata.get(i).getName().equalsIgnoreCase(columnName)) {
+        return i;
+      }
+    }
+    throw new IllegalStateException(String.format("Column %s does not exist in table %s", columnName, name()));
+  }
+}
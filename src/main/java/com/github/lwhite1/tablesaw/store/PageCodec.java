@@ -0,0 +1,384 @@
+package com.github.lwhite1.tablesaw.store;
+
+import me.lemire.integercompression.BinaryPacking;
+import me.lemire.integercompression.IntWrapper;
+import me.lemire.integercompression.differential.IntegratedBinaryPacking;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes and decodes the values in a single page of a version 2 column file.
+ * <p>
+ * Int pages are bit-packed with JavaFastPFOR in blocks of 128 values, either as deltas when the page is sorted or as
+ * offsets from the page minimum otherwise. Values past the last full block are stored as-is. Long pages are handled
+ * the same way with a simple fixed-width packing, since the codecs only work on ints. Any page that wouldn't get
+ * smaller is written plain.
+ * <p>
+ * The minimum of a frame of reference leaves out missing values, which would otherwise widen every offset to the
+ * full width of the type. A missing value is instead given the offset one past the largest value in the page, and
+ * the header records that offset, or 0 if nothing in the page is missing.
+ * <p>
+ * All buffers are expected to be little-endian.
+ */
+final class PageCodec {
+
+  // the number of values that JavaFastPFOR's binary packing codecs work on at a time
+  private static final int BLOCK_SIZE = 128;
+
+  // Don't instantiate
+  private PageCodec() {
+  }
+
+  /**
+   * Returns the largest number of bytes that encoding {@code n} ints can produce
+   */
+  static int maxIntBytes(int n) {
+    return 4 * (n + n / BLOCK_SIZE + 64);
+  }
+
+  /**
+   * Returns the largest number of bytes that encoding {@code n} longs can produce
+   */
+  static int maxLongBytes(int n) {
+    return 8 * (n + 4);
+  }
+
+  /**
+   * Returns the largest number of bytes that encoding {@code n} booleans can produce
+   */
+  static int maxBooleanBytes(int n) {
+    return 16 * (n / 64 + 1) + 1;
+  }
+
+  /**
+   * Writes {@code n} values starting at {@code values[from]}, and returns the encoding used. {@code min} and
+   * {@code max} are the smallest and largest of the values that aren't {@code missing}, or both {@code missing} if
+   * every value is
+   */
+  static PageEncoding encodeInts(int[] values, int from, int n, int min, int max, int missing, ByteBuffer out) {
+    int blocked = n / BLOCK_SIZE * BLOCK_SIZE;
+    int tail = n - blocked;
+    if (blocked == 0) {
+      putInts(out, values, from, n);
+      return PageEncoding.PLAIN;
+    }
+    int[] packed = new int[n + n / BLOCK_SIZE + 64];
+    IntWrapper outPos = new IntWrapper(0);
+    PageEncoding encoding;
+    int[] tailValues;
+    int tailFrom;
+    int missingOffset = 0;
+    if (isSorted(values, from, n)) {
+      new IntegratedBinaryPacking().compress(values, new IntWrapper(from), blocked, packed, outPos);
+      encoding = PageEncoding.DELTA;
+      tailValues = values;
+      tailFrom = from + blocked;
+    } else {
+      // compared unsigned, the range of the values that aren't missing leaves room for this unless it is 0
+      missingOffset = max - min + 1;
+      boolean anyMissing = false;
+      int[] offsets = new int[n];
+      for (int i = 0; i < n; i++) {
+        int value = values[from + i];
+        if (value == missing) {
+          offsets[i] = missingOffset;
+          anyMissing = true;
+        } else {
+          offsets[i] = value - min;
+        }
+      }
+      if (!anyMissing) {
+        missingOffset = 0;
+      } else if (missingOffset == 0) {
+        putInts(out, values, from, n);
+        return PageEncoding.PLAIN;
+      }
+      new BinaryPacking().compress(offsets, new IntWrapper(0), blocked, packed, outPos);
+      encoding = PageEncoding.FRAME_OF_REFERENCE;
+      tailValues = offsets;
+      tailFrom = blocked;
+    }
+    int packedLength = outPos.get();
+    if (3 + packedLength + tail >= n) {
+      putInts(out, values, from, n);
+      return PageEncoding.PLAIN;
+    }
+    if (encoding == PageEncoding.FRAME_OF_REFERENCE) {
+      out.putInt(min);
+      out.putInt(missingOffset);
+    }
+    out.putInt(packedLength);
+    putInts(out, packed, 0, packedLength);
+    putInts(out, tailValues, tailFrom, tail);
+    return encoding;
+  }
+
+  /**
+   * Reads {@code n} values from the page into {@code values}, starting at {@code values[from]}. Missing values are
+   * given the value {@code missing}, which must be the one they were encoded with
+   */
+  static void decodeInts(ByteBuffer page, PageEncoding encoding, int n, int missing, int[] values, int from) {
+    switch (encoding) {
+      case PLAIN:
+        getInts(page, values, from, n);
+        break;
+      case DELTA: {
+        int blocked = n / BLOCK_SIZE * BLOCK_SIZE;
+        int[] packed = new int[page.getInt()];
+        getInts(page, packed, 0, packed.length);
+        new IntegratedBinaryPacking().uncompress(packed, new IntWrapper(0), packed.length, values,
+            new IntWrapper(from));
+        getInts(page, values, from + blocked, n - blocked);
+        break;
+      }
+      case FRAME_OF_REFERENCE: {
+        int blocked = n / BLOCK_SIZE * BLOCK_SIZE;
+        int min = page.getInt();
+        int missingOffset = page.getInt();
+        int[] packed = new int[page.getInt()];
+        getInts(page, packed, 0, packed.length);
+        new BinaryPacking().uncompress(packed, new IntWrapper(0), packed.length, values, new IntWrapper(from));
+        getInts(page, values, from + blocked, n - blocked);
+        for (int i = from; i < from + n; i++) {
+          values[i] = missingOffset != 0 && values[i] == missingOffset ? missing : values[i] + min;
+        }
+        break;
+      }
+      default:
+        throw new IllegalStateException("Unexpected encoding for an int page: " + encoding);
+    }
+  }
+
+  /**
+   * Writes {@code n} values starting at {@code values[from]}, and returns the encoding used. {@code min} and
+   * {@code max} are the smallest and largest of the values that aren't {@code missing}, or both {@code missing} if
+   * every value is
+   */
+  static PageEncoding encodeLongs(long[] values, int from, int n, long min, long max, long missing,
+                                  ByteBuffer out) {
+    if (n > 1 && isSorted(values, from, n)) {
+      long maxDelta = 0;
+      long[] deltas = new long[n - 1];
+      for (int i = 1; i < n; i++) {
+        // the true difference is never negative, but can overflow a signed long
+        long delta = values[from + i] - values[from + i - 1];
+        if (Long.compareUnsigned(delta, maxDelta) > 0) {
+          maxDelta = delta;
+        }
+        deltas[i - 1] = delta;
+      }
+      int width = bitWidth(maxDelta);
+      if (width < 64) {
+        out.putLong(values[from]);
+        out.put((byte) width);
+        packLongs(deltas, 0, n - 1, 0, width, 0, 0, out);
+        return PageEncoding.DELTA;
+      }
+    }
+    boolean anyMissing = false;
+    for (int i = from; i < from + n && !anyMissing; i++) {
+      anyMissing = values[i] == missing;
+    }
+    // compared unsigned, the range of the values that aren't missing leaves room for this unless it is 0
+    long missingOffset = anyMissing ? max - min + 1 : 0;
+    int width = bitWidth(anyMissing ? missingOffset : max - min);
+    if (width == 64 || (anyMissing && missingOffset == 0)) {
+      putLongs(out, values, from, n);
+      return PageEncoding.PLAIN;
+    }
+    out.putLong(min);
+    out.put((byte) width);
+    out.putLong(missingOffset);
+    packLongs(values, from, n, min, width, missing, missingOffset, out);
+    return PageEncoding.FRAME_OF_REFERENCE;
+  }
+
+  /**
+   * Reads {@code n} values from the page into {@code values}, starting at {@code values[from]}. Missing values are
+   * given the value {@code missing}, which must be the one they were encoded with
+   */
+  static void decodeLongs(ByteBuffer page, PageEncoding encoding, int n, long missing, long[] values, int from) {
+    switch (encoding) {
+      case PLAIN:
+        page.asLongBuffer().get(values, from, n);
+        page.position(page.position() + 8 * n);
+        break;
+      case DELTA: {
+        long first = page.getLong();
+        int width = page.get();
+        values[from] = first;
+        unpackLongs(page, n - 1, 0, width, values, from + 1);
+        for (int i = from + 1; i < from + n; i++) {
+          values[i] += values[i - 1];
+        }
+        break;
+      }
+      case FRAME_OF_REFERENCE: {
+        long min = page.getLong();
+        int width = page.get();
+        long missingOffset = page.getLong();
+        unpackLongs(page, n, 0, width, values, from);
+        for (int i = from; i < from + n; i++) {
+          values[i] = missingOffset != 0 && values[i] == missingOffset ? missing : values[i] + min;
+        }
+        break;
+      }
+      default:
+        throw new IllegalStateException("Unexpected encoding for a long page: " + encoding);
+    }
+  }
+
+  static PageEncoding encodeFloats(float[] values, int from, int n, ByteBuffer out) {
+    out.asFloatBuffer().put(values, from, n);
+    out.position(out.position() + 4 * n);
+    return PageEncoding.PLAIN;
+  }
+
+  static void decodeFloats(ByteBuffer page, int n, float[] values, int from) {
+    page.asFloatBuffer().get(values, from, n);
+    page.position(page.position() + 4 * n);
+  }
+
+  /**
+   * Writes the boolean column bytes (1 for true, 0 for false, or missing) as a bitmap of true values, followed by a
+   * bitmap of missing values if there are any
+   */
+  static PageEncoding encodeBooleans(byte[] values, int from, int n, byte missing, ByteBuffer out) {
+    int words = (n + 63) / 64;
+    long[] trueBits = new long[words];
+    long[] missingBits = new long[words];
+    boolean anyMissing = false;
+    for (int i = 0; i < n; i++) {
+      byte value = values[from + i];
+      if (value == 1) {
+        trueBits[i >>> 6] |= 1L << i;
+      } else if (value == missing) {
+        missingBits[i >>> 6] |= 1L << i;
+        anyMissing = true;
+      }
+    }
+    putLongs(out, trueBits, 0, words);
+    out.put((byte) (anyMissing ? 1 : 0));
+    if (anyMissing) {
+      putLongs(out, missingBits, 0, words);
+    }
+    return PageEncoding.BITMAP;
+  }
+
+  static void decodeBooleans(ByteBuffer page, int n, byte missing, byte[] values, int from) {
+    int words = (n + 63) / 64;
+    long[] trueBits = new long[words];
+    page.asLongBuffer().get(trueBits);
+    page.position(page.position() + 8 * words);
+    for (int i = 0; i < n; i++) {
+      values[from + i] = (byte) ((trueBits[i >>> 6] >>> i) & 1L);
+    }
+    if (page.get() == 1) {
+      long[] missingBits = new long[words];
+      page.asLongBuffer().get(missingBits);
+      page.position(page.position() + 8 * words);
+      for (int i = 0; i < n; i++) {
+        if (((missingBits[i >>> 6] >>> i) & 1L) != 0) {
+          values[from + i] = missing;
+        }
+      }
+    }
+  }
+
+  /**
+   * Packs {@code values[i] - reference} for each of the {@code n} values starting at {@code from} into
+   * {@code width} bits apiece, least significant bits first. If {@code missingOffset} isn't 0, it is packed in place
+   * of each value equal to {@code missing}
+   */
+  private static void packLongs(long[] values, int from, int n, long reference, int width, long missing,
+                                long missingOffset, ByteBuffer out) {
+    if (width == 0) {
+      return;
+    }
+    long word = 0;
+    int used = 0;
+    for (int i = from; i < from + n; i++) {
+      long value = missingOffset != 0 && values[i] == missing ? missingOffset : values[i] - reference;
+      word |= value << used;
+      int available = 64 - used;
+      if (width >= available) {
+        out.putLong(word);
+        word = width > available ? value >>> available : 0;
+        used = width - available;
+      } else {
+        used += width;
+      }
+    }
+    if (used > 0) {
+      out.putLong(word);
+    }
+  }
+
+  private static void unpackLongs(ByteBuffer in, int n, long reference, int width, long[] values, int from) {
+    if (width == 0) {
+      for (int i = from; i < from + n; i++) {
+        values[i] = reference;
+      }
+      return;
+    }
+    long mask = (1L << width) - 1;
+    long word = 0;
+    int used = 64;
+    for (int i = from; i < from + n; i++) {
+      if (used == 64) {
+        word = in.getLong();
+        used = 0;
+      }
+      long value = word >>> used;
+      int available = 64 - used;
+      if (width > available) {
+        word = in.getLong();
+        value |= word << available;
+        used = width - available;
+      } else {
+        used += width;
+      }
+      values[i] = reference + (value & mask);
+    }
+  }
+
+  /**
+   * Returns the number of bits needed to hold {@code range} as an unsigned value
+   */
+  private static int bitWidth(long range) {
+    return 64 - Long.numberOfLeadingZeros(range);
+  }
+
+  private static boolean isSorted(int[] values, int from, int n) {
+    for (int i = from + 1; i < from + n; i++) {
+      if (values[i] < values[i - 1]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isSorted(long[] values, int from, int n) {
+    for (int i = from + 1; i < from + n; i++) {
+      if (values[i] < values[i - 1]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static void putInts(ByteBuffer out, int[] values, int from, int n) {
+    out.asIntBuffer().put(values, from, n);
+    out.position(out.position() + 4 * n);
+  }
+
+  private static void getInts(ByteBuffer in, int[] values, int from, int n) {
+    in.asIntBuffer().get(values, from, n);
+    in.position(in.position() + 4 * n);
+  }
+
+  private static void putLongs(ByteBuffer out, long[] values, int from, int n) {
+    out.asLongBuffer().put(values, from, n);
+    out.position(out.position() + 8 * n);
+  }
+}
@@ -0,0 +1,33 @@
+package com.github.lwhite1.tablesaw.store;
+
+/**
+ * The ways the values in a page of a version 2 column file can be encoded
+ */
+enum PageEncoding {
+
+  /**
+   * Values written as-is, in little-endian order
+   */
+  PLAIN,
+
+  /**
+   * Values stored as offsets from the page minimum (frame of reference), bit-packed in blocks
+   */
+  FRAME_OF_REFERENCE,
+
+  /**
+   * Non-decreasing values stored as bit-packed differences between neighbours
+   */
+  DELTA,
+
+  /**
+   * Boolean values stored as a bitmap of true values and a bitmap of missing values
+   */
+  BITMAP;
+
+  private static final PageEncoding[] VALUES = values();
+
+  static PageEncoding fromId(int id) {
+    return VALUES[id];
+  }
+}
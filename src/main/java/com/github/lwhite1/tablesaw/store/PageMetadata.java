@@ -0,0 +1,107 @@
+package com.github.lwhite1.tablesaw.store;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The location, encoding and statistics of one page of a version 2 column file, as recorded in the file's footer.
+ * <p>
+ * The minimum and maximum are the page's smallest and largest values in their primitive representation: ints,
+ * longs, dictionary codes, packed times, 0 or 1 for booleans, and the raw int bits of the float for float columns.
+ * Dates are recorded as epoch days, since packed dates don't sort in date order. Missing values are left out of the
+ * range and counted instead. If every value in the page is missing, the minimum and maximum are the missing value
+ * (NaN for floats).
+ */
+public class PageMetadata {
+
+  // offset (8) + length (4) + row count (4) + missing count (4) + encoding (1) + min (8) + max (8)
+  static final int BYTES = 37;
+
+  private final long offset;
+  private final int length;
+  private final int rowCount;
+  private final int missingCount;
+  private final PageEncoding encoding;
+  private final long min;
+  private final long max;
+
+  PageMetadata(long offset, int length, int rowCount, int missingCount, PageEncoding encoding, long min, long max) {
+    this.offset = offset;
+    this.length = length;
+    this.rowCount = rowCount;
+    this.missingCount = missingCount;
+    this.encoding = encoding;
+    this.min = min;
+    this.max = max;
+  }
+
+  void write(ByteBuffer buffer) {
+    buffer.putLong(offset);
+    buffer.putInt(length);
+    buffer.putInt(rowCount);
+    buffer.putInt(missingCount);
+    buffer.put((byte) encoding.ordinal());
+    buffer.putLong(min);
+    buffer.putLong(max);
+  }
+
+  static PageMetadata read(ByteBuffer buffer) {
+    long offset = buffer.getLong();
+    int length = buffer.getInt();
+    int rowCount = buffer.getInt();
+    int missingCount = buffer.getInt();
+    PageEncoding encoding = PageEncoding.fromId(buffer.get());
+    long min = buffer.getLong();
+    long max = buffer.getLong();
+    return new PageMetadata(offset, length, rowCount, missingCount, encoding, min, max);
+  }
+
+  /**
+   * Returns the position of the page's first byte in the file
+   */
+  public long getOffset() {
+    return offset;
+  }
+
+  /**
+   * Returns the size of the page in bytes
+   */
+  public int getLength() {
+    return length;
+  }
+
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * Returns the number of rows in the page whose values are missing
+   */
+  public int getMissingCount() {
+    return missingCount;
+  }
+
+  PageEncoding getEncoding() {
+    return encoding;
+  }
+
+  public long getMin() {
+    return min;
+  }
+
+  public long getMax() {
+    return max;
+  }
+
+  @Override
+  public String toString() {
+    return "PageMetadata{" +
+        "offset=" + offset +
+        ", length=" + length +
+        ", rowCount=" + rowCount +
+        ", missingCount=" + missingCount +
+        ", encoding=" + encoding +
+        ", min=" + min +
+        ", max=" + max +
+        '}';
+  }
+}
@@ -0,0 +1,286 @@
+package com.github.lwhite1.tablesaw.store;
+
+import com.github.lwhite1.tablesaw.api.ColumnType;
+import com.github.lwhite1.tablesaw.api.DateColumn;
+import com.github.lwhite1.tablesaw.api.IntColumn;
+import com.github.lwhite1.tablesaw.api.LongColumn;
+import com.github.lwhite1.tablesaw.api.ShortColumn;
+import com.github.lwhite1.tablesaw.columns.packeddata.PackedLocalDate;
+import com.github.lwhite1.tablesaw.filtering.AllOf;
+import com.github.lwhite1.tablesaw.filtering.AnyOf;
+import com.github.lwhite1.tablesaw.filtering.ColumnFilter;
+import com.github.lwhite1.tablesaw.filtering.DateEqualTo;
+import com.github.lwhite1.tablesaw.filtering.Filter;
+import com.github.lwhite1.tablesaw.filtering.FloatEqualTo;
+import com.github.lwhite1.tablesaw.filtering.FloatGreaterThan;
+import com.github.lwhite1.tablesaw.filtering.FloatGreaterThanOrEqualTo;
+import com.github.lwhite1.tablesaw.filtering.FloatLessThan;
+import com.github.lwhite1.tablesaw.filtering.FloatLessThanOrEqualTo;
+import com.github.lwhite1.tablesaw.filtering.IntBetween;
+import com.github.lwhite1.tablesaw.filtering.IntEqualTo;
+import com.github.lwhite1.tablesaw.filtering.IntGreaterThan;
+import com.github.lwhite1.tablesaw.filtering.IntGreaterThanOrEqualTo;
+import com.github.lwhite1.tablesaw.filtering.IntLessThan;
+import com.github.lwhite1.tablesaw.filtering.IntLessThanOrEqualTo;
+import com.github.lwhite1.tablesaw.filtering.LocalDateBetween;
+import com.github.lwhite1.tablesaw.filtering.StringEqualTo;
+import com.github.lwhite1.tablesaw.filtering.columnbased.ColumnEqualTo;
+import com.github.lwhite1.tablesaw.filtering.dates.LocalDateIsAfter;
+import com.github.lwhite1.tablesaw.filtering.dates.LocalDateIsBefore;
+import com.github.lwhite1.tablesaw.filtering.dates.LocalDateIsOnOrAfter;
+import com.github.lwhite1.tablesaw.filtering.dates.LocalDateIsOnOrBefore;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Decides, from the minimum and maximum recorded for each page in the footers of a version 2 table, which pages
+ * could hold rows matching a filter.
+ * <p>
+ * Comparisons of ints, longs, floats and dates against a constant, isBetween(), and equality on category strings
+ * are understood, as are allOf() and anyOf() combinations of them. Any other filter is assumed to match
+ * somewhere in every page. Since all the columns of a table are split into pages at the same rows, a page ruled out
+ * by one column is skipped in all of them.
+ */
+final class PagePruner {
+
+  private final MappedTable table;
+
+  // footers are read once per column, and dictionary keys once per filter
+  private final Map<Integer, ColumnFooter> footers = new HashMap<>();
+  private final Map<StringEqualTo, Integer> dictionaryKeys = new IdentityHashMap<>();
+
+  PagePruner(MappedTable table) {
+    this.table = table;
+  }
+
+  /**
+   * Returns a flag for each page of the table, true if the page must be read to find the rows matching
+   * {@code filter}
+   */
+  boolean[] pagesToRead(Filter filter) {
+    int pageCount = (table.rowCount() + PagedColumnWriter.PAGE_SIZE - 1) / PagedColumnWriter.PAGE_SIZE;
+    boolean[] pages = new boolean[pageCount];
+    for (int page = 0; page < pageCount; page++) {
+      pages[page] = mayMatch(filter, page);
+    }
+    return pages;
+  }
+
+  /**
+   * Returns the names of the columns the given filter reads, or null if they can't be told from the filter
+   */
+  static Set<String> columnNames(Filter filter) {
+    Set<String> names = new LinkedHashSet<>();
+    return addColumnNames(filter, names) ? names : null;
+  }
+
+  private static boolean addColumnNames(Filter filter, Set<String> names) {
+    if (filter instanceof AllOf) {
+      for (Filter child : ((AllOf) filter).getFilters()) {
+        if (!addColumnNames(child, names)) {
+          return false;
+        }
+      }
+      return true;
+    }
+    if (filter instanceof AnyOf) {
+      for (Filter child : ((AnyOf) filter).getFilters()) {
+        if (!addColumnNames(child, names)) {
+          return false;
+        }
+      }
+      return true;
+    }
+    // a column comparison reads a second column that it doesn't expose
+    if (filter instanceof ColumnFilter && !(filter instanceof ColumnEqualTo)) {
+      names.add(((ColumnFilter) filter).getColumnReference().getColumnName());
+      return true;
+    }
+    return false;
+  }
+
+  private boolean mayMatch(Filter filter, int page) {
+    if (filter instanceof AllOf) {
+      for (Filter child : ((AllOf) filter).getFilters()) {
+        if (!mayMatch(child, page)) {
+          return false;
+        }
+      }
+      return true;
+    }
+    if (filter instanceof AnyOf) {
+      for (Filter child : ((AnyOf) filter).getFilters()) {
+        if (mayMatch(child, page)) {
+          return true;
+        }
+      }
+      return ((AnyOf) filter).getFilters().isEmpty();
+    }
+    if (!(filter instanceof ColumnFilter)) {
+      return true;
+    }
+    int index = table.columnIndex(((ColumnFilter) filter).getColumnReference().getColumnName());
+    ColumnType type = table.metadata().getColumnMetadataList().get(index).getType();
+    PageMetadata stats = footer(index).getPages().get(page);
+    switch (type) {
+      case INTEGER:
+      case SHORT_INT:
+      case LONG_INT: {
+        // the filters compare a missing value as the value that stands for it, so it can match too
+        long missing = integerMissingValue(type);
+        return (stats.getMissingCount() < stats.getRowCount()
+            && mayMatchInteger(filter, stats.getMin(), stats.getMax()))
+            || (stats.getMissingCount() > 0 && mayMatchInteger(filter, missing, missing));
+      }
+      case FLOAT:
+        return mayMatchFloat(filter,
+            Float.intBitsToFloat((int) stats.getMin()),
+            Float.intBitsToFloat((int) stats.getMax()));
+      case LOCAL_DATE:
+        return (stats.getMissingCount() < stats.getRowCount()
+            && mayMatchDate(filter, stats.getMin(), stats.getMax()))
+            || (stats.getMissingCount() > 0
+            && mayMatchPackedDate(filter, DateColumn.MISSING_VALUE, DateColumn.MISSING_VALUE));
+      case CATEGORY:
+        // dictionary keys are in order of first appearance rather than string order, so only equality can be checked
+        if (filter instanceof StringEqualTo) {
+          int key = dictionaryKey(index, (StringEqualTo) filter);
+          return key >= 0 && stats.getMin() <= key && key <= stats.getMax();
+        }
+        return true;
+      default:
+        return true;
+    }
+  }
+
+  private static boolean mayMatchInteger(Filter filter, long min, long max) {
+    if (filter instanceof IntBetween) {
+      IntBetween between = (IntBetween) filter;
+      return max > between.getLow() && min < between.getHigh();
+    }
+    if (filter instanceof IntEqualTo) {
+      int value = ((IntEqualTo) filter).getValue();
+      return min <= value && value <= max;
+    }
+    if (filter instanceof IntGreaterThan) {
+      return max > ((IntGreaterThan) filter).getValue();
+    }
+    if (filter instanceof IntGreaterThanOrEqualTo) {
+      return max >= ((IntGreaterThanOrEqualTo) filter).getValue();
+    }
+    if (filter instanceof IntLessThan) {
+      return min < ((IntLessThan) filter).getValue();
+    }
+    if (filter instanceof IntLessThanOrEqualTo) {
+      return min <= ((IntLessThanOrEqualTo) filter).getValue();
+    }
+    return true;
+  }
+
+  /**
+   * Returns false if no date from epoch day {@code minDay} to {@code maxDay} can match
+   */
+  private static boolean mayMatchDate(Filter filter, long minDay, long maxDay) {
+    if (filter instanceof DateEqualTo) {
+      long day = ((DateEqualTo) filter).getValue().toEpochDay();
+      return minDay <= day && day <= maxDay;
+    }
+    // the filters compare packed dates, which sort in date order only within a run of 256 years, so the range is
+    // only useful when it falls within one
+    LocalDate min = LocalDate.ofEpochDay(minDay);
+    LocalDate max = LocalDate.ofEpochDay(maxDay);
+    if (packedOrderRun(min.getYear()) != packedOrderRun(max.getYear())) {
+      return true;
+    }
+    return mayMatchPackedDate(filter, PackedLocalDate.pack(min), PackedLocalDate.pack(max));
+  }
+
+  /**
+   * Returns false if no packed date from {@code min} to {@code max} can match, comparing packed dates as the filters
+   * do
+   */
+  private static boolean mayMatchPackedDate(Filter filter, int min, int max) {
+    if (filter instanceof DateEqualTo) {
+      int packed = PackedLocalDate.pack(((DateEqualTo) filter).getValue());
+      return min <= packed && packed <= max;
+    }
+    if (filter instanceof LocalDateBetween) {
+      LocalDateBetween between = (LocalDateBetween) filter;
+      return max > PackedLocalDate.pack(between.getLow()) && min < PackedLocalDate.pack(between.getHigh());
+    }
+    if (filter instanceof LocalDateIsAfter) {
+      return max > ((LocalDateIsAfter) filter).getValue();
+    }
+    if (filter instanceof LocalDateIsOnOrAfter) {
+      return max >= ((LocalDateIsOnOrAfter) filter).getValue();
+    }
+    if (filter instanceof LocalDateIsBefore) {
+      return min < ((LocalDateIsBefore) filter).getValue();
+    }
+    if (filter instanceof LocalDateIsOnOrBefore) {
+      return min <= ((LocalDateIsOnOrBefore) filter).getValue();
+    }
+    return true;
+  }
+
+  /**
+   * Returns the run of years the given year falls in. A packed date leads with the low byte of its year as a signed
+   * byte, so packed dates sort in date order from year 256 * k + 128 to year 256 * k + 383, 1920 to 2175 for instance
+   */
+  private static int packedOrderRun(int year) {
+    return Math.floorDiv(year - 128, 256);
+  }
+
+  private static long integerMissingValue(ColumnType type) {
+    switch (type) {
+      case INTEGER:
+        return IntColumn.MISSING_VALUE;
+      case SHORT_INT:
+        return ShortColumn.MISSING_VALUE;
+      default:
+        return LongColumn.MISSING_VALUE;
+    }
+  }
+
+  /**
+   * Returns false if no float between {@code min} and {@code max} can match. Both are NaN when every value in the
+   * page is missing, and NaN matches no comparison
+   */
+  private static boolean mayMatchFloat(Filter filter, float min, float max) {
+    if (filter instanceof FloatEqualTo) {
+      float value = ((FloatEqualTo) filter).getValue();
+      return min <= value && value <= max;
+    }
+    if (filter instanceof IntEqualTo) {
+      float value = ((IntEqualTo) filter).getValue();
+      return min <= value && value <= max;
+    }
+    if (filter instanceof FloatGreaterThan) {
+      return max > ((FloatGreaterThan) filter).getValue();
+    }
+    if (filter instanceof FloatGreaterThanOrEqualTo) {
+      return max >= ((FloatGreaterThanOrEqualTo) filter).getValue();
+    }
+    if (filter instanceof FloatLessThan) {
+      return min < ((FloatLessThan) filter).getValue();
+    }
+    if (filter instanceof FloatLessThanOrEqualTo) {
+      return min <= ((FloatLessThanOrEqualTo) filter).getValue();
+    }
+    return true;
+  }
+
+  private ColumnFooter footer(int index) {
+    return footers.computeIfAbsent(index, i -> ColumnFooter.read(table.file(i)));
+  }
+
+  private int dictionaryKey(int index, StringEqualTo filter) {
+    return dictionaryKeys.computeIfAbsent(filter,
+        f -> PagedColumnReader.dictionaryKey(table.file(index), footer(index), f.getValue()));
+  }
+}
@@ -0,0 +1,226 @@
+package com.github.lwhite1.tablesaw.store;
+
+import com.github.lwhite1.tablesaw.api.BooleanColumn;
+import com.github.lwhite1.tablesaw.api.CategoryColumn;
+import com.github.lwhite1.tablesaw.api.ColumnType;
+import com.github.lwhite1.tablesaw.api.DateColumn;
+import com.github.lwhite1.tablesaw.api.DateTimeColumn;
+import com.github.lwhite1.tablesaw.api.FloatColumn;
+import com.github.lwhite1.tablesaw.api.IntColumn;
+import com.github.lwhite1.tablesaw.api.LongColumn;
+import com.github.lwhite1.tablesaw.api.ShortColumn;
+import com.github.lwhite1.tablesaw.api.TimeColumn;
+import com.github.lwhite1.tablesaw.columns.Column;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads columns written by {@link PagedColumnWriter}, decoding the pages from a memory-mapped file straight into
+ * the column's backing array
+ */
+final class PagedColumnReader {
+
+  // Don't instantiate
+  private PagedColumnReader() {
+  }
+
+  static Column read(String fileName, ColumnMetadata metadata) throws IOException {
+    return read(MappedColumnFile.map(fileName), metadata);
+  }
+
+  /**
+   * Decodes the column held in {@code file}, a version 2 column file
+   */
+  static Column read(MappedColumnFile file, ColumnMetadata metadata) {
+    return read(file, metadata, null);
+  }
+
+  /**
+   * Decodes only the pages of the column held in {@code file} that are flagged in {@code pages}, or every page if it
+   * is null, into a column holding just their rows, in order
+   */
+  static Column read(MappedColumnFile file, ColumnMetadata metadata, boolean[] pages) {
+    ColumnFooter footer = ColumnFooter.read(file);
+    Column column = allocate(metadata, rowCount(footer, pages));
+    if (footer.hasDictionary()) {
+      readDictionary(file, footer, (CategoryColumn) column);
+    }
+    int from = 0;
+    for (int p = 0; p < footer.getPages().size(); p++) {
+      PageMetadata page = footer.getPages().get(p);
+      if (pages == null || pages[p]) {
+        readPage(file, page, column, from);
+        from += page.getRowCount();
+      }
+    }
+    return column;
+  }
+
+  /**
+   * Returns a new column of the given type holding {@code rowCount} rows, whose values are to be filled in by
+   * {@link #readPage(MappedColumnFile, PageMetadata, Column, int)}
+   */
+  static Column allocate(ColumnMetadata metadata, int rowCount) {
+    // so the column is only allocated for the rows being read
+    ColumnMetadata sized = new ColumnMetadata(metadata, rowCount);
+    switch (metadata.getType()) {
+      case FLOAT: {
+        FloatColumn column = new FloatColumn(sized);
+        column.data().size(rowCount);
+        return column;
+      }
+      case INTEGER: {
+        IntColumn column = new IntColumn(sized);
+        column.data().size(rowCount);
+        return column;
+      }
+      case SHORT_INT: {
+        ShortColumn column = new ShortColumn(sized);
+        column.data().size(rowCount);
+        return column;
+      }
+      case LONG_INT: {
+        LongColumn column = new LongColumn(sized);
+        column.data().size(rowCount);
+        return column;
+      }
+      case LOCAL_DATE: {
+        DateColumn column = new DateColumn(sized);
+        column.data().size(rowCount);
+        return column;
+      }
+      case LOCAL_TIME: {
+        TimeColumn column = new TimeColumn(sized);
+        column.data().size(rowCount);
+        return column;
+      }
+      case LOCAL_DATE_TIME: {
+        DateTimeColumn column = new DateTimeColumn(sized);
+        column.data().size(rowCount);
+        return column;
+      }
+      case BOOLEAN: {
+        BooleanColumn column = new BooleanColumn(sized);
+        column.data().size(rowCount);
+        return column;
+      }
+      case CATEGORY: {
+        CategoryColumn column = new CategoryColumn(sized);
+        column.data().size(rowCount);
+        return column;
+      }
+      default:
+        throw new RuntimeException("Unhandled column type reading columns");
+    }
+  }
+
+  /**
+   * Decodes the given page into the rows of {@code column} starting at {@code from}. Pages of the same column may be
+   * decoded concurrently, since each writes only its own rows
+   */
+  static void readPage(MappedColumnFile file, PageMetadata page, Column column, int from) {
+    ByteBuffer buffer = file.slice(page.getOffset(), page.getLength());
+    int n = page.getRowCount();
+    PageEncoding encoding = page.getEncoding();
+    switch (column.type()) {
+      case FLOAT:
+        PageCodec.decodeFloats(buffer, n, ((FloatColumn) column).data().elements(), from);
+        break;
+      case INTEGER:
+        PageCodec.decodeInts(buffer, encoding, n, IntColumn.MISSING_VALUE,
+            ((IntColumn) column).data().elements(), from);
+        break;
+      case SHORT_INT: {
+        short[] values = ((ShortColumn) column).data().elements();
+        int[] ints = new int[n];
+        PageCodec.decodeInts(buffer, encoding, n, ShortColumn.MISSING_VALUE, ints, 0);
+        for (int i = 0; i < n; i++) {
+          values[from + i] = (short) ints[i];
+        }
+        break;
+      }
+      case LONG_INT:
+        PageCodec.decodeLongs(buffer, encoding, n, LongColumn.MISSING_VALUE,
+            ((LongColumn) column).data().elements(), from);
+        break;
+      case LOCAL_DATE:
+        PageCodec.decodeInts(buffer, encoding, n, DateColumn.MISSING_VALUE,
+            ((DateColumn) column).data().elements(), from);
+        break;
+      case LOCAL_TIME:
+        PageCodec.decodeInts(buffer, encoding, n, TimeColumn.MISSING_VALUE,
+            ((TimeColumn) column).data().elements(), from);
+        break;
+      case LOCAL_DATE_TIME:
+        PageCodec.decodeLongs(buffer, encoding, n, DateTimeColumn.MISSING_VALUE,
+            ((DateTimeColumn) column).data().elements(), from);
+        break;
+      case BOOLEAN:
+        PageCodec.decodeBooleans(buffer, n, BooleanColumn.MISSING_VALUE, ((BooleanColumn) column).data().elements(),
+            from);
+        break;
+      case CATEGORY:
+        PageCodec.decodeInts(buffer, encoding, n, PagedColumnWriter.intMissingValue(ColumnType.CATEGORY),
+            ((CategoryColumn) column).data().elements(), from);
+        break;
+      default:
+        throw new RuntimeException("Unhandled column type reading columns");
+    }
+  }
+
+  /**
+   * Adds the dictionary of the category column held in {@code file} to {@code column}
+   */
+  static void readDictionary(MappedColumnFile file, ColumnFooter footer, CategoryColumn column) {
+    long position = footer.getDictionaryOffset();
+    int count = file.getInt(position);
+    position += 4;
+    for (int i = 0; i < count; i++) {
+      int key = file.getInt(position);
+      byte[] bytes = new byte[file.getInt(position + 4)];
+      file.get(position + 8, bytes);
+      position += 8 + bytes.length;
+      column.dictionaryMap().put(key, new String(bytes, StandardCharsets.UTF_8));
+    }
+  }
+
+  /**
+   * Returns the dictionary key of {@code value} in the category column held in {@code file}, or -1 if the column
+   * doesn't contain it, without building the dictionary
+   */
+  static int dictionaryKey(MappedColumnFile file, ColumnFooter footer, String value) {
+    byte[] target = value.getBytes(StandardCharsets.UTF_8);
+    long position = footer.getDictionaryOffset();
+    int count = file.getInt(position);
+    position += 4;
+    for (int i = 0; i < count; i++) {
+      int key = file.getInt(position);
+      int length = file.getInt(position + 4);
+      if (length == target.length) {
+        byte[] bytes = new byte[length];
+        file.get(position + 8, bytes);
+        if (Arrays.equals(bytes, target)) {
+          return key;
+        }
+      }
+      position += 8 + length;
+    }
+    return -1;
+  }
+
+  private static int rowCount(ColumnFooter footer, boolean[] pages) {
+    if (pages == null) {
+      return footer.getRowCount();
+    }
+    int rowCount = 0;
+    for (int p = 0; p < pages.length; p++) {
+      if (pages[p]) {
+        rowCount += footer.getPages().get(p).getRowCount();
+      }
+    }
+    return rowCount;
+  }
+}
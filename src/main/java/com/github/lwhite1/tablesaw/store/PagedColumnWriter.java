@@ -0,0 +1,537 @@
+package com.github.lwhite1.tablesaw.store;
+
+import com.github.lwhite1.tablesaw.api.BooleanColumn;
+import com.github.lwhite1.tablesaw.api.CategoryColumn;
+import com.github.lwhite1.tablesaw.api.ColumnType;
+import com.github.lwhite1.tablesaw.api.DateColumn;
+import com.github.lwhite1.tablesaw.api.DateTimeColumn;
+import com.github.lwhite1.tablesaw.api.FloatColumn;
+import com.github.lwhite1.tablesaw.api.IntColumn;
+import com.github.lwhite1.tablesaw.api.LongColumn;
+import com.github.lwhite1.tablesaw.api.ShortColumn;
+import com.github.lwhite1.tablesaw.api.TimeColumn;
+import com.github.lwhite1.tablesaw.columns.Column;
+import com.github.lwhite1.tablesaw.columns.packeddata.PackedLocalDate;
+import com.google.common.base.Preconditions;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Writes a column to a file in the version 2 format: the rows are split into pages of {@code PAGE_SIZE} values,
+ * each encoded on its own (see {@link PageCodec}), and a {@link ColumnFooter} holding each page's location and
+ * statistics is written at the end.
+ * <p>
+ * A column can be written all at once with {@link #write(String, Column)}, or a batch at a time by appending to a
+ * writer returned from {@link #open(String, ColumnType)}. Appended values are held until they fill a page, so only
+ * one page of the column is ever in memory, and the pages start at the same rows as when the column is written all
+ * at once. A category column's dictionary is then written after the pages, since it isn't complete until the last
+ * batch.
+ */
+final class PagedColumnWriter implements Closeable {
+
+  static final int PAGE_SIZE = 65_536;
+
+  private final FileChannel channel;
+  private final List<PageMetadata> pages = new ArrayList<>();
+  private long position;
+  private long dictionaryOffset = -1;
+
+  // when appending, the type of the column and the values waiting to fill a page, in their primitive representation
+  private ColumnType type;
+  private int[] pendingInts;
+  private long[] pendingLongs;
+  private float[] pendingFloats;
+  private byte[] pendingBytes;
+  private int pendingCount;
+  private int rowCount;
+  private ByteBuffer pageBuffer;
+
+  // when appending a category column, the dictionary built from the strings in all the batches
+  private Object2IntOpenHashMap<String> keys;
+  private Int2ObjectOpenHashMap<String> dictionary;
+
+  private PagedColumnWriter(FileChannel channel) {
+    this.channel = channel;
+  }
+
+  static void write(String fileName, Column column) throws IOException {
+    try (FileChannel channel = FileChannel.open(Paths.get(fileName), CREATE, WRITE, TRUNCATE_EXISTING)) {
+      PagedColumnWriter writer = new PagedColumnWriter(channel);
+      writer.writeColumn(column);
+    }
+  }
+
+  /**
+   * Returns a writer that writes a column of the given type to the named file, from batches passed to
+   * {@link #append(Column)}. The column is complete once {@link #finish()} has been called, and the writer must be
+   * closed in any case
+   */
+  static PagedColumnWriter open(String fileName, ColumnType type) throws IOException {
+    PagedColumnWriter writer = new PagedColumnWriter(
+        FileChannel.open(Paths.get(fileName), CREATE, WRITE, TRUNCATE_EXISTING));
+    try {
+      writer.startAppending(type);
+    } catch (IOException | RuntimeException e) {
+      writer.close();
+      throw e;
+    }
+    return writer;
+  }
+
+  private void startAppending(ColumnType type) throws IOException {
+    this.type = type;
+    switch (type) {
+      case FLOAT:
+        pendingFloats = new float[PAGE_SIZE];
+        pageBuffer = allocate(4 * PAGE_SIZE);
+        break;
+      case INTEGER:
+      case SHORT_INT:
+      case LOCAL_DATE:
+      case LOCAL_TIME:
+        pendingInts = new int[PAGE_SIZE];
+        pageBuffer = allocate(PageCodec.maxIntBytes(PAGE_SIZE));
+        break;
+      case CATEGORY:
+        pendingInts = new int[PAGE_SIZE];
+        pageBuffer = allocate(PageCodec.maxIntBytes(PAGE_SIZE));
+        keys = new Object2IntOpenHashMap<>();
+        keys.defaultReturnValue(-1);
+        dictionary = new Int2ObjectOpenHashMap<>();
+        break;
+      case LONG_INT:
+      case LOCAL_DATE_TIME:
+        pendingLongs = new long[PAGE_SIZE];
+        pageBuffer = allocate(PageCodec.maxLongBytes(PAGE_SIZE));
+        break;
+      case BOOLEAN:
+        pendingBytes = new byte[PAGE_SIZE];
+        pageBuffer = allocate(PageCodec.maxBooleanBytes(PAGE_SIZE));
+        break;
+      default:
+        throw new RuntimeException("Unhandled column type writing columns");
+    }
+    writeMagic();
+  }
+
+  /**
+   * Appends the values in {@code batch}, which must be of the type the writer was opened with, writing out each page
+   * as it fills
+   */
+  void append(Column batch) throws IOException {
+    Preconditions.checkArgument(batch.type() == type,
+        "Cannot append a column of type %s to one of type %s", batch.type(), type);
+    // batch keys are only meaningful within the batch, so they are translated afresh each time
+    Int2IntOpenHashMap batchKeys = null;
+    if (type == ColumnType.CATEGORY) {
+      batchKeys = new Int2IntOpenHashMap();
+      batchKeys.defaultReturnValue(-1);
+    }
+    int size = batch.size();
+    int from = 0;
+    while (from < size) {
+      int n = Math.min(PAGE_SIZE - pendingCount, size - from);
+      addPending(batch, from, n, batchKeys);
+      pendingCount += n;
+      rowCount += n;
+      from += n;
+      if (pendingCount == PAGE_SIZE) {
+        writePendingPage();
+      }
+    }
+  }
+
+  /**
+   * Writes out any values still waiting to fill a page, the dictionary of a category column, and the footer
+   */
+  void finish() throws IOException {
+    if (pendingCount > 0) {
+      writePendingPage();
+    }
+    if (type == ColumnType.CATEGORY) {
+      writeDictionary(dictionary);
+    }
+    ColumnFooter footer = new ColumnFooter(rowCount, dictionaryOffset, pages);
+    append(footer.toBytes());
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  private void addPending(Column batch, int from, int n, Int2IntOpenHashMap batchKeys) {
+    switch (type) {
+      case FLOAT:
+        System.arraycopy(((FloatColumn) batch).data().elements(), from, pendingFloats, pendingCount, n);
+        break;
+      case INTEGER:
+        System.arraycopy(((IntColumn) batch).data().elements(), from, pendingInts, pendingCount, n);
+        break;
+      case SHORT_INT: {
+        short[] shorts = ((ShortColumn) batch).data().elements();
+        for (int i = 0; i < n; i++) {
+          pendingInts[pendingCount + i] = shorts[from + i];
+        }
+        break;
+      }
+      case LOCAL_DATE:
+        System.arraycopy(((DateColumn) batch).data().elements(), from, pendingInts, pendingCount, n);
+        break;
+      case LOCAL_TIME:
+        System.arraycopy(((TimeColumn) batch).data().elements(), from, pendingInts, pendingCount, n);
+        break;
+      case CATEGORY: {
+        CategoryColumn categories = (CategoryColumn) batch;
+        int[] values = categories.data().elements();
+        for (int i = 0; i < n; i++) {
+          int batchKey = values[from + i];
+          int key = batchKeys.get(batchKey);
+          if (key == -1) {
+            key = key(categories.dictionaryMap().get(batchKey));
+            batchKeys.put(batchKey, key);
+          }
+          pendingInts[pendingCount + i] = key;
+        }
+        break;
+      }
+      case LONG_INT:
+        System.arraycopy(((LongColumn) batch).data().elements(), from, pendingLongs, pendingCount, n);
+        break;
+      case LOCAL_DATE_TIME:
+        System.arraycopy(((DateTimeColumn) batch).data().elements(), from, pendingLongs, pendingCount, n);
+        break;
+      case BOOLEAN:
+        System.arraycopy(((BooleanColumn) batch).data().elements(), from, pendingBytes, pendingCount, n);
+        break;
+      default:
+        throw new RuntimeException("Unhandled column type writing columns");
+    }
+  }
+
+  /**
+   * Returns the key of the given string in the dictionary being built, adding it if it's new
+   */
+  private int key(String value) {
+    int key = keys.getInt(value);
+    if (key == -1) {
+      key = keys.size();
+      keys.put(value, key);
+      dictionary.put(key, value);
+    }
+    return key;
+  }
+
+  private void writePendingPage() throws IOException {
+    switch (type) {
+      case FLOAT:
+        writeFloatPage(pendingFloats, 0, pendingCount, pageBuffer);
+        break;
+      case LONG_INT:
+        writeLongPage(pendingLongs, 0, pendingCount, LongColumn.MISSING_VALUE, pageBuffer);
+        break;
+      case LOCAL_DATE_TIME:
+        writeLongPage(pendingLongs, 0, pendingCount, DateTimeColumn.MISSING_VALUE, pageBuffer);
+        break;
+      case BOOLEAN:
+        writeBooleanPage(pendingBytes, 0, pendingCount, pageBuffer);
+        break;
+      default:
+        writeIntPage(pendingInts, 0, pendingCount, type, pageBuffer);
+    }
+    pendingCount = 0;
+  }
+
+  private void writeColumn(Column column) throws IOException {
+    writeMagic();
+
+    switch (column.type()) {
+      case FLOAT:
+        writeFloats((FloatColumn) column);
+        break;
+      case INTEGER:
+        writeInts(((IntColumn) column).data().elements(), column.size(), ColumnType.INTEGER);
+        break;
+      case SHORT_INT:
+        writeShorts((ShortColumn) column);
+        break;
+      case LONG_INT:
+        writeLongs(((LongColumn) column).data().elements(), column.size(), LongColumn.MISSING_VALUE);
+        break;
+      case LOCAL_DATE:
+        writeInts(((DateColumn) column).data().elements(), column.size(), ColumnType.LOCAL_DATE);
+        break;
+      case LOCAL_TIME:
+        writeInts(((TimeColumn) column).data().elements(), column.size(), ColumnType.LOCAL_TIME);
+        break;
+      case LOCAL_DATE_TIME:
+        writeLongs(((DateTimeColumn) column).data().elements(), column.size(), DateTimeColumn.MISSING_VALUE);
+        break;
+      case BOOLEAN:
+        writeBooleans((BooleanColumn) column);
+        break;
+      case CATEGORY:
+        writeDictionary(((CategoryColumn) column).dictionaryMap().keyToValueMap());
+        writeInts(((CategoryColumn) column).data().elements(), column.size(), ColumnType.CATEGORY);
+        break;
+      default:
+        throw new RuntimeException("Unhandled column type writing columns");
+    }
+
+    ColumnFooter footer = new ColumnFooter(column.size(), dictionaryOffset, pages);
+    append(footer.toBytes());
+  }
+
+  private void writeInts(int[] values, int size, ColumnType type) throws IOException {
+    ByteBuffer buffer = allocate(PageCodec.maxIntBytes(Math.min(size, PAGE_SIZE)));
+    for (int from = 0; from < size; from += PAGE_SIZE) {
+      writeIntPage(values, from, Math.min(PAGE_SIZE, size - from), type, buffer);
+    }
+  }
+
+  private void writeShorts(ShortColumn column) throws IOException {
+    short[] shorts = column.data().elements();
+    int size = column.size();
+    int[] values = new int[Math.min(size, PAGE_SIZE)];
+    ByteBuffer buffer = allocate(PageCodec.maxIntBytes(values.length));
+    for (int from = 0; from < size; from += PAGE_SIZE) {
+      int n = Math.min(PAGE_SIZE, size - from);
+      for (int i = 0; i < n; i++) {
+        values[i] = shorts[from + i];
+      }
+      writeIntPage(values, 0, n, ColumnType.SHORT_INT, buffer);
+    }
+  }
+
+  private void writeIntPage(int[] values, int from, int n, ColumnType type, ByteBuffer buffer) throws IOException {
+    int missing = intMissingValue(type);
+    int min = Integer.MAX_VALUE;
+    int max = Integer.MIN_VALUE;
+    int missingCount = 0;
+    for (int i = from; i < from + n; i++) {
+      int value = values[i];
+      if (value == missing) {
+        missingCount++;
+      } else {
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+      }
+    }
+    if (missingCount == n) {
+      min = missing;
+      max = missing;
+    }
+    buffer.clear();
+    PageEncoding encoding = PageCodec.encodeInts(values, from, n, min, max, missing, buffer);
+    if (type == ColumnType.LOCAL_DATE && missingCount < n) {
+      appendPage(buffer, n, missingCount, encoding, minEpochDay(values, from, n, missing),
+          maxEpochDay(values, from, n, missing));
+    } else {
+      appendPage(buffer, n, missingCount, encoding, min, max);
+    }
+  }
+
+  /**
+   * Returns the earliest of the given packed dates as an epoch day. Packed dates don't sort in date order, so the
+   * range of a date page is recorded in epoch days instead
+   */
+  private static long minEpochDay(int[] dates, int from, int n, int missing) {
+    long min = Long.MAX_VALUE;
+    for (int i = from; i < from + n; i++) {
+      if (dates[i] != missing) {
+        min = Math.min(min, PackedLocalDate.toEpochDay(dates[i]));
+      }
+    }
+    return min;
+  }
+
+  /**
+   * Returns the latest of the given packed dates as an epoch day
+   */
+  private static long maxEpochDay(int[] dates, int from, int n, int missing) {
+    long max = Long.MIN_VALUE;
+    for (int i = from; i < from + n; i++) {
+      if (dates[i] != missing) {
+        max = Math.max(max, PackedLocalDate.toEpochDay(dates[i]));
+      }
+    }
+    return max;
+  }
+
+  private void writeLongs(long[] values, int size, long missing) throws IOException {
+    ByteBuffer buffer = allocate(PageCodec.maxLongBytes(Math.min(size, PAGE_SIZE)));
+    for (int from = 0; from < size; from += PAGE_SIZE) {
+      writeLongPage(values, from, Math.min(PAGE_SIZE, size - from), missing, buffer);
+    }
+  }
+
+  private void writeLongPage(long[] values, int from, int n, long missing, ByteBuffer buffer) throws IOException {
+    long min = Long.MAX_VALUE;
+    long max = Long.MIN_VALUE;
+    int missingCount = 0;
+    for (int i = from; i < from + n; i++) {
+      long value = values[i];
+      if (value == missing) {
+        missingCount++;
+      } else {
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+      }
+    }
+    if (missingCount == n) {
+      min = missing;
+      max = missing;
+    }
+    buffer.clear();
+    PageEncoding encoding = PageCodec.encodeLongs(values, from, n, min, max, missing, buffer);
+    appendPage(buffer, n, missingCount, encoding, min, max);
+  }
+
+  private void writeFloats(FloatColumn column) throws IOException {
+    float[] values = column.data().elements();
+    int size = column.size();
+    ByteBuffer buffer = allocate(4 * Math.min(size, PAGE_SIZE));
+    for (int from = 0; from < size; from += PAGE_SIZE) {
+      writeFloatPage(values, from, Math.min(PAGE_SIZE, size - from), buffer);
+    }
+  }
+
+  private void writeFloatPage(float[] values, int from, int n, ByteBuffer buffer) throws IOException {
+    float min = Float.POSITIVE_INFINITY;
+    float max = Float.NEGATIVE_INFINITY;
+    int missingCount = 0;
+    for (int i = from; i < from + n; i++) {
+      float value = values[i];
+      if (Float.isNaN(value)) {
+        missingCount++;
+      } else {
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+      }
+    }
+    if (missingCount == n) {
+      min = Float.NaN;
+      max = Float.NaN;
+    }
+    buffer.clear();
+    PageEncoding encoding = PageCodec.encodeFloats(values, from, n, buffer);
+    appendPage(buffer, n, missingCount, encoding, Float.floatToIntBits(min), Float.floatToIntBits(max));
+  }
+
+  private void writeBooleans(BooleanColumn column) throws IOException {
+    byte[] values = column.data().elements();
+    int size = column.size();
+    ByteBuffer buffer = allocate(PageCodec.maxBooleanBytes(Math.min(size, PAGE_SIZE)));
+    for (int from = 0; from < size; from += PAGE_SIZE) {
+      writeBooleanPage(values, from, Math.min(PAGE_SIZE, size - from), buffer);
+    }
+  }
+
+  private void writeBooleanPage(byte[] values, int from, int n, ByteBuffer buffer) throws IOException {
+    long min = 1;
+    long max = 0;
+    int missingCount = 0;
+    for (int i = from; i < from + n; i++) {
+      byte value = values[i];
+      if (value == BooleanColumn.MISSING_VALUE) {
+        missingCount++;
+      } else {
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+      }
+    }
+    if (missingCount == n) {
+      min = BooleanColumn.MISSING_VALUE;
+      max = BooleanColumn.MISSING_VALUE;
+    }
+    buffer.clear();
+    PageEncoding encoding = PageCodec.encodeBooleans(values, from, n, BooleanColumn.MISSING_VALUE, buffer);
+    appendPage(buffer, n, missingCount, encoding, min, max);
+  }
+
+  /**
+   * Writes a column's dictionary as a count followed by a key and a length-prefixed UTF-8 string for each entry
+   */
+  private void writeDictionary(Int2ObjectMap<String> dictionary) throws IOException {
+    List<byte[]> strings = new ArrayList<>(dictionary.size());
+    int length = 4;
+    for (Int2ObjectMap.Entry<String> entry : dictionary.int2ObjectEntrySet()) {
+      byte[] bytes = entry.getValue().getBytes(StandardCharsets.UTF_8);
+      strings.add(bytes);
+      length += 8 + bytes.length;
+    }
+    ByteBuffer buffer = allocate(length);
+    buffer.putInt(dictionary.size());
+    int i = 0;
+    for (Int2ObjectMap.Entry<String> entry : dictionary.int2ObjectEntrySet()) {
+      byte[] bytes = strings.get(i++);
+      buffer.putInt(entry.getIntKey());
+      buffer.putInt(bytes.length);
+      buffer.put(bytes);
+    }
+    buffer.flip();
+    dictionaryOffset = position;
+    append(buffer);
+  }
+
+  private void writeMagic() throws IOException {
+    ByteBuffer magic = allocate(4).putInt(ColumnFooter.MAGIC);
+    magic.flip();
+    append(magic);
+  }
+
+  private void appendPage(ByteBuffer buffer, int rowCount, int missingCount, PageEncoding encoding, long min, long max)
+      throws IOException {
+    buffer.flip();
+    pages.add(new PageMetadata(position, buffer.remaining(), rowCount, missingCount, encoding, min, max));
+    append(buffer);
+  }
+
+  private void append(ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      position += channel.write(buffer);
+    }
+  }
+
+  /**
+   * Returns the value that stands for a missing value in the int pages of a column of the given type
+   */
+  static int intMissingValue(ColumnType type) {
+    switch (type) {
+      case INTEGER:
+        return IntColumn.MISSING_VALUE;
+      case SHORT_INT:
+        return ShortColumn.MISSING_VALUE;
+      case LOCAL_DATE:
+        return DateColumn.MISSING_VALUE;
+      case LOCAL_TIME:
+        return TimeColumn.MISSING_VALUE;
+      case CATEGORY:
+        // a missing category is the empty string, which has a dictionary key like any other, and keys are never
+        // negative
+        return Integer.MIN_VALUE;
+      default:
+        throw new IllegalArgumentException("Columns of type " + type + " aren't written as int pages");
+    }
+  }
+
+  private static ByteBuffer allocate(int capacity) {
+    return ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+  }
+}
@@ -11,10 +11,16 @@ import com.github.lwhite1.tablesaw.api.ShortColumn;
 import com.github.lwhite1.tablesaw.api.Table;
 import com.github.lwhite1.tablesaw.api.TimeColumn;
 import com.github.lwhite1.tablesaw.columns.Column;
+import com.github.lwhite1.tablesaw.filtering.Filter;
+import com.github.lwhite1.tablesaw.index.ColumnIndex;
+import com.github.lwhite1.tablesaw.reducing.sketch.Sketch;
 import com.github.lwhite1.tablesaw.table.Relation;
+import com.google.common.base.Preconditions;
 import org.iq80.snappy.SnappyFramedInputStream;
 import org.iq80.snappy.SnappyFramedOutputStream;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.EOFException;
@@ -29,13 +35,12 @@ import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.concurrent.CompletionService;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
@@ -45,71 +50,77 @@ import java.util.regex.Pattern;
 
 /**
  * A controller for reading and writing data in Tablesaw's own compressed, column-oriented file format
+ * <p>
+ * Tables are saved in version 2 of the format, in which each column file is split into pages that are bit-packed,
+ * delta or frame-of-reference encoded, and ends with a footer of page offsets and statistics. Tables saved in
+ * version 1, in which each column is a Snappy-framed stream, can still be read. The public readXxxColumn and
+ * writeColumn methods work with version 1 column files.
  */
 public class StorageManager {
 
   private static final int FLUSH_AFTER_ITERATIONS = 10_000;
 
   private static final String FILE_EXTENSION = "saw";
+  // the suffix added to a column's file name to name the file holding its index
+  static final String INDEX_EXTENSION = ".idx";
+  private static final String SKETCH_EXTENSION = ".sketch";
   private static final Pattern WHITE_SPACE_PATTERN = Pattern.compile("\\s+");
   private static final Pattern SEPARATOR_PATTERN = Pattern.compile(separator());
 
-  private static final int READER_POOL_SIZE = 4;
-
   static String separator() {
     FileSystem fileSystem = FileSystems.getDefault();
     return fileSystem.getSeparator();
   }
 
   /**
-   * Reads a tablesaw table into memory
+   * Reads a tablesaw table into memory, using as many threads as there are processors
    *
    * @param path The location of the table. It is interpreted as relative to the working directory if not fully
    *             specified. The path will typically end in ".saw", as in "mytables/nasdaq-2015.saw"
    * @throws IOException if the file cannot be read
    */
   public static com.github.lwhite1.tablesaw.api.Table readTable(String path) throws IOException {
+    return new TableReader(path).read();
+  }
 
-    ExecutorService executorService = Executors.newFixedThreadPool(READER_POOL_SIZE);
-    CompletionService readerCompletionService = new ExecutorCompletionService<>(executorService);
-
-    TableMetadata tableMetadata = readTableMetadata(path + separator() + "Metadata.json");
-    List<ColumnMetadata> columnMetadata = tableMetadata.getColumnMetadataList();
-    Table table = Table.create(tableMetadata);
-
-    // NB: We do some extra work with the hash map to ensure that the columns are added to the table in original order
-    // TODO(lwhite): Not using CPU efficiently. Need to prevent waiting for other threads until all columns are read
-    // TODO - continued : Problem seems to be mostly with category columns rebuilding the encoding dictionary
-    ConcurrentLinkedQueue<Column> columnList = new ConcurrentLinkedQueue<>();
-    Map<String, Column> columns = new HashMap<>();
-    try {
-      for (ColumnMetadata column : columnMetadata) {
-        readerCompletionService.submit(() -> {
-          columnList.add(readColumn(path + separator() + column.getId(), column));
-          return null;
-        });
-      }
-      for (int i = 0; i < columnMetadata.size(); i++) {
-        Future future = readerCompletionService.take();
-        future.get();
-      }
-      for (Column c : columnList) {
-        columns.put(c.id(), c);
-      }
+  /**
+   * Reads a tablesaw table into memory, using the given number of threads. Use a {@link TableReader} directly to
+   * see how long each column took to load
+   *
+   * @param path The location of the table. It is interpreted as relative to the working directory if not fully
+   *             specified. The path will typically end in ".saw", as in "mytables/nasdaq-2015.saw"
+   * @throws IOException if the file cannot be read
+   */
+  public static com.github.lwhite1.tablesaw.api.Table readTable(String path, int threads) throws IOException {
+    return new TableReader(path, threads).read();
+  }
 
-      for (ColumnMetadata metadata : columnMetadata) {
-        String id = metadata.getId();
-        table.addColumn(columns.get(id));
-      }
+  /**
+   * Reads the named columns of just the rows matching {@code filter} from a tablesaw table, skipping the other
+   * columns, and any pages whose statistics rule out a match. If no columns are named, all are read
+   *
+   * @param path The location of the table. It is interpreted as relative to the working directory if not fully
+   *             specified. The path will typically end in ".saw", as in "mytables/nasdaq-2015.saw"
+   * @throws IOException if the table's metadata cannot be read
+   */
+  public static com.github.lwhite1.tablesaw.api.Table readTable(String path, Filter filter, String... columnNames)
+      throws IOException {
+    return openTable(path).selectWhere(filter, columnNames);
+  }
 
-    } catch (InterruptedException | ExecutionException e) {
-      throw new RuntimeException(e);
-    }
-    executorService.shutdown();
-    return table;
+  /**
+   * Opens a tablesaw table without reading any of its data. Columns are loaded, from memory-mapped files, only when
+   * they are first asked for
+   *
+   * @param path The location of the table. It is interpreted as relative to the working directory if not fully
+   *             specified. The path will typically end in ".saw", as in "mytables/nasdaq-2015.saw"
+   * @throws IOException if the table's metadata cannot be read
+   */
+  public static MappedTable openTable(String path) throws IOException {
+    return MappedTable.open(path);
   }
 
-  private static Column readColumn(String fileName, ColumnMetadata columnMetadata)
+  static Column readColumn(String fileName, ColumnMetadata columnMetadata)
       throws IOException {
 
     switch (columnMetadata.getType()) {
@@ -319,29 +330,16 @@ public class StorageManager {
     ExecutorService executorService = Executors.newFixedThreadPool(10);
     CompletionService writerCompletionService = new ExecutorCompletionService<>(executorService);
 
-    String name = table.name();
-    name = WHITE_SPACE_PATTERN.matcher(name).replaceAll(""); // remove whitespace from the table name
-    name = SEPARATOR_PATTERN.matcher(name).replaceAll("_"); // remove path separators from the table name
-
-    String storageFolder = folderName + separator() + name + '.' + FILE_EXTENSION;
-
+    String storageFolder = createStorageFolder(folderName, table);
     Path path = Paths.get(storageFolder);
 
-    if (!Files.exists(path)) {
-      try {
-        Files.createDirectories(path);
-      } catch (IOException e) {
-        e.printStackTrace();
-      }
-    }
-
     writeTableMetadata(path.toString() + separator() + "Metadata.json", table);
 
     try {
       for (Column column : table.columns()) {
         writerCompletionService.submit(() -> {
           Path columnPath = path.resolve(column.id());
-          writeColumn(columnPath.toString(), column);
+          PagedColumnWriter.write(columnPath.toString(), column);
           return null;
         });
       }
@@ -353,45 +351,128 @@ public class StorageManager {
       throw new RuntimeException(e);
     }
     executorService.shutdown();
+    if (table instanceof Table) {
+      writeIndexes(path, (Table) table);
+    }
     return storageFolder;
   }
 
-  private static void writeColumn(String fileName, Column column) {
+  /**
+   * Writes each of the table's indexes beside the file for its column, so it is loaded with the table rather than
+   * rebuilt. Any index left from an earlier save of a column that is no longer indexed is deleted
+   */
+  private static void writeIndexes(Path path, Table table) throws IOException {
+    for (Column column : table.columns()) {
+      Path indexPath = path.resolve(column.id() + INDEX_EXTENSION);
+      ColumnIndex index = table.index(column.name());
+      if (index == null) {
+        Files.deleteIfExists(indexPath);
+        continue;
+      }
+      try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(indexPath)))) {
+        index.writeTo(dos);
+      }
+    }
+  }
+
+  /**
+   * Saves the given sketch under {@code name} in the folder of a table saved by {@link #saveTable(String, Relation)},
+   * replacing any sketch already saved under that name. A sketch kept with each partition of a dataset can be read
+   * back and merged with the others, without reading the partitions themselves
+   *
+   * @param tablePath The path returned when the table was saved
+   */
+  public static void saveSketch(String tablePath, String name, Sketch sketch) throws IOException {
+    Path sketchPath = Paths.get(tablePath, name + SKETCH_EXTENSION);
+    try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(sketchPath)))) {
+      sketch.writeTo(dos);
+    }
+  }
+
+  /**
+   * Reads the sketch saved under {@code name} by {@link #saveSketch(String, String, Sketch)}
+   *
+   * @param tablePath The path returned when the table was saved
+   */
+  public static Sketch readSketch(String tablePath, String name) throws IOException {
+    Path sketchPath = Paths.get(tablePath, name + SKETCH_EXTENSION);
+    try (DataInputStream dis = new DataInputStream(new BufferedInputStream(Files.newInputStream(sketchPath)))) {
+      return Sketch.readFrom(dis);
+    }
+  }
+
+  /**
+   * Saves a table that is supplied as a sequence of batches, such as those read from a large CSV file by a
+   * {@link com.github.lwhite1.tablesaw.io.csv.CsvBatchReader}, so that only one batch is in memory at a time.
+   * <p>
+   * Every batch must have the same columns, in the same order, as the first, which also supplies the name of the
+   * table. The rows of each batch are written out before the next batch is requested, so an iterator may reuse one
+   * table for all of its batches.
+   *
+   * @param folderName The location of the table (for example: "mytables")
+   * @param batches    The batches of rows to be saved, in order
+   * @return The path and name of the table
+   * @throws IOException
+   */
+  public static String saveTable(String folderName, Iterator<Table> batches) throws IOException {
+    Preconditions.checkArgument(batches.hasNext(), "There must be at least one batch to save");
+    Table first = batches.next();
+
+    String storageFolder = createStorageFolder(folderName, first);
+    Path path = Paths.get(storageFolder);
+
+    List<PagedColumnWriter> writers = new ArrayList<>(first.columnCount());
+    int rowCount = 0;
     try {
-      switch (column.type()) {
-        case FLOAT:
-          writeColumn(fileName, (FloatColumn) column);
-          break;
-        case INTEGER:
-          writeColumn(fileName, (IntColumn) column);
-          break;
-        case BOOLEAN:
-          writeColumn(fileName, (BooleanColumn) column);
-          break;
-        case LOCAL_DATE:
-          writeColumn(fileName, (DateColumn) column);
-          break;
-        case LOCAL_TIME:
-          writeColumn(fileName, (TimeColumn) column);
-          break;
-        case LOCAL_DATE_TIME:
-          writeColumn(fileName, (DateTimeColumn) column);
-          break;
-        case CATEGORY:
-          writeColumn(fileName, (CategoryColumn) column);
-          break;
-        case SHORT_INT:
-          writeColumn(fileName, (ShortColumn) column);
-          break;
-        case LONG_INT:
-          writeColumn(fileName, (LongColumn) column);
+      for (Column column : first.columns()) {
+        writers.add(PagedColumnWriter.open(path.resolve(column.id()).toString(), column.type()));
+      }
+      Table batch = first;
+      while (true) {
+        Preconditions.checkArgument(batch.columnCount() == writers.size(),
+            "A batch has %s columns, but the first batch had %s", batch.columnCount(), writers.size());
+        for (int i = 0; i < writers.size(); i++) {
+          writers.get(i).append(batch.column(i));
+        }
+        rowCount += batch.rowCount();
+        if (!batches.hasNext()) {
           break;
-        default:
-          throw new RuntimeException("Unhandled column type writing columns");
+        }
+        batch = batches.next();
+      }
+      for (PagedColumnWriter writer : writers) {
+        writer.finish();
+      }
+    } finally {
+      for (PagedColumnWriter writer : writers) {
+        writer.close();
+      }
+    }
+    // the metadata goes last, once the row count is known
+    writeTableMetadata(path.toString() + separator() + "Metadata.json", new TableMetadata(first, rowCount));
+    return storageFolder;
+  }
+
+  /**
+   * Creates the folder for the given table within {@code folderName}, if it doesn't exist, and returns its name
+   */
+  private static String createStorageFolder(String folderName, Relation table) {
+    String name = table.name();
+    name = WHITE_SPACE_PATTERN.matcher(name).replaceAll(""); // remove whitespace from the table name
+    name = SEPARATOR_PATTERN.matcher(name).replaceAll("_"); // remove path separators from the table name
+
+    String storageFolder = folderName + separator() + name + '.' + FILE_EXTENSION;
+
+    Path path = Paths.get(storageFolder);
+
+    if (!Files.exists(path)) {
+      try {
+        Files.createDirectories(path);
+      } catch (IOException e) {
+        e.printStackTrace();
       }
-    } catch (IOException ex) {
-      throw new RuntimeException("IOException writing to file");
     }
+    return storageFolder;
   }
 
   public static void writeColumn(String fileName, FloatColumn column) throws IOException {
@@ -566,11 +647,15 @@ public class StorageManager {
    * @throws IOException if the file can not be read
    */
   public static void writeTableMetadata(String fileName, Relation table) throws IOException {
+    writeTableMetadata(fileName, new TableMetadata(table));
+  }
+
+  private static void writeTableMetadata(String fileName, TableMetadata metadata) throws IOException {
     File myFile = Paths.get(fileName).toFile();
     myFile.createNewFile();
     try (FileOutputStream fOut = new FileOutputStream(myFile);
          OutputStreamWriter myOutWriter = new OutputStreamWriter(fOut)) {
-      myOutWriter.append(new TableMetadata(table).toJson());
+      myOutWriter.append(metadata.toJson());
     }
   }
 
@@ -15,6 +15,15 @@ public class TableMetadata {
 
   private static final Gson GSON = new Gson();
 
+  /**
+   * The version of the storage format written by this release. Version 1 tables, whose metadata has no version,
+   * store each column as a Snappy-framed stream. Version 2 tables store them as encoded pages with a footer
+   */
+  static final int CURRENT_VERSION = 2;
+
+  // 0 when read from a version 1 table
+  private final int version;
+
   private final String name;
 
   private final int rowCount;
@@ -22,6 +31,7 @@ public class TableMetadata {
   private final List<ColumnMetadata> columnMetadataList = new ArrayList<>();
 
   public TableMetadata(Relation table) {
+    this.version = CURRENT_VERSION;
     this.name = table.name();
     this.rowCount = table.rowCount();
     for (Column column : table.columns()) {
@@ -29,6 +39,19 @@ public class TableMetadata {
     }
   }
 
+  /**
+   * Describes a table with the name and columns of the given one, but with {@code rowCount} rows, as when a table
+   * has been saved from a sequence of batches
+   */
+  TableMetadata(Relation table, int rowCount) {
+    this.version = CURRENT_VERSION;
+    this.name = table.name();
+    this.rowCount = rowCount;
+    for (Column column : table.columns()) {
+      columnMetadataList.add(new ColumnMetadata(new ColumnMetadata(column), rowCount));
+    }
+  }
+
   public String toJson() {
     return GSON.toJson(this);
   }
@@ -42,14 +65,22 @@ public class TableMetadata {
     if (this == o) return true;
     if (o == null || getClass() != o.getClass()) return false;
     TableMetadata that = (TableMetadata) o;
-    return rowCount == that.rowCount &&
+    return version == that.version &&
+        rowCount == that.rowCount &&
         Objects.equals(name, that.name) &&
         Objects.equals(columnMetadataList, that.columnMetadataList);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(name, rowCount, columnMetadataList);
+    return Objects.hash(version, name, rowCount, columnMetadataList);
+  }
+
+  /**
+   * Returns the version of the storage format the table was written in
+   */
+  public int getVersion() {
+    return Math.max(1, version);
   }
 
   public String getName() {
@@ -0,0 +1,196 @@
+package com.github.lwhite1.tablesaw.store;
+
+import com.github.lwhite1.tablesaw.api.CategoryColumn;
+import com.github.lwhite1.tablesaw.api.Table;
+import com.github.lwhite1.tablesaw.columns.Column;
+import com.google.common.base.Preconditions;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Reads a tablesaw table into memory on a pool of threads, as a pipeline in which no thread waits on another.
+ * <p>
+ * Every column is opened by its own task. In version 2 tables, opening a column maps its file, reads its footer and
+ * allocates the column, then hands each page, and the dictionary of a category column, to the pool as a separate
+ * task that decodes straight into the column's backing array. So the pages of one large column are decoded by many
+ * threads at once, while other columns are still being opened. Version 1 columns are a single compressed stream,
+ * and are each read by one task.
+ * <p>
+ * After a read, {@link #columnTimings()} shows how long each column took, to help find the columns that dominate
+ * the load.
+ */
+public class TableReader {
+
+  private final String path;
+  private final int threads;
+
+  private volatile List<ColumnTiming> timings = Collections.emptyList();
+
+  /**
+   * Creates a reader for the table at the given location that uses as many threads as there are processors
+   *
+   * @param path The location of the table, typically ending in ".saw", as in "mytables/nasdaq-2015.saw"
+   */
+  public TableReader(String path) {
+    this(path, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Creates a reader for the table at the given location that uses the given number of threads
+   *
+   * @param path The location of the table, typically ending in ".saw", as in "mytables/nasdaq-2015.saw"
+   */
+  public TableReader(String path, int threads) {
+    Preconditions.checkArgument(threads > 0, "At least one thread is required");
+    this.path = path;
+    this.threads = threads;
+  }
+
+  /**
+   * Reads the whole table into memory
+   *
+   * @throws IOException if the metadata or any column cannot be read
+   */
+  public Table read() throws IOException {
+    TableMetadata tableMetadata = StorageManager.readTableMetadata(path + StorageManager.separator() + "Metadata.json");
+    List<ColumnMetadata> columnMetadata = tableMetadata.getColumnMetadataList();
+    ColumnTiming[] columnTimings = new ColumnTiming[columnMetadata.size()];
+
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<CompletableFuture<Column>> columns = new ArrayList<>(columnMetadata.size());
+      for (int i = 0; i < columnMetadata.size(); i++) {
+        if (tableMetadata.getVersion() >= 2) {
+          columns.add(readPaged(columnMetadata.get(i), columnTimings, i, executor));
+        } else {
+          columns.add(readStream(columnMetadata.get(i), columnTimings, i, executor));
+        }
+      }
+      // joining in column order only decides the order the columns are added in; all of them load concurrently
+      Table table = Table.create(tableMetadata);
+      for (CompletableFuture<Column> column : columns) {
+        table.addColumn(column.join());
+      }
+      readIndexes(table, columnMetadata);
+      timings = Collections.unmodifiableList(Arrays.asList(columnTimings));
+      return table;
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof UncheckedIOException) {
+        throw ((UncheckedIOException) e.getCause()).getCause();
+      }
+      throw e;
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Returns how long each column took to load in the last call to {@link #read()}, in column order, or an empty list
+   * if the table hasn't been read
+   */
+  public List<ColumnTiming> columnTimings() {
+    return timings;
+  }
+
+  private CompletableFuture<Column> readPaged(ColumnMetadata metadata, ColumnTiming[] columnTimings, int index,
+                                              ExecutorService executor) {
+    return CompletableFuture.supplyAsync(() -> {
+      long start = System.nanoTime();
+      MappedColumnFile file = map(fileName(metadata));
+      ColumnFooter footer = ColumnFooter.read(file);
+      Column column = PagedColumnReader.allocate(metadata, footer.getRowCount());
+
+      List<CompletableFuture<Long>> chunks = new ArrayList<>(footer.getPages().size() + 1);
+      if (footer.hasDictionary()) {
+        chunks.add(CompletableFuture.supplyAsync(
+            timed(() -> PagedColumnReader.readDictionary(file, footer, (CategoryColumn) column)), executor));
+      }
+      int from = 0;
+      for (PageMetadata page : footer.getPages()) {
+        int pageFrom = from;
+        chunks.add(CompletableFuture.supplyAsync(
+            timed(() -> PagedColumnReader.readPage(file, page, column, pageFrom)), executor));
+        from += page.getRowCount();
+      }
+      long openNanos = System.nanoTime() - start;
+
+      return CompletableFuture.allOf(chunks.toArray(new CompletableFuture[chunks.size()])).thenApply(done -> {
+        long decodeNanos = openNanos;
+        for (CompletableFuture<Long> chunk : chunks) {
+          decodeNanos += chunk.join();
+        }
+        columnTimings[index] = new ColumnTiming(metadata.getName(), chunks.size(), System.nanoTime() - start,
+            decodeNanos);
+        return column;
+      });
+    }, executor).thenCompose(future -> future);
+  }
+
+  private CompletableFuture<Column> readStream(ColumnMetadata metadata, ColumnTiming[] columnTimings, int index,
+                                               ExecutorService executor) {
+    return CompletableFuture.supplyAsync(() -> {
+      long start = System.nanoTime();
+      Column column;
+      try {
+        column = StorageManager.readColumn(fileName(metadata), metadata);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      long elapsedNanos = System.nanoTime() - start;
+      columnTimings[index] = new ColumnTiming(metadata.getName(), 1, elapsedNanos, elapsedNanos);
+      return column;
+    }, executor);
+  }
+
+  /**
+   * Returns a task that runs the given one and returns how long it took, in nanoseconds
+   */
+  private static Supplier<Long> timed(Runnable task) {
+    return () -> {
+      long start = System.nanoTime();
+      task.run();
+      return System.nanoTime() - start;
+    };
+  }
+
+  private static MappedColumnFile map(String fileName) {
+    try {
+      return MappedColumnFile.map(fileName);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Restores the indexes that were saved with the table
+   */
+  private void readIndexes(Table table, List<ColumnMetadata> columnMetadata) throws IOException {
+    for (int i = 0; i < columnMetadata.size(); i++) {
+      Path indexPath = Paths.get(fileName(columnMetadata.get(i)) + StorageManager.INDEX_EXTENSION);
+      if (Files.exists(indexPath)) {
+        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexPath)))) {
+          table.createIndex(table.column(i).name()).readFrom(dis);
+        }
+      }
+    }
+  }
+
+  private String fileName(ColumnMetadata metadata) {
+    return path + StorageManager.separator() + metadata.getId();
+  }
+}
@@ -15,6 +15,9 @@ import com.github.lwhite1.tablesaw.util.Selection;
 import it.unimi.dsi.fastutil.ints.IntArrayList;
 
 import javax.annotation.concurrent.Immutable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * A static utility class for row operations
@@ -22,46 +25,64 @@ import javax.annotation.concurrent.Immutable;
 @Immutable
 public class Rows {
 
+  // the fewest rows copied a column at a time on a ForkJoinPool, when the copy runs on one
+  private static final int PARALLEL_COPY_ROWS = 1 << 16;
+
   // Don't instantiate
   private Rows() {
   }
 
   public static void copyRowsToTable(IntArrayList rows, Table oldTable, Table newTable) {
 
-    for (int columnIndex = 0; columnIndex < oldTable.columnCount(); columnIndex++) {
-      ColumnType columnType = oldTable.column(columnIndex).type();
-      switch (columnType) {
-        case FLOAT:
-          copy(rows, (FloatColumn) oldTable.column(columnIndex), (FloatColumn) newTable.column(columnIndex));
-          break;
-        case INTEGER:
-          copy(rows, (IntColumn) oldTable.column(columnIndex), (IntColumn) newTable.column(columnIndex));
-          break;
-        case SHORT_INT:
-          copy(rows, (ShortColumn) oldTable.column(columnIndex), (ShortColumn) newTable.column(columnIndex));
-          break;
-        case LONG_INT:
-          copy(rows, (LongColumn) oldTable.column(columnIndex), (LongColumn) newTable.column(columnIndex));
-          break;
-        case CATEGORY:
-          copy(rows, (CategoryColumn) oldTable.column(columnIndex), (CategoryColumn) newTable.column(columnIndex));
-          break;
-        case BOOLEAN:
-          copy(rows, (BooleanColumn) oldTable.column(columnIndex), (BooleanColumn) newTable.column(columnIndex));
-          break;
-        case LOCAL_DATE:
-          copy(rows, (DateColumn) oldTable.column(columnIndex), (DateColumn) newTable.column(columnIndex));
-          break;
-        case LOCAL_DATE_TIME:
-          copy(rows, (DateTimeColumn) oldTable.column(columnIndex), (DateTimeColumn) newTable.column
-              (columnIndex));
-          break;
-        case LOCAL_TIME:
-          copy(rows, (TimeColumn) oldTable.column(columnIndex), (TimeColumn) newTable.column(columnIndex));
-          break;
-        default:
-          throw new RuntimeException("Unhandled column type in case statement");
+    int columnCount = oldTable.columnCount();
+    if (rows.size() >= PARALLEL_COPY_ROWS && columnCount > 1 && ForkJoinTask.inForkJoinPool()) {
+      // each column is copied by its own task
+      List<ForkJoinTask<?>> tasks = new ArrayList<>(columnCount);
+      for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
+        int column = columnIndex;
+        tasks.add(ForkJoinTask.adapt(() -> copyColumn(rows, oldTable, newTable, column)));
       }
+      ForkJoinTask.invokeAll(tasks);
+    } else {
+      for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
+        copyColumn(rows, oldTable, newTable, columnIndex);
+      }
+    }
+  }
+
+  private static void copyColumn(IntArrayList rows, Table oldTable, Table newTable, int columnIndex) {
+    ColumnType columnType = oldTable.column(columnIndex).type();
+    switch (columnType) {
+      case FLOAT:
+        copy(rows, (FloatColumn) oldTable.column(columnIndex), (FloatColumn) newTable.column(columnIndex));
+        break;
+      case INTEGER:
+        copy(rows, (IntColumn) oldTable.column(columnIndex), (IntColumn) newTable.column(columnIndex));
+        break;
+      case SHORT_INT:
+        copy(rows, (ShortColumn) oldTable.column(columnIndex), (ShortColumn) newTable.column(columnIndex));
+        break;
+      case LONG_INT:
+        copy(rows, (LongColumn) oldTable.column(columnIndex), (LongColumn) newTable.column(columnIndex));
+        break;
+      case CATEGORY:
+        copy(rows, (CategoryColumn) oldTable.column(columnIndex), (CategoryColumn) newTable.column(columnIndex));
+        break;
+      case BOOLEAN:
+        copy(rows, (BooleanColumn) oldTable.column(columnIndex), (BooleanColumn) newTable.column(columnIndex));
+        break;
+      case LOCAL_DATE:
+        copy(rows, (DateColumn) oldTable.column(columnIndex), (DateColumn) newTable.column(columnIndex));
+        break;
+      case LOCAL_DATE_TIME:
+        copy(rows, (DateTimeColumn) oldTable.column(columnIndex), (DateTimeColumn) newTable.column
+            (columnIndex));
+        break;
+      case LOCAL_TIME:
+        copy(rows, (TimeColumn) oldTable.column(columnIndex), (TimeColumn) newTable.column(columnIndex));
+        break;
+      default:
+        throw new RuntimeException("Unhandled column type in case statement");
     }
   }
 
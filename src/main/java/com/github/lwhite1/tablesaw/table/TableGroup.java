@@ -1,5 +1,7 @@
 package com.github.lwhite1.tablesaw.table;
 
+import com.github.lwhite1.tablesaw.reducing.AggregateFunction;
+import com.github.lwhite1.tablesaw.reducing.HashAggregator;
 import com.github.lwhite1.tablesaw.reducing.NumericReduceFunction;
 import com.github.lwhite1.tablesaw.api.Table;
 import com.github.lwhite1.tablesaw.api.CategoryColumn;
@@ -14,6 +16,11 @@ import java.util.List;
 
 /**
  * A group of tables formed by performing splitting operations on an original table
+ * <p>
+ * The sub-tables are only built when they are needed. Reductions that can be computed from a mergeable running
+ * state (see {@link AggregateFunction}), or estimated from a sketch (see
+ * {@link com.github.lwhite1.tablesaw.reducing.SketchFunction}), are done by hash aggregation over the original table
+ * instead.
  */
 public class TableGroup implements Iterable<SubTable> {
 
@@ -21,15 +28,14 @@ public class TableGroup implements Iterable<SubTable> {
   private static final Splitter SPLITTER = Splitter.on(SPLIT_STRING);
   private final Table original;
 
-  private final List<SubTable> subTables;
+  // created on first use
+  private List<SubTable> subTables;
 
   // the name(s) of the column(s) we're splitting the table on
   private String[] splitColumnNames;
 
   public TableGroup(Table original, String... splitColumnNames) {
-    this.original = original.sortOn(splitColumnNames);
-    this.subTables = splitOn(splitColumnNames);
-    Preconditions.checkState(!subTables.isEmpty());
+    this.original = original;
     this.splitColumnNames = splitColumnNames;
   }
 
@@ -38,9 +44,7 @@ public class TableGroup implements Iterable<SubTable> {
     for (int i = 0; i < columns.length; i++) {
       splitColumnNames[i] = columns[i].name();
     }
-    this.original = original.sortOn(splitColumnNames);
-    this.subTables = splitOn(splitColumnNames);
-    Preconditions.checkState(!subTables.isEmpty());
+    this.original = original;
   }
 
   /**
@@ -48,22 +52,22 @@ public class TableGroup implements Iterable<SubTable> {
    */
   private List<SubTable> splitOn(String... columnNames) {
 
+    Table sorted = original.sortOn(columnNames);
     int columnCount = columnNames.length;
-    List<Column> columns = original.columns(columnNames);
     List<SubTable> tables = new ArrayList<>();
 
     int[] columnIndices = new int[columnCount];
     for (int i = 0; i < columnCount; i++) {
-      columnIndices[i] = original.columnIndex(columnNames[i]);
+      columnIndices[i] = sorted.columnIndex(columnNames[i]);
     }
 
-    Table empty = original.emptyCopy();
+    Table empty = sorted.emptyCopy();
 
     SubTable newView = new SubTable(empty);
     String lastKey = "";
     newView.setName(lastKey);
 
-    for (int row = 0; row < original.rowCount(); row++) {
+    for (int row = 0; row < sorted.rowCount(); row++) {
 
       String newKey = "";
       List<String> values = new ArrayList<>();
@@ -72,7 +76,7 @@ public class TableGroup implements Iterable<SubTable> {
         if (col > 0)
           newKey = newKey + SPLIT_STRING;
 
-        String groupKey = original.get(columnIndices[col], row);
+        String groupKey = sorted.get(columnIndices[col], row);
         newKey = newKey + groupKey;
         values.add(groupKey);
       }
@@ -87,7 +91,7 @@ public class TableGroup implements Iterable<SubTable> {
         newView.setValues(values);
         lastKey = newKey;
       }
-      newView.addRow(row, original);
+      newView.addRow(row, sorted);
     }
 
     if (!tables.contains(newView) && !newView.isEmpty()) {
@@ -122,22 +126,37 @@ public class TableGroup implements Iterable<SubTable> {
   }
 
   public List<SubTable> getSubTables() {
-    return subTables;
+    return tables();
   }
 
   public int size() {
-    return subTables.size();
+    return tables().size();
+  }
+
+  private List<SubTable> tables() {
+    if (subTables == null) {
+      subTables = splitOn(splitColumnNames);
+      Preconditions.checkState(!subTables.isEmpty());
+    }
+    return subTables;
   }
 
   public Table reduce(String numericColumnName, NumericReduceFunction function) {
-    Preconditions.checkArgument(!subTables.isEmpty());
+    if (HashAggregator.canAggregate(function)) {
+      Preconditions.checkArgument(original.rowCount() > 0);
+      return withGroupColumn(
+          new HashAggregator(original, splitColumnNames).aggregate(
+              new String[] {numericColumnName}, new NumericReduceFunction[] {function}),
+          function);
+    }
+    List<SubTable> tables = tables();
     Table t = Table.create(original.name() + " summary");
-    CategoryColumn groupColumn = new CategoryColumn("Group", subTables.size());
-    FloatColumn resultColumn = new FloatColumn(function.functionName(), subTables.size());
+    CategoryColumn groupColumn = new CategoryColumn("Group", tables.size());
+    FloatColumn resultColumn = new FloatColumn(function.functionName(), tables.size());
     t.addColumn(groupColumn);
     t.addColumn(resultColumn);
 
-    for (SubTable subTable : subTables) {
+    for (SubTable subTable : tables) {
       double result = subTable.reduce(numericColumnName, function);
       groupColumn.add(subTable.name().replace(SPLIT_STRING, " * "));
       resultColumn.add((float) result);
@@ -145,6 +164,31 @@ public class TableGroup implements Iterable<SubTable> {
     return t;
   }
 
+  /**
+   * Converts the result of a hash aggregation to the format returned by reduce: a single group column naming each
+   * group, followed by the result column
+   */
+  private Table withGroupColumn(Table aggregated, NumericReduceFunction function) {
+    int groupColumnCount = splitColumnNames.length;
+    Table t = Table.create(original.name() + " summary");
+    CategoryColumn groupColumn = new CategoryColumn("Group", aggregated.rowCount());
+    for (int row = 0; row < aggregated.rowCount(); row++) {
+      StringBuilder name = new StringBuilder();
+      for (int col = 0; col < groupColumnCount; col++) {
+        if (col > 0) {
+          name.append(" * ");
+        }
+        name.append(aggregated.get(col, row));
+      }
+      groupColumn.add(name.toString());
+    }
+    FloatColumn resultColumn = aggregated.floatColumn(groupColumnCount);
+    resultColumn.setName(function.functionName());
+    t.addColumn(groupColumn);
+    t.addColumn(resultColumn);
+    return t;
+  }
+
   /**
    * Returns an iterator over elements of type {@code T}.
    *
@@ -152,6 +196,6 @@ public class TableGroup implements Iterable<SubTable> {
    */
   @Override
   public Iterator<SubTable> iterator() {
-    return subTables.iterator();
+    return tables().iterator();
   }
 }
@@ -201,8 +201,7 @@ public class TemporaryView implements Relation, IntIterable {
    * @throws IllegalArgumentException if numericColumnName doesn't name a numeric column in this table
    */
   public double reduce(String numericColumnName, NumericReduceFunction function) {
-    Column column = column(numericColumnName);
-    return function.reduce(column.subset(rowMap).toDoubleArray());
+    return function.reduce(column(numericColumnName), rowMap);
   }
 
   public String toString() {
@@ -4,6 +4,8 @@ import com.github.lwhite1.tablesaw.api.CategoryColumn;
 import com.github.lwhite1.tablesaw.api.FloatColumn;
 import com.github.lwhite1.tablesaw.api.Table;
 import com.github.lwhite1.tablesaw.columns.Column;
+import com.github.lwhite1.tablesaw.reducing.AggregateFunction;
+import com.github.lwhite1.tablesaw.reducing.HashAggregator;
 import com.github.lwhite1.tablesaw.reducing.NumericReduceFunction;
 import com.github.lwhite1.tablesaw.reducing.NumericSummaryTable;
 import com.github.lwhite1.tablesaw.util.BitmapBackedSelection;
@@ -20,6 +22,11 @@ import java.util.List;
 
 /**
  * A group of tables formed by performing splitting operations on an original table
+ * <p>
+ * The table is only sorted and split into views when the views themselves are needed. Reductions that can be
+ * computed from a mergeable running state (see {@link AggregateFunction}), or estimated from a sketch (see
+ * {@link com.github.lwhite1.tablesaw.reducing.SketchFunction}), are done by hash aggregation over the original table
+ * instead.
  */
 public class ViewGroup implements Iterable<TemporaryView> {
 
@@ -27,9 +34,12 @@ public class ViewGroup implements Iterable<TemporaryView> {
   private static final Splitter SPLITTER = Splitter.on(SPLIT_STRING);
 
 
-  private final Table sortedOriginal;
+  private final Table original;
 
-  private List<TemporaryView> subTables = new ArrayList<>();
+  // created on first use, along with the views
+  private Table sortedOriginal;
+
+  private List<TemporaryView> subTables;
 
   // the name(s) of the column(s) we're splitting the table on
   private String[] splitColumnNames;
@@ -39,8 +49,7 @@ public class ViewGroup implements Iterable<TemporaryView> {
     for (int i = 0; i < columns.length; i++) {
       splitColumnNames[i] = columns[i].name();
     }
-    this.sortedOriginal = original.sortOn(splitColumnNames);
-    splitOn(splitColumnNames);
+    this.original = original;
   }
 
   public static ViewGroup create(Table original, String... columnsNames) {
@@ -53,6 +62,9 @@ public class ViewGroup implements Iterable<TemporaryView> {
    */
   private void splitOn(String... columnNames) {
 
+    sortedOriginal = original.sortOn(columnNames);
+    subTables = new ArrayList<>();
+
     List<Column> columns = sortedOriginal.columns(columnNames);
     int byteSize = getByteSize(columns);
 
@@ -116,20 +128,28 @@ public class ViewGroup implements Iterable<TemporaryView> {
   }
 
   public List<TemporaryView> getSubTables() {
-    return subTables;
+    return views();
   }
 
   public TemporaryView get(int i) {
-    return subTables.get(i);
+    return views().get(i);
   }
 
   @VisibleForTesting
   public Table getSortedOriginal() {
+    views();
     return sortedOriginal;
   }
 
   public int size() {
-    return subTables.size();
+    return views().size();
+  }
+
+  private List<TemporaryView> views() {
+    if (subTables == null) {
+      splitOn(splitColumnNames);
+    }
+    return subTables;
   }
 
 
@@ -141,7 +161,7 @@ public class ViewGroup implements Iterable<TemporaryView> {
 
     List<Column> newColumns = new ArrayList<>();
 
-    List<Column> columns = sortedOriginal.columns(splitColumnNames);
+    List<Column> columns = original.columns(splitColumnNames);
     for (Column column : columns) {
       Column newColumn = column.emptyCopy();
       newColumns.add(newColumn);
@@ -163,14 +183,20 @@ public class ViewGroup implements Iterable<TemporaryView> {
 
 
   public NumericSummaryTable reduce(String numericColumnName, NumericReduceFunction function) {
-    Preconditions.checkArgument(!subTables.isEmpty());
-    NumericSummaryTable groupTable = NumericSummaryTable.create(sortedOriginal.name() + " summary");
-    CategoryColumn groupColumn = new CategoryColumn("Group", subTables.size());
-    FloatColumn resultColumn = new FloatColumn(reduceColumnName(numericColumnName, function.functionName()), subTables.size());
+    if (HashAggregator.canAggregate(function)) {
+      Preconditions.checkArgument(original.rowCount() > 0);
+      return new HashAggregator(original, splitColumnNames).aggregate(
+          new String[] {numericColumnName}, new NumericReduceFunction[] {function});
+    }
+    List<TemporaryView> views = views();
+    Preconditions.checkArgument(!views.isEmpty());
+    NumericSummaryTable groupTable = NumericSummaryTable.create(original.name() + " summary");
+    CategoryColumn groupColumn = new CategoryColumn("Group", views.size());
+    FloatColumn resultColumn = new FloatColumn(reduceColumnName(numericColumnName, function.functionName()), views.size());
     groupTable.addColumn(groupColumn);
     groupTable.addColumn(resultColumn);
 
-    for (TemporaryView subTable : subTables) {
+    for (TemporaryView subTable : views) {
       double result = subTable.reduce(numericColumnName, function);
       groupColumn.add(subTable.name());
       resultColumn.add((float) result);
@@ -185,7 +211,7 @@ public class ViewGroup implements Iterable<TemporaryView> {
    */
   @Override
   public Iterator<TemporaryView> iterator() {
-    return subTables.iterator();
+    return views().iterator();
   }
 
   private String reduceColumnName(String columnName, String functionName) {
@@ -0,0 +1,85 @@
+package com.github.lwhite1.tablesaw.util;
+
+import it.unimi.dsi.fastutil.floats.FloatArrayList;
+
+import java.util.Arrays;
+
+/**
+ * A zone map for float columns. The smallest and largest values leave out missing (NaN) values, which no range
+ * includes, so a block holding one is never taken whole, nor searched as sorted
+ */
+public final class FloatZoneMap extends ZoneMap {
+
+  private float[] min = new float[0];
+  private float[] max = new float[0];
+
+  // the values being summarized, during an update
+  private float[] floats;
+
+  public synchronized FloatZoneMap update(FloatArrayList data) {
+    floats = data.elements();
+    update(data.size());
+    floats = null;
+    return this;
+  }
+
+  public float min(int block) {
+    return min[block];
+  }
+
+  public float max(int block) {
+    return max[block];
+  }
+
+  /**
+   * Returns how well the values in the given block match the range from {@code low} to {@code high}, inclusive, as
+   * compared by the Java operators
+   */
+  public Match match(int block, float low, float high) {
+    // a NaN bound matches nothing, and neither does a block of nothing but missing values, whose min is above its max
+    if (!(low <= high) || min[block] > max[block] || max[block] < low || min[block] > high) {
+      return Match.NONE;
+    }
+    if (missingCount(block) == 0 && min[block] >= low && max[block] <= high) {
+      return Match.ALL;
+    }
+    return isSorted(block) ? Match.SORTED : Match.SOME;
+  }
+
+  @Override
+  protected void grow(int blocks) {
+    min = Arrays.copyOf(min, blocks);
+    max = Arrays.copyOf(max, blocks);
+  }
+
+  @Override
+  protected int summarize(int block, int from, int to) {
+    // a block of nothing but missing values keeps these
+    float low = Float.POSITIVE_INFINITY;
+    float high = Float.NEGATIVE_INFINITY;
+    int missing = 0;
+    for (int i = from; i < to; i++) {
+      float v = floats[i];
+      if (v != v) {
+        missing++;
+      } else {
+        low = Math.min(low, v);
+        high = Math.max(high, v);
+      }
+    }
+    min[block] = low;
+    max[block] = high;
+    return missing;
+  }
+
+  @Override
+  protected boolean isSorted(int from, int to) {
+    for (int i = from + 1; i < to; i++) {
+      // NaN fails every comparison, so a block with a missing value is never sorted
+      if (!(floats[i - 1] <= floats[i])) {
+        return false;
+      }
+    }
+    return to - from < 1 || floats[from] == floats[from];
+  }
+}
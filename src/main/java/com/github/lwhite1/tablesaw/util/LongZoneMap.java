@@ -0,0 +1,133 @@
+package com.github.lwhite1.tablesaw.util;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.shorts.ShortArrayList;
+
+import java.util.Arrays;
+
+/**
+ * A zone map for columns of whole numbers: int, short and long columns, and the columns backed by them. A missing
+ * value is an ordinary value here, as it is to the selections, so a block holding one is not excluded from ranges
+ * that include it
+ */
+public final class LongZoneMap extends ZoneMap {
+
+  private final long missingValue;
+
+  private long[] min = new long[0];
+  private long[] max = new long[0];
+
+  // the values being summarized, during an update
+  private int[] ints;
+  private short[] shorts;
+  private long[] longs;
+
+  public LongZoneMap(long missingValue) {
+    this.missingValue = missingValue;
+  }
+
+  public synchronized LongZoneMap update(IntArrayList data) {
+    ints = data.elements();
+    update(data.size());
+    ints = null;
+    return this;
+  }
+
+  public synchronized LongZoneMap update(ShortArrayList data) {
+    shorts = data.elements();
+    update(data.size());
+    shorts = null;
+    return this;
+  }
+
+  public synchronized LongZoneMap update(LongArrayList data) {
+    longs = data.elements();
+    update(data.size());
+    longs = null;
+    return this;
+  }
+
+  public long min(int block) {
+    return min[block];
+  }
+
+  public long max(int block) {
+    return max[block];
+  }
+
+  /**
+   * Returns how well the values in the given block match the range from {@code low} to {@code high}, inclusive
+   */
+  public Match match(int block, long low, long high) {
+    if (max[block] < low || min[block] > high) {
+      return Match.NONE;
+    }
+    if (min[block] >= low && max[block] <= high) {
+      return Match.ALL;
+    }
+    return isSorted(block) ? Match.SORTED : Match.SOME;
+  }
+
+  @Override
+  protected void grow(int blocks) {
+    min = Arrays.copyOf(min, blocks);
+    max = Arrays.copyOf(max, blocks);
+  }
+
+  @Override
+  protected int summarize(int block, int from, int to) {
+    long low = Long.MAX_VALUE;
+    long high = Long.MIN_VALUE;
+    int missing = 0;
+    if (ints != null) {
+      for (int i = from; i < to; i++) {
+        int v = ints[i];
+        low = Math.min(low, v);
+        high = Math.max(high, v);
+        missing += v == missingValue ? 1 : 0;
+      }
+    } else if (shorts != null) {
+      for (int i = from; i < to; i++) {
+        short v = shorts[i];
+        low = Math.min(low, v);
+        high = Math.max(high, v);
+        missing += v == missingValue ? 1 : 0;
+      }
+    } else {
+      for (int i = from; i < to; i++) {
+        long v = longs[i];
+        low = Math.min(low, v);
+        high = Math.max(high, v);
+        missing += v == missingValue ? 1 : 0;
+      }
+    }
+    min[block] = low;
+    max[block] = high;
+    return missing;
+  }
+
+  @Override
+  protected boolean isSorted(int from, int to) {
+    if (ints != null) {
+      for (int i = from + 1; i < to; i++) {
+        if (ints[i - 1] > ints[i]) {
+          return false;
+        }
+      }
+    } else if (shorts != null) {
+      for (int i = from + 1; i < to; i++) {
+        if (shorts[i - 1] > shorts[i]) {
+          return false;
+        }
+      }
+    } else {
+      for (int i = from + 1; i < to; i++) {
+        if (longs[i - 1] > longs[i]) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+}
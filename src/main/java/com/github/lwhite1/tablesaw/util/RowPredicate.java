@@ -0,0 +1,9 @@
+package com.github.lwhite1.tablesaw.util;
+
+/**
+ * A test of the values in a row of a table, given the row's number
+ */
+public interface RowPredicate {
+
+  boolean test(int row);
+}
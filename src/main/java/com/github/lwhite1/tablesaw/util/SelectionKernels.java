@@ -0,0 +1,534 @@
+package com.github.lwhite1.tablesaw.util;
+
+import it.unimi.dsi.fastutil.floats.FloatArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.shorts.ShortArrayList;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Selects the rows of a numeric column whose values compare in a given way with a given value, by scanning the
+ * column's backing array directly.
+ * <p>
+ * Every comparison is turned into a test of whether a value lies in a closed range, so each column type needs only
+ * one scanning loop. The loop has no branches: it builds a 64-bit word of hit bits for each 64 rows, which lets the
+ * JIT compiler unroll and vectorize it. The words for each 65,536 rows, the span of one container in the bitmap, are
+ * then added to the selection together, rather than one row at a time.
+ * <p>
+ * When given a column's {@link ZoneMap}, whose blocks are the same 65,536 rows, a scan skips the blocks that can't
+ * hold a match, takes whole any block that holds nothing but matches, and binary searches the blocks that are sorted.
+ * <p>
+ * The rows that pass a {@link RowPredicate}, such as a compiled filter, are selected by the same loop, with the test
+ * in place of the comparison.
+ * <p>
+ * Scans run on the calling thread, unless it belongs to a {@link ForkJoinPool}, as when a table is filtered on a
+ * pool. Then a large column is split into morsels of sixteen blocks, which are scanned in parallel.
+ */
+public final class SelectionKernels {
+
+  /**
+   * A comparison between each value in a column and a given value
+   */
+  public enum Comparison {
+    LESS_THAN,
+    LESS_THAN_OR_EQUAL_TO,
+    EQUAL_TO,
+    GREATER_THAN_OR_EQUAL_TO,
+    GREATER_THAN
+  }
+
+  // the rows covered by one container in a RoaringBitmap
+  private static final int BLOCK_ROWS = ZoneMap.BLOCK_ROWS;
+
+  private static final int WORDS_PER_BLOCK = BLOCK_ROWS / Long.SIZE;
+
+  // the rows in each task of a scan split across threads, a whole number of blocks
+  private static final int MORSEL_ROWS = 16 * BLOCK_ROWS;
+
+  // Don't instantiate
+  private SelectionKernels() {
+  }
+
+  public static Selection select(IntArrayList data, Comparison comparison, int value) {
+    return select(data, null, comparison, value);
+  }
+
+  /**
+   * Selects the rows of the data that compare with the value as given, using the zone map of the data, if it isn't
+   * null, to avoid scanning every row
+   */
+  public static Selection select(IntArrayList data, LongZoneMap zones, Comparison comparison, int value) {
+    long low = low(comparison, value);
+    long high = high(comparison, value);
+    if (low > high || low > Integer.MAX_VALUE || high < Integer.MIN_VALUE) {
+      return new BitmapBackedSelection();
+    }
+    return between(data.elements(), data.size(),
+        (int) Math.max(low, Integer.MIN_VALUE), (int) Math.min(high, Integer.MAX_VALUE),
+        zones == null ? null : zones.update(data));
+  }
+
+  public static Selection select(ShortArrayList data, Comparison comparison, int value) {
+    return select(data, null, comparison, value);
+  }
+
+  public static Selection select(ShortArrayList data, LongZoneMap zones, Comparison comparison, int value) {
+    long low = low(comparison, value);
+    long high = high(comparison, value);
+    if (low > high || low > Short.MAX_VALUE || high < Short.MIN_VALUE) {
+      return new BitmapBackedSelection();
+    }
+    return between(data.elements(), data.size(),
+        (short) Math.max(low, Short.MIN_VALUE), (short) Math.min(high, Short.MAX_VALUE),
+        zones == null ? null : zones.update(data));
+  }
+
+  public static Selection select(LongArrayList data, Comparison comparison, long value) {
+    return select(data, null, comparison, value);
+  }
+
+  public static Selection select(LongArrayList data, LongZoneMap zones, Comparison comparison, long value) {
+    if ((comparison == Comparison.LESS_THAN && value == Long.MIN_VALUE)
+        || (comparison == Comparison.GREATER_THAN && value == Long.MAX_VALUE)) {
+      return new BitmapBackedSelection();
+    }
+    return between(data.elements(), data.size(), low(comparison, value), high(comparison, value),
+        zones == null ? null : zones.update(data));
+  }
+
+  /**
+   * Selects the rows whose values compare with the given value as the Java operator for the comparison would, so
+   * missing (NaN) values are never selected, and 0.0 and -0.0 are equal
+   */
+  public static Selection select(FloatArrayList data, Comparison comparison, float value) {
+    return select(data, null, comparison, value);
+  }
+
+  public static Selection select(FloatArrayList data, FloatZoneMap zones, Comparison comparison, float value) {
+    float low = Float.NEGATIVE_INFINITY;
+    float high = Float.POSITIVE_INFINITY;
+    switch (comparison) {
+      case LESS_THAN:
+        if (value == Float.NEGATIVE_INFINITY) {
+          return new BitmapBackedSelection();
+        }
+        high = Math.nextDown(value);
+        break;
+      case LESS_THAN_OR_EQUAL_TO:
+        high = value;
+        break;
+      case EQUAL_TO:
+        low = value;
+        high = value;
+        break;
+      case GREATER_THAN_OR_EQUAL_TO:
+        low = value;
+        break;
+      case GREATER_THAN:
+        if (value == Float.POSITIVE_INFINITY) {
+          return new BitmapBackedSelection();
+        }
+        low = Math.nextUp(value);
+        break;
+    }
+    return between(data.elements(), data.size(), low, high, zones == null ? null : zones.update(data));
+  }
+
+  /**
+   * Returns the rows among the first {@code size} values that are between {@code low} and {@code high} inclusive
+   */
+  public static Selection between(int[] values, int size, int low, int high) {
+    return between(values, size, low, high, null);
+  }
+
+  private static Selection between(int[] values, int size, int low, int high, LongZoneMap zones) {
+    return scan(size, (first, last, bitmap) -> scan(values, first, last, low, high, zones, bitmap));
+  }
+
+  /**
+   * Adds the rows from {@code first} up to {@code last} whose values are between {@code low} and {@code high}
+   * to the bitmap. The first row starts a block
+   */
+  private static void scan(int[] values, int first, int last, int low, int high, LongZoneMap zones,
+                           RoaringBitmap bitmap) {
+    long[] words = new long[WORDS_PER_BLOCK];
+    for (int from = first; from < last; from += BLOCK_ROWS) {
+      int to = Math.min(last, from + BLOCK_ROWS);
+      ZoneMap.Match match = zones == null ? ZoneMap.Match.SOME : zones.match(from / BLOCK_ROWS, low, high);
+      if (match == ZoneMap.Match.NONE) {
+        continue;
+      }
+      if (match == ZoneMap.Match.ALL) {
+        bitmap.add(from, to);
+        continue;
+      }
+      if (match == ZoneMap.Match.SORTED) {
+        int start = search(values, from, to, low, true);
+        addRange(bitmap, start, search(values, start, to, high, false));
+        continue;
+      }
+      for (int w = 0, start = from; start < to; w++, start += Long.SIZE) {
+        int end = Math.min(to, start + Long.SIZE);
+        long word = 0;
+        for (int i = start; i < end; i++) {
+          int v = values[i];
+          // start is a multiple of 64, and a long is only shifted by the low six bits of the distance
+          word |= (v >= low & v <= high ? 1L : 0L) << i;
+        }
+        words[w] = word;
+      }
+      addWords(bitmap, from, to, words);
+    }
+  }
+
+  public static Selection between(short[] values, int size, short low, short high) {
+    return between(values, size, low, high, null);
+  }
+
+  private static Selection between(short[] values, int size, short low, short high, LongZoneMap zones) {
+    return scan(size, (first, last, bitmap) -> scan(values, first, last, low, high, zones, bitmap));
+  }
+
+  /**
+   * Adds the rows from {@code first} up to {@code last} whose values are between {@code low} and {@code high}
+   * to the bitmap. The first row starts a block
+   */
+  private static void scan(short[] values, int first, int last, short low, short high, LongZoneMap zones,
+                           RoaringBitmap bitmap) {
+    long[] words = new long[WORDS_PER_BLOCK];
+    for (int from = first; from < last; from += BLOCK_ROWS) {
+      int to = Math.min(last, from + BLOCK_ROWS);
+      ZoneMap.Match match = zones == null ? ZoneMap.Match.SOME : zones.match(from / BLOCK_ROWS, low, high);
+      if (match == ZoneMap.Match.NONE) {
+        continue;
+      }
+      if (match == ZoneMap.Match.ALL) {
+        bitmap.add(from, to);
+        continue;
+      }
+      if (match == ZoneMap.Match.SORTED) {
+        int start = search(values, from, to, low, true);
+        addRange(bitmap, start, search(values, start, to, high, false));
+        continue;
+      }
+      for (int w = 0, start = from; start < to; w++, start += Long.SIZE) {
+        int end = Math.min(to, start + Long.SIZE);
+        long word = 0;
+        for (int i = start; i < end; i++) {
+          short v = values[i];
+          word |= (v >= low & v <= high ? 1L : 0L) << i;
+        }
+        words[w] = word;
+      }
+      addWords(bitmap, from, to, words);
+    }
+  }
+
+  public static Selection between(long[] values, int size, long low, long high) {
+    return between(values, size, low, high, null);
+  }
+
+  private static Selection between(long[] values, int size, long low, long high, LongZoneMap zones) {
+    return scan(size, (first, last, bitmap) -> scan(values, first, last, low, high, zones, bitmap));
+  }
+
+  /**
+   * Adds the rows from {@code first} up to {@code last} whose values are between {@code low} and {@code high}
+   * to the bitmap. The first row starts a block
+   */
+  private static void scan(long[] values, int first, int last, long low, long high, LongZoneMap zones,
+                           RoaringBitmap bitmap) {
+    long[] words = new long[WORDS_PER_BLOCK];
+    for (int from = first; from < last; from += BLOCK_ROWS) {
+      int to = Math.min(last, from + BLOCK_ROWS);
+      ZoneMap.Match match = zones == null ? ZoneMap.Match.SOME : zones.match(from / BLOCK_ROWS, low, high);
+      if (match == ZoneMap.Match.NONE) {
+        continue;
+      }
+      if (match == ZoneMap.Match.ALL) {
+        bitmap.add(from, to);
+        continue;
+      }
+      if (match == ZoneMap.Match.SORTED) {
+        int start = search(values, from, to, low, true);
+        addRange(bitmap, start, search(values, start, to, high, false));
+        continue;
+      }
+      for (int w = 0, start = from; start < to; w++, start += Long.SIZE) {
+        int end = Math.min(to, start + Long.SIZE);
+        long word = 0;
+        for (int i = start; i < end; i++) {
+          long v = values[i];
+          word |= (v >= low & v <= high ? 1L : 0L) << i;
+        }
+        words[w] = word;
+      }
+      addWords(bitmap, from, to, words);
+    }
+  }
+
+  public static Selection between(float[] values, int size, float low, float high) {
+    return between(values, size, low, high, null);
+  }
+
+  private static Selection between(float[] values, int size, float low, float high, FloatZoneMap zones) {
+    return scan(size, (first, last, bitmap) -> scan(values, first, last, low, high, zones, bitmap));
+  }
+
+  /**
+   * Adds the rows from {@code first} up to {@code last} whose values are between {@code low} and {@code high}
+   * to the bitmap. The first row starts a block
+   */
+  private static void scan(float[] values, int first, int last, float low, float high, FloatZoneMap zones,
+                           RoaringBitmap bitmap) {
+    long[] words = new long[WORDS_PER_BLOCK];
+    for (int from = first; from < last; from += BLOCK_ROWS) {
+      int to = Math.min(last, from + BLOCK_ROWS);
+      ZoneMap.Match match = zones == null ? ZoneMap.Match.SOME : zones.match(from / BLOCK_ROWS, low, high);
+      if (match == ZoneMap.Match.NONE) {
+        continue;
+      }
+      if (match == ZoneMap.Match.ALL) {
+        bitmap.add(from, to);
+        continue;
+      }
+      if (match == ZoneMap.Match.SORTED) {
+        int start = search(values, from, to, low, true);
+        addRange(bitmap, start, search(values, start, to, high, false));
+        continue;
+      }
+      for (int w = 0, start = from; start < to; w++, start += Long.SIZE) {
+        int end = Math.min(to, start + Long.SIZE);
+        long word = 0;
+        for (int i = start; i < end; i++) {
+          float v = values[i];
+          word |= (v >= low & v <= high ? 1L : 0L) << i;
+        }
+        words[w] = word;
+      }
+      addWords(bitmap, from, to, words);
+    }
+  }
+
+  /**
+   * Selects the rows among the first {@code size} that pass the given test, which is applied to each row in turn
+   */
+  public static Selection select(int size, RowPredicate predicate) {
+    return scan(size, (first, last, bitmap) -> scan(predicate, first, last, bitmap));
+  }
+
+  /**
+   * Selects the rows among the given ones that pass the given test
+   */
+  public static Selection select(Selection rows, RowPredicate predicate) {
+    Selection selection = new BitmapBackedSelection();
+    for (int row : rows) {
+      if (predicate.test(row)) {
+        selection.add(row);
+      }
+    }
+    return selection;
+  }
+
+  private static void scan(RowPredicate predicate, int first, int last, RoaringBitmap bitmap) {
+    long[] words = new long[WORDS_PER_BLOCK];
+    for (int from = first; from < last; from += BLOCK_ROWS) {
+      int to = Math.min(last, from + BLOCK_ROWS);
+      for (int w = 0, start = from; start < to; w++, start += Long.SIZE) {
+        int end = Math.min(to, start + Long.SIZE);
+        long word = 0;
+        for (int i = start; i < end; i++) {
+          word |= (predicate.test(i) ? 1L : 0L) << i;
+        }
+        words[w] = word;
+      }
+      addWords(bitmap, from, to, words);
+    }
+  }
+
+  /**
+   * Runs a scan over the given number of rows. When called from a thread of a {@link ForkJoinPool}, a scan of more
+   * than one morsel of rows is split into morsels that are scanned by the pool's threads, and their results combined
+   * as they finish, so the combining is spread across the threads too
+   */
+  private static Selection scan(int size, RangeScan scan) {
+    RoaringBitmap bitmap;
+    if (size > MORSEL_ROWS && ForkJoinTask.inForkJoinPool()) {
+      bitmap = new MorselTask(scan, 0, (size + MORSEL_ROWS - 1) / MORSEL_ROWS, size).invoke();
+    } else {
+      bitmap = new RoaringBitmap();
+      scan.scan(0, size, bitmap);
+    }
+    return new BitmapBackedSelection(bitmap);
+  }
+
+  /**
+   * A scan of the rows from {@code first} up to {@code last}, which adds those that match to the bitmap
+   */
+  private interface RangeScan {
+    void scan(int first, int last, RoaringBitmap bitmap);
+  }
+
+  /**
+   * Scans a run of morsels by splitting it in half until one morsel is left, and ORs together the bitmaps of the
+   * halves
+   */
+  private static final class MorselTask extends RecursiveTask<RoaringBitmap> {
+
+    private final RangeScan scan;
+    private final int firstMorsel;
+    private final int lastMorsel;
+    private final int size;
+
+    MorselTask(RangeScan scan, int firstMorsel, int lastMorsel, int size) {
+      this.scan = scan;
+      this.firstMorsel = firstMorsel;
+      this.lastMorsel = lastMorsel;
+      this.size = size;
+    }
+
+    @Override
+    protected RoaringBitmap compute() {
+      if (lastMorsel - firstMorsel == 1) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        int first = firstMorsel * MORSEL_ROWS;
+        scan.scan(first, Math.min(size, first + MORSEL_ROWS), bitmap);
+        return bitmap;
+      }
+      int middle = (firstMorsel + lastMorsel) >>> 1;
+      MorselTask left = new MorselTask(scan, firstMorsel, middle, size);
+      left.fork();
+      RoaringBitmap right = new MorselTask(scan, middle, lastMorsel, size).compute();
+      RoaringBitmap bitmap = left.join();
+      bitmap.or(right);
+      return bitmap;
+    }
+  }
+
+  /**
+   * Returns the first of the sorted values from {@code from} up to {@code to} that is at least {@code bound}, or
+   * greater than it if {@code inclusive} is false, or {@code to} if there is none
+   */
+  private static int search(int[] values, int from, int to, int bound, boolean inclusive) {
+    int low = from;
+    int high = to;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (values[mid] < bound || (!inclusive && values[mid] == bound)) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  private static int search(short[] values, int from, int to, short bound, boolean inclusive) {
+    int low = from;
+    int high = to;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (values[mid] < bound || (!inclusive && values[mid] == bound)) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  private static int search(long[] values, int from, int to, long bound, boolean inclusive) {
+    int low = from;
+    int high = to;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (values[mid] < bound || (!inclusive && values[mid] == bound)) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  private static int search(float[] values, int from, int to, float bound, boolean inclusive) {
+    int low = from;
+    int high = to;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (values[mid] < bound || (!inclusive && values[mid] == bound)) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  private static void addRange(RoaringBitmap bitmap, int from, int to) {
+    if (from < to) {
+      bitmap.add(from, to);
+    }
+  }
+
+  /**
+   * Adds the rows whose bits are set in the given words, which cover the rows from {@code from} up to {@code to}, to
+   * the bitmap
+   */
+  private static void addWords(RoaringBitmap bitmap, int from, int to, long[] words) {
+    int wordCount = (to - from + Long.SIZE - 1) / Long.SIZE;
+    int hitCount = 0;
+    for (int w = 0; w < wordCount; w++) {
+      hitCount += Long.bitCount(words[w]);
+    }
+    if (hitCount == 0) {
+      return;
+    }
+    if (hitCount == to - from) {
+      bitmap.add(from, to);
+      return;
+    }
+    for (int w = 0; w < wordCount; w++) {
+      long word = words[w];
+      int base = from + w * Long.SIZE;
+      while (word != 0) {
+        bitmap.add(base + Long.numberOfTrailingZeros(word));
+        word &= word - 1;
+      }
+    }
+  }
+
+  /**
+   * Returns the smallest value that passes the comparison with the given value, if all values are whole numbers
+   */
+  private static long low(Comparison comparison, long value) {
+    switch (comparison) {
+      case GREATER_THAN:
+        return value + 1;
+      case GREATER_THAN_OR_EQUAL_TO:
+      case EQUAL_TO:
+        return value;
+      default:
+        return Long.MIN_VALUE;
+    }
+  }
+
+  /**
+   * Returns the largest value that passes the comparison with the given value, if all values are whole numbers
+   */
+  private static long high(Comparison comparison, long value) {
+    switch (comparison) {
+      case LESS_THAN:
+        return value - 1;
+      case LESS_THAN_OR_EQUAL_TO:
+      case EQUAL_TO:
+        return value;
+      default:
+        return Long.MAX_VALUE;
+    }
+  }
+}
@@ -6,10 +6,13 @@ import com.github.lwhite1.tablesaw.api.IntColumn;
 import com.github.lwhite1.tablesaw.api.LongColumn;
 import com.github.lwhite1.tablesaw.api.ShortColumn;
 import com.github.lwhite1.tablesaw.api.Table;
-import org.apache.commons.math3.stat.descriptive.SummaryStatistics;
+import com.github.lwhite1.tablesaw.columns.Column;
+import com.github.lwhite1.tablesaw.reducing.Moments;
+import com.github.lwhite1.tablesaw.reducing.NumericReduceUtils;
+import com.github.lwhite1.tablesaw.reducing.ReduceKernels;
 
 /**
- *
+ * Summary statistics of the values in a numeric column, or in some of its rows, leaving out missing values
  */
 public class Stats {
 
@@ -30,25 +33,42 @@ public class Stats {
   double sumOfSquares;
 
   public static Stats create(final FloatColumn values) {
-    SummaryStatistics summaryStatistics = new SummaryStatistics();
-    for (float f : values) {
-      summaryStatistics.addValue(f);
-    }
-    return getStats(values, summaryStatistics);
+    return create(values, ReduceKernels.moments(values.data(), true), NumericReduceUtils.sumOfLogs.reduce(values));
   }
-  public static Stats create(final IntColumn ints) {
-    FloatColumn values = FloatColumn.create(ints.name(), ints.toFloatArray());
-    return create(values);
+
+  public static Stats create(final IntColumn values) {
+    return create(values, ReduceKernels.moments(values.data(), true), NumericReduceUtils.sumOfLogs.reduce(values));
+  }
+
+  public static Stats create(final ShortColumn values) {
+    return create(values, ReduceKernels.moments(values.data(), true), NumericReduceUtils.sumOfLogs.reduce(values));
+  }
+
+  public static Stats create(final LongColumn values) {
+    return create(values, ReduceKernels.moments(values.data(), true), NumericReduceUtils.sumOfLogs.reduce(values));
+  }
+
+  /**
+   * Returns the statistics of the values in the given rows of the column, which are read in place
+   */
+  public static Stats create(final FloatColumn values, Selection rows) {
+    Moments moments = ReduceKernels.moments(values.data(), rows, true);
+    return create(values, moments, NumericReduceUtils.sumOfLogs.reduce(values, rows));
+  }
+
+  public static Stats create(final IntColumn values, Selection rows) {
+    Moments moments = ReduceKernels.moments(values.data(), rows, true);
+    return create(values, moments, NumericReduceUtils.sumOfLogs.reduce(values, rows));
   }
 
-  public static Stats create(final ShortColumn ints) {
-    FloatColumn values = FloatColumn.create(ints.name(), ints.toFloatArray());
-    return create(values);
+  public static Stats create(final ShortColumn values, Selection rows) {
+    Moments moments = ReduceKernels.moments(values.data(), rows, true);
+    return create(values, moments, NumericReduceUtils.sumOfLogs.reduce(values, rows));
   }
 
-  public static Stats create(final LongColumn ints) {
-    FloatColumn values = FloatColumn.create(ints.name(), ints.toFloatArray());
-    return create(values);
+  public static Stats create(final LongColumn values, Selection rows) {
+    Moments moments = ReduceKernels.moments(values.data(), rows, true);
+    return create(values, moments, NumericReduceUtils.sumOfLogs.reduce(values, rows));
   }
 
   public Stats(String name) {
@@ -172,21 +192,21 @@ public class Stats {
     return t;
   }
 
-  private static Stats getStats(FloatColumn values, SummaryStatistics summaryStatistics) {
-    Stats stats = new Stats("Column: " + values.name());
-    stats.min = (float) summaryStatistics.getMin();
-    stats.max = (float) summaryStatistics.getMax();
-    stats.n = summaryStatistics.getN();
-    stats.sum = summaryStatistics.getSum();
-    stats.variance = summaryStatistics.getVariance();
-    stats.populationVariance = summaryStatistics.getPopulationVariance();
-    stats.quadraticMean = summaryStatistics.getQuadraticMean();
-    stats.geometricMean = summaryStatistics.getGeometricMean();
-    stats.mean = summaryStatistics.getMean();
-    stats.standardDeviation = summaryStatistics.getStandardDeviation();
-    stats.sumOfLogs = summaryStatistics.getSumOfLogs();
-    stats.sumOfSquares = summaryStatistics.getSumsq();
-    stats.secondMoment = summaryStatistics.getSecondMoment();
+  private static Stats create(Column column, Moments moments, double sumOfLogs) {
+    Stats stats = new Stats("Column: " + column.name());
+    stats.min = (float) moments.min();
+    stats.max = (float) moments.max();
+    stats.n = moments.count();
+    stats.sum = moments.sum();
+    stats.variance = moments.variance();
+    stats.populationVariance = moments.populationVariance();
+    stats.quadraticMean = moments.quadraticMean();
+    stats.geometricMean = Math.exp(sumOfLogs / moments.count());
+    stats.mean = moments.mean();
+    stats.standardDeviation = moments.standardDeviation();
+    stats.sumOfLogs = sumOfLogs;
+    stats.sumOfSquares = moments.sumOfSquares();
+    stats.secondMoment = moments.secondMoment();
     return stats;
   }
 }
@@ -0,0 +1,137 @@
+package com.github.lwhite1.tablesaw.util;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Summary statistics for each block of a column's rows: the smallest and largest values, the number of missing
+ * values, and whether the values are in ascending order. A selection can skip the blocks that hold no value in the
+ * range it's looking for, take the whole of a block that holds nothing else, and binary search a sorted block.
+ * <p>
+ * The statistics are brought up to date before each use: rows added since the last use are summarized then, and
+ * blocks that have been changed are summarized again. The column must report any other change to its values, with
+ * {@link #invalidate(int)} or {@link #clear()}.
+ */
+public abstract class ZoneMap {
+
+  /**
+   * How well the values in a block match a range
+   */
+  public enum Match {
+    // no value in the block is in the range
+    NONE,
+    // every value in the block is in the range
+    ALL,
+    // some values in the block may be in the range, and the block is sorted
+    SORTED,
+    // some values in the block may be in the range
+    SOME
+  }
+
+  /**
+   * The number of rows in each block, which is the span of one container in a RoaringBitmap
+   */
+  public static final int BLOCK_ROWS = 1 << 16;
+
+  // the number of rows summarized, the last block of which may be partly filled
+  private int rows;
+
+  // the blocks changed since they were summarized
+  private final BitSet changed = new BitSet();
+
+  private int[] missing = new int[0];
+
+  private final BitSet sorted = new BitSet();
+
+  /**
+   * Returns the number of blocks summarized
+   */
+  public int blockCount() {
+    return (rows + BLOCK_ROWS - 1) / BLOCK_ROWS;
+  }
+
+  /**
+   * Returns the number of missing values in the given block
+   */
+  public int missingCount(int block) {
+    return missing[block];
+  }
+
+  /**
+   * Returns true if the values in the given block are in ascending order, so those in a range can be found by binary
+   * search
+   */
+  public boolean isSorted(int block) {
+    return sorted.get(block);
+  }
+
+  /**
+   * Notes that the value in the given row has changed
+   */
+  public synchronized void invalidate(int row) {
+    changed.set(row / BLOCK_ROWS);
+  }
+
+  /**
+   * Notes that any or all of the values have changed
+   */
+  public synchronized void clear() {
+    rows = 0;
+    changed.clear();
+  }
+
+  /**
+   * Summarizes the blocks that have changed, and the rows added since the last update, of a column with the given
+   * number of rows. Subclasses call this with the column's values at hand, for the other methods to read
+   */
+  protected synchronized void update(int size) {
+    if (size < rows) {
+      // rows have been removed from the end, so the last block left may have changed
+      rows = size;
+      if (size % BLOCK_ROWS != 0) {
+        changed.set(size / BLOCK_ROWS);
+      }
+    }
+    int blocks = (size + BLOCK_ROWS - 1) / BLOCK_ROWS;
+    if (blocks > missing.length) {
+      int capacity = Math.max(blocks, missing.length * 2);
+      missing = Arrays.copyOf(missing, capacity);
+      grow(capacity);
+    }
+    changed.clear(blocks, Integer.MAX_VALUE);
+    for (int block = changed.nextSetBit(0); block >= 0; block = changed.nextSetBit(block + 1)) {
+      summarize(block, size);
+    }
+    changed.clear();
+    // the last block summarized may have been partly filled, and so have had rows added since
+    int firstNew = rows == size ? blocks : rows / BLOCK_ROWS;
+    for (int block = firstNew; block < blocks; block++) {
+      summarize(block, size);
+    }
+    rows = size;
+  }
+
+  private void summarize(int block, int size) {
+    int from = block * BLOCK_ROWS;
+    int to = Math.min(from + BLOCK_ROWS, size);
+    missing[block] = summarize(block, from, to);
+    sorted.set(block, isSorted(from, to));
+  }
+
+  /**
+   * Makes room for the statistics of the given number of blocks
+   */
+  protected abstract void grow(int blocks);
+
+  /**
+   * Records the smallest and largest values in the given block, which holds the rows from {@code from} up to
+   * {@code to}, and returns the number of missing values among them
+   */
+  protected abstract int summarize(int block, int from, int to);
+
+  /**
+   * Returns true if the values from {@code from} up to {@code to} are in ascending order, so those in a range can be
+   * found by binary search
+   */
+  protected abstract boolean isSorted(int from, int to);
+}
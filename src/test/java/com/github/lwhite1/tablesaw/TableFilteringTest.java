@@ -1,15 +1,23 @@
 package com.github.lwhite1.tablesaw;
 
+import com.github.lwhite1.tablesaw.api.CategoryColumn;
 import com.github.lwhite1.tablesaw.api.ColumnType;
+import com.github.lwhite1.tablesaw.api.FloatColumn;
 import com.github.lwhite1.tablesaw.api.Table;
 import com.github.lwhite1.tablesaw.api.IntColumn;
+import com.github.lwhite1.tablesaw.api.LongColumn;
+import com.github.lwhite1.tablesaw.api.ShortColumn;
 import com.github.lwhite1.tablesaw.api.DateColumn;
 import com.github.lwhite1.tablesaw.columns.packeddata.PackedLocalDate;
+import com.github.lwhite1.tablesaw.filtering.Filter;
 import com.github.lwhite1.tablesaw.io.csv.CsvReader;
+import com.github.lwhite1.tablesaw.util.Selection;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 import static com.github.lwhite1.tablesaw.api.QueryHelper.*;
 import static org.junit.Assert.assertEquals;
@@ -76,4 +84,130 @@ public class TableFilteringTest {
     assertTrue(result.columnNames().contains("who"));
     assertTrue(result.columnNames().contains("approval"));
   }
+
+  @Test
+  public void testCompositeFiltersOnLargeTable() {
+    // large enough for the filters to be reordered and applied to the surviving rows only
+    int rows = 100_000;
+    Random random = new Random(42);
+    IntColumn a = IntColumn.create("a");
+    FloatColumn b = FloatColumn.create("b");
+    CategoryColumn c = CategoryColumn.create("c");
+    String[] categories = {"x", "y", "z"};
+    for (int i = 0; i < rows; i++) {
+      a.add(i % 100);
+      b.add(random.nextFloat());
+      c.add(categories[random.nextInt(categories.length)]);
+    }
+    Table large = Table.create("large", a, b, c);
+
+    Selection all = allOf(
+        column("b").isGreaterThan(0.5f),
+        column("c").isEqualTo("x"),
+        column("a").isLessThan(5),
+        not(column("a").isEqualTo(3))).apply(large);
+    Selection any = anyOf(
+        column("b").isLessThan(0.01f),
+        column("c").isEqualTo("y"),
+        column("a").isEqualTo(7)).apply(large);
+
+    int allCount = 0;
+    int anyCount = 0;
+    for (int i = 0; i < rows; i++) {
+      boolean inAll = b.get(i) > 0.5f && c.get(i).equals("x") && a.get(i) < 5 && a.get(i) != 3;
+      boolean inAny = b.get(i) < 0.01f || c.get(i).equals("y") || a.get(i) == 7;
+      assertEquals(inAll, all.contains(i));
+      assertEquals(inAny, any.contains(i));
+      allCount += inAll ? 1 : 0;
+      anyCount += inAny ? 1 : 0;
+    }
+    assertEquals(allCount, all.size());
+    assertEquals(anyCount, any.size());
+  }
+
+  @Test
+  public void testSelectWhereOnPool() {
+    // large enough for the columns to be scanned a range of rows at a time
+    int rows = 1_500_000;
+    Random random = new Random(17);
+    IntColumn a = IntColumn.create("a");
+    FloatColumn b = FloatColumn.create("b");
+    CategoryColumn c = CategoryColumn.create("c");
+    for (int i = 0; i < rows; i++) {
+      a.add(i % 1000 == 0 ? IntColumn.MISSING_VALUE : random.nextInt(1000));
+      b.add(random.nextFloat());
+      c.add(i % 2 == 0 ? "even" : "odd");
+    }
+    Table large = Table.create("large", a, b, c);
+    Filter filter = both(column("a").isLessThan(100), column("b").isGreaterThan(0.5f));
+
+    Table expected = large.selectWhere(filter);
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      assertSameRows(expected, large.selectWhere(filter, pool));
+      large.setPool(pool);
+      assertSameRows(expected, large.selectWhere(filter));
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void testCompiledFiltersMatchCombinedSelections() {
+    int rows = 200_000;
+    Random random = new Random(3);
+    IntColumn a = IntColumn.create("a");
+    ShortColumn s = ShortColumn.create("s");
+    LongColumn l = LongColumn.create("l");
+    FloatColumn f = FloatColumn.create("f");
+    CategoryColumn c = CategoryColumn.create("c");
+    String[] categories = {"x", "y", "z"};
+    for (int i = 0; i < rows; i++) {
+      a.add(i % 500 == 0 ? IntColumn.MISSING_VALUE : random.nextInt(100));
+      s.add((short) (random.nextInt(200) - 100));
+      l.add(random.nextInt(1000) * 1_000_000_000L);
+      f.add(i % 300 == 0 ? Float.NaN : random.nextInt(20) / 4f);
+      c.add(categories[random.nextInt(categories.length)]);
+    }
+    Table large = Table.create("large", a, s, l, f, c);
+    Filter[] filters = {
+        column("a").isLessThan(30),
+        column("a").isBetween(10, 60),
+        column("s").isGreaterThanOrEqualTo(-20),
+        column("s").isEqualTo(65_536 + 5),
+        column("l").isGreaterThan(400),
+        column("f").isLessThanOrEqualTo(2.5f),
+        column("f").isEqualTo(0f),
+        column("c").isEqualTo("y"),
+        column("c").isNotEqualTo("z"),
+        column("c").isEqualTo("none"),
+        not(column("a").isEqualTo(7)),
+        column("a").isMissing()
+    };
+    for (Filter first : filters) {
+      for (Filter second : filters) {
+        Selection both = first.apply(large);
+        both.and(second.apply(large));
+        Selection either = first.apply(large);
+        either.or(second.apply(large));
+        assertEquals(both.toBitmap(), allOf(first, second).apply(large).toBitmap());
+        assertEquals(either.toBitmap(), anyOf(first, second).apply(large).toBitmap());
+      }
+    }
+
+    // an indexed column is left to its filter, which may use the index
+    large.createIndex("a");
+    Selection expected = filters[0].apply(large);
+    expected.and(filters[5].apply(large));
+    assertEquals(expected.toBitmap(), allOf(filters[0], filters[5]).apply(large).toBitmap());
+  }
+
+  private static void assertSameRows(Table expected, Table actual) {
+    assertEquals(expected.rowCount(), actual.rowCount());
+    for (int i = 0; i < expected.rowCount(); i++) {
+      assertEquals(expected.intColumn("a").get(i), actual.intColumn("a").get(i));
+      assertEquals(expected.floatColumn("b").get(i), actual.floatColumn("b").get(i), 0f);
+      assertEquals(expected.categoryColumn("c").get(i), actual.categoryColumn("c").get(i));
+    }
+  }
 }
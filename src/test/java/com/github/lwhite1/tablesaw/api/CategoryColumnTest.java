@@ -7,6 +7,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.List;
+import java.util.function.Predicate;
 
 import static org.junit.Assert.*;
 
@@ -94,4 +95,37 @@ public class CategoryColumnTest {
     assertEquals("Texas", categoryColumn.get(selection.get(1)));
     assertEquals(2, selection.size());
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testTextFiltersMatchEachRow() {
+    CategoryColumn categoryColumn = CategoryColumn.create("codes");
+    String[] values = {"ab", "AB", "abc", "123", "", "a1", "ZZ", "ab"};
+    for (int i = 0; i < 200_000; i++) {
+      categoryColumn.add(values[(i * 7 + i / 3) % values.length]);
+    }
+    // a value that has been replaced everywhere stays in the dictionary
+    categoryColumn.set(0, "gone");
+    categoryColumn.set(0, "ab");
+
+    assertSameRows(categoryColumn, categoryColumn.startsWith("ab"), s -> s.startsWith("ab"));
+    assertSameRows(categoryColumn, categoryColumn.endsWith("B"), s -> s.endsWith("B"));
+    assertSameRows(categoryColumn, categoryColumn.stringContains("b"), s -> s.contains("b"));
+    assertSameRows(categoryColumn, categoryColumn.matchesRegex("[a-z]+"), s -> s.matches("[a-z]+"));
+    assertSameRows(categoryColumn, categoryColumn.equalToIgnoringCase("ab"), s -> s.equalsIgnoreCase("ab"));
+    assertSameRows(categoryColumn, categoryColumn.empty(), String::isEmpty);
+    assertSameRows(categoryColumn, categoryColumn.isNumeric(), s -> s.matches("[0-9]+"));
+    assertSameRows(categoryColumn, categoryColumn.isLongerThan(0), s -> s.length() > 0);
+    assertSameRows(categoryColumn, categoryColumn.hasLengthEqualTo(5), s -> s.length() == 5);
+    assertSameRows(categoryColumn, categoryColumn.isMissing(), s -> s.equals(CategoryColumn.MISSING_VALUE));
+  }
+
+  private static void assertSameRows(CategoryColumn column, Selection selection, Predicate<String> test) {
+    int count = 0;
+    for (int row = 0; row < column.size(); row++) {
+      boolean expected = test.test(column.get(row));
+      assertEquals(expected, selection.contains(row));
+      count += expected ? 1 : 0;
+    }
+    assertEquals(count, selection.size());
+  }
+}
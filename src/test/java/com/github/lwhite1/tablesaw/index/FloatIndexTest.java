@@ -1,5 +1,6 @@
 package com.github.lwhite1.tablesaw.index;
 
+import com.github.lwhite1.tablesaw.api.FloatColumn;
 import com.github.lwhite1.tablesaw.api.Table;
 import com.github.lwhite1.tablesaw.columns.FloatColumnUtils;
 import com.github.lwhite1.tablesaw.util.Selection;
@@ -56,4 +57,22 @@ public class FloatIndexTest {
     Selection fromIdx = index.greaterThan(30.330425f);
     assertEquals(fromCol, fromIdx);
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testSignedZeroAndNaN() {
+    FloatColumn floats = FloatColumn.create("floats");
+    float[] values = {-0.0f, 0.0f, Float.NaN, -1.5f, 1.5f, Float.NEGATIVE_INFINITY, Float.POSITIVE_INFINITY};
+    for (int i = 0; i < 100; i++) {
+      floats.add(values[i % values.length]);
+    }
+    FloatIndex floatIndex = new FloatIndex(floats);
+    assertEquals(floats.isEqualTo(0.0f), floatIndex.between(-0.0f, 0.0f));
+    assertEquals(floats.isEqualTo(0.0f), floatIndex.between(0.0f, -0.0f));
+    assertEquals(floats.isGreaterThanOrEqualTo(-1.5f), floatIndex.atLeast(-1.5f));
+    assertEquals(floats.isLessThan(0.0f), floatIndex.lessThan(-0.0f));
+    assertEquals(floats.isGreaterThan(Float.NEGATIVE_INFINITY), floatIndex.greaterThan(Float.NEGATIVE_INFINITY));
+    assertEquals(86, floatIndex.count(Float.NEGATIVE_INFINITY, Float.POSITIVE_INFINITY, Integer.MAX_VALUE));
+    assertEquals(14, floatIndex.get(Float.NaN).size());
+    assertEquals(0, floatIndex.between(Float.NaN, Float.NaN).size());
+  }
+}
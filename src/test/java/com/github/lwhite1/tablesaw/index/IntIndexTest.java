@@ -1,6 +1,7 @@
 package com.github.lwhite1.tablesaw.index;
 
 import com.github.lwhite1.tablesaw.api.ColumnType;
+import com.github.lwhite1.tablesaw.api.IntColumn;
 import com.github.lwhite1.tablesaw.api.Table;
 import com.github.lwhite1.tablesaw.columns.DateColumnUtils;
 import com.github.lwhite1.tablesaw.columns.IntColumnUtils;
@@ -12,9 +13,15 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.time.LocalDate;
+import java.util.Random;
 
 import static com.github.lwhite1.tablesaw.api.ColumnType.*;
+import static com.github.lwhite1.tablesaw.api.QueryHelper.column;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 /**
  *
@@ -91,4 +98,112 @@ public class IntIndexTest {
     Selection fromIdx = index.greaterThan(71);
     assertEquals(fromCol, fromIdx);
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testTableIndexFollowsAddedRows() {
+    IntColumn values = IntColumn.create("values");
+    Table t = Table.create("t", values);
+    for (int i = 0; i < 1000; i++) {
+      values.add(i % 100);
+    }
+    IntIndex tableIndex = (IntIndex) t.createIndex("values");
+    assertSame(tableIndex, t.index("values"));
+    assertEquals(values.isEqualTo(42), tableIndex.get(42));
+
+    for (int i = 0; i < 1000; i++) {
+      values.add(i % 200);
+    }
+    assertEquals(values.isEqualTo(42), tableIndex.get(42));
+    assertEquals(values.isEqualTo(142), tableIndex.get(142));
+    Selection between = values.isGreaterThan(9);
+    between.and(values.isLessThan(21));
+    assertEquals(between, tableIndex.between(10, 20));
+    assertEquals(between.size(), tableIndex.count(10, 20, Integer.MAX_VALUE));
+    assertTrue(tableIndex.count(0, 199, 10) > 10);
+
+    t.dropIndex("values");
+    assertNull(t.index("values"));
+  }
+
+  @Test
+  public void testFiltersGiveTheSameRowsWithAnIndex() {
+    IntColumn values = IntColumn.create("values");
+    Table t = Table.create("t", values);
+    for (int i = 0; i < 10_000; i++) {
+      values.add(i % 1000);
+    }
+    Selection equal = column("values").isEqualTo(42).apply(t);
+    Selection between = column("values").isBetween(10, 20).apply(t);
+    Selection in = column("values").isIn(3, 5, 700).apply(t);
+    Selection wide = column("values").isBetween(10, 900).apply(t);
+
+    t.createIndex("values");
+    assertEquals(equal, column("values").isEqualTo(42).apply(t));
+    assertEquals(between, column("values").isBetween(10, 20).apply(t));
+    assertEquals(in, column("values").isIn(3, 5, 700).apply(t));
+    assertEquals(wide, column("values").isBetween(10, 900).apply(t));
+    assertEquals(90, between.size());
+    assertEquals(30, in.size());
+  }
+
+  @Test
+  public void testFiltersSeeValuesChangedInPlace() {
+    IntColumn values = IntColumn.create("values");
+    Table t = Table.create("t", values);
+    for (int i = 0; i < 10_000; i++) {
+      values.add(i % 1000);
+    }
+    t.createIndex("values");
+    assertEquals(10, column("values").isEqualTo(42).apply(t).size());
+
+    values.set(43, 42);
+    values.set(1042, 7);
+    Selection equal = column("values").isEqualTo(42).apply(t);
+    assertEquals(10, equal.size());
+    assertTrue(equal.contains(43));
+    assertFalse(equal.contains(1042));
+    assertEquals(values.isEqualTo(42), equal);
+
+    values.sortDescending();
+    assertEquals(values.isEqualTo(42), column("values").isEqualTo(42).apply(t));
+    // isBetween leaves out both bounds
+    Selection between = values.isGreaterThan(10);
+    between.and(values.isLessThan(999));
+    assertEquals(between, column("values").isBetween(10, 999).apply(t));
+
+    // the same number of rows as before, but different values
+    values.clear();
+    for (int i = 0; i < 10_000; i++) {
+      values.add(i % 500);
+    }
+    assertEquals(20, column("values").isEqualTo(42).apply(t).size());
+    assertEquals(40, column("values").isIn(3, 5, 700).apply(t).size());
+  }
+
+  @Test
+  public void testLargeIndexMatchesScan() {
+    // enough rows that the index is sorted in chunks on several threads
+    IntColumn values = IntColumn.create("values");
+    Random random = new Random(0);
+    for (int i = 0; i < 2_500_000; i++) {
+      values.add(random.nextInt(20_000) - 10_000);
+    }
+    values.add(Integer.MIN_VALUE);
+    values.add(Integer.MAX_VALUE);
+    IntIndex large = new IntIndex(values);
+    assertEquals(values.isEqualTo(-42), large.get(-42));
+    assertEquals(values.isLessThan(-9_990), large.lessThan(-9_990));
+    assertEquals(values.isGreaterThanOrEqualTo(9_990), large.atLeast(9_990));
+    assertEquals(values.isEqualTo(Integer.MIN_VALUE), large.atMost(Integer.MIN_VALUE));
+    assertEquals(values.isEqualTo(Integer.MAX_VALUE), large.greaterThan(Integer.MAX_VALUE - 1));
+
+    // rows added later are found before and after they are merged in
+    values.add(-42);
+    assertEquals(values.isEqualTo(-42), large.get(-42));
+    for (int i = 0; i < 200_000; i++) {
+      values.add(i);
+    }
+    assertEquals(values.isEqualTo(-42), large.get(-42));
+    assertEquals(values.isEqualTo(150_000), large.get(150_000));
+  }
+}
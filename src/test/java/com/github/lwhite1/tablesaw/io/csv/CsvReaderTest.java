@@ -3,11 +3,15 @@ package com.github.lwhite1.tablesaw.io.csv;
 import com.github.lwhite1.tablesaw.api.ColumnType;
 import com.github.lwhite1.tablesaw.api.Table;
 import com.github.lwhite1.tablesaw.columns.Column;
+import com.github.lwhite1.tablesaw.io.TypeUtils;
 import org.junit.Ignore;
 import org.junit.Test;
 
 import java.io.InputStream;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 
 import static com.github.lwhite1.tablesaw.api.ColumnType.*;
@@ -49,6 +53,160 @@ public class CsvReaderTest {
     assertEquals("[date, approval, who]", table.columnNames().toString());
   }
 
+  @Test
+  public void testReadInBatches() throws Exception {
+    ColumnType[] types = {LOCAL_DATE, SHORT_INT, CATEGORY};
+    Table table = CsvReader.read(types, "data/BushApproval.csv");
+
+    int batchCount = 0;
+    int row = 0;
+    try (CsvBatchReader batches = CsvReader.readInBatches(types, true, ',', "data/BushApproval.csv", 100)) {
+      while (batches.hasNext()) {
+        Table batch = batches.next();
+        batchCount++;
+        assertEquals("[date, approval, who]", batch.columnNames().toString());
+        assertTrue(batch.rowCount() <= 100);
+        for (int r = 0; r < batch.rowCount(); r++, row++) {
+          for (int c = 0; c < batch.columnCount(); c++) {
+            assertEquals(table.get(c, row), batch.get(c, r));
+          }
+        }
+      }
+    }
+    assertEquals(4, batchCount);
+    assertEquals(323, row);
+  }
+
+  @Test
+  public void testReadInParallelChunks() throws Exception {
+    ColumnType[] types = {LOCAL_DATE, SHORT_INT, CATEGORY};
+    Table table = CsvReader.read(types, "data/BushApproval.csv");
+
+    // small chunks, so the file is split many times
+    Table parallel = ParallelCsvReader.read(types, true, ',', "data/BushApproval.csv", 4, 500);
+    assertEquals(table.columnNames(), parallel.columnNames());
+    assertSameRows(table, parallel);
+  }
+
+  @Test
+  public void testParallelSplitRespectsQuotes() throws Exception {
+    Path file = Files.createTempFile("quoted", ".csv");
+    StringBuilder csv = new StringBuilder("id,note\n");
+    for (int i = 0; i < 200; i++) {
+      csv.append(i).append(",\"line one\nline two, with a \\\" quote\"\n");
+    }
+    Files.write(file, csv.toString().getBytes(StandardCharsets.UTF_8));
+
+    ColumnType[] types = {INTEGER, CATEGORY};
+    long[] bounds = ParallelCsvReader.split(file.toString(), 100);
+    assertTrue(bounds.length > 10);
+    assertEquals(csv.length(), bounds[bounds.length - 1]);
+    for (int i = 1; i < bounds.length - 1; i++) {
+      // no chunk starts inside a quoted field
+      assertTrue(csv.substring((int) bounds[i]).matches("(?s)\\d+,\"line one.*"));
+    }
+    Table table = CsvReader.read(types, true, ',', file.toString());
+    Table parallel = ParallelCsvReader.read(types, true, ',', file.toString(), 3, 100);
+    assertEquals(200, parallel.rowCount());
+    assertSameRows(table, parallel);
+    Files.delete(file);
+  }
+
+  @Test
+  public void testReadManyFiles() throws Exception {
+    ColumnType[] types = {LOCAL_DATE, SHORT_INT, CATEGORY};
+    Table single = CsvReader.read(types, "data/BushApproval.csv");
+    Table table = CsvReader.read(types, "data/BushApproval.csv", "data/BushApproval.csv", "data/BushApproval.csv");
+    assertEquals(3 * single.rowCount(), table.rowCount());
+    for (int copy = 0; copy < 3; copy++) {
+      for (int r = 0; r < single.rowCount(); r++) {
+        for (int c = 0; c < single.columnCount(); c++) {
+          assertEquals(single.get(c, r), table.get(c, copy * single.rowCount() + r));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testFieldsAreConvertedAsFromStrings() throws Exception {
+    String[] header = {"int", "short", "long", "float", "bool", "date", "time", "datetime", "category"};
+    ColumnType[] types = {INTEGER, SHORT_INT, LONG_INT, FLOAT, BOOLEAN, LOCAL_DATE, LOCAL_TIME, LOCAL_DATE_TIME,
+        CATEGORY};
+    String[][] rows = {
+        {"\"1,234\"", "-7", "9223372036854775807", "3.14159", "true", "2016-02-29", "23:59:59.999",
+            "2016-01-01T10:15:30", "a"},
+        {"", "NA", "-12", "-0.000125", "N", "1/2/2015", "00:00", "2016-01-01 10:15:30.123", "b"},
+        {"+5", "32767", "", "1e10", "1", "12/31/1999", "10:15:30.5", "2016-12-31T23:59", "a"},
+        {"-2147483648", "0", "\"1,000\"", "NaN", "", "-1", "*", "", "\"quoted, with a comma\""},
+    };
+    Path file = Files.createTempFile("types", ".csv");
+    StringBuilder csv = new StringBuilder(String.join(",", header)).append('\n');
+    for (String[] row : rows) {
+      csv.append(String.join(",", row)).append('\n');
+    }
+    Files.write(file, csv.toString().getBytes(StandardCharsets.UTF_8));
+
+    Table table = CsvReader.read(types, true, ',', file.toString());
+    assertEquals(rows.length, table.rowCount());
+    for (int c = 0; c < types.length; c++) {
+      Column expected = TypeUtils.newColumn(header[c], types[c]);
+      for (String[] row : rows) {
+        String cell = row[c];
+        expected.addCell(cell.startsWith("\"") ? cell.substring(1, cell.length() - 1) : cell);
+      }
+      for (int r = 0; r < rows.length; r++) {
+        assertEquals(expected.getString(r), table.column(c).getString(r));
+      }
+    }
+    assertEquals(3, table.categoryColumn("category").countUnique());
+    Files.delete(file);
+  }
+
+  @Test
+  public void testColumnsArePromotedWhenValuesDontFitDetectedType() throws Exception {
+    // rows 101 to 109 are not in the sample used to detect the types
+    Path file = Files.createTempFile("promoted", ".csv");
+    StringBuilder csv = new StringBuilder("n,d\n");
+    for (int r = 0; r < 200; r++) {
+      String n = String.valueOf(r + 10);
+      String d = "2016-01-15";
+      if (r == 103) {
+        n = "5000000000";
+      } else if (r == 105) {
+        n = "2.5";
+      } else if (r == 107) {
+        d = "someday";
+      }
+      csv.append(n).append(',').append(d).append('\n');
+    }
+    Files.write(file, csv.toString().getBytes(StandardCharsets.UTF_8));
+
+    ColumnType[] detected = CsvReader.detectColumnTypes(file.toString(), true, ',');
+    assertArrayEquals(new ColumnType[]{SHORT_INT, LOCAL_DATE}, detected);
+
+    Table table = CsvReader.read(file.toString(), true, ',');
+    assertEquals(200, table.rowCount());
+    assertEquals(FLOAT, table.column("n").type());
+    assertEquals(CATEGORY, table.column("d").type());
+    assertEquals(10f, table.floatColumn("n").get(0), 0f);
+    assertEquals(5_000_000_000f, table.floatColumn("n").get(103), 0f);
+    assertEquals(2.5f, table.floatColumn("n").get(105), 0f);
+    assertEquals(209f, table.floatColumn("n").get(199), 0f);
+    assertEquals("2016-01-15", table.column("d").getString(0));
+    assertEquals("someday", table.column("d").getString(107));
+    assertEquals(2, table.categoryColumn("d").countUnique());
+    Files.delete(file);
+  }
+
+  private static void assertSameRows(Table expected, Table actual) {
+    assertEquals(expected.rowCount(), actual.rowCount());
+    for (int r = 0; r < expected.rowCount(); r++) {
+      for (int c = 0; c < expected.columnCount(); c++) {
+        assertEquals(expected.get(c, r), actual.get(c, r));
+      }
+    }
+  }
+
   @Test
   public void testDataTypeDetection() throws Exception {
     ColumnType[] columnTypes = CsvReader.detectColumnTypes("data/bus_stop_test.csv", true, ',');
@@ -0,0 +1,85 @@
+package com.github.lwhite1.tablesaw.joining;
+
+import com.github.lwhite1.tablesaw.api.FloatColumn;
+import com.github.lwhite1.tablesaw.api.IntColumn;
+import com.github.lwhite1.tablesaw.api.Table;
+import com.github.lwhite1.tablesaw.columns.Column;
+import com.github.lwhite1.tablesaw.testutil.NanoBench;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * Compares the hash join with the row-scanning join it replaced. It only prints timings, so it is left out of the
+ * normal test run; remove the {@code @Ignore} to run it
+ */
+@Ignore("Benchmark")
+public class HashJoinBenchmark {
+
+  private static final int DIMENSION_ROWS = 5_000;
+  private static final int FACT_ROWS = 50_000;
+
+  @Test
+  public void testJoin() {
+    Random random = new Random(42);
+
+    Table dimension = Table.create("dimension");
+    IntColumn id = IntColumn.create("id");
+    FloatColumn weight = FloatColumn.create("weight");
+    dimension.addColumn(id, weight);
+    for (int i = 0; i < DIMENSION_ROWS; i++) {
+      id.add(i);
+      weight.add(random.nextFloat());
+    }
+
+    Table fact = Table.create("fact");
+    IntColumn key = IntColumn.create("key");
+    FloatColumn value = FloatColumn.create("value");
+    fact.addColumn(key, value);
+    for (int i = 0; i < FACT_ROWS; i++) {
+      key.add(random.nextInt(DIMENSION_ROWS));
+      value.add(random.nextFloat());
+    }
+
+    NanoBench.create().warmUps(2).measurements(5).cpuAndMemory()
+        .measure("Row-scan join", () -> scanJoin(fact, "key", dimension, "id"));
+    NanoBench.create().warmUps(5).measurements(20).cpuAndMemory()
+        .measure("Hash join", () -> fact.innerJoin(dimension, "key", "id"));
+  }
+
+  /**
+   * The previous implementation: for each left row, scan the right table for the first row with the same string value
+   */
+  private static Table scanJoin(Table left, String columnName, Table right, String otherColumnName) {
+    Table table = Table.create(left.name());
+    for (Column column : left.columns()) {
+      table.addColumn(column.copy());
+    }
+    for (Column column : right.columns()) {
+      if (!column.name().equals(otherColumnName)) {
+        table.addColumn(column.emptyCopy());
+      }
+    }
+    Column joinColumn = left.column(columnName);
+    Column otherJoinColumn = right.column(otherColumnName);
+    for (int row : left) {
+      String value = joinColumn.getString(row);
+      int otherRow = -1;
+      for (int r : right) {
+        if (otherJoinColumn.getString(r).equals(value)) {
+          otherRow = r;
+          break;
+        }
+      }
+      if (otherRow != -1) {
+        for (Column c : right.columns()) {
+          if (!c.name().equals(otherColumnName)) {
+            table.column(c.name()).addCell(c.getString(otherRow));
+          }
+        }
+      }
+    }
+    return table;
+  }
+}
@@ -0,0 +1,191 @@
+package com.github.lwhite1.tablesaw.joining;
+
+import com.github.lwhite1.tablesaw.api.CategoryColumn;
+import com.github.lwhite1.tablesaw.api.DateColumn;
+import com.github.lwhite1.tablesaw.api.FloatColumn;
+import com.github.lwhite1.tablesaw.api.IntColumn;
+import com.github.lwhite1.tablesaw.api.Table;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for HashJoin
+ */
+public class HashJoinTest {
+
+  private Table people;
+  private Table orders;
+
+  @Before
+  public void setUp() throws Exception {
+    people = Table.create("people");
+    IntColumn id = IntColumn.create("id");
+    CategoryColumn name = CategoryColumn.create("name");
+    people.addColumn(id, name);
+    addPerson(1, "Ann");
+    addPerson(2, "Bob");
+    addPerson(3, "Cat");
+    addPerson(IntColumn.MISSING_VALUE, "Nobody");
+
+    orders = Table.create("orders");
+    IntColumn personId = IntColumn.create("personId");
+    FloatColumn amount = FloatColumn.create("amount");
+    orders.addColumn(personId, amount);
+    addOrder(1, 10f);
+    addOrder(1, 11f);
+    addOrder(2, 20f);
+    addOrder(4, 40f);
+    addOrder(IntColumn.MISSING_VALUE, 99f);
+    addOrder(1, 12f);
+  }
+
+  private void addPerson(int id, String name) {
+    people.intColumn("id").add(id);
+    people.categoryColumn("name").add(name);
+  }
+
+  private void addOrder(int personId, float amount) {
+    orders.intColumn("personId").add(personId);
+    orders.floatColumn("amount").add(amount);
+  }
+
+  @Test
+  public void testInnerJoinReturnsEveryMatch() {
+    Table result = people.innerJoin(orders, "id", "personId");
+    assertEquals(3, result.columnCount());
+    assertEquals(4, result.rowCount());
+    assertEquals(3, count(result, "name", "Ann"));
+    assertEquals(1, count(result, "name", "Bob"));
+    assertEquals(53.0, sum(result.floatColumn("amount")), 0.0001);
+  }
+
+  @Test
+  public void testInnerJoinIsSymmetric() {
+    Table result = orders.innerJoin(people, "personId", "id");
+    assertEquals(4, result.rowCount());
+    assertEquals(3, count(result, "name", "Ann"));
+  }
+
+  @Test
+  public void testLeftOuterJoin() {
+    Table result = people.leftOuterJoin(orders, "id", "personId");
+    // 3 for Ann, 1 for Bob, and Cat and Nobody unmatched
+    assertEquals(6, result.rowCount());
+    assertEquals(1, count(result, "name", "Cat"));
+    assertEquals(1, count(result, "name", "Nobody"));
+    assertEquals(2, countMissing(result.floatColumn("amount")));
+  }
+
+  @Test
+  public void testRightOuterJoin() {
+    Table result = people.rightOuterJoin(orders, "id", "personId");
+    assertEquals(orders.rowCount(), result.rowCount());
+    assertEquals(2, count(result, "name", CategoryColumn.MISSING_VALUE));
+    // the unmatched right key is carried into the join column
+    assertTrue(result.intColumn("id").contains(4));
+    assertEquals(sum(orders.floatColumn("amount")), sum(result.floatColumn("amount")), 0.0001);
+  }
+
+  @Test
+  public void testFullOuterJoin() {
+    Table result = people.fullOuterJoin(orders, "id", "personId");
+    // 4 matches, 2 unmatched people and 2 unmatched orders
+    assertEquals(8, result.rowCount());
+  }
+
+  @Test
+  public void testCategoryJoinWithDifferentDictionaries() {
+    Table left = Table.create("left");
+    CategoryColumn color = CategoryColumn.create("color");
+    IntColumn value = IntColumn.create("value");
+    left.addColumn(color, value);
+    String[] colors = {"red", "green", "blue", "red"};
+    for (int i = 0; i < colors.length; i++) {
+      color.add(colors[i]);
+      value.add(i);
+    }
+
+    Table right = Table.create("right");
+    CategoryColumn hue = CategoryColumn.create("hue");
+    CategoryColumn mood = CategoryColumn.create("mood");
+    right.addColumn(hue, mood);
+    hue.add("blue");
+    mood.add("calm");
+    hue.add("red");
+    mood.add("angry");
+    hue.add("purple");
+    mood.add("regal");
+
+    Table result = left.innerJoin(right, "color", "hue");
+    assertEquals(3, result.rowCount());
+    assertEquals(2, count(result, "mood", "angry"));
+    assertEquals(1, count(result, "mood", "calm"));
+  }
+
+  @Test
+  public void testDateJoinAndDuplicateColumnNames() {
+    Table left = Table.create("left");
+    DateColumn date = DateColumn.create("date");
+    IntColumn value = IntColumn.create("value");
+    left.addColumn(date, value);
+    Table right = Table.create("right");
+    DateColumn day = DateColumn.create("day");
+    IntColumn otherValue = IntColumn.create("value");
+    right.addColumn(day, otherValue);
+    for (int i = 0; i < 10; i++) {
+      date.add(LocalDate.of(2016, 1, 1).plusDays(i));
+      value.add(i);
+      if (i % 2 == 0) {
+        day.add(LocalDate.of(2016, 1, 1).plusDays(i));
+        otherValue.add(i * 100);
+      }
+    }
+    Table result = left.innerJoin(right, "date", "day");
+    assertEquals(5, result.rowCount());
+    assertEquals("right.value", result.column(2).name());
+    for (int r = 0; r < result.rowCount(); r++) {
+      assertEquals(result.intColumn(1).get(r) * 100, result.intColumn(2).get(r));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMismatchedTypes() {
+    people.innerJoin(orders, "id", "amount");
+  }
+
+  private static int count(Table table, String columnName, String value) {
+    int count = 0;
+    CategoryColumn column = table.categoryColumn(columnName);
+    for (int r = 0; r < column.size(); r++) {
+      if (column.get(r).equals(value)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private static int countMissing(FloatColumn column) {
+    int count = 0;
+    for (int r = 0; r < column.size(); r++) {
+      if (Float.isNaN(column.get(r))) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private static double sum(FloatColumn column) {
+    double sum = 0;
+    for (int r = 0; r < column.size(); r++) {
+      if (!Float.isNaN(column.get(r))) {
+        sum += column.get(r);
+      }
+    }
+    return sum;
+  }
+}
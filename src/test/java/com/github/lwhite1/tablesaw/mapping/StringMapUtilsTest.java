@@ -0,0 +1,67 @@
+package com.github.lwhite1.tablesaw.mapping;
+
+import com.github.lwhite1.tablesaw.api.CategoryColumn;
+import com.github.lwhite1.tablesaw.api.FloatColumn;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.function.UnaryOperator;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for StringMapUtils
+ */
+public class StringMapUtilsTest {
+
+  private final CategoryColumn column = CategoryColumn.create("names");
+
+  @Before
+  public void setUp() {
+    String[] names = {" Alice", "bob ", "Carol", "alice", "BOB", "carol"};
+    for (int i = 0; i < 10_000; i++) {
+      column.add(names[(i * 5 + i / 7) % names.length]);
+    }
+    // a value that is no longer in any row stays in the dictionary, but isn't mapped into the new column
+    column.set(0, "Dave");
+    column.set(0, " Alice");
+  }
+
+  @Test
+  public void testMapsEachRow() {
+    assertMapped(column.upperCase(), String::toUpperCase);
+    assertMapped(column.lowerCase(), String::toLowerCase);
+    assertMapped(column.trim(), String::trim);
+    assertMapped(column.replaceAll("[aeiou]", "_"), value -> value.replaceAll("[aeiou]", "_"));
+    assertMapped(column.substring(1, 3), value -> value.substring(1, 3));
+    assertMapped(column.padStart(7, '.'), value -> ".......".substring(value.length()) + value);
+  }
+
+  @Test
+  public void testMappedValuesShareKeys() {
+    CategoryColumn upper = column.upperCase().trim();
+    assertEquals("[ucase][trim]", upper.name().substring(column.name().length()));
+    assertEquals(3, upper.countUnique());
+    assertEquals(upper.get(1), upper.get(4));
+    assertEquals(upper.data().getInt(1), upper.data().getInt(4));
+  }
+
+  @Test
+  public void testTwoColumnMaps() {
+    CategoryColumn trimmed = column.trim();
+    CategoryColumn joined = column.join(trimmed, "|");
+    FloatColumn distance = (FloatColumn) column.distance(trimmed);
+    assertEquals(column.size(), joined.size());
+    for (int row = 0; row < column.size(); row++) {
+      assertEquals(column.get(row) + "|" + trimmed.get(row), joined.get(row));
+      assertEquals(column.get(row).length() - trimmed.get(row).length(), distance.get(row), 0f);
+    }
+  }
+
+  private void assertMapped(CategoryColumn mapped, UnaryOperator<String> function) {
+    assertEquals(column.size(), mapped.size());
+    for (int row = 0; row < column.size(); row++) {
+      assertEquals(function.apply(column.get(row)), mapped.get(row));
+    }
+  }
+}
@@ -0,0 +1,104 @@
+package com.github.lwhite1.tablesaw.reducing;
+
+import com.github.lwhite1.tablesaw.api.CategoryColumn;
+import com.github.lwhite1.tablesaw.api.ColumnType;
+import com.github.lwhite1.tablesaw.api.Table;
+import com.github.lwhite1.tablesaw.io.csv.CsvReader;
+import com.github.lwhite1.tablesaw.table.TemporaryView;
+import com.github.lwhite1.tablesaw.table.ViewGroup;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests that hash aggregation matches reducing each group's view separately
+ */
+public class HashAggregatorTest {
+
+  private static ColumnType[] types = {
+      ColumnType.LOCAL_DATE,     // date of poll
+      ColumnType.INTEGER,        // approval rating (pct)
+      ColumnType.CATEGORY        // polling org
+  };
+
+  private Table table;
+  private int defaultMinRowsPerWorker;
+
+  @Before
+  public void setUp() throws Exception {
+    table = CsvReader.read(types, "data/BushApproval.csv");
+    CategoryColumn month = table.dateColumn(0).month();
+    month.setName("month");
+    table.addColumn(month);
+    defaultMinRowsPerWorker = HashAggregator.minRowsPerWorker;
+  }
+
+  @After
+  public void tearDown() {
+    HashAggregator.minRowsPerWorker = defaultMinRowsPerWorker;
+  }
+
+  @Test
+  public void testOneGroupingColumn() {
+    assertMatchesViews("who");
+  }
+
+  @Test
+  public void testTwoGroupingColumns() {
+    assertMatchesViews("who", "month");
+  }
+
+  @Test
+  public void testDateGroupingColumn() {
+    assertMatchesViews("date");
+  }
+
+  @Test
+  public void testMergesPartialsFromManyWorkers() {
+    HashAggregator.minRowsPerWorker = 10;
+    assertMatchesViews("who");
+    assertMatchesViews("who", "month");
+  }
+
+  @Test
+  public void testSketchFunctions() {
+    HashAggregator.minRowsPerWorker = 10;
+    List<TemporaryView> views = ViewGroup.create(table, "who").getSubTables();
+    NumericReduceFunction[] functions = {NumericReduceUtils.approximateMedian, NumericReduceUtils.mean,
+        NumericReduceUtils.approximateCountDistinct};
+    Table result = new HashAggregator(table, "who").aggregate(new String[] {"approval", "approval", "approval"},
+        functions);
+    assertEquals(views.size(), result.rowCount());
+    for (int row = 0; row < views.size(); row++) {
+      for (int i = 0; i < functions.length; i++) {
+        float expected = (float) views.get(row).reduce("approval", functions[i]);
+        assertEquals(functions[i].functionName(), expected, result.floatColumn(1 + i).get(row), 0.001);
+      }
+    }
+  }
+
+  private void assertMatchesViews(String... groupColumnNames) {
+    List<TemporaryView> views = ViewGroup.create(table, groupColumnNames).getSubTables();
+    HashAggregator aggregator = new HashAggregator(table, groupColumnNames);
+    for (AggregateFunction function : AggregateFunction.values()) {
+      Table result = aggregator.aggregate("approval", function);
+      assertEquals(views.size(), result.rowCount());
+      assertEquals(groupColumnNames.length + 1, result.columnCount());
+      for (int row = 0; row < views.size(); row++) {
+        TemporaryView view = views.get(row);
+        // the view's own iterator counts its rows from 0, so its values are read from a copy of its rows
+        Table viewRows = view.asTable();
+        for (int col = 0; col < groupColumnNames.length; col++) {
+          assertEquals(viewRows.get(viewRows.columnIndex(groupColumnNames[col]), 0), result.get(col, row));
+        }
+        float expected = (float) view.reduce("approval", function.reduceFunction());
+        assertEquals(function.functionName(), expected,
+            result.floatColumn(groupColumnNames.length).get(row), 0.001);
+      }
+    }
+  }
+}
@@ -0,0 +1,118 @@
+package com.github.lwhite1.tablesaw.reducing;
+
+import com.github.lwhite1.tablesaw.api.DateColumn;
+import com.github.lwhite1.tablesaw.api.FloatColumn;
+import com.github.lwhite1.tablesaw.api.IntColumn;
+import it.unimi.dsi.fastutil.floats.FloatArrayList;
+import org.apache.commons.math3.stat.StatUtils;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests percentiles by selection against commons-math, and top and bottom n against a sort
+ */
+public class OrderStatisticsTest {
+
+  private final Random random = new Random(3);
+
+  @Test
+  public void testPercentile() {
+    for (int n : new int[] {1, 2, 3, 17, 100, 1001, 50_000}) {
+      double[] values = new double[n];
+      double[] duplicates = new double[n];
+      for (int i = 0; i < n; i++) {
+        values[i] = random.nextGaussian();
+        duplicates[i] = random.nextInt(7);
+      }
+      for (double percentile : new double[] {0.1, 1, 25, 33.3, 50, 75, 90, 99.9, 100}) {
+        assertEquals(StatUtils.percentile(values, percentile), NumericReduceUtils.percentile(values, percentile), 0);
+        assertEquals(StatUtils.percentile(duplicates, percentile),
+            NumericReduceUtils.percentile(duplicates, percentile), 0);
+      }
+    }
+  }
+
+  @Test
+  public void testPercentileOfSortedValues() {
+    // sorted and reversed input is the worst case for a poorly chosen pivot
+    double[] values = new double[100_000];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = i;
+    }
+    assertEquals(StatUtils.percentile(values, 50), OrderStatistics.percentile(values.clone(), 50), 0);
+    for (int i = 0; i < values.length; i++) {
+      values[i] = -i;
+    }
+    assertEquals(StatUtils.percentile(values, 10), OrderStatistics.percentile(values.clone(), 10), 0);
+  }
+
+  @Test
+  public void testPercentileLeavesOutMissingValues() {
+    double[] values = {3, Double.NaN, 1, 2, Double.NaN};
+    assertEquals(2, NumericReduceUtils.percentile(values, 50), 0);
+    assertTrue(Double.isNaN(values[1]));
+    assertTrue(Double.isNaN(OrderStatistics.percentile(new double[] {Double.NaN}, 50)));
+
+    IntColumn column = IntColumn.create("ints");
+    column.add(IntColumn.MISSING_VALUE);
+    column.add(5);
+    column.add(1);
+    assertEquals(3, column.median(), 0);
+  }
+
+  @Test
+  public void testTopAndBottomRows() {
+    FloatColumn column = FloatColumn.create("floats");
+    for (int i = 0; i < 10_000; i++) {
+      column.add(i % 100 == 0 ? FloatColumn.MISSING_VALUE : random.nextInt(500));
+    }
+    Integer[] rows = new Integer[column.size() - column.countMissing()];
+    int count = 0;
+    for (int row = 0; row < column.size(); row++) {
+      if (!Float.isNaN(column.get(row))) {
+        rows[count++] = row;
+      }
+    }
+    // a stable sort, so rows with equal values stay in order
+    Arrays.sort(rows, (a, b) -> Float.compare(column.get(b), column.get(a)));
+    int[] top = column.topRows(100);
+    FloatArrayList topValues = column.top(100);
+    assertEquals(100, top.length);
+    for (int i = 0; i < top.length; i++) {
+      assertEquals(rows[i].intValue(), top[i]);
+      assertEquals(column.get(rows[i]), topValues.getFloat(i), 0);
+    }
+    Arrays.sort(rows, (a, b) -> Float.compare(column.get(a), column.get(b)));
+    int[] bottom = column.bottomRows(100);
+    for (int i = 0; i < bottom.length; i++) {
+      assertEquals(rows[i].intValue(), bottom[i]);
+    }
+    assertEquals(rows.length, column.topRows(20_000).length);
+    assertEquals(0, column.bottomRows(0).length);
+  }
+
+  @Test
+  public void testBottomLeavesOutMissingValues() {
+    IntColumn ints = IntColumn.create("ints");
+    DateColumn dates = DateColumn.create("dates");
+    for (int i = 0; i < 5; i++) {
+      ints.add(i == 2 ? IntColumn.MISSING_VALUE : 10 - i);
+      if (i == 2) {
+        dates.add(DateColumn.MISSING_VALUE);
+      } else {
+        dates.add(LocalDate.of(2016, 1, 1).plusDays(i));
+      }
+    }
+    assertArrayEquals(new int[] {4, 3, 1}, ints.bottomRows(3));
+    assertArrayEquals(new int[] {6, 7}, ints.bottom(2).toIntArray());
+    assertArrayEquals(new int[] {4, 3}, dates.topRows(2));
+    assertEquals(LocalDate.of(2016, 1, 1), dates.bottom(1).get(0));
+  }
+}
@@ -0,0 +1,55 @@
+package com.github.lwhite1.tablesaw.reducing;
+
+import com.github.lwhite1.tablesaw.api.FloatColumn;
+import com.github.lwhite1.tablesaw.api.IntColumn;
+import com.github.lwhite1.tablesaw.testutil.NanoBench;
+import org.apache.commons.math3.stat.StatUtils;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * Compares the reductions that read a column's values directly with copying them to a double array for commons-math
+ * <p>
+ * It only prints timings, so it is left out of the normal test run; remove the {@code @Ignore} to run it
+ */
+@Ignore("Benchmark")
+public class ReduceKernelsBenchmark {
+
+  private static final int ROWS = 5_000_000;
+
+  @Test
+  public void testFloatReductions() {
+    Random random = new Random(42);
+    FloatColumn column = FloatColumn.create("floats", ROWS);
+    for (int i = 0; i < ROWS; i++) {
+      column.add(random.nextFloat());
+    }
+    NanoBench.create().warmUps(3).measurements(10).cpuOnly()
+        .measure("StatUtils float sum", () -> StatUtils.sum(column.toDoubleArray()));
+    NanoBench.create().warmUps(3).measurements(10).cpuOnly()
+        .measure("Kernel float sum", () -> NumericReduceUtils.sum.reduce(column));
+    NanoBench.create().warmUps(3).measurements(10).cpuOnly()
+        .measure("StatUtils float variance", () -> StatUtils.variance(column.toDoubleArray()));
+    NanoBench.create().warmUps(3).measurements(10).cpuOnly()
+        .measure("Kernel float variance", () -> NumericReduceUtils.variance.reduce(column));
+  }
+
+  @Test
+  public void testIntReductions() {
+    Random random = new Random(42);
+    IntColumn column = IntColumn.create("ints", ROWS);
+    for (int i = 0; i < ROWS; i++) {
+      column.add(random.nextInt(1000));
+    }
+    NanoBench.create().warmUps(3).measurements(10).cpuOnly()
+        .measure("StatUtils int mean", () -> StatUtils.mean(column.toDoubleArray()));
+    NanoBench.create().warmUps(3).measurements(10).cpuOnly()
+        .measure("Kernel int mean", () -> NumericReduceUtils.mean.reduce(column));
+    NanoBench.create().warmUps(3).measurements(10).cpuOnly()
+        .measure("StatUtils int std. deviation", () -> Math.sqrt(StatUtils.variance(column.toDoubleArray())));
+    NanoBench.create().warmUps(3).measurements(10).cpuOnly()
+        .measure("Kernel int std. deviation", () -> NumericReduceUtils.stdDev.reduce(column));
+  }
+}
@@ -0,0 +1,159 @@
+package com.github.lwhite1.tablesaw.reducing;
+
+import com.github.lwhite1.tablesaw.api.FloatColumn;
+import com.github.lwhite1.tablesaw.api.IntColumn;
+import com.github.lwhite1.tablesaw.api.LongColumn;
+import com.github.lwhite1.tablesaw.api.ShortColumn;
+import com.github.lwhite1.tablesaw.api.Table;
+import com.github.lwhite1.tablesaw.table.TemporaryView;
+import com.github.lwhite1.tablesaw.util.BitmapBackedSelection;
+import com.github.lwhite1.tablesaw.util.Selection;
+import com.github.lwhite1.tablesaw.util.Stats;
+import org.apache.commons.math3.stat.StatUtils;
+import org.apache.commons.math3.stat.descriptive.moment.Kurtosis;
+import org.apache.commons.math3.stat.descriptive.moment.Skewness;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the reductions that read a column's values directly, against commons-math on the values that aren't
+ * missing
+ */
+public class ReduceKernelsTest {
+
+  // more than one batch, and a partial one at the end
+  private static final int ROWS = 10_000;
+
+  private final Random random = new Random(11);
+
+  @Test
+  public void testFloatColumn() {
+    FloatColumn column = FloatColumn.create("floats");
+    for (int i = 0; i < ROWS; i++) {
+      column.add(i % 9 == 0 ? FloatColumn.MISSING_VALUE : random.nextFloat() * 100 - 20);
+    }
+    assertSameReductions(ReduceKernels.toDoubleArray(column.data()), function -> function.reduce(column));
+    assertEquals(ROWS - (ROWS + 8) / 9, NumericReduceUtils.n.reduce(column), 0);
+  }
+
+  @Test
+  public void testIntColumn() {
+    IntColumn column = IntColumn.create("ints");
+    for (int i = 0; i < ROWS; i++) {
+      column.add(i % 7 == 0 ? IntColumn.MISSING_VALUE : random.nextInt(2000) - 1000);
+    }
+    assertSameReductions(ReduceKernels.toDoubleArray(column.data()), function -> function.reduce(column));
+    assertEquals(Math.round(StatUtils.sum(ReduceKernels.toDoubleArray(column.data()))), column.sum());
+    assertTrue(column.min() > IntColumn.MISSING_VALUE);
+  }
+
+  @Test
+  public void testShortColumn() {
+    ShortColumn column = ShortColumn.create("shorts");
+    for (int i = 0; i < ROWS; i++) {
+      column.add(i % 5 == 0 ? ShortColumn.MISSING_VALUE : (short) (random.nextInt(200) - 100));
+    }
+    assertSameReductions(ReduceKernels.toDoubleArray(column.data()), function -> function.reduce(column));
+  }
+
+  @Test
+  public void testLongColumn() {
+    LongColumn column = LongColumn.create("longs");
+    for (int i = 0; i < ROWS; i++) {
+      column.add(i % 3 == 0 ? LongColumn.MISSING_VALUE : 1_000_000_000_000L + random.nextInt(1_000_000));
+    }
+    assertSameReductions(ReduceKernels.toDoubleArray(column.data()), function -> function.reduce(column));
+  }
+
+  @Test
+  public void testEmptyAndMissingColumns() {
+    FloatColumn column = FloatColumn.create("floats");
+    assertEquals(0, column.sum(), 0);
+    assertTrue(Double.isNaN(column.mean()));
+    assertTrue(Double.isNaN(column.min()));
+    column.add(FloatColumn.MISSING_VALUE);
+    assertEquals(0, column.sum(), 0);
+    assertTrue(Double.isNaN(column.max()));
+    column.add(3.5f);
+    assertEquals(3.5, column.sum(), 0);
+    assertEquals(0, column.variance(), 0);
+  }
+
+  @Test
+  public void testParallelMoments() {
+    IntColumn column = IntColumn.create("ints");
+    for (int i = 0; i < 3_500_000; i++) {
+      column.add(i % 11 == 0 ? IntColumn.MISSING_VALUE : random.nextInt(1000));
+    }
+    Moments expected = ReduceKernels.moments(column.data(), true);
+    Moments actual = new ForkJoinPool(4).invoke(new RecursiveTask<Moments>() {
+      @Override
+      protected Moments compute() {
+        return ReduceKernels.moments(column.data(), true);
+      }
+    });
+    assertEquals(expected.count(), actual.count());
+    assertEquals(expected.sum(), actual.sum(), 0);
+    assertEquals(expected.variance(), actual.variance(), 1e-9 * expected.variance());
+    assertEquals(expected.kurtosis(), actual.kurtosis(), 1e-9);
+  }
+
+  @Test
+  public void testSelectedRows() {
+    FloatColumn floats = FloatColumn.create("floats");
+    IntColumn ints = IntColumn.create("ints");
+    Selection rows = new BitmapBackedSelection();
+    for (int i = 0; i < ROWS; i++) {
+      floats.add(i % 9 == 0 ? FloatColumn.MISSING_VALUE : random.nextFloat() * 100 - 20);
+      ints.add(i % 7 == 0 ? IntColumn.MISSING_VALUE : random.nextInt(2000) - 1000);
+      if (i < 5000 ? random.nextInt(4) == 0 : i >= 6000) {
+        rows.add(i);
+      }
+    }
+    FloatColumn selectedFloats = (FloatColumn) floats.subset(rows);
+    IntColumn selectedInts = (IntColumn) ints.subset(rows);
+    assertSameReductions(ReduceKernels.toDoubleArray(selectedFloats.data()), function -> function.reduce(floats, rows));
+    assertSameReductions(ReduceKernels.toDoubleArray(selectedInts.data()), function -> function.reduce(ints, rows));
+
+    Table table = Table.create("t", floats, ints);
+    TemporaryView view = new TemporaryView(table, rows);
+    assertEquals(selectedInts.mean(), view.reduce("ints", NumericReduceUtils.mean), 1e-9);
+    assertEquals(selectedFloats.median(), view.reduce("floats", NumericReduceUtils.median), 0);
+
+    Stats stats = Stats.create(ints, rows);
+    assertEquals(selectedInts.stats().n(), stats.n());
+    assertEquals(selectedInts.stats().variance(), stats.variance(), 1e-3);
+    assertEquals(selectedInts.stats().max(), stats.max(), 0);
+  }
+
+  private static void assertSameReductions(double[] values, ColumnReduction reduction) {
+    double scale = StatUtils.max(values) - StatUtils.min(values);
+    assertClose(StatUtils.sum(values), reduction.reduce(NumericReduceUtils.sum));
+    assertClose(StatUtils.mean(values), reduction.reduce(NumericReduceUtils.mean));
+    assertEquals(StatUtils.min(values), reduction.reduce(NumericReduceUtils.min), 0);
+    assertEquals(StatUtils.max(values), reduction.reduce(NumericReduceUtils.max), 0);
+    assertEquals(scale, reduction.reduce(NumericReduceUtils.range), 0);
+    assertEquals(values.length, reduction.reduce(NumericReduceUtils.n), 0);
+    assertClose(StatUtils.variance(values), reduction.reduce(NumericReduceUtils.variance));
+    assertClose(StatUtils.populationVariance(values), reduction.reduce(NumericReduceUtils.populationVariance));
+    assertClose(Math.sqrt(StatUtils.variance(values)), reduction.reduce(NumericReduceUtils.stdDev));
+    assertClose(StatUtils.sumSq(values), reduction.reduce(NumericReduceUtils.sumOfSquares));
+    assertEquals(new Skewness().evaluate(values), reduction.reduce(NumericReduceUtils.skewness), 1e-9);
+    assertEquals(new Kurtosis().evaluate(values), reduction.reduce(NumericReduceUtils.kurtosis), 1e-9);
+    assertClose(StatUtils.percentile(values, 50), reduction.reduce(NumericReduceUtils.median));
+  }
+
+  private static void assertClose(double expected, double actual) {
+    assertEquals(expected, actual, Math.abs(expected) * 1e-8);
+  }
+
+  private interface ColumnReduction {
+    double reduce(NumericReduceFunction function);
+  }
+}
@@ -0,0 +1,80 @@
+package com.github.lwhite1.tablesaw.reducing;
+
+import com.github.lwhite1.tablesaw.api.CategoryColumn;
+import com.github.lwhite1.tablesaw.api.ColumnType;
+import com.github.lwhite1.tablesaw.api.Table;
+import com.github.lwhite1.tablesaw.io.csv.CsvReader;
+import com.github.lwhite1.tablesaw.table.ViewGroup;
+import org.junit.Before;
+import org.junit.Test;
+
+import static com.github.lwhite1.tablesaw.reducing.NumericReduceUtils.max;
+import static com.github.lwhite1.tablesaw.reducing.NumericReduceUtils.mean;
+import static com.github.lwhite1.tablesaw.reducing.NumericReduceUtils.median;
+import static com.github.lwhite1.tablesaw.reducing.NumericReduceUtils.n;
+import static com.github.lwhite1.tablesaw.reducing.NumericReduceUtils.variance;
+import static org.junit.Assert.assertEquals;
+
+/**
+ *
+ */
+public class SummarizerTest {
+
+  private static ColumnType[] types = {
+      ColumnType.LOCAL_DATE,     // date of poll
+      ColumnType.INTEGER,        // approval rating (pct)
+      ColumnType.CATEGORY        // polling org
+  };
+
+  private Table table;
+
+  @Before
+  public void setUp() throws Exception {
+    table = CsvReader.read(types, "data/BushApproval.csv");
+    CategoryColumn month = table.dateColumn(0).month();
+    month.setName("month");
+    table.addColumn(month);
+  }
+
+  @Test
+  public void testManyReductions() {
+    NumericSummaryTable result = table.summarize("who")
+        .agg("approval", mean, max, n)
+        .agg("approval", variance)
+        .apply();
+    assertEquals(5, result.columnCount());
+    assertEquals(6, result.rowCount());
+    assertEquals("who", result.column(0).name());
+    assertEquals("Mean [approval]", result.column(1).name());
+    assertEquals("N [approval]", result.column(3).name());
+    assertMatchesGroupReduction(result, 1, mean, "who");
+    assertMatchesGroupReduction(result, 2, max, "who");
+    assertMatchesGroupReduction(result, 3, n, "who");
+    assertMatchesGroupReduction(result, 4, variance, "who");
+  }
+
+  @Test
+  public void testMixedWithUnmergeableReduction() {
+    NumericSummaryTable result = table.summarize("who", "month")
+        .agg("approval", mean, median, n)
+        .apply();
+    assertEquals(5, result.columnCount());
+    assertEquals("Median [approval]", result.column(3).name());
+    assertMatchesGroupReduction(result, 2, mean, "who", "month");
+    assertMatchesGroupReduction(result, 3, median, "who", "month");
+    assertMatchesGroupReduction(result, 4, n, "who", "month");
+  }
+
+  private void assertMatchesGroupReduction(Table result, int column, NumericReduceFunction function,
+                                           String... groupColumnNames) {
+    Table expected = ViewGroup.create(table, groupColumnNames).reduce("approval", function);
+    assertEquals(expected.rowCount(), result.rowCount());
+    for (int row = 0; row < expected.rowCount(); row++) {
+      for (int col = 0; col < groupColumnNames.length; col++) {
+        assertEquals(expected.get(col, row), result.get(col, row));
+      }
+      assertEquals(expected.floatColumn(groupColumnNames.length).get(row), result.floatColumn(column).get(row),
+          0.001);
+    }
+  }
+}
@@ -0,0 +1,154 @@
+package com.github.lwhite1.tablesaw.reducing.sketch;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that the sketches' estimates are within their stated error of the exact values, whether built in one piece
+ * or merged from parts
+ */
+public class SketchTest {
+
+  private static final int COUNT = 200_000;
+
+  private final Random random = new Random(5);
+
+  @Test
+  public void testQuantiles() {
+    double[] values = new double[COUNT];
+    QuantileSketch sketch = QuantileSketch.create();
+    for (int i = 0; i < COUNT; i++) {
+      values[i] = random.nextGaussian() * 10 + 50;
+      sketch.update(values[i]);
+    }
+    sketch.update(Double.NaN);
+    assertEquals(COUNT, sketch.count());
+    assertQuantiles(values, sketch);
+  }
+
+  @Test
+  public void testMergedQuantiles() {
+    double[] values = new double[COUNT];
+    QuantileSketch[] parts = new QuantileSketch[7];
+    for (int p = 0; p < parts.length; p++) {
+      parts[p] = QuantileSketch.create();
+    }
+    for (int i = 0; i < COUNT; i++) {
+      // the parts hold different ranges of values, and are of different sizes
+      values[i] = random.nextDouble() * 1000;
+      parts[(int) (values[i] * values[i]) % parts.length].update(values[i]);
+    }
+    QuantileSketch sketch = QuantileSketch.create();
+    for (QuantileSketch part : parts) {
+      sketch.merge(part);
+    }
+    assertEquals(COUNT, sketch.count());
+    assertQuantiles(values, sketch);
+  }
+
+  @Test
+  public void testSmallQuantileSketchIsExact() {
+    QuantileSketch sketch = QuantileSketch.create();
+    assertTrue(Double.isNaN(sketch.quantile(0.5)));
+    for (int i = 1; i <= 99; i++) {
+      sketch.update(i);
+    }
+    assertEquals(50, sketch.quantile(0.5), 0.0);
+    assertEquals(1, sketch.quantile(0), 0.0);
+    assertEquals(99, sketch.quantile(1), 0.0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMergeOfDifferentAccuracies() {
+    QuantileSketch.create(100).merge(QuantileSketch.create(200));
+  }
+
+  @Test
+  public void testDistinctCount() {
+    Set<Double> distinct = new HashSet<>();
+    DistinctCountSketch sketch = DistinctCountSketch.create();
+    DistinctCountSketch[] parts = {DistinctCountSketch.create(), DistinctCountSketch.create()};
+    for (int i = 0; i < COUNT; i++) {
+      double value = random.nextInt(COUNT / 2);
+      distinct.add(value);
+      sketch.update(value);
+      parts[i % 2].update(value);
+    }
+    assertEquals(1, sketch.estimate() / distinct.size(), 0.03);
+
+    DistinctCountSketch merged = DistinctCountSketch.create();
+    merged.merge(parts[0]);
+    merged.merge(parts[1]);
+    assertEquals(sketch.estimate(), merged.estimate(), 0.0);
+  }
+
+  @Test
+  public void testSmallDistinctCount() {
+    DistinctCountSketch sketch = DistinctCountSketch.create();
+    for (int i = 0; i < 1000; i++) {
+      sketch.update(i % 10);
+    }
+    sketch.update(-0.0);
+    sketch.update(Double.NaN);
+    assertEquals(10, sketch.estimate(), 0.1);
+  }
+
+  @Test
+  public void testSerialization() throws IOException {
+    QuantileSketch quantiles = QuantileSketch.create(50);
+    DistinctCountSketch distinct = DistinctCountSketch.create(10);
+    for (int i = 0; i < 10_000; i++) {
+      double value = random.nextInt(3000);
+      quantiles.update(value);
+      distinct.update(value);
+    }
+
+    QuantileSketch quantilesRead = (QuantileSketch) roundTrip(quantiles);
+    assertEquals(quantiles.accuracy(), quantilesRead.accuracy());
+    assertEquals(quantiles.count(), quantilesRead.count());
+    for (double fraction = 0; fraction <= 1; fraction += 0.125) {
+      assertEquals(quantiles.quantile(fraction), quantilesRead.quantile(fraction), 0.0);
+    }
+
+    DistinctCountSketch distinctRead = (DistinctCountSketch) roundTrip(distinct);
+    assertEquals(distinct.precision(), distinctRead.precision());
+    assertEquals(distinct.count(), distinctRead.count());
+    assertEquals(distinct.estimate(), distinctRead.estimate(), 0.0);
+  }
+
+  private static Sketch roundTrip(Sketch sketch) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      sketch.writeTo(out);
+    }
+    return Sketch.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+  }
+
+  /**
+   * Checks that the rank of each estimated quantile is within 2% of the count of the requested one
+   */
+  private static void assertQuantiles(double[] values, QuantileSketch sketch) {
+    double[] sorted = values.clone();
+    Arrays.sort(sorted);
+    for (double fraction : new double[] {0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99}) {
+      double estimate = sketch.quantile(fraction);
+      int rank = Arrays.binarySearch(sorted, estimate);
+      assertTrue(rank >= 0);
+      assertEquals("fraction " + fraction, fraction, (double) rank / sorted.length, 0.02);
+    }
+    assertEquals(sorted[0], sketch.quantile(0), 0.0);
+    assertEquals(sorted[sorted.length - 1], sketch.quantile(1), 0.0);
+  }
+}
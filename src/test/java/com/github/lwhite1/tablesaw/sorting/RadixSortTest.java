@@ -0,0 +1,144 @@
+package com.github.lwhite1.tablesaw.sorting;
+
+import com.github.lwhite1.tablesaw.api.BooleanColumn;
+import com.github.lwhite1.tablesaw.api.CategoryColumn;
+import com.github.lwhite1.tablesaw.api.DateColumn;
+import com.github.lwhite1.tablesaw.api.FloatColumn;
+import com.github.lwhite1.tablesaw.api.IntColumn;
+import com.github.lwhite1.tablesaw.api.LongColumn;
+import com.github.lwhite1.tablesaw.api.Table;
+import com.github.lwhite1.tablesaw.columns.packeddata.PackedLocalDate;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests radix sorting against a stable sort that compares the rows' values
+ */
+public class RadixSortTest {
+
+  private static final String[] CATEGORIES = {"pear", "apple", "fig", "", "banana", "Cherry"};
+
+  private final Random random = new Random(5);
+
+  private int minRowsPerWorker;
+
+  @Before
+  public void setUp() {
+    minRowsPerWorker = RadixSort.minRowsPerWorker;
+  }
+
+  @After
+  public void tearDown() {
+    RadixSort.minRowsPerWorker = minRowsPerWorker;
+  }
+
+  @Test
+  public void testSortedRows() {
+    for (int rowCount : new int[] {0, 1, 2, 100, 5000}) {
+      Table table = table(rowCount);
+      for (Sort.Order order : Sort.Order.values()) {
+        for (String first : new String[] {"int", "float", "category", "date", "long", "boolean"}) {
+          Sort key = Sort.on(first, order).next("int", Sort.Order.DESCEND).next("float", Sort.Order.ASCEND);
+          assertArrayEquals(expectedRows(table, key), RadixSort.sortedRows(table, key));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testSortedRowsInParallel() {
+    RadixSort.minRowsPerWorker = 100;
+    Table table = table(10_000);
+    Sort key = Sort.on("category", Sort.Order.ASCEND)
+        .next("date", Sort.Order.DESCEND)
+        .next("long", Sort.Order.ASCEND)
+        .next("float", Sort.Order.DESCEND);
+    assertArrayEquals(expectedRows(table, key), RadixSort.sortedRows(table, key));
+  }
+
+  @Test
+  public void testSortOn() {
+    Table table = table(1000);
+    Table sorted = table.sortOn(Sort.on("float", Sort.Order.DESCEND));
+    assertEquals(table.rowCount(), sorted.rowCount());
+    FloatColumn floats = sorted.floatColumn("float");
+    for (int row = 1; row < sorted.rowCount(); row++) {
+      assertTrue(Float.compare(floats.get(row - 1), floats.get(row)) >= 0);
+    }
+  }
+
+  @Test
+  public void testCanSort() {
+    Table table = table(10);
+    assertTrue(RadixSort.canSort(table, Sort.on("category", Sort.Order.ASCEND).next("date", Sort.Order.DESCEND)));
+  }
+
+  private Table table(int rowCount) {
+    IntColumn ints = IntColumn.create("int");
+    FloatColumn floats = FloatColumn.create("float");
+    CategoryColumn categories = CategoryColumn.create("category");
+    DateColumn dates = DateColumn.create("date");
+    LongColumn longs = LongColumn.create("long");
+    BooleanColumn booleans = BooleanColumn.create("boolean");
+    for (int row = 0; row < rowCount; row++) {
+      ints.add(random.nextInt(10) == 0 ? IntColumn.MISSING_VALUE : random.nextInt(21) - 10);
+      floats.add(random.nextInt(10) == 0 ? Float.NaN : random.nextInt(41) / 4f - 5);
+      categories.add(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+      dates.add(random.nextInt(10) == 0
+          ? DateColumn.MISSING_VALUE
+          : PackedLocalDate.pack(LocalDate.of(2016, 1, 1).plusDays(random.nextInt(60) - 30)));
+      longs.add(random.nextInt(10) == 0 ? LongColumn.MISSING_VALUE : random.nextLong() >> random.nextInt(64));
+      booleans.add(random.nextBoolean());
+    }
+    return Table.create("test", ints, floats, categories, dates, longs, booleans);
+  }
+
+  /**
+   * Returns the rows of the table sorted stably by comparing their values in each column of the key
+   */
+  private static int[] expectedRows(Table table, Sort key) {
+    Comparator<Integer> comparator = (a, b) -> 0;
+    for (Map.Entry<String, Sort.Order> entry : key) {
+      Comparator<Integer> column = columnComparator(table, entry.getKey());
+      comparator = comparator.thenComparing(entry.getValue() == Sort.Order.ASCEND ? column : column.reversed());
+    }
+    Integer[] rows = new Integer[table.rowCount()];
+    Arrays.setAll(rows, row -> row);
+    Arrays.sort(rows, comparator);
+    return Arrays.stream(rows).mapToInt(Integer::intValue).toArray();
+  }
+
+  private static Comparator<Integer> columnComparator(Table table, String columnName) {
+    switch (columnName) {
+      case "int":
+        IntColumn ints = table.intColumn(columnName);
+        return (a, b) -> Integer.compare(ints.get(a), ints.get(b));
+      case "float":
+        FloatColumn floats = table.floatColumn(columnName);
+        return (a, b) -> Float.compare(floats.get(a), floats.get(b));
+      case "category":
+        CategoryColumn categories = table.categoryColumn(columnName);
+        return (a, b) -> categories.getString(a).compareTo(categories.getString(b));
+      case "date":
+        DateColumn dates = table.dateColumn(columnName);
+        return (a, b) -> Integer.compare(dates.getInt(a), dates.getInt(b));
+      case "long":
+        LongColumn longs = table.longColumn(columnName);
+        return (a, b) -> Long.compare(longs.get(a), longs.get(b));
+      default:
+        BooleanColumn booleans = (BooleanColumn) table.column(columnName);
+        return (a, b) -> Byte.compare(booleans.getByte(a), booleans.getByte(b));
+    }
+  }
+}
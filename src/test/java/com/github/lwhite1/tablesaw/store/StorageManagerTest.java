@@ -1,24 +1,53 @@
 package com.github.lwhite1.tablesaw.store;
 
+import com.github.lwhite1.tablesaw.api.BooleanColumn;
 import com.github.lwhite1.tablesaw.api.CategoryColumn;
+import com.github.lwhite1.tablesaw.api.DateTimeColumn;
 import com.github.lwhite1.tablesaw.api.FloatColumn;
 import com.github.lwhite1.tablesaw.api.DateColumn;
+import com.github.lwhite1.tablesaw.api.IntColumn;
 import com.github.lwhite1.tablesaw.api.LongColumn;
+import com.github.lwhite1.tablesaw.api.ShortColumn;
 import com.github.lwhite1.tablesaw.api.Table;
+import com.github.lwhite1.tablesaw.api.TimeColumn;
+import com.github.lwhite1.tablesaw.columns.Column;
+import com.github.lwhite1.tablesaw.columns.packeddata.PackedLocalTime;
+import com.github.lwhite1.tablesaw.filtering.Filter;
+import com.github.lwhite1.tablesaw.index.IntIndex;
+import com.github.lwhite1.tablesaw.reducing.NumericReduceUtils;
+import com.github.lwhite1.tablesaw.reducing.sketch.Sketch;
 import com.github.lwhite1.tablesaw.table.Relation;
 import com.github.lwhite1.tablesaw.api.ColumnType;
+import com.github.lwhite1.tablesaw.io.csv.CsvBatchReader;
 import com.github.lwhite1.tablesaw.io.csv.CsvReader;
 import com.google.common.base.Stopwatch;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
 import java.util.concurrent.TimeUnit;
 
 import static com.github.lwhite1.tablesaw.api.ColumnType.*;
+import static com.github.lwhite1.tablesaw.api.QueryHelper.allOf;
+import static com.github.lwhite1.tablesaw.api.QueryHelper.anyOf;
+import static com.github.lwhite1.tablesaw.api.QueryHelper.column;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Tests for StorageManager
@@ -69,6 +98,16 @@ public class StorageManagerTest {
     t.sortOn("cat"); // exercise the column a bit
   }
 
+  @Test
+  public void testSaveSketch() throws IOException {
+    String path = StorageManager.saveTable("/tmp/sketches", table);
+    Sketch sketch = NumericReduceUtils.approximateMedian.sketch(floatColumn);
+    StorageManager.saveSketch(path, "float median", sketch);
+    Sketch read = StorageManager.readSketch(path, "float median");
+    assertEquals(COUNT, read.count());
+    assertEquals(2.0, NumericReduceUtils.approximateMedian.result(read), 0.0);
+  }
+
   @Test
   public void testWriteTableTwice() throws IOException {
 
@@ -84,6 +123,374 @@ public class StorageManagerTest {
     assertEquals(table.columnCount(), t.columnCount());
   }
 
+  @Test
+  public void testWriteTableSpanningManyPages() throws IOException {
+    Table big = Table.create("big");
+    int rowCount = 2 * PagedColumnWriter.PAGE_SIZE + 1_000 + 7;
+    Random random = new Random(0);
+    IntColumn sortedInts = IntColumn.create("sorted ints");
+    IntColumn ints = IntColumn.create("ints");
+    ShortColumn shorts = ShortColumn.create("shorts");
+    LongColumn sortedLongs = LongColumn.create("sorted longs");
+    LongColumn longs = LongColumn.create("longs");
+    FloatColumn floats = FloatColumn.create("floats");
+    DateColumn dates = DateColumn.create("dates");
+    TimeColumn times = TimeColumn.create("times");
+    DateTimeColumn dateTimes = DateTimeColumn.create("date times");
+    BooleanColumn booleans = BooleanColumn.create("booleans");
+    CategoryColumn categories = CategoryColumn.create("categories");
+    for (int i = 0; i < rowCount; i++) {
+      sortedInts.add(i / 3);
+      ints.add(i % 1000 == 0 ? IntColumn.MISSING_VALUE : random.nextInt(5000) - 2500);
+      shorts.add((short) random.nextInt(Short.MAX_VALUE));
+      sortedLongs.add(1_000_000_000_000L + i * 17L);
+      longs.add(i % 1000 == 0 ? Long.MIN_VALUE : random.nextLong());
+      floats.add(i % 1000 == 0 ? Float.NaN : random.nextFloat());
+      dates.add(LocalDate.of(2000, 1, 1).plusDays(random.nextInt(5000)));
+      times.add(PackedLocalTime.pack(LocalTime.ofSecondOfDay(random.nextInt(86_400))));
+      dateTimes.add(LocalDateTime.of(2016, 1, 1, 0, 0).plusSeconds(random.nextInt(1_000_000)));
+      booleans.add(i % 1000 == 0 ? BooleanColumn.MISSING_VALUE : (byte) random.nextInt(2));
+      categories.add("Category " + random.nextInt(100));
+    }
+    big.addColumn(sortedInts, ints, shorts, sortedLongs, longs, floats, dates, times, dateTimes, booleans,
+        categories);
+
+    StorageManager.saveTable("/tmp/paged", big);
+    Table t = StorageManager.readTable("/tmp/paged/big.saw");
+
+    assertEquals(big.columnCount(), t.columnCount());
+    assertEquals(big.rowCount(), t.rowCount());
+    for (int c = 0; c < big.columnCount(); c++) {
+      Column expected = big.column(c);
+      Column actual = t.column(c);
+      assertEquals(expected.name(), actual.name());
+      assertEquals(expected.type(), actual.type());
+      for (int r = 0; r < rowCount; r++) {
+        assertEquals(expected.getString(r), actual.getString(r));
+      }
+    }
+    for (int r = 0; r < rowCount; r++) {
+      assertEquals(sortedLongs.get(r), t.longColumn("sorted longs").get(r));
+      assertEquals(longs.get(r), t.longColumn("longs").get(r));
+      assertEquals(booleans.getByte(r), t.booleanColumn("booleans").getByte(r));
+    }
+  }
+
+  @Test
+  public void testTableReaderDecodesPagesConcurrently() throws IOException {
+    Table big = Table.create("chunked");
+    int rowCount = 3 * PagedColumnWriter.PAGE_SIZE + 11;
+    IntColumn ids = IntColumn.create("id");
+    CategoryColumn categories = CategoryColumn.create("category");
+    for (int i = 0; i < rowCount; i++) {
+      ids.add(i);
+      categories.add("Category " + (i % 7));
+    }
+    big.addColumn(ids, categories);
+    StorageManager.saveTable("/tmp/chunked", big);
+
+    TableReader reader = new TableReader("/tmp/chunked/chunked.saw", 3);
+    assertTrue(reader.columnTimings().isEmpty());
+    Table t = reader.read();
+    assertEquals(rowCount, t.rowCount());
+    for (int r = 0; r < rowCount; r++) {
+      assertEquals(ids.get(r), t.intColumn("id").get(r));
+      assertEquals(categories.get(r), t.categoryColumn("category").get(r));
+    }
+
+    List<ColumnTiming> timings = reader.columnTimings();
+    assertEquals(2, timings.size());
+    assertEquals("id", timings.get(0).getColumnName());
+    assertEquals(4, timings.get(0).getChunkCount());
+    // the dictionary is a chunk of its own
+    assertEquals(5, timings.get(1).getChunkCount());
+    for (ColumnTiming timing : timings) {
+      assertTrue(timing.getElapsedNanos() > 0);
+      assertTrue(timing.getDecodeNanos() > 0);
+    }
+  }
+
+  @Test
+  public void testSaveTableFromCsvBatches() throws IOException {
+    ColumnType[] types = {LOCAL_DATE, SHORT_INT, CATEGORY};
+    Table expected = CsvReader.read(types, "data/BushApproval.csv");
+    try (CsvBatchReader batches = CsvReader.readInBatches(types, true, ',', "data/BushApproval.csv", 50)) {
+      StorageManager.saveTable("/tmp/batches", batches);
+    }
+    Table t = StorageManager.readTable("/tmp/batches/BushApproval.csv.saw");
+    assertEquals(expected.columnNames(), t.columnNames());
+    assertSameRows(expected, t);
+  }
+
+  @Test
+  public void testSaveTableFromBatchesSpanningManyPages() throws IOException {
+    int rowCount = 2 * PagedColumnWriter.PAGE_SIZE + 123;
+    int batchSize = 50_000;
+    Table batch = Table.create("streamed");
+    IntColumn ids = IntColumn.create("id");
+    FloatColumn floats = FloatColumn.create("floats");
+    CategoryColumn categories = CategoryColumn.create("category");
+    batch.addColumn(ids, floats, categories);
+
+    Iterator<Table> batches = new Iterator<Table>() {
+      private int next = 0;
+
+      @Override
+      public boolean hasNext() {
+        return next < rowCount;
+      }
+
+      @Override
+      public Table next() {
+        batch.clear();
+        // each batch sees the categories in a different order, so gets different dictionary keys
+        for (int i = Math.min(next + batchSize, rowCount) - 1; i >= next; i--) {
+          ids.add(i);
+          floats.add(i / 2f);
+          categories.add("Category " + (i % 13));
+        }
+        next += batchSize;
+        return batch;
+      }
+    };
+    StorageManager.saveTable("/tmp/streamed", batches);
+
+    Table t = StorageManager.readTable("/tmp/streamed/streamed.saw");
+    assertEquals(rowCount, t.rowCount());
+    int r = 0;
+    for (int from = 0; from < rowCount; from += batchSize) {
+      for (int i = Math.min(from + batchSize, rowCount) - 1; i >= from; i--, r++) {
+        assertEquals(i, t.intColumn("id").get(r));
+        assertEquals(i / 2f, t.floatColumn("floats").get(r), 0f);
+        assertEquals("Category " + (i % 13), t.categoryColumn("category").get(r));
+      }
+    }
+    assertEquals(13, t.categoryColumn("category").dictionaryMap().size());
+  }
+
+  @Test
+  public void testReadVersion1Table() throws IOException {
+    Path folder = Paths.get("/tmp/version1/t.saw");
+    Files.createDirectories(folder);
+    StorageManager.writeColumn(folder.resolve(floatColumn.id()).toString(), floatColumn);
+    StorageManager.writeColumn(folder.resolve(localDateColumn.id()).toString(), localDateColumn);
+    StorageManager.writeColumn(folder.resolve(categoryColumn.id()).toString(), categoryColumn);
+    StorageManager.writeColumn(folder.resolve(longColumn.id()).toString(), longColumn);
+
+    // version 1 metadata has no version field
+    String json = new TableMetadata(table).toJson().replace("\"version\":2,", "");
+    Files.write(folder.resolve("Metadata.json"), json.getBytes(StandardCharsets.UTF_8));
+
+    Table t = StorageManager.readTable(folder.toString());
+    assertEquals(1, StorageManager.readTableMetadata(folder.resolve("Metadata.json").toString()).getVersion());
+    assertEquals(table.rowCount(), t.rowCount());
+    for (int i = 0; i < table.rowCount(); i++) {
+      assertEquals(categoryColumn.get(i), t.categoryColumn("cat").get(i));
+      assertEquals(longColumn.get(i), t.longColumn("long").get(i));
+      assertEquals(floatColumn.get(i), t.floatColumn("float").get(i), 0.0f);
+    }
+  }
+
+  @Test
+  public void testIndexesAreSavedWithTheTable() throws IOException {
+    IntColumn ints = IntColumn.create("ints");
+    Table indexed = Table.create("indexed", ints);
+    for (int i = 0; i < 1000; i++) {
+      ints.add(i % 10);
+    }
+    indexed.createIndex("ints");
+    StorageManager.saveTable("/tmp/indexed", indexed);
+    Path indexFile = Paths.get("/tmp/indexed/indexed.saw", ints.id() + ".idx");
+    assertTrue(Files.exists(indexFile));
+
+    Table t = StorageManager.readTable("/tmp/indexed/indexed.saw");
+    IntIndex index = (IntIndex) t.index("ints");
+    assertNotNull(index);
+    assertEquals(t.intColumn("ints").isEqualTo(3), index.get(3));
+    assertEquals(100, index.get(3).size());
+
+    indexed.dropIndex("ints");
+    StorageManager.saveTable("/tmp/indexed", indexed);
+    assertFalse(Files.exists(indexFile));
+    assertNull(StorageManager.readTable("/tmp/indexed/indexed.saw").index("ints"));
+  }
+
+  @Test
+  public void testOpenTableLoadsColumnsLazily() throws IOException {
+    StorageManager.saveTable("/tmp/mapped", table);
+    MappedTable mapped = StorageManager.openTable("/tmp/mapped/t.saw");
+    assertEquals(table.rowCount(), mapped.rowCount());
+    assertEquals(table.columnNames(), mapped.columnNames());
+    assertFalse(mapped.isLoaded("cat"));
+
+    Table t = mapped.table("cat", "long");
+    assertTrue(mapped.isLoaded("cat"));
+    assertFalse(mapped.isLoaded("float"));
+    assertEquals(2, t.columnCount());
+    for (int i = 0; i < table.rowCount(); i++) {
+      assertEquals(categoryColumn.get(i), t.categoryColumn("cat").get(i));
+      assertEquals(longColumn.get(i), t.longColumn("long").get(i));
+    }
+    assertSame(mapped.column("cat"), t.column("cat"));
+    assertEquals(1, mapped.footer("float").getPages().size());
+    assertFalse(mapped.isLoaded("float"));
+  }
+
+  @Test
+  public void testSelectWhereSkipsPagesOutsideTheFilter() throws IOException {
+    Table big = Table.create("pushdown");
+    int rowCount = 3 * PagedColumnWriter.PAGE_SIZE;
+    IntColumn ids = IntColumn.create("id");
+    FloatColumn values = FloatColumn.create("value");
+    CategoryColumn halves = CategoryColumn.create("half");
+    for (int i = 0; i < rowCount; i++) {
+      ids.add(i);
+      values.add(i / 10f);
+      halves.add(i < PagedColumnWriter.PAGE_SIZE ? "first" : "second");
+    }
+    big.addColumn(ids, values, halves);
+    StorageManager.saveTable("/tmp/pushdown", big);
+    MappedTable mapped = StorageManager.openTable("/tmp/pushdown/pushdown.saw");
+
+    Filter between = column("id").isBetween(PagedColumnWriter.PAGE_SIZE + 10, PagedColumnWriter.PAGE_SIZE + 20);
+    assertArrayEquals(new boolean[] {false, true, false}, new PagePruner(mapped).pagesToRead(between));
+    Table t = mapped.selectWhere(between, "value");
+    assertEquals(1, t.columnCount());
+    assertEquals(9, t.rowCount());
+    assertFalse(mapped.isLoaded("id"));
+    assertFalse(mapped.isLoaded("value"));
+    assertSameRows(big.selectWhere(between), t);
+
+    Filter second = column("half").isEqualTo("second");
+    assertArrayEquals(new boolean[] {false, true, true}, new PagePruner(mapped).pagesToRead(second));
+    assertSameRows(big.selectWhere(second), mapped.selectWhere(second, "id", "half"));
+
+    Filter missing = column("half").isEqualTo("third");
+    assertArrayEquals(new boolean[] {false, false, false}, new PagePruner(mapped).pagesToRead(missing));
+    assertEquals(0, mapped.selectWhere(missing).rowCount());
+
+    Filter either = anyOf(column("value").isLessThan(10f), column("id").isGreaterThan(rowCount - 5));
+    assertArrayEquals(new boolean[] {true, false, true}, new PagePruner(mapped).pagesToRead(either));
+    assertSameRows(big.selectWhere(either), mapped.selectWhere(either));
+
+    Filter both = allOf(column("id").isGreaterThanOrEqualTo(100), column("half").isEqualTo("first"));
+    assertArrayEquals(new boolean[] {true, false, false}, new PagePruner(mapped).pagesToRead(both));
+    assertSameRows(big.selectWhere(both), mapped.selectWhere(both, "id", "value", "half"));
+
+    // filters the pages can't rule out still work, against every row
+    Filter unprunable = column("value").isNotMissing();
+    assertSameRows(big.selectWhere(unprunable), mapped.selectWhere(unprunable));
+  }
+
+  @Test
+  public void testSelectWhereSkipsPagesOutsideADateRange() throws IOException {
+    Table big = Table.create("dates");
+    int rowCount = 4 * PagedColumnWriter.PAGE_SIZE;
+    LocalDate start = LocalDate.of(2000, 1, 1);
+    DateColumn dates = DateColumn.create("date");
+    IntColumn ids = IntColumn.create("id");
+    for (int i = 0; i < rowCount - 1; i++) {
+      dates.add(start.plusDays(i / 1000));
+      ids.add(i);
+    }
+    dates.add(DateColumn.MISSING_VALUE);
+    ids.add(rowCount - 1);
+    big.addColumn(dates, ids);
+    StorageManager.saveTable("/tmp/dates", big);
+    MappedTable mapped = StorageManager.openTable("/tmp/dates/dates.saw");
+    assertEquals(start.toEpochDay(), mapped.footer("date").getPages().get(0).getMin());
+
+    Filter after = column("date").isAfter(start.plusDays(250));
+    assertArrayEquals(new boolean[] {false, false, false, true}, new PagePruner(mapped).pagesToRead(after));
+    assertSameRows(big.selectWhere(after), mapped.selectWhere(after));
+
+    Filter between = column("date").isBetween(start.plusDays(100), start.plusDays(110));
+    assertArrayEquals(new boolean[] {false, true, false, false}, new PagePruner(mapped).pagesToRead(between));
+    assertSameRows(big.selectWhere(between), mapped.selectWhere(between, "id"));
+
+    // a missing date compares as before any other, so the last page is read for it
+    Filter before = column("date").isBefore(start.plusDays(10));
+    assertArrayEquals(new boolean[] {true, false, false, true}, new PagePruner(mapped).pagesToRead(before));
+    assertSameRows(big.selectWhere(before), mapped.selectWhere(before));
+  }
+
+  @Test
+  public void testReadsFilesMappedInSegments() throws IOException {
+    Table big = Table.create("segments");
+    IntColumn ids = IntColumn.create("id");
+    LongColumn longs = LongColumn.create("long");
+    CategoryColumn categories = CategoryColumn.create("category");
+    Random random = new Random(0);
+    for (int i = 0; i < 2 * PagedColumnWriter.PAGE_SIZE + 10; i++) {
+      ids.add(i);
+      longs.add(random.nextLong());
+      categories.add("category " + random.nextInt(500));
+    }
+    big.addColumn(ids, longs, categories);
+    StorageManager.saveTable("/tmp/segments", big);
+
+    // small enough that pages, the dictionary and the footer run from one segment into the next
+    int segmentBytes = MappedColumnFile.segmentBytes;
+    MappedColumnFile.segmentBytes = 1000;
+    try {
+      assertSameRows(big, StorageManager.readTable("/tmp/segments/segments.saw"));
+      MappedTable mapped = StorageManager.openTable("/tmp/segments/segments.saw");
+      Filter filter = allOf(column("id").isGreaterThan(PagedColumnWriter.PAGE_SIZE),
+          column("category").isEqualTo("category 7"));
+      assertSameRows(big.selectWhere(filter), mapped.selectWhere(filter));
+    } finally {
+      MappedColumnFile.segmentBytes = segmentBytes;
+    }
+  }
+
+  @Test
+  public void testMissingValuesDontWidenPages() throws IOException {
+    Table withMissing = Table.create("missing");
+    IntColumn ints = IntColumn.create("ints");
+    ShortColumn shorts = ShortColumn.create("shorts");
+    LongColumn longs = LongColumn.create("longs");
+    Random random = new Random(0);
+    for (int i = 0; i < PagedColumnWriter.PAGE_SIZE; i++) {
+      ints.add(i == 100 ? IntColumn.MISSING_VALUE : random.nextInt(1000));
+      shorts.add(i == 100 ? ShortColumn.MISSING_VALUE : (short) random.nextInt(1000));
+      longs.add(i == 100 ? LongColumn.MISSING_VALUE : 1_000_000_000_000L + random.nextInt(1000));
+    }
+    withMissing.addColumn(ints, shorts, longs);
+    StorageManager.saveTable("/tmp/missing", withMissing);
+    MappedTable mapped = StorageManager.openTable("/tmp/missing/missing.saw");
+
+    for (String name : new String[] {"ints", "shorts", "longs"}) {
+      PageMetadata page = mapped.footer(name).getPages().get(0);
+      assertEquals(PageEncoding.FRAME_OF_REFERENCE, page.getEncoding());
+      assertEquals(1, page.getMissingCount());
+      assertTrue(page.getMin() >= 0);
+      // about ten bits a value, where the missing value would otherwise take 32 or 64
+      assertTrue(page.getLength() < 2 * PagedColumnWriter.PAGE_SIZE);
+    }
+
+    Table t = StorageManager.readTable("/tmp/missing/missing.saw");
+    for (int r = 0; r < withMissing.rowCount(); r++) {
+      assertEquals(ints.get(r), t.intColumn("ints").get(r));
+      assertEquals(shorts.get(r), t.shortColumn("shorts").get(r));
+      assertEquals(longs.get(r), t.longColumn("longs").get(r));
+    }
+
+    // a missing int is less than any other, so the page can't be ruled out by its range alone
+    assertArrayEquals(new boolean[] {true}, new PagePruner(mapped).pagesToRead(column("ints").isLessThan(0)));
+    assertArrayEquals(new boolean[] {false}, new PagePruner(mapped).pagesToRead(column("ints").isGreaterThan(999)));
+  }
+
+  private static void assertSameRows(Table expected, Table actual) {
+    assertEquals(expected.rowCount(), actual.rowCount());
+    for (int c = 0; c < actual.columnCount(); c++) {
+      Column actualColumn = actual.column(c);
+      Column expectedColumn = expected.column(actualColumn.name());
+      for (int r = 0; r < actual.rowCount(); r++) {
+        assertEquals(expectedColumn.getString(r), actualColumn.getString(r));
+      }
+    }
+  }
+
   @Test
   public void testSeparator() {
     assertNotNull(StorageManager.separator());
@@ -0,0 +1,52 @@
+package com.github.lwhite1.tablesaw.util;
+
+import com.github.lwhite1.tablesaw.api.FloatColumn;
+import com.github.lwhite1.tablesaw.api.IntColumn;
+import com.github.lwhite1.tablesaw.columns.FloatColumnUtils;
+import com.github.lwhite1.tablesaw.columns.IntColumnUtils;
+import com.github.lwhite1.tablesaw.testutil.NanoBench;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * Compares the comparison kernels with the per-row predicate selection they replaced, at a few selectivities
+ * <p>
+ * It only prints timings, so it is left out of the normal test run; remove the {@code @Ignore} to run it
+ */
+@Ignore("Benchmark")
+public class SelectionKernelsBenchmark {
+
+  private static final int ROWS = 5_000_000;
+
+  @Test
+  public void testIntComparisons() {
+    Random random = new Random(42);
+    IntColumn column = IntColumn.create("ints", ROWS);
+    for (int i = 0; i < ROWS; i++) {
+      column.add(random.nextInt(1000));
+    }
+    for (int value : new int[]{10, 500, 990}) {
+      NanoBench.create().warmUps(3).measurements(10).cpuOnly()
+          .measure("Predicate int < " + value, () -> column.select(IntColumnUtils.isLessThan, value));
+      NanoBench.create().warmUps(3).measurements(10).cpuOnly()
+          .measure("Kernel int < " + value, () -> column.isLessThan(value));
+    }
+  }
+
+  @Test
+  public void testFloatComparisons() {
+    Random random = new Random(42);
+    FloatColumn column = FloatColumn.create("floats", ROWS);
+    for (int i = 0; i < ROWS; i++) {
+      column.add(random.nextFloat());
+    }
+    for (float value : new float[]{0.01f, 0.5f, 0.99f}) {
+      NanoBench.create().warmUps(3).measurements(10).cpuOnly()
+          .measure("Predicate float > " + value, () -> column.select(FloatColumnUtils.isGreaterThan, value));
+      NanoBench.create().warmUps(3).measurements(10).cpuOnly()
+          .measure("Kernel float > " + value, () -> column.isGreaterThan(value));
+    }
+  }
+}
@@ -0,0 +1,95 @@
+package com.github.lwhite1.tablesaw.util;
+
+import com.github.lwhite1.tablesaw.api.FloatColumn;
+import com.github.lwhite1.tablesaw.api.IntColumn;
+import com.github.lwhite1.tablesaw.api.LongColumn;
+import com.github.lwhite1.tablesaw.api.ShortColumn;
+import com.github.lwhite1.tablesaw.columns.FloatColumnUtils;
+import com.github.lwhite1.tablesaw.columns.IntColumnUtils;
+import com.github.lwhite1.tablesaw.columns.LongColumnUtils;
+import com.github.lwhite1.tablesaw.columns.ShortColumnUtils;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+
+/**
+ * Checks that the comparison kernels select the same rows as the predicates they replace
+ */
+public class SelectionKernelsTest {
+
+  // spans more than one bitmap container, and ends part way through a word
+  private static final int SIZE = 150_001;
+
+  private final Random random = new Random(42);
+
+  @Test
+  public void testIntComparisons() {
+    IntColumn column = IntColumn.create("ints");
+    for (int i = 0; i < SIZE; i++) {
+      column.add(i % 7 == 0 ? IntColumn.MISSING_VALUE : random.nextInt(21) - 10);
+    }
+    for (int value : new int[]{Integer.MIN_VALUE, -10, 0, 3, 11, Integer.MAX_VALUE}) {
+      assertSameRows(column.select(IntColumnUtils.isLessThan, value), column.isLessThan(value));
+      assertSameRows(column.select(IntColumnUtils.isLessThanOrEqualTo, value), column.isLessThanOrEqualTo(value));
+      assertSameRows(column.select(IntColumnUtils.isEqualTo, value), column.isEqualTo(value));
+      assertSameRows(column.select(IntColumnUtils.isGreaterThanOrEqualTo, value), column.isGreaterThanOrEqualTo(value));
+      assertSameRows(column.select(IntColumnUtils.isGreaterThan, value), column.isGreaterThan(value));
+    }
+    assertSameRows(column.select(IntColumnUtils.isMissing), column.isMissing());
+    assertSameRows(column.select(IntColumnUtils.isPositive), column.isPositive());
+  }
+
+  @Test
+  public void testShortComparisons() {
+    ShortColumn column = ShortColumn.create("shorts");
+    for (int i = 0; i < SIZE; i++) {
+      column.add(i % 7 == 0 ? ShortColumn.MISSING_VALUE : (short) (random.nextInt(21) - 10));
+    }
+    for (int value : new int[]{Integer.MIN_VALUE, Short.MIN_VALUE, -1, 0, 10, Short.MAX_VALUE, 40_000}) {
+      assertSameRows(column.select(ShortColumnUtils.isLessThan, value), column.isLessThan(value));
+      assertSameRows(column.select(ShortColumnUtils.isLessThanOrEqualTo, value), column.isLessThanOrEqualTo(value));
+      assertSameRows(column.select(ShortColumnUtils.isEqualTo, value), column.isEqualTo(value));
+      assertSameRows(column.select(ShortColumnUtils.isGreaterThanOrEqualTo, value),
+          column.isGreaterThanOrEqualTo(value));
+      assertSameRows(column.select(ShortColumnUtils.isGreaterThan, value), column.isGreaterThan(value));
+    }
+  }
+
+  @Test
+  public void testLongComparisons() {
+    LongColumn column = LongColumn.create("longs");
+    for (int i = 0; i < SIZE; i++) {
+      column.add(i % 7 == 0 ? LongColumn.MISSING_VALUE : random.nextInt(21) - 10);
+    }
+    for (long value : new long[]{Long.MIN_VALUE, -10, 0, 3, Long.MAX_VALUE}) {
+      assertSameRows(column.select(LongColumnUtils.isLessThan, value), column.isLessThan(value));
+      assertSameRows(column.select(LongColumnUtils.isEqualTo, value), column.isEqualTo(value));
+    }
+    assertSameRows(column.select(LongColumnUtils.isGreaterThan, 3), column.isGreaterThan(3));
+    assertSameRows(column.select(LongColumnUtils.isLessThanOrEqualTo, -2), column.isLessThanOrEqualTo(-2));
+  }
+
+  @Test
+  public void testFloatComparisons() {
+    FloatColumn column = FloatColumn.create("floats");
+    float[] specials = {Float.NaN, -0f, Float.NEGATIVE_INFINITY, Float.POSITIVE_INFINITY};
+    for (int i = 0; i < SIZE; i++) {
+      column.add(i % 7 == 0 ? specials[random.nextInt(specials.length)] : (random.nextInt(21) - 10) / 4f);
+    }
+    float[] values = {Float.NaN, 0f, -0f, 1.25f, -2f, Float.NEGATIVE_INFINITY, Float.POSITIVE_INFINITY};
+    for (float value : values) {
+      assertSameRows(column.select(FloatColumnUtils.isLessThan, value), column.isLessThan(value));
+      assertSameRows(column.select(FloatColumnUtils.isLessThanOrEqualTo, value), column.isLessThanOrEqualTo(value));
+      assertSameRows(column.select(FloatColumnUtils.isEqualTo, value), column.isEqualTo(value));
+      assertSameRows(column.select(FloatColumnUtils.isGreaterThanOrEqualTo, value),
+          column.isGreaterThanOrEqualTo(value));
+      assertSameRows(column.select(FloatColumnUtils.isGreaterThan, value), column.isGreaterThan(value));
+    }
+  }
+
+  private static void assertSameRows(Selection expected, Selection actual) {
+    assertArrayEquals(expected.toArray(), actual.toArray());
+  }
+}
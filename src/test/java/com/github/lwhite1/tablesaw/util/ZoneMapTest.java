@@ -0,0 +1,155 @@
+package com.github.lwhite1.tablesaw.util;
+
+import com.github.lwhite1.tablesaw.api.FloatColumn;
+import com.github.lwhite1.tablesaw.api.IntColumn;
+import com.github.lwhite1.tablesaw.columns.FloatColumnUtils;
+import com.github.lwhite1.tablesaw.columns.IntColumnUtils;
+import it.unimi.dsi.fastutil.floats.FloatArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static com.github.lwhite1.tablesaw.util.ZoneMap.BLOCK_ROWS;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the zone maps, and for the selections that use them
+ */
+public class ZoneMapTest {
+
+  private final Random random = new Random(7);
+
+  @Test
+  public void testBlockStatistics() {
+    IntArrayList data = new IntArrayList();
+    for (int i = 0; i < BLOCK_ROWS; i++) {
+      data.add(i);
+    }
+    for (int i = 0; i < 100; i++) {
+      data.add(i % 3 == 0 ? IntColumn.MISSING_VALUE : 50 - i);
+    }
+    LongZoneMap zones = new LongZoneMap(IntColumn.MISSING_VALUE).update(data);
+    assertEquals(2, zones.blockCount());
+    assertEquals(0, zones.min(0));
+    assertEquals(BLOCK_ROWS - 1, zones.max(0));
+    assertTrue(zones.isSorted(0));
+    assertEquals(0, zones.missingCount(0));
+    assertEquals(IntColumn.MISSING_VALUE, zones.min(1));
+    assertEquals(49, zones.max(1));
+    assertFalse(zones.isSorted(1));
+    assertEquals(34, zones.missingCount(1));
+
+    assertEquals(ZoneMap.Match.NONE, zones.match(0, BLOCK_ROWS, Long.MAX_VALUE));
+    assertEquals(ZoneMap.Match.ALL, zones.match(0, -1, BLOCK_ROWS));
+    assertEquals(ZoneMap.Match.SORTED, zones.match(0, 10, 20));
+    assertEquals(ZoneMap.Match.SOME, zones.match(1, 10, 20));
+
+    // changes are picked up at the next update
+    data.set(10, -5);
+    zones.invalidate(10);
+    data.add(1000);
+    zones.update(data);
+    assertEquals(-5, zones.min(0));
+    assertFalse(zones.isSorted(0));
+    assertEquals(1000, zones.max(1));
+
+    data.size(BLOCK_ROWS);
+    zones.update(data);
+    assertEquals(1, zones.blockCount());
+  }
+
+  @Test
+  public void testFloatBlockStatistics() {
+    FloatArrayList data = new FloatArrayList();
+    for (int i = 0; i < BLOCK_ROWS; i++) {
+      data.add(Float.NaN);
+    }
+    for (int i = 0; i < 10; i++) {
+      data.add(i / 2f);
+    }
+    FloatZoneMap zones = new FloatZoneMap().update(data);
+    assertEquals(BLOCK_ROWS, zones.missingCount(0));
+    assertEquals(ZoneMap.Match.NONE, zones.match(0, Float.NEGATIVE_INFINITY, Float.POSITIVE_INFINITY));
+    assertEquals(ZoneMap.Match.ALL, zones.match(1, 0, 4.5f));
+    assertEquals(ZoneMap.Match.SORTED, zones.match(1, 1, 2));
+    assertEquals(ZoneMap.Match.NONE, zones.match(1, Float.NaN, Float.NaN));
+  }
+
+  @Test
+  public void testIntSelectionsWithZoneMaps() {
+    IntColumn column = IntColumn.create("ints");
+    for (int i = 0; i < 5 * BLOCK_ROWS + 123; i++) {
+      switch ((i / BLOCK_ROWS) % 4) {
+        case 0:
+          // sorted, with runs of equal values
+          column.add(i / 7);
+          break;
+        case 1:
+          column.add(42);
+          break;
+        case 2:
+          column.add(random.nextInt(100) - 50);
+          break;
+        default:
+          column.add(i % 50 == 0 ? IntColumn.MISSING_VALUE : i);
+      }
+    }
+    assertSameSelections(column);
+
+    for (int i = 0; i < 20; i++) {
+      column.set(random.nextInt(column.size()), random.nextInt(1_000_000) - 500_000);
+    }
+    for (int i = 0; i < 1000; i++) {
+      column.add(i);
+    }
+    assertSameSelections(column);
+
+    column.sortDescending();
+    assertSameSelections(column);
+  }
+
+  @Test
+  public void testFloatSelectionsWithZoneMaps() {
+    FloatColumn column = FloatColumn.create("floats");
+    for (int i = 0; i < 4 * BLOCK_ROWS + 99; i++) {
+      switch ((i / BLOCK_ROWS) % 4) {
+        case 0:
+          column.add(i / 8f - 1000);
+          break;
+        case 1:
+          column.add(i % 100 == 0 ? Float.NaN : 2.5f);
+          break;
+        case 2:
+          column.add(random.nextInt(41) / 4f - 5);
+          break;
+        default:
+          column.add(i % 2 == 0 ? -0f : 0f);
+      }
+    }
+    float[] values = {Float.NaN, -0f, 0f, 2.5f, -1000f, 1.25f, 7000f, Float.NEGATIVE_INFINITY, Float.POSITIVE_INFINITY};
+    for (float value : values) {
+      assertSameRows(column.select(FloatColumnUtils.isLessThan, value), column.isLessThan(value));
+      assertSameRows(column.select(FloatColumnUtils.isEqualTo, value), column.isEqualTo(value));
+      assertSameRows(column.select(FloatColumnUtils.isGreaterThanOrEqualTo, value),
+          column.isGreaterThanOrEqualTo(value));
+    }
+  }
+
+  private static void assertSameSelections(IntColumn column) {
+    int[] values = {Integer.MIN_VALUE, -500, 0, 42, 43, 1000, 4000, 200_000, 300_000, Integer.MAX_VALUE};
+    for (int value : values) {
+      assertSameRows(column.select(IntColumnUtils.isLessThan, value), column.isLessThan(value));
+      assertSameRows(column.select(IntColumnUtils.isEqualTo, value), column.isEqualTo(value));
+      assertSameRows(column.select(IntColumnUtils.isGreaterThanOrEqualTo, value), column.isGreaterThanOrEqualTo(value));
+    }
+    assertSameRows(column.select(IntColumnUtils.isMissing), column.isMissing());
+  }
+
+  private static void assertSameRows(Selection expected, Selection actual) {
+    assertArrayEquals(expected.toArray(), actual.toArray());
+  }
+}